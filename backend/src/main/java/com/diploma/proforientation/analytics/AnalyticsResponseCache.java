@@ -0,0 +1,78 @@
+package com.diploma.proforientation.analytics;
+
+import com.diploma.proforientation.model.view.QuizFunnelOverviewEntity;
+import com.diploma.proforientation.repository.view.QuizFunnelOverviewRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of computed admin analytics responses, keyed by response
+ * kind, quiz, version and date range. An entry remembers the version's
+ * submitted-attempt count it was computed at and is recomputed once the
+ * current count (a primary-key read of the funnel rollup) differs by at least
+ * {@code analytics.cache.submitted-delta}, or after {@code analytics.cache.ttl}.
+ * Staleness is bounded by both, so no cross-node invalidation is needed.
+ */
+@Component
+public class AnalyticsResponseCache {
+
+    public static final String KIND_OVERVIEW = "overview";
+    public static final String KIND_DETAILED = "detailed";
+
+    private static final int MAX_ENTRIES = 1_000;
+
+    private final QuizFunnelOverviewRepository funnelRepo;
+    private final int submittedDelta;
+    private final Cache<Key, Entry> cache;
+
+    public AnalyticsResponseCache(QuizFunnelOverviewRepository funnelRepo,
+                                  @Value("${analytics.cache.ttl:PT5M}") Duration ttl,
+                                  @Value("${analytics.cache.submitted-delta:10}") int submittedDelta) {
+        this.funnelRepo = funnelRepo;
+        this.submittedDelta = Math.max(1, submittedDelta);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(MAX_ENTRIES)
+                .build();
+    }
+
+    /**
+     * Returns the cached response or computes and caches a new one. The count
+     * is read before computing, so a response never claims to be fresher
+     * than the data it was built from.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String kind,
+                     Integer quizId,
+                     Integer quizVersionId,
+                     LocalDate from,
+                     LocalDate to,
+                     Supplier<T> loader) {
+        Key key = new Key(kind, quizId, quizVersionId, from, to);
+        int submitted = currentSubmitted(quizId, quizVersionId);
+
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && Math.abs(submitted - cached.submitted()) < submittedDelta) {
+            return (T) cached.value();
+        }
+
+        T value = loader.get();
+        cache.put(key, new Entry(value, submitted));
+        return value;
+    }
+
+    private int currentSubmitted(Integer quizId, Integer quizVersionId) {
+        QuizFunnelOverviewEntity funnel = funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
+        return funnel != null && funnel.getAttemptsCompleted() != null ? funnel.getAttemptsCompleted() : 0;
+    }
+
+    private record Key(String kind, Integer quizId, Integer quizVersionId, LocalDate from, LocalDate to) {}
+
+    private record Entry(Object value, int submitted) {}
+}
@@ -0,0 +1,111 @@
+package com.diploma.proforientation.analytics;
+
+import org.HdrHistogram.Histogram;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+/**
+ * Mergeable summary of submitted attempts: an HdrHistogram of durations in
+ * milliseconds (two significant digits, so percentiles are within 1%) and
+ * HyperLogLog counters of distinct users and guests. Instances are not
+ * thread-safe; callers confine or lock them.
+ */
+public final class AttemptSketch {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final int SECONDS_SCALE = 1;
+
+    private final Histogram durations;
+    private final HyperLogLog users;
+    private final HyperLogLog guests;
+
+    public AttemptSketch() {
+        this(new Histogram(SIGNIFICANT_DIGITS), new HyperLogLog(), new HyperLogLog());
+    }
+
+    private AttemptSketch(Histogram durations, HyperLogLog users, HyperLogLog guests) {
+        this.durations = durations;
+        this.users = users;
+        this.guests = guests;
+    }
+
+    public void record(long durationMillis, Integer userId, String guestToken) {
+        durations.recordValue(Math.max(0, durationMillis));
+        if (userId != null) {
+            users.offer(userId.toString());
+        } else if (guestToken != null) {
+            guests.offer(guestToken);
+        }
+    }
+
+    public void merge(AttemptSketch other) {
+        durations.add(other.durations);
+        users.merge(other.users);
+        guests.merge(other.guests);
+    }
+
+    public long attempts() {
+        return durations.getTotalCount();
+    }
+
+    /** Duration at the given percentile (0–100) in seconds, or null without attempts. */
+    public BigDecimal durationPercentileSeconds(double percentile) {
+        if (durations.getTotalCount() == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(durations.getValueAtPercentile(percentile))
+                .movePointLeft(3)
+                .setScale(SECONDS_SCALE, RoundingMode.HALF_UP);
+    }
+
+    public long distinctUsers() {
+        return users.estimate();
+    }
+
+    public long distinctGuests() {
+        return guests.estimate();
+    }
+
+    public byte[] durationBytes() {
+        ByteBuffer buf = ByteBuffer.allocate(durations.getNeededByteBufferCapacity());
+        int length = durations.encodeIntoCompressedByteBuffer(buf);
+        byte[] bytes = new byte[length];
+        buf.flip();
+        buf.get(bytes);
+        return bytes;
+    }
+
+    public byte[] usersBytes() {
+        return users.isEmpty() ? null : users.toBytes();
+    }
+
+    public byte[] guestsBytes() {
+        return guests.isEmpty() ? null : guests.toBytes();
+    }
+
+    public static AttemptSketch fromBytes(byte[] durationBytes, byte[] usersBytes, byte[] guestsBytes) {
+        return new AttemptSketch(
+                decodeDurations(durationBytes),
+                HyperLogLog.fromBytes(usersBytes),
+                HyperLogLog.fromBytes(guestsBytes)
+        );
+    }
+
+    private static Histogram decodeDurations(byte[] bytes) {
+        Histogram histogram;
+        if (bytes == null || bytes.length == 0) {
+            histogram = new Histogram(SIGNIFICANT_DIGITS);
+        } else {
+            try {
+                histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("Corrupt duration histogram", e);
+            }
+        }
+        histogram.setAutoResize(true);
+        return histogram;
+    }
+}
@@ -0,0 +1,37 @@
+package com.diploma.proforientation.analytics;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Per-version, per-day {@link AttemptSketch}es of submitted attempts, stored
+ * in {@code quiz_version_sketches}.
+ */
+public interface AttemptSketches {
+
+    /**
+     * Records a first submit once the surrounding transaction commits, or
+     * right away without one. Days are bucketed by the attempt's start, like
+     * the activity rollups.
+     */
+    void attemptSubmitted(Integer quizVersionId,
+                          Instant startedAt,
+                          Instant submittedAt,
+                          Integer userId,
+                          String guestToken);
+
+    /** Merges recorded submits into the stored sketches. */
+    void flush();
+
+    /**
+     * Builds the stored sketches of versions that still have attempts from
+     * before sketches existed.
+     */
+    void backfill();
+
+    /**
+     * Merges the stored sketches of a quiz, of one version if
+     * {@code quizVersionId} is given, within an optional day range.
+     */
+    AttemptSketch load(Integer quizId, Integer quizVersionId, LocalDate from, LocalDate to);
+}
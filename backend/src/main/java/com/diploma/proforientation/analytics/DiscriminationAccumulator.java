@@ -0,0 +1,206 @@
+package com.diploma.proforientation.analytics;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the upper-lower (27%) discrimination index of every question of
+ * one quiz version.
+ * <p>
+ * Usage is staged: register every submitted attempt with its total trait
+ * score, call {@link #rankAttempts()}, then feed the answers in any order
+ * and collect {@link #results(Map)}. Attempts are bucketed exactly like
+ * {@code percent_rank()} in the former SQL view: percent rank ≤ 0.27 is the
+ * bottom group, ≥ 0.73 the top group, ties share a rank. Answers are
+ * consumed in a single pass into per-question sums, so memory depends on
+ * the number of attempts and questions, not answers.
+ */
+public final class DiscriminationAccumulator {
+
+    public static final double BOTTOM_PERCENT_RANK = 0.27;
+    public static final double TOP_PERCENT_RANK = 0.73;
+    public static final int MIN_SAMPLE = 30;
+
+    public static final String QUALITY_LOW_SAMPLE = "low_sample";
+    public static final String QUALITY_NO_SCALE_RANGE = "no_scale_range";
+    public static final String QUALITY_MISSING_BUCKET_DATA = "missing_bucket_data";
+    public static final String QUALITY_REVERSE = "reverse_discrimination";
+    public static final String QUALITY_WEAK = "weak";
+    public static final String QUALITY_OK = "ok";
+    public static final String QUALITY_GOOD = "good";
+
+    private static final double WEAK_BELOW = 0.15;
+    private static final double OK_BELOW = 0.30;
+    private static final int NORM_SCALE = 6;
+
+    private int[] attemptIds = new int[256];
+    private double[] totals = new double[256];
+    private int attempts;
+
+    /** attempt id → true for the top group, false for the bottom group; middle attempts are absent */
+    private Map<Integer, Boolean> buckets;
+    private final Map<Integer, QuestionSums> questions = new HashMap<>();
+
+    public void addAttempt(int attemptId, double totalScore) {
+        if (buckets != null) {
+            throw new IllegalStateException("Attempts are already ranked");
+        }
+        if (attempts == attemptIds.length) {
+            attemptIds = Arrays.copyOf(attemptIds, attempts * 2);
+            totals = Arrays.copyOf(totals, attempts * 2);
+        }
+        attemptIds[attempts] = attemptId;
+        totals[attempts] = totalScore;
+        attempts++;
+    }
+
+    public void rankAttempts() {
+        double[] sorted = Arrays.copyOf(totals, attempts);
+        Arrays.sort(sorted);
+
+        buckets = new HashMap<>();
+        for (int i = 0; i < attempts; i++) {
+            double pr = attempts == 1 ? 0 : (double) countBelow(sorted, totals[i]) / (attempts - 1);
+            if (pr <= BOTTOM_PERCENT_RANK) {
+                buckets.put(attemptIds[i], Boolean.FALSE);
+            } else if (pr >= TOP_PERCENT_RANK) {
+                buckets.put(attemptIds[i], Boolean.TRUE);
+            }
+        }
+    }
+
+    public int attemptsSubmitted() {
+        return attempts;
+    }
+
+    /**
+     * Adds one answer. Answers of middle-group or unknown attempts are ignored.
+     */
+    public void accept(int attemptId, int questionId, int chosenOrd) {
+        if (buckets == null) {
+            throw new IllegalStateException("Attempts are not ranked yet");
+        }
+        Boolean top = buckets.get(attemptId);
+        if (top == null) {
+            return;
+        }
+        QuestionSums sums = questions.computeIfAbsent(questionId, id -> new QuestionSums());
+        if (top) {
+            sums.topCount++;
+            sums.topSum += chosenOrd;
+        } else {
+            sums.bottomCount++;
+            sums.bottomSum += chosenOrd;
+        }
+    }
+
+    /**
+     * @param ordRanges question id → {min option ord, max option ord};
+     *                  questions without a range are skipped
+     */
+    public List<Result> results(Map<Integer, int[]> ordRanges) {
+        List<Result> results = new ArrayList<>(questions.size());
+        questions.forEach((questionId, sums) -> {
+            int[] range = ordRanges.get(questionId);
+            if (range != null) {
+                results.add(result(questionId, sums, range[0], range[1]));
+            }
+        });
+        return results;
+    }
+
+    private Result result(int questionId, QuestionSums sums, int minOrd, int maxOrd) {
+        BigDecimal topAvg = average(sums.topSum, sums.topCount);
+        BigDecimal bottomAvg = average(sums.bottomSum, sums.bottomCount);
+        int range = maxOrd - minOrd;
+
+        BigDecimal raw = null;
+        BigDecimal norm = null;
+        String quality;
+
+        if (topAvg != null && bottomAvg != null) {
+            raw = topAvg.subtract(bottomAvg);
+        }
+        if (raw != null && range != 0) {
+            norm = raw.divide(BigDecimal.valueOf(range), MathContext.DECIMAL64);
+        }
+
+        if (attempts < MIN_SAMPLE) {
+            quality = QUALITY_LOW_SAMPLE;
+        } else if (range == 0) {
+            quality = QUALITY_NO_SCALE_RANGE;
+        } else if (norm == null) {
+            quality = QUALITY_MISSING_BUCKET_DATA;
+        } else if (norm.signum() < 0) {
+            quality = QUALITY_REVERSE;
+        } else if (norm.doubleValue() < WEAK_BELOW) {
+            quality = QUALITY_WEAK;
+        } else if (norm.doubleValue() < OK_BELOW) {
+            quality = QUALITY_OK;
+        } else {
+            quality = QUALITY_GOOD;
+        }
+
+        return new Result(
+                questionId,
+                minOrd,
+                maxOrd,
+                attempts,
+                sums.topCount,
+                sums.bottomCount,
+                topAvg,
+                bottomAvg,
+                raw,
+                norm != null ? norm.setScale(NORM_SCALE, RoundingMode.HALF_UP) : null,
+                quality
+        );
+    }
+
+    private static BigDecimal average(long sum, int count) {
+        return count == 0
+                ? null
+                : BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+    }
+
+    /** Number of values strictly below {@code value}, i.e. its rank − 1. */
+    private static int countBelow(double[] sorted, double value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class QuestionSums {
+        private int topCount;
+        private int bottomCount;
+        private long topSum;
+        private long bottomSum;
+    }
+
+    public record Result(
+            int questionId,
+            int minOrd,
+            int maxOrd,
+            int attemptsSubmitted,
+            int answersTop,
+            int answersBottom,
+            BigDecimal topAvgOrd,
+            BigDecimal bottomAvgOrd,
+            BigDecimal discRaw,
+            BigDecimal discNorm,
+            String discQuality
+    ) {}
+}
@@ -0,0 +1,31 @@
+package com.diploma.proforientation.analytics;
+
+import java.time.Instant;
+
+/**
+ * In-memory counters of attempt starts and submits per quiz version and day,
+ * flushed to the activity rollups in periodic batches.
+ */
+public interface LiveActivityCounters {
+
+    /**
+     * Counts a new attempt once the current transaction commits. Must be
+     * called before the attempt row is inserted.
+     */
+    void attemptStarted(Integer quizVersionId, Instant startedAt);
+
+    /**
+     * Counts the first submit of an attempt once the current transaction
+     * commits. Must be called before the submit is written.
+     */
+    void attemptSubmitted(Integer quizVersionId, Instant startedAt, Instant submittedAt);
+
+    /** Writes the pending deltas to the database. */
+    void flush();
+
+    /**
+     * Recomputes the recent rollup rows from the attempts and writes the
+     * difference, repairing deltas that were lost before a flush.
+     */
+    void reconcile();
+}
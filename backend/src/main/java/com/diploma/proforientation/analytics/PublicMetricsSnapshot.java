@@ -0,0 +1,29 @@
+package com.diploma.proforientation.analytics;
+
+import com.diploma.proforientation.dto.QuizMetricsFilter;
+import com.diploma.proforientation.dto.QuizPublicMetricsDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory snapshot of {@code v_quiz_public_metrics} for the anonymous
+ * public metrics endpoints.
+ */
+public interface PublicMetricsSnapshot {
+
+    /** Whether a snapshot has been loaded; until then callers read the database. */
+    boolean isReady();
+
+    /**
+     * Metrics matching the filter (all of them for a null filter), ordered by
+     * quiz id. Empty when the snapshot is not ready.
+     */
+    Optional<List<QuizPublicMetricsDto>> find(QuizMetricsFilter filter);
+
+    /** Metrics of one quiz; empty if the quiz has none or the snapshot is not ready. */
+    Optional<QuizPublicMetricsDto> get(Integer quizId);
+
+    /** Reloads the snapshot if it is older than the data it was built from. */
+    void refreshIfStale();
+}
@@ -0,0 +1,261 @@
+package com.diploma.proforientation.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes per-trait internal consistency of one quiz version: Cronbach's
+ * alpha, corrected item-total correlations and alpha if an item is deleted.
+ * <p>
+ * The items of a trait are the questions that have at least one option
+ * weighted on it; an item's score in an attempt is the sum of the weights
+ * of the chosen options (0 if none of them is weighted on the trait).
+ * Answers must arrive grouped by attempt. Each finished attempt is folded
+ * into Welford-style running means and co-moments of every item and of the
+ * trait total, so memory is a few primitive arrays per trait sized by the
+ * number of items, independent of the number of attempts and answers.
+ * <p>
+ * Item-total covariances are enough for the rest-score statistics:
+ * {@code var(X−x) = var(X) + var(x) − 2·cov(x, X)} and
+ * {@code cov(x, X−x) = cov(x, X) − var(x)}, so no item covariance matrix is
+ * kept.
+ */
+public final class ReliabilityAccumulator {
+
+    public static final int MIN_SAMPLE = DiscriminationAccumulator.MIN_SAMPLE;
+
+    public static final String QUALITY_LOW_SAMPLE = "low_sample";
+    public static final String QUALITY_TOO_FEW_ITEMS = "too_few_items";
+    public static final String QUALITY_NO_VARIANCE = "no_variance";
+    public static final String QUALITY_UNACCEPTABLE = "unacceptable";
+    public static final String QUALITY_POOR = "poor";
+    public static final String QUALITY_QUESTIONABLE = "questionable";
+    public static final String QUALITY_ACCEPTABLE = "acceptable";
+    public static final String QUALITY_GOOD = "good";
+    public static final String QUALITY_EXCELLENT = "excellent";
+
+    private static final int SCALE = 6;
+    private static final double EPSILON = 1e-12;
+
+    private final Map<Integer, TraitSums> traits = new HashMap<>();
+    /** question id → the traits it is an item of, with its index in each */
+    private final Map<Integer, List<int[]>> itemsByQuestion = new HashMap<>();
+
+    private int currentAttempt;
+    private boolean attemptOpen;
+    private int attempts;
+
+    /**
+     * @param itemsByTrait trait id → question ids of its items
+     */
+    public ReliabilityAccumulator(Map<Integer, List<Integer>> itemsByTrait) {
+        itemsByTrait.forEach((traitId, questionIds) -> {
+            int[] ids = questionIds.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+            traits.put(traitId, new TraitSums(ids));
+            for (int i = 0; i < ids.length; i++) {
+                itemsByQuestion.computeIfAbsent(ids[i], q -> new ArrayList<>()).add(new int[]{traitId, i});
+            }
+        });
+    }
+
+    /**
+     * Adds one weighted answer. Answers of an attempt must be consecutive;
+     * the first answer of a new attempt completes the previous one. Answers
+     * without a trait (null) still count the attempt.
+     */
+    public void accept(int attemptId, int questionId, Integer traitId, double weight) {
+        if (!attemptOpen || attemptId != currentAttempt) {
+            completeAttempt();
+            currentAttempt = attemptId;
+            attemptOpen = true;
+        }
+        if (traitId == null) {
+            return;
+        }
+        TraitSums sums = traits.get(traitId);
+        if (sums == null) {
+            return;
+        }
+        for (int[] item : itemsByQuestion.getOrDefault(questionId, List.of())) {
+            if (item[0] == traitId) {
+                sums.current[item[1]] += weight;
+            }
+        }
+    }
+
+    public int attempts() {
+        completeAttempt();
+        return attempts;
+    }
+
+    public List<TraitResult> results() {
+        completeAttempt();
+        List<TraitResult> results = new ArrayList<>(traits.size());
+        traits.forEach((traitId, sums) -> results.add(result(traitId, sums)));
+        return results;
+    }
+
+    private void completeAttempt() {
+        if (!attemptOpen) {
+            return;
+        }
+        attemptOpen = false;
+        attempts++;
+        for (TraitSums sums : traits.values()) {
+            sums.add();
+        }
+    }
+
+    private TraitResult result(int traitId, TraitSums s) {
+        int k = s.questionIds.length;
+        long n = s.n;
+
+        double varTotal = n > 1 ? s.m2Total / (n - 1) : 0;
+        double sumItemVar = 0;
+        double[] itemVar = new double[k];
+        double[] itemTotalCov = new double[k];
+        for (int i = 0; i < k; i++) {
+            itemVar[i] = n > 1 ? s.m2[i] / (n - 1) : 0;
+            itemTotalCov[i] = n > 1 ? s.cTotal[i] / (n - 1) : 0;
+            sumItemVar += itemVar[i];
+        }
+
+        Double alpha = alpha(k, sumItemVar, varTotal);
+
+        List<ItemResult> items = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            double varRest = varTotal + itemVar[i] - 2 * itemTotalCov[i];
+            double covRest = itemTotalCov[i] - itemVar[i];
+
+            Double correlation = null;
+            if (n > 1 && itemVar[i] > EPSILON && varRest > EPSILON) {
+                correlation = clamp(covRest / Math.sqrt(itemVar[i] * varRest));
+            }
+            Double alphaIfDeleted = n > 1 ? alpha(k - 1, sumItemVar - itemVar[i], varRest) : null;
+
+            items.add(new ItemResult(
+                    s.questionIds[i],
+                    n > 0 ? decimal(s.mean[i]) : null,
+                    n > 1 ? decimal(itemVar[i]) : null,
+                    decimal(correlation),
+                    decimal(alphaIfDeleted)
+            ));
+        }
+
+        String quality;
+        if (n < MIN_SAMPLE) {
+            quality = QUALITY_LOW_SAMPLE;
+        } else if (k < 2) {
+            quality = QUALITY_TOO_FEW_ITEMS;
+        } else if (alpha == null) {
+            quality = QUALITY_NO_VARIANCE;
+        } else if (alpha < 0.5) {
+            quality = QUALITY_UNACCEPTABLE;
+        } else if (alpha < 0.6) {
+            quality = QUALITY_POOR;
+        } else if (alpha < 0.7) {
+            quality = QUALITY_QUESTIONABLE;
+        } else if (alpha < 0.8) {
+            quality = QUALITY_ACCEPTABLE;
+        } else if (alpha < 0.9) {
+            quality = QUALITY_GOOD;
+        } else {
+            quality = QUALITY_EXCELLENT;
+        }
+
+        return new TraitResult(
+                traitId,
+                (int) n,
+                k,
+                n > 0 ? decimal(s.meanTotal) : null,
+                n > 1 ? decimal(varTotal) : null,
+                decimal(alpha),
+                quality,
+                items
+        );
+    }
+
+    /** {@code k/(k−1) · (1 − Σ var(item) / var(total))}; null when undefined. */
+    private static Double alpha(int k, double sumItemVar, double varTotal) {
+        if (k < 2 || varTotal <= EPSILON) {
+            return null;
+        }
+        return (double) k / (k - 1) * (1 - sumItemVar / varTotal);
+    }
+
+    private static double clamp(double correlation) {
+        return Math.max(-1, Math.min(1, correlation));
+    }
+
+    private static BigDecimal decimal(Double value) {
+        return value == null || value.isNaN() || value.isInfinite()
+                ? null
+                : BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static final class TraitSums {
+        private final int[] questionIds;
+        private final double[] current;
+        private final double[] mean;
+        private final double[] m2;
+        /** co-moment of each item with the trait total */
+        private final double[] cTotal;
+        private double meanTotal;
+        private double m2Total;
+        private long n;
+
+        private TraitSums(int[] questionIds) {
+            int k = questionIds.length;
+            this.questionIds = questionIds;
+            this.current = new double[k];
+            this.mean = new double[k];
+            this.m2 = new double[k];
+            this.cTotal = new double[k];
+        }
+
+        /** Folds the current attempt into the running moments and clears it. */
+        private void add() {
+            double total = 0;
+            for (double x : current) {
+                total += x;
+            }
+            n++;
+            double dTotal = total - meanTotal;
+            meanTotal += dTotal / n;
+            double dTotalNew = total - meanTotal;
+            m2Total += dTotal * dTotalNew;
+
+            for (int i = 0; i < current.length; i++) {
+                double d = current[i] - mean[i];
+                mean[i] += d / n;
+                m2[i] += d * (current[i] - mean[i]);
+                cTotal[i] += d * dTotalNew;
+            }
+            Arrays.fill(current, 0);
+        }
+    }
+
+    public record TraitResult(
+            int traitId,
+            int attemptsSubmitted,
+            int items,
+            BigDecimal totalMean,
+            BigDecimal totalVariance,
+            BigDecimal alpha,
+            String alphaQuality,
+            List<ItemResult> itemResults
+    ) {}
+
+    public record ItemResult(
+            int questionId,
+            BigDecimal itemMean,
+            BigDecimal itemVariance,
+            BigDecimal itemTotalCorrelation,
+            BigDecimal alphaIfDeleted
+    ) {}
+}
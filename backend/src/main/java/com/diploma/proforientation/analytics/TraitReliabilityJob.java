@@ -0,0 +1,22 @@
+package com.diploma.proforientation.analytics;
+
+/**
+ * Background computation of stored per-trait reliability (Cronbach's alpha
+ * and item statistics) per quiz version.
+ */
+public interface TraitReliabilityJob {
+
+    /**
+     * Recomputes every version whose submitted-attempt count changed since
+     * the last run or whose stored values are older than the max age.
+     */
+    void refreshStale();
+
+    /**
+     * Recomputes one version and replaces its stored values.
+     *
+     * @return false if the version does not exist or another node is
+     *         computing it right now
+     */
+    boolean refresh(Integer quizVersionId);
+}
@@ -0,0 +1,279 @@
+package com.diploma.proforientation.analytics.impl;
+
+import com.diploma.proforientation.analytics.AttemptSketch;
+import com.diploma.proforientation.analytics.AttemptSketches;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@link AttemptSketch}es of first submits in memory per quiz version
+ * and day and periodically merges them into {@code quiz_version_sketches}
+ * (read, merge, write under a row lock, so nodes can flush concurrently).
+ * Sketches of a failed flush are put back; unflushed ones are lost when a
+ * node crashes, like the live activity counters.
+ * <p>
+ * Sketches only grow: later deletes or moves of attempts are not subtracted.
+ * Versions with attempts from before V27 are summarized once by
+ * {@link #backfill()}.
+ */
+@Slf4j
+@Component
+public class AttemptSketchesImpl implements AttemptSketches {
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int LOCK_NAMESPACE = 36_001;
+
+    private static final String SQL_ENSURE_ROW = """
+            INSERT INTO quiz_version_sketches (quiz_version_id, day, quiz_id)
+            SELECT qv.id, ?, qv.quiz_id
+            FROM quiz_versions qv
+            WHERE qv.id = ?
+            ON CONFLICT (quiz_version_id, day) DO NOTHING
+            """;
+
+    private static final String SQL_LOCK_ROW = """
+            SELECT duration_hist, users_hll, guests_hll
+            FROM quiz_version_sketches
+            WHERE quiz_version_id = ? AND day = ?
+            FOR UPDATE
+            """;
+
+    private static final String SQL_UPDATE_ROW = """
+            UPDATE quiz_version_sketches
+            SET duration_hist = ?, users_hll = ?, guests_hll = ?, updated_at = now()
+            WHERE quiz_version_id = ? AND day = ?
+            """;
+
+    private static final String SQL_LOAD = """
+            SELECT duration_hist, users_hll, guests_hll
+            FROM quiz_version_sketches
+            WHERE quiz_id = ?
+            """;
+
+    private static final String SQL_BACKFILL_PENDING =
+            "SELECT quiz_version_id FROM quiz_sketch_backfill ORDER BY quiz_version_id";
+
+    private static final String SQL_TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    private static final String SQL_BACKFILL_CUTOFF =
+            "SELECT cutoff FROM quiz_sketch_backfill WHERE quiz_version_id = ?";
+
+    private static final String SQL_BACKFILL_ATTEMPTS = """
+            SELECT started_at, submitted_at, user_id, guest_token
+            FROM attempts
+            WHERE quiz_version_id = ?
+              AND submitted_at IS NOT NULL
+              AND submitted_at < ?
+            """;
+
+    private static final String SQL_BACKFILL_DONE =
+            "DELETE FROM quiz_sketch_backfill WHERE quiz_version_id = ?";
+
+    private static final Comparator<Key> KEY_ORDER =
+            Comparator.comparing(Key::quizVersionId).thenComparing(Key::day);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Map<Key, AttemptSketch> cells = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    public AttemptSketchesImpl(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${analytics.sketches.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void attemptSubmitted(Integer quizVersionId,
+                                 Instant startedAt,
+                                 Instant submittedAt,
+                                 Integer userId,
+                                 String guestToken) {
+        if (!enabled) {
+            return;
+        }
+        Key key = new Key(quizVersionId, LocalDate.ofInstant(startedAt, zone));
+        long millis = Duration.between(startedAt, submittedAt).toMillis();
+        Runnable record = () -> cells.compute(key, (k, sketch) -> {
+            AttemptSketch s = sketch != null ? sketch : new AttemptSketch();
+            s.record(millis, userId, guestToken);
+            return s;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${analytics.sketches.flush-interval:PT30S}",
+            fixedDelayString = "${analytics.sketches.flush-interval:PT30S}"
+    )
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Key, AttemptSketch> drained = drain();
+            if (drained.isEmpty()) {
+                return;
+            }
+            try {
+                tx.executeWithoutResult(status -> drained.forEach(this::mergeIntoRow));
+            } catch (RuntimeException e) {
+                log.warn("Attempt sketch flush failed, retrying with the next flush: {}", e.getMessage());
+                drained.forEach(this::restore);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${analytics.sketches.backfill-delay:PT1M}",
+            fixedDelayString = "${analytics.sketches.backfill-interval:PT15M}"
+    )
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        for (Integer versionId : jdbcTemplate.queryForList(SQL_BACKFILL_PENDING, Integer.class)) {
+            try {
+                tx.executeWithoutResult(status -> backfillVersion(versionId));
+            } catch (RuntimeException e) {
+                log.warn("Attempt sketch backfill failed for quiz version {}: {}", versionId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public AttemptSketch load(Integer quizId, Integer quizVersionId, LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder(SQL_LOAD);
+        List<Object> args = new ArrayList<>();
+        args.add(quizId);
+        if (quizVersionId != null) {
+            sql.append("  AND quiz_version_id = ?\n");
+            args.add(quizVersionId);
+        }
+        if (from != null) {
+            sql.append("  AND day >= ?\n");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append("  AND day <= ?\n");
+            args.add(to);
+        }
+
+        AttemptSketch merged = new AttemptSketch();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            merged.merge(AttemptSketch.fromBytes(rs.getBytes(1), rs.getBytes(2), rs.getBytes(3)));
+        }, args.toArray());
+        return merged;
+    }
+
+    private void backfillVersion(Integer quizVersionId) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                SQL_TRY_LOCK, Boolean.class, LOCK_NAMESPACE, quizVersionId))) {
+            return;
+        }
+        List<Timestamp> cutoff = jdbcTemplate.queryForList(SQL_BACKFILL_CUTOFF, Timestamp.class, quizVersionId);
+        if (cutoff.isEmpty()) {
+            return; // done by another node meanwhile
+        }
+
+        Map<Key, AttemptSketch> sketches = new TreeMap<>(KEY_ORDER);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_BACKFILL_ATTEMPTS);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setInt(1, quizVersionId);
+            ps.setTimestamp(2, cutoff.getFirst());
+            return ps;
+        }, rs -> {
+            Instant startedAt = rs.getTimestamp(1).toInstant();
+            Instant submittedAt = rs.getTimestamp(2).toInstant();
+            int userId = rs.getInt(3);
+            Integer user = rs.wasNull() ? null : userId;
+
+            Key key = new Key(quizVersionId, LocalDate.ofInstant(startedAt, zone));
+            sketches.computeIfAbsent(key, k -> new AttemptSketch())
+                    .record(Duration.between(startedAt, submittedAt).toMillis(), user, rs.getString(4));
+        });
+
+        sketches.forEach(this::mergeIntoRow);
+        jdbcTemplate.update(SQL_BACKFILL_DONE, quizVersionId);
+    }
+
+    private Map<Key, AttemptSketch> drain() {
+        Map<Key, AttemptSketch> drained = new TreeMap<>(KEY_ORDER);
+        for (Key key : cells.keySet()) {
+            // remove is atomic with the compute in attemptSubmitted, so no record is lost
+            AttemptSketch sketch = cells.remove(key);
+            if (sketch != null) {
+                drained.put(key, sketch);
+            }
+        }
+        return drained;
+    }
+
+    /** Rows are locked in key order, so concurrent flushes cannot deadlock. */
+    private void mergeIntoRow(Key key, AttemptSketch delta) {
+        jdbcTemplate.update(SQL_ENSURE_ROW, key.day(), key.quizVersionId());
+
+        List<AttemptSketch> stored = jdbcTemplate.query(SQL_LOCK_ROW,
+                (rs, i) -> AttemptSketch.fromBytes(rs.getBytes(1), rs.getBytes(2), rs.getBytes(3)),
+                key.quizVersionId(), key.day());
+        if (stored.isEmpty()) {
+            return; // the version was deleted
+        }
+
+        AttemptSketch merged = stored.getFirst();
+        merged.merge(delta);
+        jdbcTemplate.update(SQL_UPDATE_ROW,
+                merged.durationBytes(), merged.usersBytes(), merged.guestsBytes(),
+                key.quizVersionId(), key.day());
+    }
+
+    private void restore(Key key, AttemptSketch sketch) {
+        cells.merge(key, sketch, (current, failed) -> {
+            current.merge(failed);
+            return current;
+        });
+    }
+
+    private record Key(Integer quizVersionId, LocalDate day) {}
+}
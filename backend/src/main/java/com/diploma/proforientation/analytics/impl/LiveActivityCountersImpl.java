@@ -0,0 +1,338 @@
+package com.diploma.proforientation.analytics.impl;
+
+import com.diploma.proforientation.analytics.LiveActivityCounters;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts attempt starts and first submits in striped {@link LongAdder}s per
+ * quiz version and day, so the request path only increments memory after
+ * commit. A scheduled flush drains the adders and upserts the deltas into
+ * {@code quiz_version_funnel} and {@code quiz_activity_daily} in one batch.
+ * <p>
+ * Counted transactions are marked with the {@code analytics.live_counters}
+ * setting so the attempts trigger does not count them a second time (see
+ * V26). Deltas of a failed flush are put back, but deltas not yet flushed
+ * when a node crashes or is killed are lost for good, so the rollups fall
+ * behind the attempts by every such loss.
+ * <p>
+ * A scheduled reconciliation repairs that: it recomputes the day rows of the
+ * last {@code reconcile-days} (and of older days with recent submits) from
+ * {@code attempts} and adds the difference to the day and version rows. Keys
+ * with a start or submit newer than {@code reconcile-settle} are skipped,
+ * since their deltas may still sit unflushed on some replica; the settle time
+ * must stay well above the flush interval. The rollups are therefore exact
+ * for settled days and may lag by the unflushed and lost deltas of recent
+ * activity until it settles. Losses on days older than the window, reached
+ * only by late submits, are not repaired. Days are bucketed in the JVM time
+ * zone, which is also the time zone of the backend's database sessions.
+ */
+@Slf4j
+@Component
+public class LiveActivityCountersImpl implements LiveActivityCounters {
+
+    /** Cells of older days are dropped once idle; late submits recreate them. */
+    private static final int IDLE_DAYS = 2;
+    private static final int MICROS_SCALE = 6;
+    private static final int LOCK_NAMESPACE = 35_001;
+
+    private static final String SQL_MARK_LIVE = "SELECT set_config('analytics.live_counters', 'on', true)";
+
+    private static final String SQL_ADD_FUNNEL = """
+            INSERT INTO quiz_version_funnel AS f
+                (quiz_version_id, quiz_id, attempts_started, attempts_completed, duration_sum_seconds)
+            SELECT qv.id, qv.quiz_id, ?, ?, ?
+            FROM quiz_versions qv
+            WHERE qv.id = ?
+            ON CONFLICT (quiz_version_id) DO UPDATE
+            SET attempts_started     = f.attempts_started + EXCLUDED.attempts_started,
+                attempts_completed   = f.attempts_completed + EXCLUDED.attempts_completed,
+                duration_sum_seconds = f.duration_sum_seconds + EXCLUDED.duration_sum_seconds
+            """;
+
+    private static final String SQL_ADD_DAILY = """
+            INSERT INTO quiz_activity_daily AS d
+                (quiz_version_id, day, quiz_id, attempts_started, attempts_completed, duration_sum_seconds)
+            SELECT qv.id, ?, qv.quiz_id, ?, ?, ?
+            FROM quiz_versions qv
+            WHERE qv.id = ?
+            ON CONFLICT (quiz_version_id, day) DO UPDATE
+            SET attempts_started     = d.attempts_started + EXCLUDED.attempts_started,
+                attempts_completed   = d.attempts_completed + EXCLUDED.attempts_completed,
+                duration_sum_seconds = d.duration_sum_seconds + EXCLUDED.duration_sum_seconds
+            """;
+
+    private static final String SQL_TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    /**
+     * Exact minus counted values per (version, day) touched since the window
+     * start. Attempts and rollups are read in one snapshot, so changes
+     * committed meanwhile by triggers or flushes add on top of the repair.
+     */
+    private static final String SQL_DRIFT = """
+            WITH touched AS (
+                SELECT DISTINCT a.quiz_version_id, date_trunc('day', a.started_at)::date AS day
+                FROM attempts a
+                WHERE a.started_at >= ?::date OR a.submitted_at >= ?::date
+                UNION
+                SELECT d.quiz_version_id, d.day
+                FROM quiz_activity_daily d
+                WHERE d.day >= ?::date
+            ), exact AS (
+                SELECT t.quiz_version_id,
+                       t.day,
+                       COUNT(a.id)           AS started,
+                       COUNT(a.submitted_at) AS completed,
+                       COALESCE(SUM(EXTRACT(EPOCH FROM (a.submitted_at - a.started_at))), 0) AS duration,
+                       COALESCE(bool_or(a.started_at > ? OR a.submitted_at > ?), false)    AS busy
+                FROM touched t
+                LEFT JOIN attempts a
+                       ON a.quiz_version_id = t.quiz_version_id
+                      AND a.started_at >= t.day
+                      AND a.started_at < t.day + 1
+                GROUP BY t.quiz_version_id, t.day
+            )
+            SELECT e.quiz_version_id,
+                   e.day,
+                   e.started - COALESCE(d.attempts_started, 0),
+                   e.completed - COALESCE(d.attempts_completed, 0),
+                   ROUND((e.duration - COALESCE(d.duration_sum_seconds, 0)) * 1000000)::bigint
+            FROM exact e
+            LEFT JOIN quiz_activity_daily d ON d.quiz_version_id = e.quiz_version_id AND d.day = e.day
+            WHERE NOT e.busy
+              AND (e.started <> COALESCE(d.attempts_started, 0)
+                   OR e.completed <> COALESCE(d.attempts_completed, 0)
+                   OR e.duration <> COALESCE(d.duration_sum_seconds, 0))
+            ORDER BY e.quiz_version_id, e.day
+            """;
+
+    private static final Comparator<Key> KEY_ORDER =
+            Comparator.comparing(Key::quizVersionId).thenComparing(Key::day);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int reconcileDays;
+    private final Duration reconcileSettle;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Map<Key, Cell> cells = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    public LiveActivityCountersImpl(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${analytics.live-counters.enabled:true}") boolean enabled,
+                                    @Value("${analytics.live-counters.reconcile-days:7}") int reconcileDays,
+                                    @Value("${analytics.live-counters.reconcile-settle:PT10M}") Duration reconcileSettle) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.reconcileDays = reconcileDays;
+        this.reconcileSettle = reconcileSettle;
+    }
+
+    @Override
+    public void attemptStarted(Integer quizVersionId, Instant startedAt) {
+        if (!markLive()) {
+            return;
+        }
+        Key key = new Key(quizVersionId, LocalDate.ofInstant(startedAt, zone));
+        afterCommit(() -> cell(key).started.increment());
+    }
+
+    @Override
+    public void attemptSubmitted(Integer quizVersionId, Instant startedAt, Instant submittedAt) {
+        if (!markLive()) {
+            return;
+        }
+        Key key = new Key(quizVersionId, LocalDate.ofInstant(startedAt, zone));
+        long micros = Duration.between(startedAt, submittedAt).toNanos() / 1_000;
+        afterCommit(() -> {
+            Cell cell = cell(key);
+            cell.completed.increment();
+            cell.durationMicros.add(micros);
+        });
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${analytics.live-counters.flush-interval:PT5S}",
+            fixedDelayString = "${analytics.live-counters.flush-interval:PT5S}"
+    )
+    public void flush() {
+        synchronized (flushLock) {
+            List<Delta> deltas = drain();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                tx.executeWithoutResult(status -> write(deltas));
+            } catch (RuntimeException e) {
+                log.warn("Live activity flush failed, retrying with the next flush: {}", e.getMessage());
+                deltas.forEach(this::restore);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${analytics.live-counters.reconcile-interval:PT15M}",
+            fixedDelayString = "${analytics.live-counters.reconcile-interval:PT15M}"
+    )
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        LocalDate from = LocalDate.ofInstant(now, zone).minusDays(reconcileDays);
+        Timestamp settledBefore = Timestamp.from(now.minus(reconcileSettle));
+
+        try {
+            Integer repaired = tx.execute(status -> {
+                if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(SQL_TRY_LOCK, Boolean.class, LOCK_NAMESPACE, 0))) {
+                    return 0;
+                }
+                List<Delta> drift = jdbcTemplate.query(SQL_DRIFT, (rs, i) -> new Delta(
+                        new Key(rs.getInt(1), rs.getObject(2, LocalDate.class)),
+                        rs.getLong(3), rs.getLong(4), rs.getLong(5)
+                ), from, from, from, settledBefore, settledBefore);
+                if (!drift.isEmpty()) {
+                    write(drift);
+                }
+                return drift.size();
+            });
+            if (repaired != null && repaired > 0) {
+                log.info("Live activity reconcile repaired {} day rows", repaired);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Live activity reconcile failed, retrying with the next run: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Tells the attempts trigger to leave this transaction's start/submit to
+     * the counters. Without a transaction the trigger keeps counting.
+     */
+    private boolean markLive() {
+        if (!enabled || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        jdbcTemplate.query(SQL_MARK_LIVE, (RowCallbackHandler) rs -> { });
+        return true;
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Cell cell(Key key) {
+        return cells.computeIfAbsent(key, k -> new Cell());
+    }
+
+    private List<Delta> drain() {
+        LocalDate idleBefore = LocalDate.now(zone).minusDays(IDLE_DAYS);
+        List<Delta> deltas = new ArrayList<>();
+
+        for (Map.Entry<Key, Cell> e : cells.entrySet()) {
+            Delta delta = e.getValue().drain(e.getKey());
+            if (delta.isEmpty() && e.getKey().day().isBefore(idleBefore)) {
+                cells.remove(e.getKey(), e.getValue());
+                delta = e.getValue().drain(e.getKey());
+            }
+            if (!delta.isEmpty()) {
+                deltas.add(delta);
+            }
+        }
+        deltas.sort(Comparator.comparing(Delta::key, KEY_ORDER));
+        return deltas;
+    }
+
+    private void write(List<Delta> deltas) {
+        Map<Integer, Delta> perVersion = new TreeMap<>();
+        for (Delta d : deltas) {
+            perVersion.merge(d.key().quizVersionId(), d, Delta::plus);
+        }
+
+        List<Object[]> funnelArgs = new ArrayList<>(perVersion.size());
+        for (Delta d : perVersion.values()) {
+            funnelArgs.add(new Object[]{d.started(), d.completed(), seconds(d), d.key().quizVersionId()});
+        }
+
+        List<Object[]> dailyArgs = new ArrayList<>(deltas.size());
+        for (Delta d : deltas) {
+            dailyArgs.add(new Object[]{d.key().day(), d.started(), d.completed(), seconds(d), d.key().quizVersionId()});
+        }
+
+        jdbcTemplate.batchUpdate(SQL_ADD_FUNNEL, funnelArgs);
+        jdbcTemplate.batchUpdate(SQL_ADD_DAILY, dailyArgs);
+    }
+
+    private void restore(Delta d) {
+        Cell cell = cell(d.key());
+        cell.started.add(d.started());
+        cell.completed.add(d.completed());
+        cell.durationMicros.add(d.durationMicros());
+    }
+
+    private static BigDecimal seconds(Delta d) {
+        return BigDecimal.valueOf(d.durationMicros(), MICROS_SCALE);
+    }
+
+    private record Key(Integer quizVersionId, LocalDate day) {}
+
+    private record Delta(Key key, long started, long completed, long durationMicros) {
+
+        boolean isEmpty() {
+            return started == 0 && completed == 0 && durationMicros == 0;
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(key, started + other.started, completed + other.completed,
+                    durationMicros + other.durationMicros);
+        }
+    }
+
+    private static final class Cell {
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder durationMicros = new LongAdder();
+
+        /** sumThenReset never loses a concurrent increment; it lands in the next drain. */
+        Delta drain(Key key) {
+            return new Delta(key, started.sumThenReset(), completed.sumThenReset(), durationMicros.sumThenReset());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.diploma.proforientation.analytics.impl;
+
+import com.diploma.proforientation.analytics.PublicMetricsSnapshot;
+import com.diploma.proforientation.dto.QuizMetricsFilter;
+import com.diploma.proforientation.dto.QuizPublicMetricsDto;
+import com.diploma.proforientation.repository.view.QuizPublicMetricsRepository;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.diploma.proforientation.util.Constants.QUIZ_CATALOG;
+import static com.diploma.proforientation.util.Constants.QUIZ_ID;
+
+/**
+ * Serves the public quiz metrics from an immutable in-memory snapshot, so
+ * anonymous traffic costs no database reads. Filters are applied in memory
+ * with the same semantics as {@code QuizPublicMetricsSpecs}.
+ * <p>
+ * A scheduled check reloads the snapshot when
+ * <ul>
+ *   <li>a quiz was published or changed (the {@code quiz_catalog}
+ *       invalidation channel, broadcast to every replica),</li>
+ *   <li>the attempt totals in {@code quiz_version_funnel} moved, which is how
+ *       submits on any replica show up, or</li>
+ *   <li>the snapshot is older than the max age.</li>
+ * </ul>
+ * The check itself is one aggregate over the funnel rollup.
+ */
+@Slf4j
+@Component
+public class PublicMetricsSnapshotImpl implements PublicMetricsSnapshot, CacheInvalidationService.Listener {
+
+    private static final String SQL_FINGERPRINT = """
+            SELECT COUNT(*), COALESCE(SUM(attempts_started), 0), COALESCE(SUM(attempts_completed), 0)
+            FROM quiz_version_funnel
+            """;
+
+    private final QuizPublicMetricsRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTx;
+    private final boolean enabled;
+    private final Duration maxAge;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty;
+
+    public PublicMetricsSnapshotImpl(QuizPublicMetricsRepository repository,
+                                     JdbcTemplate jdbcTemplate,
+                                     CacheInvalidationService cacheInvalidationService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${analytics.public-metrics.enabled:true}") boolean enabled,
+                                     @Value("${analytics.public-metrics.max-age:PT5M}") Duration maxAge) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+
+        cacheInvalidationService.subscribe(QUIZ_CATALOG, this);
+    }
+
+    @Override
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    @Override
+    public Optional<List<QuizPublicMetricsDto>> find(QuizMetricsFilter filter) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            return Optional.empty();
+        }
+        if (filter == null) {
+            return Optional.of(s.metrics());
+        }
+        return Optional.of(s.metrics().stream()
+                .filter(m -> matches(filter, m))
+                .toList());
+    }
+
+    @Override
+    public Optional<QuizPublicMetricsDto> get(Integer quizId) {
+        Snapshot s = snapshot;
+        return s == null ? Optional.empty() : Optional.ofNullable(s.byQuiz().get(quizId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshIfStale();
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${analytics.public-metrics.check-interval:PT15S}",
+            fixedDelayString = "${analytics.public-metrics.check-interval:PT15S}"
+    )
+    public synchronized void refreshIfStale() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Fingerprint fingerprint = jdbcTemplate.queryForObject(SQL_FINGERPRINT,
+                    (rs, i) -> new Fingerprint(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+
+            Snapshot s = snapshot;
+            boolean stale = s == null
+                    || dirty
+                    || !s.fingerprint().equals(fingerprint)
+                    || s.loadedAt().plus(maxAge).isBefore(Instant.now());
+            if (stale) {
+                load(fingerprint);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh public metrics snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onEvict(Collection<String> keys) {
+        dirty = true;
+    }
+
+    @Override
+    public void onEvictAll() {
+        dirty = true;
+    }
+
+    /**
+     * The fingerprint is read before the rows, so a change in between makes
+     * the next check reload again instead of being missed.
+     */
+    private void load(Fingerprint fingerprint) {
+        dirty = false;
+        List<QuizPublicMetricsDto> metrics = readTx.execute(status ->
+                repository.findAll(Sort.by(Sort.Direction.ASC, QUIZ_ID)).stream()
+                        .map(QuizPublicMetricsDto::from)
+                        .toList());
+
+        Map<Integer, QuizPublicMetricsDto> byQuiz = new LinkedHashMap<>();
+        for (QuizPublicMetricsDto m : metrics) {
+            byQuiz.put(m.quizId(), m);
+        }
+        snapshot = new Snapshot(metrics, Map.copyOf(byQuiz), fingerprint, Instant.now());
+        log.debug("Public metrics snapshot loaded: {} quizzes", metrics.size());
+    }
+
+    private static boolean matches(QuizMetricsFilter f, QuizPublicMetricsDto m) {
+        return equalsIfSet(f.quizId(), m.quizId())
+                && (f.quizStatus() == null || f.quizStatus().name().equals(m.quizStatus()))
+                && equalsIfSet(f.categoryId(), m.categoryId())
+                && containsIgnoreCase(m.quizCode(), f.quizCodeContains())
+                && inRange(m.attemptsTotal(), f.attemptsTotalMin(), f.attemptsTotalMax())
+                && inRange(m.attemptsSubmitted(), f.attemptsSubmittedMin(), f.attemptsSubmittedMax())
+                && inRange(m.questionsTotal(), f.questionsTotalMin(), f.questionsTotalMax())
+                && inRange(m.estimatedDurationSeconds(), f.estimatedDurationMin(), f.estimatedDurationMax())
+                && inRange(m.avgDurationSeconds(), f.avgDurationMin(), f.avgDurationMax());
+    }
+
+    private static boolean equalsIfSet(Object expected, Object actual) {
+        return expected == null || expected.equals(actual);
+    }
+
+    private static boolean containsIgnoreCase(String value, String part) {
+        if (part == null || part.isBlank()) {
+            return true;
+        }
+        return value != null && value.toLowerCase(Locale.ROOT).contains(part.toLowerCase(Locale.ROOT));
+    }
+
+    /** Like SQL comparisons, a null value never satisfies a bound. */
+    private static <T extends Comparable<T>> boolean inRange(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        return (min == null || value.compareTo(min) >= 0)
+                && (max == null || value.compareTo(max) <= 0);
+    }
+
+    private record Fingerprint(long versions, long started, long completed) {}
+
+    private record Snapshot(List<QuizPublicMetricsDto> metrics,
+                            Map<Integer, QuizPublicMetricsDto> byQuiz,
+                            Fingerprint fingerprint,
+                            Instant loadedAt) {}
+}
@@ -0,0 +1,201 @@
+package com.diploma.proforientation.analytics.impl;
+
+import com.diploma.proforientation.analytics.DiscriminationAccumulator;
+import com.diploma.proforientation.analytics.QuestionDiscriminationJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes item discrimination per quiz version and stores it in
+ * {@code quiz_question_discrimination}. Only versions whose submitted-attempt
+ * count changed (according to the {@code quiz_version_funnel} rollup) or
+ * whose values are older than the max age are recomputed. Per version the
+ * attempt totals are read once, then the answers are streamed once with a
+ * bounded fetch size. A transaction-scoped advisory lock keeps replicas from
+ * computing the same version at the same time.
+ */
+@Slf4j
+@Component
+public class QuestionDiscriminationJobImpl implements QuestionDiscriminationJob {
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int LOCK_NAMESPACE = 32_001;
+
+    private static final String SQL_STALE_VERSIONS = """
+            SELECT f.quiz_version_id
+            FROM quiz_version_funnel f
+            LEFT JOIN quiz_discrimination_runs r ON r.quiz_version_id = f.quiz_version_id
+            WHERE (r.quiz_version_id IS NULL AND f.attempts_completed > 0)
+               OR r.attempts_submitted <> f.attempts_completed
+               OR r.computed_at < ?
+            ORDER BY f.quiz_version_id
+            """;
+
+    private static final String SQL_TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    private static final String SQL_QUIZ_ID = "SELECT quiz_id FROM quiz_versions WHERE id = ?";
+
+    private static final String SQL_ATTEMPT_TOTALS = """
+            SELECT a.id, COALESCE(SUM(ats.score), 0)
+            FROM attempts a
+            LEFT JOIN attempt_trait_scores ats ON ats.attempt_id = a.id
+            WHERE a.quiz_version_id = ?
+              AND a.submitted_at IS NOT NULL
+            GROUP BY a.id
+            """;
+
+    private static final String SQL_ANSWERS = """
+            SELECT an.attempt_id, qo.question_id, qo.ord
+            FROM answers an
+            JOIN attempts a ON a.id = an.attempt_id
+            JOIN question_options qo ON qo.id = an.option_id
+            JOIN questions qu ON qu.id = qo.question_id AND qu.quiz_version_id = a.quiz_version_id
+            WHERE a.quiz_version_id = ?
+              AND a.submitted_at IS NOT NULL
+            """;
+
+    private static final String SQL_ORD_RANGES = """
+            SELECT qu.id, MIN(qo.ord), MAX(qo.ord)
+            FROM questions qu
+            JOIN question_options qo ON qo.question_id = qu.id
+            WHERE qu.quiz_version_id = ?
+            GROUP BY qu.id
+            """;
+
+    private static final String SQL_DELETE_RESULTS =
+            "DELETE FROM quiz_question_discrimination WHERE quiz_version_id = ?";
+
+    private static final String SQL_INSERT_RESULT = """
+            INSERT INTO quiz_question_discrimination (
+                quiz_version_id, question_id, quiz_id,
+                min_ord, max_ord, attempts_submitted, answers_top, answers_bottom,
+                top_avg_ord, bottom_avg_ord, disc_raw, disc_norm, disc_quality, computed_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SQL_UPSERT_RUN = """
+            INSERT INTO quiz_discrimination_runs (quiz_version_id, attempts_submitted, computed_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (quiz_version_id) DO UPDATE
+            SET attempts_submitted = EXCLUDED.attempts_submitted,
+                computed_at        = EXCLUDED.computed_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration maxAge;
+
+    public QuestionDiscriminationJobImpl(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${analytics.discrimination.enabled:true}") boolean enabled,
+                                         @Value("${analytics.discrimination.max-age:PT24H}") Duration maxAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${analytics.discrimination.initial-delay:PT1M}",
+            fixedDelayString = "${analytics.discrimination.refresh-interval:PT15M}"
+    )
+    public void refreshStale() {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> versions = jdbcTemplate.queryForList(
+                SQL_STALE_VERSIONS, Integer.class, Timestamp.from(Instant.now().minus(maxAge))
+        );
+
+        for (Integer versionId : versions) {
+            try {
+                refresh(versionId);
+            } catch (RuntimeException e) {
+                log.warn("Discrimination refresh failed for quiz version {}: {}", versionId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean refresh(Integer quizVersionId) {
+        return Boolean.TRUE.equals(tx.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    SQL_TRY_LOCK, Boolean.class, LOCK_NAMESPACE, quizVersionId))) {
+                return false;
+            }
+
+            List<Integer> quizIds = jdbcTemplate.queryForList(SQL_QUIZ_ID, Integer.class, quizVersionId);
+            if (quizIds.isEmpty()) {
+                return false;
+            }
+
+            DiscriminationAccumulator acc = new DiscriminationAccumulator();
+            stream(SQL_ATTEMPT_TOTALS, quizVersionId,
+                    rs -> acc.addAttempt(rs.getInt(1), rs.getDouble(2)));
+            acc.rankAttempts();
+            stream(SQL_ANSWERS, quizVersionId,
+                    rs -> acc.accept(rs.getInt(1), rs.getInt(2), rs.getInt(3)));
+
+            Map<Integer, int[]> ordRanges = new HashMap<>();
+            stream(SQL_ORD_RANGES, quizVersionId,
+                    rs -> ordRanges.put(rs.getInt(1), new int[]{rs.getInt(2), rs.getInt(3)}));
+
+            store(quizIds.getFirst(), quizVersionId, acc.attemptsSubmitted(), acc.results(ordRanges));
+            return true;
+        }));
+    }
+
+    private void store(Integer quizId,
+                       Integer quizVersionId,
+                       int attemptsSubmitted,
+                       List<DiscriminationAccumulator.Result> results) {
+        Timestamp computedAt = Timestamp.from(Instant.now());
+
+        jdbcTemplate.update(SQL_DELETE_RESULTS, quizVersionId);
+        if (!results.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT_RESULT, results, results.size(), (ps, r) -> {
+                ps.setInt(1, quizVersionId);
+                ps.setInt(2, r.questionId());
+                ps.setInt(3, quizId);
+                ps.setInt(4, r.minOrd());
+                ps.setInt(5, r.maxOrd());
+                ps.setInt(6, r.attemptsSubmitted());
+                ps.setInt(7, r.answersTop());
+                ps.setInt(8, r.answersBottom());
+                ps.setBigDecimal(9, r.topAvgOrd());
+                ps.setBigDecimal(10, r.bottomAvgOrd());
+                ps.setBigDecimal(11, r.discRaw());
+                ps.setBigDecimal(12, r.discNorm());
+                ps.setString(13, r.discQuality());
+                ps.setTimestamp(14, computedAt);
+            });
+        }
+        jdbcTemplate.update(SQL_UPSERT_RUN, quizVersionId, attemptsSubmitted, computedAt);
+    }
+
+    /** Streams the rows of a per-version query; the open transaction lets the driver use a cursor. */
+    private void stream(String sql, Integer quizVersionId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setInt(1, quizVersionId);
+            return ps;
+        }, handler);
+    }
+}
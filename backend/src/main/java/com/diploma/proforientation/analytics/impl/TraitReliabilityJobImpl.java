@@ -0,0 +1,231 @@
+package com.diploma.proforientation.analytics.impl;
+
+import com.diploma.proforientation.analytics.ReliabilityAccumulator;
+import com.diploma.proforientation.analytics.TraitReliabilityJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes Cronbach's alpha and item statistics per trait of a quiz version
+ * and stores them in {@code quiz_trait_reliability} and
+ * {@code quiz_item_reliability}. Versions are selected like in
+ * {@link QuestionDiscriminationJobImpl}: only those whose submitted-attempt
+ * count in {@code quiz_version_funnel} changed or whose values are older
+ * than the max age. Per version the answers are streamed once, ordered by
+ * attempt, into a {@link ReliabilityAccumulator}.
+ */
+@Slf4j
+@Component
+public class TraitReliabilityJobImpl implements TraitReliabilityJob {
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOCK_NAMESPACE = 40_001;
+
+    private static final String SQL_STALE_VERSIONS = """
+            SELECT f.quiz_version_id
+            FROM quiz_version_funnel f
+            LEFT JOIN quiz_reliability_runs r ON r.quiz_version_id = f.quiz_version_id
+            WHERE (r.quiz_version_id IS NULL AND f.attempts_completed > 0)
+               OR r.attempts_submitted <> f.attempts_completed
+               OR r.computed_at < ?
+            ORDER BY f.quiz_version_id
+            """;
+
+    private static final String SQL_TRY_LOCK = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+    private static final String SQL_QUIZ_ID = "SELECT quiz_id FROM quiz_versions WHERE id = ?";
+
+    private static final String SQL_ATTEMPTS_COMPLETED = """
+            SELECT COALESCE(MAX(attempts_completed), 0)
+            FROM quiz_version_funnel
+            WHERE quiz_version_id = ?
+            """;
+
+    private static final String SQL_ITEMS = """
+            SELECT DISTINCT qot.trait_id, qo.question_id
+            FROM question_option_traits qot
+            JOIN question_options qo ON qo.id = qot.question_option_id
+            JOIN questions qu ON qu.id = qo.question_id
+            WHERE qu.quiz_version_id = ?
+            """;
+
+    private static final String SQL_ANSWERS = """
+            SELECT an.attempt_id, qo.question_id, qot.trait_id, qot.weight
+            FROM answers an
+            JOIN attempts a ON a.id = an.attempt_id
+            JOIN question_options qo ON qo.id = an.option_id
+            JOIN questions qu ON qu.id = qo.question_id AND qu.quiz_version_id = a.quiz_version_id
+            LEFT JOIN question_option_traits qot ON qot.question_option_id = qo.id
+            WHERE a.quiz_version_id = ?
+              AND a.submitted_at IS NOT NULL
+            ORDER BY an.attempt_id
+            """;
+
+    private static final String SQL_DELETE_TRAITS =
+            "DELETE FROM quiz_trait_reliability WHERE quiz_version_id = ?";
+
+    private static final String SQL_DELETE_ITEMS =
+            "DELETE FROM quiz_item_reliability WHERE quiz_version_id = ?";
+
+    private static final String SQL_INSERT_TRAIT = """
+            INSERT INTO quiz_trait_reliability (
+                quiz_version_id, trait_id, quiz_id, attempts_submitted, items,
+                total_mean, total_variance, alpha, alpha_quality, computed_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SQL_INSERT_ITEM = """
+            INSERT INTO quiz_item_reliability (
+                quiz_version_id, trait_id, question_id, quiz_id,
+                item_mean, item_variance, item_total_corr, alpha_if_deleted, computed_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SQL_UPSERT_RUN = """
+            INSERT INTO quiz_reliability_runs (quiz_version_id, attempts_submitted, computed_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (quiz_version_id) DO UPDATE
+            SET attempts_submitted = EXCLUDED.attempts_submitted,
+                computed_at        = EXCLUDED.computed_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Duration maxAge;
+
+    public TraitReliabilityJobImpl(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${analytics.reliability.enabled:true}") boolean enabled,
+                                   @Value("${analytics.reliability.max-age:PT24H}") Duration maxAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${analytics.reliability.initial-delay:PT2M}",
+            fixedDelayString = "${analytics.reliability.refresh-interval:PT15M}"
+    )
+    public void refreshStale() {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> versions = jdbcTemplate.queryForList(
+                SQL_STALE_VERSIONS, Integer.class, Timestamp.from(Instant.now().minus(maxAge))
+        );
+
+        for (Integer versionId : versions) {
+            try {
+                refresh(versionId);
+            } catch (RuntimeException e) {
+                log.warn("Reliability refresh failed for quiz version {}: {}", versionId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean refresh(Integer quizVersionId) {
+        return Boolean.TRUE.equals(tx.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    SQL_TRY_LOCK, Boolean.class, LOCK_NAMESPACE, quizVersionId))) {
+                return false;
+            }
+
+            List<Integer> quizIds = jdbcTemplate.queryForList(SQL_QUIZ_ID, Integer.class, quizVersionId);
+            if (quizIds.isEmpty()) {
+                return false;
+            }
+
+            // read before the answers, so submits during the pass make the next run recompute
+            Integer attemptsCompleted = jdbcTemplate.queryForObject(
+                    SQL_ATTEMPTS_COMPLETED, Integer.class, quizVersionId);
+
+            Map<Integer, List<Integer>> itemsByTrait = new HashMap<>();
+            stream(SQL_ITEMS, quizVersionId, rs ->
+                    itemsByTrait.computeIfAbsent(rs.getInt(1), t -> new ArrayList<>()).add(rs.getInt(2)));
+
+            ReliabilityAccumulator acc = new ReliabilityAccumulator(itemsByTrait);
+            stream(SQL_ANSWERS, quizVersionId, rs -> acc.accept(
+                    rs.getInt(1),
+                    rs.getInt(2),
+                    rs.getObject(3, Integer.class),
+                    rs.getDouble(4)
+            ));
+
+            store(quizIds.getFirst(), quizVersionId,
+                    attemptsCompleted != null ? attemptsCompleted : 0, acc.results());
+            return true;
+        }));
+    }
+
+    private void store(Integer quizId,
+                       Integer quizVersionId,
+                       int attemptsCompleted,
+                       List<ReliabilityAccumulator.TraitResult> results) {
+        Timestamp computedAt = Timestamp.from(Instant.now());
+
+        jdbcTemplate.update(SQL_DELETE_ITEMS, quizVersionId);
+        jdbcTemplate.update(SQL_DELETE_TRAITS, quizVersionId);
+        if (!results.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT_TRAIT, results, results.size(), (ps, r) -> {
+                ps.setInt(1, quizVersionId);
+                ps.setInt(2, r.traitId());
+                ps.setInt(3, quizId);
+                ps.setInt(4, r.attemptsSubmitted());
+                ps.setInt(5, r.items());
+                ps.setBigDecimal(6, r.totalMean());
+                ps.setBigDecimal(7, r.totalVariance());
+                ps.setBigDecimal(8, r.alpha());
+                ps.setString(9, r.alphaQuality());
+                ps.setTimestamp(10, computedAt);
+            });
+
+            List<ItemRow> items = results.stream()
+                    .flatMap(t -> t.itemResults().stream().map(i -> new ItemRow(t.traitId(), i)))
+                    .toList();
+            jdbcTemplate.batchUpdate(SQL_INSERT_ITEM, items, BATCH_SIZE, (ps, row) -> {
+                ps.setInt(1, quizVersionId);
+                ps.setInt(2, row.traitId());
+                ps.setInt(3, row.item().questionId());
+                ps.setInt(4, quizId);
+                ps.setBigDecimal(5, row.item().itemMean());
+                ps.setBigDecimal(6, row.item().itemVariance());
+                ps.setBigDecimal(7, row.item().itemTotalCorrelation());
+                ps.setBigDecimal(8, row.item().alphaIfDeleted());
+                ps.setTimestamp(9, computedAt);
+            });
+        }
+        jdbcTemplate.update(SQL_UPSERT_RUN, quizVersionId, attemptsCompleted, computedAt);
+    }
+
+    /** Streams the rows of a per-version query; the open transaction lets the driver use a cursor. */
+    private void stream(String sql, Integer quizVersionId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setInt(1, quizVersionId);
+            return ps;
+        }, handler);
+    }
+
+    private record ItemRow(int traitId, ReliabilityAccumulator.ItemResult item) {}
+}
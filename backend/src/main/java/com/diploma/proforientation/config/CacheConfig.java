@@ -1,6 +1,7 @@
 package com.diploma.proforientation.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -11,10 +12,14 @@ import java.time.Duration;
 @Configuration
 public class CacheConfig {
 
+    /**
+     * Entries are invalidated cluster-wide on edit (see CacheInvalidationService),
+     * so the TTL only bounds staleness if a notification is lost.
+     */
     @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
+    public Caffeine<Object, Object> caffeineConfig(@Value("${cache.ttl:PT6H}") Duration ttl) {
         return Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofHours(6)) // translations rarely change
+                .expireAfterWrite(ttl) // translations rarely change
                 .maximumSize(10_000); // enough for quizzes, questions & professions
     }
 
@@ -0,0 +1,47 @@
+package com.diploma.proforientation.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cluster-wide cache invalidation bus.
+ * <p>
+ * Bound from the application configuration with the prefix "cache.invalidation".
+ * </p>
+ * <ul>
+ *     <li>{@code enabled} - Whether evictions are broadcast to other nodes over Postgres NOTIFY.</li>
+ *     <li>{@code channel} - The LISTEN/NOTIFY channel shared by all backend replicas.</li>
+ *     <li>{@code pollTimeout} - How long the listener blocks waiting for notifications.</li>
+ *     <li>{@code reconnectDelay} - Pause before re-opening a broken LISTEN connection.</li>
+ * </ul>
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "cache.invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * Broadcast evictions to other replicas.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Postgres notification channel name.
+     */
+    private String channel = "cache_invalidation";
+
+    /**
+     * Maximum time the listener waits for notifications in one poll.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Delay before reconnecting after the LISTEN connection fails.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
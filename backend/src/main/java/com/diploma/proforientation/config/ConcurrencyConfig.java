@@ -0,0 +1,40 @@
+package com.diploma.proforientation.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Virtual thread per task, for fanning out independent blocking reads.
+     * Database reads on it are bounded by the permits of {@code ParallelReads}.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Fixed pool for background export jobs with a bounded queue; when the
+     * queue is full new jobs are rejected instead of piling up.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService exportJobExecutor(@Value("${export.jobs.workers:2}") int workers,
+                                             @Value("${export.jobs.queue-capacity:16}") int queueCapacity) {
+        return new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("export-job-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
@@ -18,9 +18,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/export")
@@ -28,6 +31,8 @@ import java.nio.charset.StandardCharsets;
 @Tag(name = "Export", description = "Data export operations (CSV / Excel)")
 public class ExportController {
 
+    private static final String EXPORT_CURSOR_HEADER = "X-Export-Cursor";
+
     private final ExportService exportService;
 
     @GetMapping("/excel")
@@ -46,10 +51,13 @@ public class ExportController {
             )
     )
     @RateLimit(requests = 2, durationSeconds = 60)
-    public ResponseEntity<byte[]> exportExcel() {
+    public ResponseEntity<StreamingResponseBody> exportExcel() {
+        ExportService.ExportWriter writer = exportService.exportAllToExcel();
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=data.xlsx")
-                .body(exportService.exportAllToExcel());
+                .contentType(MediaType.parseMediaType(
+                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(writer::writeTo);
     }
 
     @GetMapping("/csv/{entity}")
@@ -59,6 +67,13 @@ public class ExportController {
                     Exports the specified entity to a CSV file.
                     Supported entities include quizzes, questions, options,
                     professions, attempts, and translations.
+
+                    With `since`, only rows created or changed after that instant are
+                    exported (quizzes and attempts). Attempt rows get a trailing
+                    `deleted_at` column; a value there marks a soft-deleted attempt.
+                    The `X-Export-Cursor` response header holds the `since` of the next
+                    delta export; it overlaps the previous one slightly, so rows can
+                    repeat and should be applied by id.
                     """
     )
     @ApiResponse(
@@ -72,7 +87,7 @@ public class ExportController {
             content = @Content(schema = @Schema(implementation = ExceptionDto.class))
     )
     @RateLimit(requests = 3, durationSeconds = 60)
-    public ResponseEntity<byte[]> exportCsv(
+    public ResponseEntity<StreamingResponseBody> exportCsv(
             @PathVariable
             @Parameter(
                     description = "Entity name to export",
@@ -90,11 +105,24 @@ public class ExportController {
                             }
                     )
             )
-            String entity) {
-        return ResponseEntity.ok()
+            String entity,
+            @RequestParam(required = false)
+            @Parameter(description = "Export only rows changed after this instant", example = "2025-01-01T00:00:00Z")
+            Instant since) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        ExportService.ExportWriter writer;
+        if (since == null) {
+            writer = exportService.exportEntityToCsv(entity);
+        } else {
+            ExportService.DeltaExport delta = exportService.exportEntityChangesToCsv(entity, since);
+            response.header(EXPORT_CURSOR_HEADER, delta.cursor().toString());
+            writer = delta.writer();
+        }
+        return response
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=" + entity + ".csv")
-                .body(exportService.exportEntityToCsv(entity));
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(writer::writeTo);
     }
 
     @GetMapping(value = "/quiz-metrics/export", produces = "text/csv")
@@ -0,0 +1,105 @@
+package com.diploma.proforientation.controller;
+
+import com.diploma.proforientation.dto.ExceptionDto;
+import com.diploma.proforientation.dto.importexport.ExportJobDto;
+import com.diploma.proforientation.dto.importexport.ExportJobRequest;
+import com.diploma.proforientation.service.ExportJobService;
+import com.diploma.proforientation.util.rate.RateLimit;
+import com.google.common.net.HttpHeaders;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/export/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Export Jobs", description = "Background exports with resumable downloads")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Start a background export",
+            description = """
+                    Queues the export and returns the job. If an equal export is already
+                    queued, running or downloadable on any replica, that job is returned
+                    instead. Poll the job until it is DONE, then download the file from the
+                    replica in its node field.
+                    """
+    )
+    @ApiResponse(responseCode = "202", description = "Export job accepted")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Missing parameters or unsupported entity",
+            content = @Content(schema = @Schema(implementation = ExceptionDto.class))
+    )
+    @ApiResponse(
+            responseCode = "503",
+            description = "Export queue is full",
+            content = @Content(schema = @Schema(implementation = ExceptionDto.class))
+    )
+    @RateLimit(requests = 10, durationSeconds = 60)
+    public ResponseEntity<ExportJobDto> submit(@Valid @RequestBody ExportJobRequest request) {
+        ExportJobDto job = exportJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/export/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get export job status", description = "Returns the status and progress of an export job.")
+    @ApiResponse(responseCode = "200", description = "Export job found")
+    @ApiResponse(
+            responseCode = "404",
+            description = "Export job not found or expired",
+            content = @Content(schema = @Schema(implementation = ExceptionDto.class))
+    )
+    public ExportJobDto get(@PathVariable String jobId) {
+        return exportJobService.get(jobId);
+    }
+
+    @GetMapping("/{jobId}/file")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Download the file of a finished export job",
+            description = """
+                    Supports Range requests, so interrupted downloads can be resumed.
+                    The file is kept only on the replica in the node field of the job, so
+                    with several replicas the load balancer has to route this request there.
+                    """
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Export file",
+            content = @Content(schema = @Schema(type = "string", format = "binary"))
+    )
+    @ApiResponse(responseCode = "206", description = "Requested part of the export file")
+    @ApiResponse(
+            responseCode = "409",
+            description = "Export job is not finished yet, or its file is kept on another replica",
+            content = @Content(schema = @Schema(implementation = ExceptionDto.class))
+    )
+    public ResponseEntity<Resource> download(@PathVariable String jobId) {
+        ExportJobService.SpooledFile file = exportJobService.file(jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.filename() + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(file.contentType()))
+                .body(new FileSystemResource(file.path()));
+    }
+}
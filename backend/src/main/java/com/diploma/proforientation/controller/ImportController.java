@@ -3,6 +3,7 @@ package com.diploma.proforientation.controller;
 import com.diploma.proforientation.dto.importexport.ImportResultDto;
 import com.diploma.proforientation.service.impl.ExcelImportServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -33,17 +34,24 @@ public class ImportController {
         - text
 
         Import behavior:
-        - All rows are validated before saving
+        - Existing translations are updated by entity, field and locale
         - Invalid rows are skipped
         - Errors are returned with row numbers and messages
-        - Valid rows are saved in a single transaction
+        - Valid rows are saved in chunks of 500, each in its own transaction;
+          if a chunk fails its rows are saved one by one, and the rows the
+          database rejects are returned with the violated constraint
+        - With dryRun=true all rows are validated and the errors returned; nothing is saved
         """
     )
     @ApiResponse(responseCode = "200", description = "Translations imported successfully")
     @ApiResponse(responseCode = "400", description = "Invalid Excel file or validation errors")
     @ApiResponse(responseCode = "403", description = "Access denied (admin only)")
-    public ImportResultDto importTranslationsExcel(@RequestPart MultipartFile file) {
-        return excelImportService.importTranslations(file);
+    public ImportResultDto importTranslationsExcel(
+            @RequestPart MultipartFile file,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Only validate the file and report the errors, without saving")
+            boolean dryRun) {
+        return excelImportService.importTranslations(file, dryRun);
     }
 
     @PostMapping(value = "/excel/quizzes", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -72,13 +80,18 @@ public class ImportController {
         - If status is PUBLISHED and no quiz version exists, 
           a published quiz version is created automatically
         - Invalid rows are skipped, valid rows are saved
+        - With dryRun=true all rows are validated and the errors returned; nothing is saved
         """
     )
     @ApiResponse(responseCode = "200", description = "Quizzes imported successfully")
     @ApiResponse(responseCode = "400", description = "Invalid Excel file or validation errors")
     @ApiResponse(responseCode = "403", description = "Access denied (admin only)")
-    public ImportResultDto importQuizzesExcel(@RequestPart MultipartFile file) {
-        return excelImportService.importQuizzes(file);
+    public ImportResultDto importQuizzesExcel(
+            @RequestPart MultipartFile file,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Only validate the file and report the errors, without saving")
+            boolean dryRun) {
+        return excelImportService.importQuizzes(file, dryRun);
     }
 
     @PostMapping(value = "/excel/professions", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -102,13 +115,18 @@ public class ImportController {
         - New professions are created if code does not exist
         - Duplicate codes inside the file are rejected
         - Invalid rows are skipped, valid rows are saved
+        - With dryRun=true all rows are validated and the errors returned; nothing is saved
         """
     )
     @ApiResponse(responseCode = "200", description = "Professions imported successfully")
     @ApiResponse(responseCode = "400", description = "Invalid Excel file or validation errors")
     @ApiResponse(responseCode = "403", description = "Access denied (admin only)")
-    public ImportResultDto importProfessionsExcel(@RequestPart MultipartFile file) {
-        return excelImportService.importProfessions(file);
+    public ImportResultDto importProfessionsExcel(
+            @RequestPart MultipartFile file,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Only validate the file and report the errors, without saving")
+            boolean dryRun) {
+        return excelImportService.importProfessions(file, dryRun);
     }
 
     @PostMapping(value = "/admin/import/questions", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -127,14 +145,21 @@ public class ImportController {
         Import behavior:
         - Questions are linked to an existing quiz version
         - Invalid enum values or missing references are rejected
+        - An ord repeated for the same quiz version in the file, or already used
+          by a question of that version, is rejected
         - Invalid rows are skipped
         - Valid questions are saved
+        - With dryRun=true all rows are validated and the errors returned; nothing is saved
         """
     )
     @ApiResponse(responseCode = "200", description = "Questions imported successfully")
     @ApiResponse(responseCode = "400", description = "Invalid Excel file or validation errors")
     @ApiResponse(responseCode = "403", description = "Access denied (admin only)")
-    public ImportResultDto importQuestions(@RequestPart MultipartFile file) {
-        return excelImportService.importQuestions(file);
+    public ImportResultDto importQuestions(
+            @RequestPart MultipartFile file,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Only validate the file and report the errors, without saving")
+            boolean dryRun) {
+        return excelImportService.importQuestions(file, dryRun);
     }
 }
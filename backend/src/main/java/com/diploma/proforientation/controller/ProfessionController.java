@@ -131,9 +131,10 @@ public class ProfessionController {
             Searches professions using text and filters.
 
             Search capabilities:
-            - Text search by title, description, code, or ML class code
+            - Text search by title, description, code, or ML class code,
+              including translations in the request locale; typo-tolerant
             - Optional filtering by profession category
-            - Supports pagination and sorting
+            - Supports pagination and sorting (text matches are ordered by relevance)
         """
     )
     @ApiResponse(
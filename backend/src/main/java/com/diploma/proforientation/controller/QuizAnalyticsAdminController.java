@@ -3,6 +3,9 @@ package com.diploma.proforientation.controller;
 
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsDetailedDto;
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsOverviewDto;
+import com.diploma.proforientation.dto.analytics.QuizAttemptDistributionDto;
+import com.diploma.proforientation.dto.analytics.QuizReliabilityDto;
+import com.diploma.proforientation.dto.analytics.QuizVersionComparisonDto;
 import com.diploma.proforientation.service.QuizAnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,6 +18,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/admin/quizzes/{quizId}/analytics")
@@ -69,4 +73,73 @@ public class QuizAnalyticsAdminController {
     ) {
         return service.getDetailed(quizId, quizVersionId);
     }
+
+    @GetMapping("/distribution")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Get attempt duration percentiles and distinct participants",
+            description = "Returns p50/p90/p99 attempt duration and approximate distinct users and guests, " +
+                    "for one quiz version or merged across all versions when quizVersionId is omitted. " +
+                    "Only administrators are allowed."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Attempt distribution returned",
+            content = @Content(schema = @Schema(implementation = QuizAttemptDistributionDto.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    @ApiResponse(responseCode = "403", description = "Forbidden")
+    public QuizAttemptDistributionDto distribution(
+            @PathVariable Integer quizId,
+            @RequestParam(required = false) Integer quizVersionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return service.getAttemptDistribution(quizId, quizVersionId, from, to);
+    }
+
+    @GetMapping("/reliability")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Get trait reliability",
+            description = "Returns Cronbach's alpha per trait with corrected item-total correlations and " +
+                    "alpha if item deleted, as last computed by the background job. " +
+                    "Only administrators are allowed."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Trait reliability returned",
+            content = @Content(schema = @Schema(implementation = QuizReliabilityDto.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    @ApiResponse(responseCode = "403", description = "Forbidden")
+    public QuizReliabilityDto reliability(
+            @PathVariable Integer quizId,
+            @RequestParam Integer quizVersionId
+    ) {
+        return service.getReliability(quizId, quizVersionId);
+    }
+
+    @GetMapping("/compare")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Compare quiz versions",
+            description = "Returns funnel, option distribution and discrimination of several versions of a quiz " +
+                    "side by side, with questions aligned by order and deltas against the first requested version. " +
+                    "Only administrators are allowed."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Version comparison returned",
+            content = @Content(schema = @Schema(implementation = QuizVersionComparisonDto.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Fewer than 2 or more than 10 versions requested")
+    @ApiResponse(responseCode = "403", description = "Forbidden")
+    @ApiResponse(responseCode = "404", description = "A version does not belong to the quiz")
+    public QuizVersionComparisonDto compare(
+            @PathVariable Integer quizId,
+            @RequestParam List<Integer> quizVersionIds
+    ) {
+        return service.compareVersions(quizId, quizVersionIds);
+    }
 }
\ No newline at end of file
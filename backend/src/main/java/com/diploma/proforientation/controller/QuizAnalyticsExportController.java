@@ -1,6 +1,7 @@
 package com.diploma.proforientation.controller;
 
 import com.diploma.proforientation.service.ExportService;
+import com.diploma.proforientation.util.rate.RateLimit;
 import com.google.common.net.HttpHeaders;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/admin/quizzes/{quizId}/analytics/export")
@@ -122,4 +124,30 @@ public class QuizAnalyticsExportController {
                         "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
                 .body(data);
     }
-}
\ No newline at end of file
+
+    @GetMapping(value = "/answer-matrix.csv.gz", produces = "application/gzip")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Export the answer matrix of a quiz version",
+            description = "Streams one row per submitted attempt with the chosen option ord per question " +
+                    "(q_<ord> columns) and the recommended profession codes by rank, as gzip-compressed CSV. " +
+                    "Intended as training data for the scoring model. Only administrators are allowed."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Answer matrix exported as gzip-compressed CSV",
+            content = @Content(mediaType = "application/gzip",
+                    schema = @Schema(type = "string", format = "binary"))
+    )
+    @ApiResponse(responseCode = "403", description = "Forbidden")
+    @ApiResponse(responseCode = "404", description = "Quiz or quiz version not found")
+    @RateLimit(requests = 2, durationSeconds = 60)
+    public ResponseEntity<StreamingResponseBody> answerMatrix(@PathVariable Integer quizId,
+                                                              @RequestParam Integer quizVersionId) {
+        ExportService.ExportWriter writer = exportService.exportAnswerMatrix(quizId, quizVersionId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"answer_matrix.csv.gz\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(writer::writeTo);
+    }
+}
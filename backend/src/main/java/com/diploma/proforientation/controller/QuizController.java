@@ -1,6 +1,7 @@
 package com.diploma.proforientation.controller;
 
 import com.diploma.proforientation.dto.QuizDto;
+import com.diploma.proforientation.dto.QuizSearchFacetsDto;
 import com.diploma.proforientation.dto.QuizVersionDto;
 import com.diploma.proforientation.dto.TraitDto;
 import com.diploma.proforientation.dto.request.create.CreateQuizRequest;
@@ -335,7 +336,7 @@ public class QuizController {
     @GetMapping("/search")
     @Operation(
             summary = "Search and filter quizzes",
-            description = "Search quizzes by title, code, or description and filter by category or duration time. Supports pagination and localization."
+            description = "Search quizzes by title, code, or description (default texts and translations in the request locale) and filter by category or duration time. Text matches are ordered by relevance. Supports pagination and localization."
     )
     @ApiResponse(
             responseCode = "200",
@@ -391,6 +392,50 @@ public class QuizController {
         return quizService.search(search, categoryId, minDurationSec, maxDurationSec, pageable);
     }
 
+    @GetMapping("/search/facets")
+    @Operation(
+            summary = "Search facets",
+            description = "Counts published quizzes matching the search text per category and per duration bucket. Each facet ignores its own filter and applies the other one. Served from the in-memory catalog; counts are empty until it has been built."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Facet counts",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = QuizSearchFacetsDto.class)
+            )
+    )
+    public QuizSearchFacetsDto searchFacets(
+            @Parameter(
+                    description = "Search text (title, code, description or category name)",
+                    example = "career"
+            )
+            @RequestParam(required = false)
+            String search,
+            @Parameter(
+                    description = "Profession category ID",
+                    example = "1"
+            )
+            @RequestParam(required = false)
+            Integer categoryId,
+
+            @Parameter(
+                    description = "Minimum estimated duration in seconds",
+                    example = "300"
+            )
+            @RequestParam(required = false)
+            Integer minDurationSec,
+
+            @Parameter(
+                    description = "Maximum estimated duration in seconds",
+                    example = "1200"
+            )
+            @RequestParam(required = false)
+            Integer maxDurationSec
+    ) {
+        return quizService.searchFacets(search, categoryId, minDurationSec, maxDurationSec);
+    }
+
     @PostMapping("/{id}/versions")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
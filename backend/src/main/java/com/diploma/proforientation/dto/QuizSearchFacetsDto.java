@@ -0,0 +1,23 @@
+package com.diploma.proforientation.dto;
+
+import com.diploma.proforientation.model.enumeration.DurationFilter;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Result counts of a quiz search, grouped by category and by duration bucket")
+public record QuizSearchFacetsDto(
+        @Schema(
+                description = "Number of quizzes matching the text and all filters",
+                examples = "12"
+        )
+        long total,
+        @Schema(
+                description = "Matches per category ID, ignoring the category filter"
+        )
+        Map<Integer, Long> categories,
+        @Schema(
+                description = "Matches per duration bucket, ignoring the duration filter"
+        )
+        Map<DurationFilter, Long> durations
+) {}
@@ -3,6 +3,7 @@ package com.diploma.proforientation.dto.analytics;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @Schema(description = "Detailed analytics data for a quiz version")
@@ -21,7 +22,10 @@ public record QuizAnalyticsDetailedDto(
         List<OptionDistribution> optionDistribution,
 
         @Schema(description = "Question discrimination metrics")
-        List<QuestionDiscrimination> discrimination
+        List<QuestionDiscrimination> discrimination,
+
+        @Schema(description = "When the discrimination metrics were last computed; null if not computed yet")
+        Instant discriminationComputedAt
 ) {
 
     @Schema(description = "Most frequent choice statistics for a question")
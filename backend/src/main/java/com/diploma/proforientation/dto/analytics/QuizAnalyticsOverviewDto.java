@@ -39,7 +39,10 @@ public record QuizAnalyticsOverviewDto(
         List<DailyPoint> activityDaily,
 
         @Schema(description = "Top professions based on first-choice selections")
-        List<TopProfession> topProfessions
+        List<TopProfession> topProfessions,
+
+        @Schema(description = "Duration percentiles and distinct participants within the selected days")
+        QuizAttemptDistributionDto attemptDistribution
 ) {
 
     @Schema(description = "Daily quiz activity data point")
@@ -0,0 +1,33 @@
+package com.diploma.proforientation.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Duration percentiles and distinct participants of submitted attempts, estimated from sketches")
+public record QuizAttemptDistributionDto(
+
+        @Schema(description = "Quiz identifier")
+        Integer quizId,
+
+        @Schema(description = "Quiz version identifier; null when merged across all versions")
+        Integer quizVersionId,
+
+        @Schema(description = "Number of submitted attempts summarized")
+        Long attemptsMeasured,
+
+        @Schema(description = "Median attempt duration in seconds", example = "284.0")
+        BigDecimal durationP50Seconds,
+
+        @Schema(description = "90th percentile of attempt duration in seconds", example = "512.0")
+        BigDecimal durationP90Seconds,
+
+        @Schema(description = "99th percentile of attempt duration in seconds", example = "1210.0")
+        BigDecimal durationP99Seconds,
+
+        @Schema(description = "Approximate number of distinct registered users (about 1.6% error)")
+        Long distinctUsers,
+
+        @Schema(description = "Approximate number of distinct guests (about 1.6% error)")
+        Long distinctGuests
+) {}
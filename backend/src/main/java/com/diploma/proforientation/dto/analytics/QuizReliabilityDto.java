@@ -0,0 +1,79 @@
+package com.diploma.proforientation.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Internal consistency of the trait scales of a quiz version")
+public record QuizReliabilityDto(
+
+        @Schema(description = "Quiz identifier")
+        Integer quizId,
+
+        @Schema(description = "Quiz version identifier")
+        Integer quizVersionId,
+
+        @Schema(description = "Reliability per trait")
+        List<TraitReliability> traits,
+
+        @Schema(description = "When the values were last computed; null if not computed yet")
+        Instant computedAt
+) {
+
+    @Schema(description = "Reliability of one trait scale")
+    public record TraitReliability(
+
+            @Schema(description = "Trait identifier")
+            Integer traitId,
+
+            @Schema(description = "Number of submitted attempts used for calculation")
+            Integer attemptsSubmitted,
+
+            @Schema(description = "Number of questions weighted on the trait")
+            Integer itemsCount,
+
+            @Schema(description = "Mean trait score")
+            BigDecimal totalMean,
+
+            @Schema(description = "Variance of the trait score")
+            BigDecimal totalVariance,
+
+            @Schema(description = "Cronbach's alpha; null when undefined", example = "0.78")
+            BigDecimal alpha,
+
+            @Schema(
+                    description = "Qualitative interpretation of alpha",
+                    example = "acceptable"
+            )
+            String alphaQuality,
+
+            @Schema(description = "Statistics of the trait's items, ordered by question")
+            List<ItemReliability> items
+    ) {}
+
+    @Schema(description = "Statistics of a question as an item of a trait scale")
+    public record ItemReliability(
+
+            @Schema(description = "Question identifier")
+            Integer questionId,
+
+            @Schema(description = "Mean item score")
+            BigDecimal itemMean,
+
+            @Schema(description = "Variance of the item score")
+            BigDecimal itemVariance,
+
+            @Schema(
+                    description = "Correlation of the item with the trait score without it",
+                    example = "0.42",
+                    minimum = "-1.0",
+                    maximum = "1.0"
+            )
+            BigDecimal itemTotalCorrelation,
+
+            @Schema(description = "Cronbach's alpha of the trait without this item")
+            BigDecimal alphaIfDeleted
+    ) {}
+}
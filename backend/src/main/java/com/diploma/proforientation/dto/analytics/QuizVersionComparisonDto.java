@@ -0,0 +1,105 @@
+package com.diploma.proforientation.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Side-by-side analytics of several versions of a quiz; deltas are relative to the baseline version")
+public record QuizVersionComparisonDto(
+
+        @Schema(description = "Quiz identifier")
+        Integer quizId,
+
+        @Schema(description = "Version all deltas are computed against (the first requested version)")
+        Integer baselineVersionId,
+
+        @Schema(description = "Attempt funnel per version, in request order")
+        List<VersionFunnel> versions,
+
+        @Schema(description = "Questions aligned by their order across versions")
+        List<QuestionComparison> questions
+) {
+
+    @Schema(description = "Attempt funnel of one version")
+    public record VersionFunnel(
+
+            @Schema(description = "Quiz version identifier")
+            Integer quizVersionId,
+
+            @Schema(description = "Version number within the quiz", example = "3")
+            Integer version,
+
+            @Schema(description = "Number of started attempts")
+            Integer attemptsStarted,
+
+            @Schema(description = "Number of submitted attempts")
+            Integer attemptsCompleted,
+
+            @Schema(description = "Share of started attempts that were submitted", example = "0.8")
+            BigDecimal completionRate,
+
+            @Schema(description = "Average attempt duration in seconds")
+            BigDecimal avgDurationSeconds,
+
+            @Schema(description = "Completion rate minus the baseline completion rate")
+            BigDecimal completionRateDelta,
+
+            @Schema(description = "Average duration minus the baseline average duration; null if either is unknown")
+            BigDecimal avgDurationDelta
+    ) {}
+
+    @Schema(description = "One question position compared across versions")
+    public record QuestionComparison(
+
+            @Schema(description = "Question order in the quiz")
+            Integer questionOrd,
+
+            @Schema(description = "The question in each compared version, in request order")
+            List<QuestionVersion> versions
+    ) {}
+
+    @Schema(description = "Statistics of the question at a given order in one version")
+    public record QuestionVersion(
+
+            @Schema(description = "Quiz version identifier")
+            Integer quizVersionId,
+
+            @Schema(description = "Question identifier; null if the version has no question at this order")
+            Integer questionId,
+
+            @Schema(description = "Total number of answers to the question")
+            Integer answersCount,
+
+            @Schema(description = "Normalized discrimination index; null if not computed yet")
+            BigDecimal discNorm,
+
+            @Schema(description = "Discrimination index minus the baseline index; null if either is unknown")
+            BigDecimal discNormDelta,
+
+            @Schema(description = "Qualitative interpretation of discrimination", example = "GOOD")
+            String discQuality,
+
+            @Schema(description = "Answer share per option, ordered by option order")
+            List<OptionShare> options
+    ) {}
+
+    @Schema(description = "How often an option was chosen")
+    public record OptionShare(
+
+            @Schema(description = "Option order within the question")
+            Integer optionOrd,
+
+            @Schema(description = "Option identifier")
+            Integer optionId,
+
+            @Schema(description = "Number of times this option was selected")
+            Integer count,
+
+            @Schema(description = "Share of the question's answers", example = "0.25")
+            BigDecimal share,
+
+            @Schema(description = "Share minus the share of the same option order in the baseline; null if the baseline has no answers")
+            BigDecimal shareDelta
+    ) {}
+}
@@ -0,0 +1,18 @@
+package com.diploma.proforientation.dto.cache;
+
+import java.util.List;
+
+/**
+ * Payload sent over the cache invalidation channel.
+ *
+ * @param origin node id of the publisher, used to skip own events
+ * @param cache cache name
+ * @param keys keys to evict; ignored when {@code allEntries} is set
+ * @param allEntries evict the whole cache
+ */
+public record CacheInvalidationEvent(
+        String origin,
+        String cache,
+        List<String> keys,
+        boolean allEntries
+) {}
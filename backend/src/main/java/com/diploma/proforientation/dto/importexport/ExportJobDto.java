@@ -0,0 +1,44 @@
+package com.diploma.proforientation.dto.importexport;
+
+import com.diploma.proforientation.model.enumeration.ExportJobStatus;
+import com.diploma.proforientation.model.enumeration.ExportJobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "State of a background export job")
+public record ExportJobDto(
+
+        @Schema(description = "Job identifier", example = "0b6f2d4e-3f1a-4c55-9b1e-7d2f0e8c9a10")
+        String id,
+
+        @Schema(description = "Kind of export")
+        ExportJobType type,
+
+        @Schema(description = "Job status", example = "RUNNING")
+        ExportJobStatus status,
+
+        @Schema(description = "File name of the download", example = "attempts.csv")
+        String filename,
+
+        @Schema(description = "Bytes written to the file so far")
+        long bytesWritten,
+
+        @Schema(description = "Replica that holds the file; downloads must be routed to it", example = "backend-0")
+        String node,
+
+        @Schema(description = "When the job was accepted")
+        Instant createdAt,
+
+        @Schema(description = "When generation started; null while queued")
+        Instant startedAt,
+
+        @Schema(description = "When generation finished; null while running")
+        Instant finishedAt,
+
+        @Schema(description = "When the file is removed; null while running")
+        Instant expiresAt,
+
+        @Schema(description = "Error message key of a failed job")
+        String error
+) {}
@@ -0,0 +1,26 @@
+package com.diploma.proforientation.dto.importexport;
+
+import com.diploma.proforientation.dto.QuizMetricsFilter;
+import com.diploma.proforientation.model.enumeration.ExportJobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Export to generate in the background; equal requests share one job")
+public record ExportJobRequest(
+
+        @NotNull
+        @Schema(description = "Kind of export", example = "ENTITY_CSV")
+        ExportJobType type,
+
+        @Schema(description = "Entity name, required for ENTITY_CSV", example = "attempts")
+        String entity,
+
+        @Schema(description = "Quiz identifier, required for ANALYTICS_* exports")
+        Integer quizId,
+
+        @Schema(description = "Quiz version identifier, required for ANALYTICS_* exports")
+        Integer quizVersionId,
+
+        @Schema(description = "Optional filter of QUIZ_METRICS_* exports")
+        QuizMetricsFilter filter
+) {}
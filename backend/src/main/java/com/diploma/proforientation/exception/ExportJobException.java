@@ -0,0 +1,11 @@
+package com.diploma.proforientation.exception;
+
+import org.springframework.http.HttpStatus;
+
+/** Thrown when an export job cannot be accepted or its file is not available. */
+public class ExportJobException extends ApiException {
+
+    public ExportJobException(String messageKey, HttpStatus status, Object... args) {
+        super(messageKey, status, args);
+    }
+}
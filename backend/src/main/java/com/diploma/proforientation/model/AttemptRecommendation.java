@@ -25,6 +25,9 @@ public class AttemptRecommendation {
 
     private BigDecimal score;
 
+    /** Position by score within the attempt, 1 = top recommendation. */
+    private Integer rank;
+
     @Column(name = "llm_explanation")
     private String llmExplanation;
 }
\ No newline at end of file
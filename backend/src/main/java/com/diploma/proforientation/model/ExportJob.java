@@ -0,0 +1,63 @@
+package com.diploma.proforientation.model;
+
+import com.diploma.proforientation.model.enumeration.ExportJobStatus;
+import com.diploma.proforientation.model.enumeration.ExportJobType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A background export job, shared by all replicas. The file of a finished
+ * job is kept on the replica in {@link #node}.
+ */
+@Entity
+@Table(name = "export_jobs")
+@Getter
+@Setter
+public class ExportJob {
+
+    @Id
+    private String id;
+
+    /** The normalized request; equal requests share one job. */
+    @Column(name = "request_key", nullable = false, unique = true)
+    private String requestKey;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ExportJobType type;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ExportJobStatus status;
+
+    @Column(nullable = false)
+    private String filename;
+
+    /** The replica that runs the job and holds its file. */
+    @Column(nullable = false)
+    private String node;
+
+    @Column(name = "file_path")
+    private String filePath;
+
+    @Column(name = "bytes_written", nullable = false)
+    private long bytesWritten;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    private String error;
+
+    /** Last time the owning replica reported the job; older than the lease means it is gone. */
+    @Column(name = "heartbeat_at", nullable = false)
+    private Instant heartbeatAt;
+}
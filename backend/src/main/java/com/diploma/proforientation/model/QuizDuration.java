@@ -0,0 +1,34 @@
+package com.diploma.proforientation.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Estimated duration of the current version of a quiz. Maintained by
+ * database triggers (see V23), read-only for the application.
+ */
+@Getter
+@Setter
+@Entity
+@Immutable
+@Table(name = "quiz_durations")
+public class QuizDuration {
+
+    @Id
+    @Column(name = "quiz_id")
+    private Integer quizId;
+
+    @Column(name = "quiz_version_id")
+    private Integer quizVersionId;
+
+    @Column(name = "questions_total")
+    private Integer questionsTotal;
+
+    @Column(name = "attempts_submitted")
+    private Integer attemptsSubmitted;
+
+    @Column(name = "estimated_duration_seconds")
+    private Integer estimatedDurationSeconds;
+}
@@ -0,0 +1,8 @@
+package com.diploma.proforientation.model.enumeration;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
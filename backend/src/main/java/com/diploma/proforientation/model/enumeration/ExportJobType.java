@@ -0,0 +1,22 @@
+package com.diploma.proforientation.model.enumeration;
+
+public enum ExportJobType {
+    ENTITY_CSV(null, "text/csv"),
+    FULL_EXCEL("data.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    QUIZ_METRICS_CSV("quiz_metrics.csv", "text/csv"),
+    QUIZ_METRICS_EXCEL("quiz_metrics.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    ANALYTICS_OVERVIEW_CSV("quiz_overview.csv", "text/csv"),
+    ANALYTICS_DETAILED_CSV("quiz_detailed.csv", "text/csv"),
+    ANALYTICS_OVERVIEW_EXCEL("quiz_overview.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    ANALYTICS_DETAILED_EXCEL("quiz_detailed.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    ANSWER_MATRIX_CSV_GZ("answer_matrix.csv.gz", "application/gzip");
+
+    /** Download file name; null when it depends on the request. */
+    public final String filename;
+    public final String contentType;
+
+    ExportJobType(String filename, String contentType) {
+        this.filename = filename;
+        this.contentType = contentType;
+    }
+}
@@ -8,13 +8,17 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+/**
+ * Attempts per quiz version and start day. Backed by a rollup table that
+ * database triggers update on every attempt start and submit (see V24).
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Immutable
-@Table(name = "v_quiz_activity_daily")
+@Table(name = "quiz_activity_daily")
 public class QuizActivityDailyEntity {
 
     @EmbeddedId
@@ -7,13 +7,17 @@ import org.hibernate.annotations.Immutable;
 import java.io.Serializable;
 import java.math.BigDecimal;
 
+/**
+ * Attempt funnel per quiz version. Backed by a rollup table that database
+ * triggers update on every attempt start and submit (see V24).
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Immutable
-@Table(name = "v_quiz_funnel_overview")
+@Table(name = "quiz_version_funnel")
 public class QuizFunnelOverviewEntity {
 
     @EmbeddedId
@@ -0,0 +1,61 @@
+package com.diploma.proforientation.model.view;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Stored statistics of one question as an item of a trait scale, written by
+ * the background {@code TraitReliabilityJob} (see V30).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "quiz_item_reliability")
+public class QuizItemReliabilityEntity {
+
+    @EmbeddedId
+    private Id id;
+
+    @Column(name = "item_mean")
+    private BigDecimal itemMean;
+
+    @Column(name = "item_variance")
+    private BigDecimal itemVariance;
+
+    @Column(name = "item_total_corr")
+    private BigDecimal itemTotalCorrelation;
+
+    @Column(name = "alpha_if_deleted")
+    private BigDecimal alphaIfDeleted;
+
+    @Column(name = "computed_at")
+    private Instant computedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Id implements Serializable {
+        @Column(name = "quiz_id")
+        private Integer quizId;
+
+        @Column(name = "quiz_version_id")
+        private Integer quizVersionId;
+
+        @Column(name = "trait_id")
+        private Integer traitId;
+
+        @Column(name = "question_id")
+        private Integer questionId;
+    }
+}
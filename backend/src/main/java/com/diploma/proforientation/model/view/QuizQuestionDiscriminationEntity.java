@@ -6,14 +6,19 @@ import org.hibernate.annotations.Immutable;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 
+/**
+ * Stored discrimination of one question, written by the background
+ * {@code QuestionDiscriminationJob} (see V25).
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Immutable
-@Table(name = "v_quiz_question_discrimination_norm_all")
+@Table(name = "quiz_question_discrimination")
 public class QuizQuestionDiscriminationEntity {
 
     @EmbeddedId
@@ -49,6 +54,9 @@ public class QuizQuestionDiscriminationEntity {
     @Column(name = "disc_quality")
     private String discQuality;
 
+    @Column(name = "computed_at")
+    private Instant computedAt;
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -0,0 +1,64 @@
+package com.diploma.proforientation.model.view;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Stored reliability of one trait scale, written by the background
+ * {@code TraitReliabilityJob} (see V30).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "quiz_trait_reliability")
+public class QuizTraitReliabilityEntity {
+
+    @EmbeddedId
+    private Id id;
+
+    @Column(name = "attempts_submitted")
+    private Integer attemptsSubmitted;
+
+    @Column(name = "items")
+    private Integer items;
+
+    @Column(name = "total_mean")
+    private BigDecimal totalMean;
+
+    @Column(name = "total_variance")
+    private BigDecimal totalVariance;
+
+    @Column(name = "alpha")
+    private BigDecimal alpha;
+
+    @Column(name = "alpha_quality")
+    private String alphaQuality;
+
+    @Column(name = "computed_at")
+    private Instant computedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Id implements Serializable {
+        @Column(name = "quiz_id")
+        private Integer quizId;
+
+        @Column(name = "quiz_version_id")
+        private Integer quizVersionId;
+
+        @Column(name = "trait_id")
+        private Integer traitId;
+    }
+}
@@ -1,12 +1,19 @@
 package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.Answer;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface AnswerRepository extends JpaRepository<Answer, Integer> {
     void deleteByAttemptId(Integer attemptId);
@@ -28,4 +35,34 @@ public interface AnswerRepository extends JpaRepository<Answer, Integer> {
             @Param("attemptId") Integer attemptId,
             @Param("questionId") Integer questionId
     );
+
+    /**
+     * One row per answer of the submitted attempts of a version, ordered by
+     * attempt and question ord: attempt id, submitted at, the codes of the
+     * recommended professions by rank ({@code ;}-separated), question ord and
+     * option ord. A read-only cursor; the caller must consume it inside a
+     * transaction.
+     */
+    @Query(value = """
+        SELECT a.id, a.submitted_at, rec.professions, qu.ord, qo.ord
+        FROM attempts a
+        LEFT JOIN LATERAL (
+            SELECT string_agg(p.code, ';' ORDER BY ar.rank) AS professions
+            FROM attempt_recommendations ar
+            JOIN professions p ON p.id = ar.profession_id
+            WHERE ar.attempt_id = a.id
+        ) rec ON true
+        JOIN answers an ON an.attempt_id = a.id
+        JOIN question_options qo ON qo.id = an.option_id
+        JOIN questions qu ON qu.id = qo.question_id
+        WHERE a.quiz_version_id = :quizVersionId
+          AND a.submitted_at IS NOT NULL
+          AND a.deleted_at IS NULL
+        ORDER BY a.id, qu.ord, qo.ord
+    """, nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamAnswerMatrixRows(@Param("quizVersionId") Integer quizVersionId);
 }
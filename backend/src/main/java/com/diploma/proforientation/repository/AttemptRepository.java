@@ -1,12 +1,19 @@
 package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.Attempt;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface AttemptRepository extends JpaRepository<Attempt, Integer> {
     List<Attempt> findByUserIdAndDeletedAtIsNullOrderByStartedAtDesc(Integer userId);
@@ -26,4 +33,40 @@ public interface AttemptRepository extends JpaRepository<Attempt, Integer> {
             @Param("from") Instant from,
             @Param("to") Instant to
     );
+
+    /**
+     * Export rows in id order, one flat tuple per row in the column order of
+     * {@code HEADERS_ATTEMPTS}, so no association is loaded. A read-only cursor; the
+     * caller must consume it inside a transaction.
+     */
+    @Query("""
+        SELECT a.id, a.quizVersion.id, u.id, a.guestToken, a.locale, a.startedAt, a.submittedAt, a.uuid
+        FROM Attempt a
+        LEFT JOIN a.user u
+        ORDER BY a.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRows();
+
+    /**
+     * Export rows of the attempts started, submitted or soft-deleted after
+     * {@code since}, in the column order of {@code HEADERS_ATTEMPTS_DELTA}: the
+     * trailing {@code deletedAt} marks a tombstone.
+     */
+    @Query("""
+        SELECT a.id, a.quizVersion.id, u.id, a.guestToken, a.locale, a.startedAt, a.submittedAt, a.uuid,
+               a.deletedAt
+        FROM Attempt a
+        LEFT JOIN a.user u
+        WHERE a.startedAt > :since OR a.submittedAt > :since OR a.deletedAt > :since
+        ORDER BY a.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") Instant since);
 }
@@ -0,0 +1,118 @@
+package com.diploma.proforientation.repository;
+
+import com.diploma.proforientation.model.ExportJob;
+import com.diploma.proforientation.model.enumeration.ExportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+public interface ExportJobRepository extends JpaRepository<ExportJob, String> {
+
+    /**
+     * Inserts a queued job for the request, or takes over the row of an equal
+     * request whose job failed, finished before {@code expiredBefore}, or
+     * whose replica has not reported it since {@code staleBefore}. Returns 0
+     * when an equal job is still queued, running or downloadable; the unique
+     * request key makes this atomic across replicas.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO export_jobs (id, request_key, type, status, filename, node, bytes_written, created_at,
+                                     heartbeat_at)
+            VALUES (:id, :requestKey, :type, 'QUEUED', :filename, :node, 0, :createdAt, :createdAt)
+            ON CONFLICT (request_key) DO UPDATE
+            SET id = EXCLUDED.id,
+                type = EXCLUDED.type,
+                status = EXCLUDED.status,
+                filename = EXCLUDED.filename,
+                node = EXCLUDED.node,
+                file_path = NULL,
+                bytes_written = 0,
+                created_at = EXCLUDED.created_at,
+                started_at = NULL,
+                finished_at = NULL,
+                error = NULL,
+                heartbeat_at = EXCLUDED.heartbeat_at
+            WHERE export_jobs.status = 'FAILED'
+               OR export_jobs.finished_at <= :expiredBefore
+               OR export_jobs.heartbeat_at <= :staleBefore
+            """)
+    int claim(@Param("id") String id,
+              @Param("requestKey") String requestKey,
+              @Param("type") String type,
+              @Param("filename") String filename,
+              @Param("node") String node,
+              @Param("createdAt") Instant createdAt,
+              @Param("expiredBefore") Instant expiredBefore,
+              @Param("staleBefore") Instant staleBefore);
+
+    Optional<ExportJob> findByRequestKey(String requestKey);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.status = :status, j.startedAt = :startedAt WHERE j.id = :id")
+    void markStarted(@Param("id") String id,
+                     @Param("status") ExportJobStatus status,
+                     @Param("startedAt") Instant startedAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ExportJob j
+            SET j.status = :status, j.filePath = :filePath, j.bytesWritten = :bytesWritten,
+                j.error = :error, j.finishedAt = :finishedAt
+            WHERE j.id = :id
+            """)
+    void markFinished(@Param("id") String id,
+                      @Param("status") ExportJobStatus status,
+                      @Param("filePath") String filePath,
+                      @Param("bytesWritten") long bytesWritten,
+                      @Param("error") String error,
+                      @Param("finishedAt") Instant finishedAt);
+
+    /** Renews the lease of an unfinished job and publishes its progress. */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ExportJob j
+            SET j.heartbeatAt = :heartbeatAt, j.bytesWritten = :bytesWritten
+            WHERE j.id = :id AND j.finishedAt IS NULL
+            """)
+    void heartbeat(@Param("id") String id,
+                   @Param("bytesWritten") long bytesWritten,
+                   @Param("heartbeatAt") Instant heartbeatAt);
+
+    /** Renews the lease of the finished jobs of a replica, whose files it still holds. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExportJob j SET j.heartbeatAt = :heartbeatAt WHERE j.node = :node AND j.finishedAt IS NOT NULL")
+    void heartbeatFinished(@Param("node") String node, @Param("heartbeatAt") Instant heartbeatAt);
+
+    /** Fails the jobs a replica had not finished when it stopped. */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ExportJob j
+            SET j.status = com.diploma.proforientation.model.enumeration.ExportJobStatus.FAILED,
+                j.error = :error, j.finishedAt = :finishedAt
+            WHERE j.node = :node AND j.finishedAt IS NULL
+            """)
+    int failUnfinished(@Param("node") String node,
+                       @Param("error") String error,
+                       @Param("finishedAt") Instant finishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ExportJob j WHERE j.finishedAt <= :expiredBefore OR j.heartbeatAt <= :staleBefore")
+    int deleteExpired(@Param("expiredBefore") Instant expiredBefore, @Param("staleBefore") Instant staleBefore);
+
+    @Query("SELECT j.filePath FROM ExportJob j WHERE j.node = :node AND j.filePath IS NOT NULL")
+    Set<String> findFilePathsByNode(@Param("node") String node);
+}
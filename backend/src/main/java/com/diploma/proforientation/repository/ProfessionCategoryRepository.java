@@ -2,6 +2,15 @@ package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.ProfessionCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Set;
 
 public interface ProfessionCategoryRepository extends JpaRepository<ProfessionCategory, Integer> {
+
+    /** Those of the given ids that exist, for reference checks of imports. */
+    @Query("SELECT c.id FROM ProfessionCategory c WHERE c.id IN :ids")
+    Set<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -1,14 +1,21 @@
 package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.Profession;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ProfessionRepository extends JpaRepository<Profession, Integer> {
     List<Profession> findByCategoryId(Integer categoryId);
@@ -18,19 +25,51 @@ public interface ProfessionRepository extends JpaRepository<Profession, Integer>
     @Query("""
         SELECT p
         FROM Profession p
-        WHERE
-            (:categoryId IS NULL OR p.category.id = :categoryId)
-        AND (
-            :q IS NULL OR :q = '' OR
-            LOWER(p.titleDefault) LIKE LOWER(CONCAT('%', :q, '%')) OR
-            LOWER(p.description) LIKE LOWER(CONCAT('%', :q, '%')) OR
-            LOWER(p.code) LIKE LOWER(CONCAT('%', :q, '%')) OR
-            LOWER(p.mlClassCode) LIKE LOWER(CONCAT('%', :q, '%'))
-        )
+        WHERE :categoryId IS NULL OR p.category.id = :categoryId
     """)
+    Page<Profession> findAllByCategory(
+            @Param("categoryId") Integer categoryId,
+            Pageable pageable
+    );
+
+    /**
+     * Ranked full-text/trigram search matching the default texts and the
+     * translations of the given locale (see {@code search_rank}).
+     */
+    @Query(value = """
+        SELECT p.*
+        FROM professions p
+        JOIN search_rank('profession', :locale, :q) m ON m.entity_id = p.id
+        WHERE CAST(:categoryId AS INTEGER) IS NULL OR p.category_id = CAST(:categoryId AS INTEGER)
+        ORDER BY m.rank DESC, p.id
+        """,
+            countQuery = """
+        SELECT COUNT(*)
+        FROM professions p
+        JOIN search_rank('profession', :locale, :q) m ON m.entity_id = p.id
+        WHERE CAST(:categoryId AS INTEGER) IS NULL OR p.category_id = CAST(:categoryId AS INTEGER)
+        """,
+            nativeQuery = true)
     Page<Profession> search(
             @Param("q") String q,
+            @Param("locale") String locale,
             @Param("categoryId") Integer categoryId,
             Pageable pageable
     );
+
+    /**
+     * Export rows in id order, one flat tuple per row in the column order of
+     * {@code HEADERS_PROFESSIONS}, so no association is loaded. A read-only cursor; the
+     * caller must consume it inside a transaction.
+     */
+    @Query("""
+        SELECT p.id, p.code, p.titleDefault, p.description, p.mlClassCode, p.category.id
+        FROM Profession p
+        ORDER BY p.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRows();
 }
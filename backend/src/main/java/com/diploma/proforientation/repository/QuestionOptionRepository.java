@@ -1,12 +1,36 @@
 package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.QuestionOption;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface QuestionOptionRepository extends JpaRepository<QuestionOption, Integer> {
     List<QuestionOption> findByQuestionId(Integer questionId);
     List<QuestionOption> findByQuestionIdOrderByOrd(Integer questionId);
     List<QuestionOption> findByQuestionIdOrderByOrdAsc(Integer questionId);
+
+    /**
+     * Export rows in id order, one flat tuple per row in the column order of
+     * {@code HEADERS_QUESTION_OPTIONS}, so no association is loaded. A read-only cursor; the
+     * caller must consume it inside a transaction.
+     */
+    @Query("""
+        SELECT o.id, o.question.id, o.ord, o.labelDefault
+        FROM QuestionOption o
+        ORDER BY o.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRows();
 }
@@ -1,11 +1,21 @@
 package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.Question;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface QuestionRepository extends JpaRepository<Question, Integer> {
     List<Question> findByQuizVersionId(Integer quizVersionId);
@@ -13,4 +23,38 @@ public interface QuestionRepository extends JpaRepository<Question, Integer> {
             Integer quizVersionId,
             Pageable pageable
     );
+
+    /**
+     * Question ids and ords of several versions without loading the texts,
+     * used to align questions across versions.
+     */
+    @Query("""
+        SELECT q.quizVersion.id AS quizVersionId, q.id AS questionId, q.ord AS ord
+        FROM Question q
+        WHERE q.quizVersion.id IN :quizVersionIds
+        ORDER BY q.ord, q.quizVersion.id
+    """)
+    List<QuestionOrd> findOrdsByQuizVersionIdIn(@Param("quizVersionIds") Collection<Integer> quizVersionIds);
+
+    /**
+     * Export rows in id order, one flat tuple per row in the column order of
+     * {@code HEADERS_QUESTIONS}, so no association is loaded. A read-only cursor; the
+     * caller must consume it inside a transaction.
+     */
+    @Query("""
+        SELECT q.id, q.quizVersion.id, q.ord, q.qtype, q.textDefault
+        FROM Question q
+        ORDER BY q.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRows();
+
+    interface QuestionOrd {
+        Integer getQuizVersionId();
+        Integer getQuestionId();
+        Integer getOrd();
+    }
 }
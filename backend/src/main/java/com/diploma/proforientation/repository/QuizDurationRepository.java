@@ -0,0 +1,7 @@
+package com.diploma.proforientation.repository;
+
+import com.diploma.proforientation.model.QuizDuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface QuizDurationRepository extends JpaRepository<QuizDuration, Integer> {
+}
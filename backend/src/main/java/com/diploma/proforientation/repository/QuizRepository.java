@@ -2,15 +2,115 @@ package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.Quiz;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface QuizRepository extends JpaRepository<Quiz, Integer>, JpaSpecificationExecutor<Quiz> {
     Optional<Quiz> findByCode(String code);
     Page<Quiz> findAllByAuthorId(Integer authorId, Pageable pageable);
     Page<Quiz> findAllByStatus(QuizStatus status, Pageable pageable);
+    List<Quiz> findAllByStatus(QuizStatus status);
+    List<Quiz> findAllByCodeInAndStatus(Collection<String> codes, QuizStatus status);
+
+    /**
+     * Ranked full-text/trigram search over published quizzes, matching the default
+     * texts and the translations of the given locale (see {@code search_rank}).
+     */
+    @Query(value = """
+        SELECT q.*
+        FROM quizzes q
+        JOIN search_rank('quiz', :locale, :q) m ON m.entity_id = q.id
+        WHERE q.status = 'PUBLISHED'
+          AND (CAST(:categoryId AS INTEGER) IS NULL OR q.category_id = CAST(:categoryId AS INTEGER))
+          AND (
+              (CAST(:minDur AS INTEGER) IS NULL AND CAST(:maxDur AS INTEGER) IS NULL)
+              OR EXISTS (
+                  SELECT 1
+                  FROM quiz_durations d
+                  WHERE d.quiz_id = q.id
+                    AND (CAST(:minDur AS INTEGER) IS NULL OR d.estimated_duration_seconds >= CAST(:minDur AS INTEGER))
+                    AND (CAST(:maxDur AS INTEGER) IS NULL OR d.estimated_duration_seconds <= CAST(:maxDur AS INTEGER))
+              )
+          )
+        ORDER BY m.rank DESC, q.id
+        """,
+            countQuery = """
+        SELECT COUNT(*)
+        FROM quizzes q
+        JOIN search_rank('quiz', :locale, :q) m ON m.entity_id = q.id
+        WHERE q.status = 'PUBLISHED'
+          AND (CAST(:categoryId AS INTEGER) IS NULL OR q.category_id = CAST(:categoryId AS INTEGER))
+          AND (
+              (CAST(:minDur AS INTEGER) IS NULL AND CAST(:maxDur AS INTEGER) IS NULL)
+              OR EXISTS (
+                  SELECT 1
+                  FROM quiz_durations d
+                  WHERE d.quiz_id = q.id
+                    AND (CAST(:minDur AS INTEGER) IS NULL OR d.estimated_duration_seconds >= CAST(:minDur AS INTEGER))
+                    AND (CAST(:maxDur AS INTEGER) IS NULL OR d.estimated_duration_seconds <= CAST(:maxDur AS INTEGER))
+              )
+          )
+        """,
+            nativeQuery = true)
+    Page<Quiz> searchPublished(
+            @Param("q") String q,
+            @Param("locale") String locale,
+            @Param("categoryId") Integer categoryId,
+            @Param("minDur") Integer minDurationSec,
+            @Param("maxDur") Integer maxDurationSec,
+            Pageable pageable
+    );
+
+    /**
+     * Export rows in id order, one flat tuple per row in the column order of
+     * {@code HEADERS_QUIZZES}, so no association is loaded. A read-only cursor; the
+     * caller must consume it inside a transaction.
+     */
+    @Query("""
+        SELECT q.id, q.code, q.titleDefault, q.descriptionDefault, q.status, q.processingMode,
+               c.id, q.author.id, q.secondsPerQuestionDefault
+        FROM Quiz q
+        LEFT JOIN q.category c
+        ORDER BY q.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRows();
+
+    /**
+     * Export rows of the quizzes created or updated after {@code since}, in the
+     * same shape as {@link #streamExportRows()}; {@code updated_at} is kept
+     * current by a trigger.
+     */
+    @Query("""
+        SELECT q.id, q.code, q.titleDefault, q.descriptionDefault, q.status, q.processingMode,
+               c.id, q.author.id, q.secondsPerQuestionDefault
+        FROM Quiz q
+        LEFT JOIN q.category c
+        WHERE q.updatedAt > :since
+        ORDER BY q.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRowsChangedSince(@Param("since") Instant since);
 }
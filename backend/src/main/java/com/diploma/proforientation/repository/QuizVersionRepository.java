@@ -1,20 +1,51 @@
 package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.QuizVersion;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface QuizVersionRepository extends JpaRepository<QuizVersion, Integer> {
     Optional<QuizVersion> findTopByQuizIdOrderByVersionDesc(Integer quizId);
     Optional<QuizVersion> findByQuizIdAndCurrentTrue(Integer quizId);
     Optional<QuizVersion> findByQuizIdAndVersion(Integer quizId, Integer version);
     List<QuizVersion> findByQuizIdOrderByVersionDesc(Integer quizId);
+    boolean existsByIdAndQuizId(Integer id, Integer quizId);
+
+    /** Those of the given ids that exist, for reference checks of imports. */
+    @Query("SELECT v.id FROM QuizVersion v WHERE v.id IN :ids")
+    Set<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
     @Modifying
     @Query("UPDATE QuizVersion v SET v.current = false WHERE v.quiz.id = :quizId")
     void clearCurrentForQuiz(@Param("quizId") Integer quizId);
+
+    /**
+     * Export rows in id order, one flat tuple per row in the column order of
+     * {@code HEADERS_QUIZ_VERSIONS}, so no association is loaded. A read-only cursor; the
+     * caller must consume it inside a transaction.
+     */
+    @Query("""
+        SELECT v.id, v.quiz.id, v.version, v.current, v.publishedAt
+        FROM QuizVersion v
+        ORDER BY v.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRows();
 }
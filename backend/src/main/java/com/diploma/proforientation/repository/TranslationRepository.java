@@ -1,10 +1,18 @@
 package com.diploma.proforientation.repository;
 
 import com.diploma.proforientation.model.Translation;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.diploma.proforientation.util.Constants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TranslationRepository extends JpaRepository<Translation, Integer> {
     Optional<Translation> findByEntityTypeAndEntityIdAndFieldAndLocale(
@@ -15,5 +23,23 @@ public interface TranslationRepository extends JpaRepository<Translation, Intege
             String entityType, Integer entityId, String locale
     );
 
+    List<Translation> findByEntityTypeAndEntityId(String entityType, Integer entityId);
+
     List<Translation> findByEntityType(String entityType);
+
+    /**
+     * Export rows in id order, one flat tuple per row in the column order of
+     * {@code HEADERS_TRANSLATIONS}, so no association is loaded. A read-only cursor; the
+     * caller must consume it inside a transaction.
+     */
+    @Query("""
+        SELECT t.id, t.entityType, t.entityId, t.locale, t.field, t.text
+        FROM Translation t
+        ORDER BY t.id
+    """)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamExportRows();
 }
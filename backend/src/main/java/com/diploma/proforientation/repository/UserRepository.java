@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for managing {@link User} entities.
@@ -28,4 +30,14 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     @Query("SELECT u.id FROM User u WHERE u.email = :email")
     Optional<Integer> findIdByEmail(@Param("email") String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Returns those of the given ids that belong to a user, so imports can
+     * check author references without loading the users.
+     *
+     * @param ids the user ids to check
+     * @return the ids that exist
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.diploma.proforientation.repository.view;
 import com.diploma.proforientation.model.view.QuizFunnelOverviewEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface QuizFunnelOverviewRepository
@@ -10,4 +11,5 @@ public interface QuizFunnelOverviewRepository
 
     List<QuizFunnelOverviewEntity> findByIdQuizId(Integer quizId);
     QuizFunnelOverviewEntity findByIdQuizIdAndIdQuizVersionId(Integer quizId, Integer quizVersionId);
+    List<QuizFunnelOverviewEntity> findByIdQuizIdAndIdQuizVersionIdIn(Integer quizId, Collection<Integer> quizVersionIds);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.diploma.proforientation.repository.view;
+
+import com.diploma.proforientation.model.view.QuizItemReliabilityEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface QuizItemReliabilityRepository
+        extends JpaRepository<QuizItemReliabilityEntity, QuizItemReliabilityEntity.Id> {
+
+    List<QuizItemReliabilityEntity> findByIdQuizIdAndIdQuizVersionId(
+            Integer quizId, Integer quizVersionId
+    );
+}
@@ -3,6 +3,7 @@ package com.diploma.proforientation.repository.view;
 import com.diploma.proforientation.model.view.QuizQuestionDiscriminationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface QuizQuestionDiscriminationRepository
@@ -11,4 +12,8 @@ public interface QuizQuestionDiscriminationRepository
     List<QuizQuestionDiscriminationEntity> findByIdQuizIdAndIdQuizVersionId(
             Integer quizId, Integer quizVersionId
     );
+
+    List<QuizQuestionDiscriminationEntity> findByIdQuizIdAndIdQuizVersionIdIn(
+            Integer quizId, Collection<Integer> quizVersionIds
+    );
 }
\ No newline at end of file
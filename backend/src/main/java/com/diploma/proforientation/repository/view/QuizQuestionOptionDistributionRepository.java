@@ -3,6 +3,7 @@ package com.diploma.proforientation.repository.view;
 import com.diploma.proforientation.model.view.QuizQuestionOptionDistributionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface QuizQuestionOptionDistributionRepository
@@ -11,4 +12,8 @@ public interface QuizQuestionOptionDistributionRepository
     List<QuizQuestionOptionDistributionEntity> findByIdQuizIdAndIdQuizVersionId(
             Integer quizId, Integer quizVersionId
     );
+
+    List<QuizQuestionOptionDistributionEntity> findByIdQuizIdAndIdQuizVersionIdIn(
+            Integer quizId, Collection<Integer> quizVersionIds
+    );
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.diploma.proforientation.repository.view;
+
+import com.diploma.proforientation.model.view.QuizTraitReliabilityEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface QuizTraitReliabilityRepository
+        extends JpaRepository<QuizTraitReliabilityEntity, QuizTraitReliabilityEntity.Id> {
+
+    List<QuizTraitReliabilityEntity> findByIdQuizIdAndIdQuizVersionId(
+            Integer quizId, Integer quizVersionId
+    );
+}
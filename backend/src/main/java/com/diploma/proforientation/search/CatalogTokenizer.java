@@ -0,0 +1,37 @@
+package com.diploma.proforientation.search;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits catalog texts and search queries into index terms: NFC-normalized,
+ * lower-cased with the rules of the given locale, {@code ё} folded to {@code е},
+ * split on everything that is not a letter or a digit.
+ */
+public final class CatalogTokenizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private CatalogTokenizer() {}
+
+    public static List<String> tokenize(String text, String locale) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC)
+                .toLowerCase(toLocale(locale))
+                .replace('ё', 'е');
+
+        return SEPARATORS.splitAsStream(normalized)
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static Locale toLocale(String locale) {
+        return locale == null || locale.isBlank() ? Locale.ROOT : Locale.forLanguageTag(locale);
+    }
+}
@@ -0,0 +1,45 @@
+package com.diploma.proforientation.search;
+
+import com.diploma.proforientation.dto.QuizDto;
+import com.diploma.proforientation.dto.QuizSearchFacetsDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/**
+ * In-memory search index over published quizzes.
+ */
+public interface QuizCatalogIndex {
+
+    /**
+     * Searches the catalog. Returns empty when the index cannot serve the
+     * request (not built yet, disabled, or an unsupported sort), so the caller
+     * can fall back to the database.
+     */
+    Optional<Page<QuizDto>> search(
+            String text,
+            Integer categoryId,
+            Integer minDurationSec,
+            Integer maxDurationSec,
+            String locale,
+            Pageable pageable
+    );
+
+    QuizSearchFacetsDto facets(
+            String text,
+            Integer categoryId,
+            Integer minDurationSec,
+            Integer maxDurationSec,
+            String locale
+    );
+
+    /** Reloads the whole catalog from the database. */
+    void rebuild();
+
+    /** Re-indexes one quiz on every node once the current transaction commits. */
+    void quizChanged(Integer quizId);
+
+    /** Rebuilds the catalog on every node once the current transaction commits. */
+    void catalogChanged();
+}
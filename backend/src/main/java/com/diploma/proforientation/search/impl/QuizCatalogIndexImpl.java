@@ -0,0 +1,473 @@
+package com.diploma.proforientation.search.impl;
+
+import com.diploma.proforientation.dto.QuizDto;
+import com.diploma.proforientation.dto.QuizSearchFacetsDto;
+import com.diploma.proforientation.model.Quiz;
+import com.diploma.proforientation.model.QuizDuration;
+import com.diploma.proforientation.model.Translation;
+import com.diploma.proforientation.model.enumeration.DurationFilter;
+import com.diploma.proforientation.model.enumeration.QuizStatus;
+import com.diploma.proforientation.repository.QuizDurationRepository;
+import com.diploma.proforientation.repository.QuizRepository;
+import com.diploma.proforientation.repository.TranslationRepository;
+import com.diploma.proforientation.search.CatalogTokenizer;
+import com.diploma.proforientation.search.QuizCatalogIndex;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.diploma.proforientation.util.Constants.*;
+
+/**
+ * Keeps every published quiz in memory with a per-locale inverted index over
+ * code, titles, descriptions and category names. Searches are answered
+ * without touching the database: query terms are matched as prefixes (exact
+ * terms score higher), all terms must match, and results are ordered by
+ * field-weighted relevance.
+ * <p>
+ * The index is rebuilt on startup and periodically (to pick up duration
+ * estimates and category renames), and single quizzes are re-indexed after
+ * commits that change them. Changes are broadcast through
+ * {@link CacheInvalidationService}, so every replica re-indexes as well.
+ * Readers always see an immutable snapshot; writers are serialized.
+ */
+@Slf4j
+@Component
+public class QuizCatalogIndexImpl implements QuizCatalogIndex, CacheInvalidationService.Listener {
+
+    private static final float WEIGHT_TITLE = 3f;
+    private static final float WEIGHT_CODE = 2f;
+    private static final float WEIGHT_CATEGORY = 1.5f;
+    private static final float WEIGHT_DESCRIPTION = 1f;
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private static final Map<String, Comparator<Entry>> SORTABLE = Map.of(
+            "id", Comparator.comparing(e -> e.base().id()),
+            "code", Comparator.comparing(e -> e.base().code()),
+            "titleDefault", Comparator.comparing(e -> e.base().title()),
+            "secondsPerQuestionDefault", Comparator.comparing(e -> e.base().secondsPerQuestionDefault())
+    );
+
+    private final QuizRepository quizRepo;
+    private final TranslationRepository translationRepo;
+    private final QuizDurationRepository quizDurationRepo;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final TransactionTemplate readTx;
+    private final boolean enabled;
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    public QuizCatalogIndexImpl(QuizRepository quizRepo,
+                                TranslationRepository translationRepo,
+                                QuizDurationRepository quizDurationRepo,
+                                CacheInvalidationService cacheInvalidationService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${search.catalog.enabled:true}") boolean enabled) {
+        this.quizRepo = quizRepo;
+        this.translationRepo = translationRepo;
+        this.quizDurationRepo = quizDurationRepo;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.enabled = enabled;
+
+        // listeners run in afterCommit callbacks, where the finished transaction is still bound
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        cacheInvalidationService.subscribe(QUIZ_CATALOG, this);
+    }
+
+    @Override
+    public Optional<Page<QuizDto>> search(
+            String text,
+            Integer categoryId,
+            Integer minDurationSec,
+            Integer maxDurationSec,
+            String locale,
+            Pageable pageable
+    ) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            return Optional.empty();
+        }
+
+        boolean byRelevance = text != null && !text.isBlank();
+        Comparator<Entry> order = byRelevance ? null : comparator(pageable.getSort());
+        if (!byRelevance && order == null) {
+            return Optional.empty();
+        }
+
+        Map<Integer, Float> scores = match(s, text, locale);
+        List<Entry> hits = new ArrayList<>();
+        for (Integer id : scores.keySet()) {
+            Entry e = s.entries().get(id);
+            if (inCategory(e, categoryId) && inDuration(e, minDurationSec, maxDurationSec)) {
+                hits.add(e);
+            }
+        }
+
+        if (byRelevance) {
+            // results are ordered by relevance, so the requested sort is not applied
+            hits.sort(Comparator.<Entry>comparingDouble(e -> scores.get(e.base().id())).reversed()
+                    .thenComparing(e -> e.base().id()));
+        } else {
+            hits.sort(order);
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<QuizDto> content = hits.subList(from, to).stream()
+                .map(e -> e.toDto(locale))
+                .toList();
+
+        return Optional.of(new PageImpl<>(content, pageable, hits.size()));
+    }
+
+    @Override
+    public QuizSearchFacetsDto facets(
+            String text,
+            Integer categoryId,
+            Integer minDurationSec,
+            Integer maxDurationSec,
+            String locale
+    ) {
+        Map<Integer, Long> categories = new TreeMap<>();
+        Map<DurationFilter, Long> durations = new EnumMap<>(DurationFilter.class);
+        long total = 0;
+
+        Snapshot s = snapshot;
+        if (s == null) {
+            return new QuizSearchFacetsDto(total, categories, durations);
+        }
+
+        for (Integer id : match(s, text, locale).keySet()) {
+            Entry e = s.entries().get(id);
+            boolean categoryOk = inCategory(e, categoryId);
+            boolean durationOk = inDuration(e, minDurationSec, maxDurationSec);
+
+            if (durationOk && e.categoryId() != null) {
+                categories.merge(e.categoryId(), 1L, Long::sum);
+            }
+            if (categoryOk) {
+                for (DurationFilter bucket : DurationFilter.values()) {
+                    if (bucket != DurationFilter.ANY && inDuration(e, bucket.minSec, bucket.maxSec)) {
+                        durations.merge(bucket, 1L, Long::sum);
+                    }
+                }
+            }
+            if (categoryOk && durationOk) {
+                total++;
+            }
+        }
+
+        return new QuizSearchFacetsDto(total, categories, durations);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${search.catalog.refresh-interval:PT10M}",
+            fixedDelayString = "${search.catalog.refresh-interval:PT10M}"
+    )
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<Integer, Entry> loaded = readTx.execute(status -> loadAll());
+            entries.clear();
+            entries.putAll(loaded);
+            publish();
+            log.debug("Quiz catalog index built: {} quizzes", loaded.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to build quiz catalog index: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void quizChanged(Integer quizId) {
+        afterCommit(() -> cacheInvalidationService.evict(QUIZ_CATALOG, List.of(String.valueOf(quizId))));
+    }
+
+    @Override
+    public void catalogChanged() {
+        afterCommit(() -> cacheInvalidationService.evictAll(QUIZ_CATALOG));
+    }
+
+    @Override
+    public void onEvict(Collection<String> keys) {
+        for (String key : keys) {
+            reindex(Integer.valueOf(key));
+        }
+    }
+
+    @Override
+    public void onEvictAll() {
+        rebuild();
+    }
+
+    private synchronized void reindex(Integer quizId) {
+        // not built yet: the pending full build will see the change
+        if (!enabled || snapshot == null) {
+            return;
+        }
+        Entry entry = readTx.execute(status -> quizRepo.findById(quizId)
+                .filter(q -> q.getStatus() == QuizStatus.PUBLISHED)
+                .map(this::loadOne)
+                .orElse(null));
+
+        if (entry == null) {
+            entries.remove(quizId);
+        } else {
+            entries.put(quizId, entry);
+        }
+        publish();
+    }
+
+    private Map<Integer, Entry> loadAll() {
+        Map<Integer, List<Translation>> quizTranslations = groupByEntity(
+                translationRepo.findByEntityType(ENTITY_TYPE_QUIZ));
+        Map<Integer, List<Translation>> categoryTranslations = groupByEntity(
+                translationRepo.findByEntityType(ENTITY_TYPE_CATEGORY));
+        Map<Integer, Integer> durations = new HashMap<>();
+        for (QuizDuration d : quizDurationRepo.findAll()) {
+            if (d.getEstimatedDurationSeconds() != null) {
+                durations.put(d.getQuizId(), d.getEstimatedDurationSeconds());
+            }
+        }
+
+        Map<Integer, Entry> loaded = new HashMap<>();
+        for (Quiz q : quizRepo.findAllByStatus(QuizStatus.PUBLISHED)) {
+            Integer categoryId = q.getCategory() != null ? q.getCategory().getId() : null;
+            loaded.put(q.getId(), toEntry(
+                    q,
+                    quizTranslations.getOrDefault(q.getId(), List.of()),
+                    categoryId != null ? categoryTranslations.getOrDefault(categoryId, List.of()) : List.of(),
+                    durations.get(q.getId())
+            ));
+        }
+        return loaded;
+    }
+
+    private Entry loadOne(Quiz q) {
+        Integer categoryId = q.getCategory() != null ? q.getCategory().getId() : null;
+        return toEntry(
+                q,
+                translationRepo.findByEntityTypeAndEntityId(ENTITY_TYPE_QUIZ, q.getId()),
+                categoryId != null
+                        ? translationRepo.findByEntityTypeAndEntityId(ENTITY_TYPE_CATEGORY, categoryId)
+                        : List.of(),
+                quizDurationRepo.findById(q.getId())
+                        .map(QuizDuration::getEstimatedDurationSeconds)
+                        .orElse(null)
+        );
+    }
+
+    private Entry toEntry(Quiz q,
+                          List<Translation> quizTranslations,
+                          List<Translation> categoryTranslations,
+                          Integer durationSec) {
+        Integer categoryId = q.getCategory() != null ? q.getCategory().getId() : null;
+
+        QuizDto base = new QuizDto(
+                q.getId(),
+                q.getCode(),
+                q.getTitleDefault(),
+                q.getStatus().name(),
+                q.getProcessingMode().name(),
+                categoryId,
+                q.getAuthor() != null ? q.getAuthor().getId() : null,
+                q.getDescriptionDefault(),
+                q.getSecondsPerQuestionDefault()
+        );
+
+        Map<String, Map<String, Float>> terms = new HashMap<>();
+        addTerms(terms, EMPTY_STRING, q.getCode(), WEIGHT_CODE);
+        addTerms(terms, EMPTY_STRING, q.getTitleDefault(), WEIGHT_TITLE);
+        addTerms(terms, EMPTY_STRING, q.getDescriptionDefault(), WEIGHT_DESCRIPTION);
+        if (q.getCategory() != null) {
+            addTerms(terms, EMPTY_STRING, q.getCategory().getName(), WEIGHT_CATEGORY);
+        }
+
+        Map<String, String> titles = new HashMap<>();
+        Map<String, String> descriptions = new HashMap<>();
+        for (Translation t : quizTranslations) {
+            if (t.getLocale() == null || t.getLocale().isBlank()) {
+                continue;
+            }
+            if (FIELD_TITLE.equals(t.getField())) {
+                titles.put(t.getLocale(), t.getText());
+                addTerms(terms, t.getLocale(), t.getText(), WEIGHT_TITLE);
+            } else if (FIELD_DESCRIPTION.equals(t.getField())) {
+                descriptions.put(t.getLocale(), t.getText());
+                addTerms(terms, t.getLocale(), t.getText(), WEIGHT_DESCRIPTION);
+            }
+        }
+        for (Translation t : categoryTranslations) {
+            if (FIELD_TITLE.equals(t.getField()) && t.getLocale() != null && !t.getLocale().isBlank()) {
+                addTerms(terms, t.getLocale(), t.getText(), WEIGHT_CATEGORY);
+            }
+        }
+
+        return new Entry(base, titles, descriptions, categoryId, durationSec, terms);
+    }
+
+    private static void addTerms(Map<String, Map<String, Float>> terms, String locale, String text, float weight) {
+        Map<String, Float> localeTerms = terms.computeIfAbsent(locale, k -> new HashMap<>());
+        for (String token : CatalogTokenizer.tokenize(text, locale)) {
+            localeTerms.merge(token, weight, Math::max);
+        }
+    }
+
+    private static Map<Integer, List<Translation>> groupByEntity(List<Translation> translations) {
+        return translations.stream().collect(Collectors.groupingBy(Translation::getEntityId));
+    }
+
+    /**
+     * Swaps in a new snapshot built from {@link #entries}. The catalog is small
+     * (published quizzes only), so rebuilding the postings is cheaper than
+     * maintaining them incrementally.
+     */
+    private void publish() {
+        Map<String, NavigableMap<String, Map<Integer, Float>>> postings = new HashMap<>();
+        for (Entry e : entries.values()) {
+            e.terms().forEach((locale, localeTerms) -> {
+                NavigableMap<String, Map<Integer, Float>> byTerm =
+                        postings.computeIfAbsent(locale, k -> new TreeMap<>());
+                localeTerms.forEach((term, weight) ->
+                        byTerm.computeIfAbsent(term, k -> new HashMap<>()).put(e.base().id(), weight));
+            });
+        }
+        snapshot = new Snapshot(Map.copyOf(entries), postings);
+    }
+
+    /**
+     * Returns the matching quiz ids with their relevance. A blank query
+     * matches every quiz with zero relevance.
+     */
+    private static Map<Integer, Float> match(Snapshot s, String text, String locale) {
+        List<String> tokens = CatalogTokenizer.tokenize(text, locale);
+        if (tokens.isEmpty()) {
+            return s.entries().keySet().stream()
+                    .collect(Collectors.toMap(Function.identity(), id -> 0f));
+        }
+
+        Set<String> locales = new LinkedHashSet<>(List.of(EMPTY_STRING, locale == null ? EMPTY_STRING : locale));
+        Map<Integer, Float> result = null;
+
+        for (String token : tokens) {
+            Map<Integer, Float> tokenScores = new HashMap<>();
+            for (String l : locales) {
+                NavigableMap<String, Map<Integer, Float>> byTerm = s.postings().get(l);
+                if (byTerm == null) {
+                    continue;
+                }
+                byTerm.subMap(token, true, token + Character.MAX_VALUE, false).forEach((term, docs) -> {
+                    float factor = term.equals(token) ? 1f : PREFIX_FACTOR;
+                    docs.forEach((id, weight) -> tokenScores.merge(id, weight * factor, Math::max));
+                });
+            }
+
+            if (result == null) {
+                result = tokenScores;
+            } else {
+                result.keySet().retainAll(tokenScores.keySet());
+                result.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static Comparator<Entry> comparator(Sort sort) {
+        Comparator<Entry> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Entry> c = SORTABLE.get(order.getProperty());
+            if (c == null) {
+                return null;
+            }
+            c = order.isDescending() ? c.reversed() : c;
+            result = result == null ? c : result.thenComparing(c);
+        }
+        return result == null ? SORTABLE.get("id") : result;
+    }
+
+    private static boolean inCategory(Entry e, Integer categoryId) {
+        return categoryId == null || categoryId.equals(e.categoryId());
+    }
+
+    private static boolean inDuration(Entry e, Integer minSec, Integer maxSec) {
+        if (minSec == null && maxSec == null) {
+            return true;
+        }
+        Integer d = e.durationSec();
+        return d != null
+                && (minSec == null || d >= minSec)
+                && (maxSec == null || d <= maxSec);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Entry(
+            QuizDto base,
+            Map<String, String> titles,
+            Map<String, String> descriptions,
+            Integer categoryId,
+            Integer durationSec,
+            Map<String, Map<String, Float>> terms
+    ) {
+        QuizDto toDto(String locale) {
+            return new QuizDto(
+                    base.id(),
+                    base.code(),
+                    titles.getOrDefault(locale, base.title()),
+                    base.status(),
+                    base.processingMode(),
+                    base.categoryId(),
+                    base.authorId(),
+                    descriptions.getOrDefault(locale, base.descriptionDefault()),
+                    base.secondsPerQuestionDefault()
+            );
+        }
+    }
+
+    private record Snapshot(
+            Map<Integer, Entry> entries,
+            Map<String, NavigableMap<String, Map<Integer, Float>>> postings
+    ) {}
+}
@@ -0,0 +1,20 @@
+package com.diploma.proforientation.service;
+
+import java.util.Collection;
+
+public interface CacheInvalidationService {
+    void evict(String cacheName, Collection<String> keys);
+    void evictAll(String cacheName);
+
+    /**
+     * Registers a callback for evictions of a channel that is not backed by a
+     * Spring cache (e.g. an in-memory index). It is invoked for local and
+     * remote evictions alike.
+     */
+    void subscribe(String cacheName, Listener listener);
+
+    interface Listener {
+        void onEvict(Collection<String> keys);
+        void onEvictAll();
+    }
+}
@@ -0,0 +1,28 @@
+package com.diploma.proforientation.service;
+
+import com.diploma.proforientation.dto.importexport.ExportJobDto;
+import com.diploma.proforientation.dto.importexport.ExportJobRequest;
+
+import java.nio.file.Path;
+
+public interface ExportJobService {
+
+    /**
+     * Queues an export, or returns the job of an equal request that is
+     * still queued, running or downloadable.
+     */
+    ExportJobDto submit(ExportJobRequest request);
+
+    ExportJobDto get(String jobId);
+
+    /** The finished file of a job; fails while the job is not done. */
+    SpooledFile file(String jobId);
+
+    /** Removes finished jobs and their files once they expire, and jobs of replicas that are gone. */
+    void cleanupExpired();
+
+    /** Renews the lease of the jobs of this replica and publishes the progress of the unfinished ones. */
+    void heartbeat();
+
+    record SpooledFile(Path path, String filename, String contentType) {}
+}
@@ -2,9 +2,34 @@ package com.diploma.proforientation.service;
 
 import com.diploma.proforientation.dto.QuizMetricsFilter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
 public interface ExportService {
-    byte[] exportAllToExcel();
-    byte[] exportEntityToCsv(String entity);
+
+    /** Returns a writer that streams every entity into one workbook, a sheet per entity. */
+    ExportWriter exportAllToExcel();
+
+    /**
+     * Validates the entity name and returns a writer that streams its rows
+     * as CSV; nothing is read before the writer is invoked.
+     */
+    ExportWriter exportEntityToCsv(String entity);
+
+    /**
+     * Like {@link #exportEntityToCsv(String)}, but only with the rows changed
+     * after {@code since}. Supported for entities that record change times;
+     * the returned cursor is the {@code since} of the next delta export.
+     */
+    DeltaExport exportEntityChangesToCsv(String entity, Instant since);
+
+    /**
+     * Returns a writer that streams one gzip-compressed CSV row per submitted
+     * attempt of the version, with its answer to every question and the
+     * recommended professions, as training data for the scoring model.
+     */
+    ExportWriter exportAnswerMatrix(Integer quizId, Integer quizVersionId);
 
     byte[] exportQuizMetricsToCsv(QuizMetricsFilter filter);
     byte[] exportQuizMetricsToExcel(QuizMetricsFilter filter);
@@ -15,4 +40,10 @@ public interface ExportService {
     byte[] exportQuizAnalyticsOverviewExcel(Integer quizId, Integer quizVersionId);
     byte[] exportQuizAnalyticsDetailedExcel(Integer quizId, Integer quizVersionId);
 
+    record DeltaExport(Instant cursor, ExportWriter writer) {}
+
+    @FunctionalInterface
+    interface ExportWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
 }
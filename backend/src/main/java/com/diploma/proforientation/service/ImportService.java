@@ -4,9 +4,14 @@ package com.diploma.proforientation.service;
 import com.diploma.proforientation.dto.importexport.ImportResultDto;
 import org.springframework.web.multipart.MultipartFile;
 
+/**
+ * Imports rows of an uploaded sheet. With {@code dryRun} every row is
+ * validated and the full error report returned, but nothing is written;
+ * {@code successCount} is then the number of rows that would be saved.
+ */
 public interface ImportService {
-    ImportResultDto importTranslations(MultipartFile file);
-    ImportResultDto importQuizzes(MultipartFile file);
-    ImportResultDto importProfessions(MultipartFile file);
-    ImportResultDto importQuestions(MultipartFile file);
+    ImportResultDto importTranslations(MultipartFile file, boolean dryRun);
+    ImportResultDto importQuizzes(MultipartFile file, boolean dryRun);
+    ImportResultDto importProfessions(MultipartFile file, boolean dryRun);
+    ImportResultDto importQuestions(MultipartFile file, boolean dryRun);
 }
\ No newline at end of file
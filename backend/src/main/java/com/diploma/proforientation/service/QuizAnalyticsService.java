@@ -2,10 +2,17 @@ package com.diploma.proforientation.service;
 
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsDetailedDto;
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsOverviewDto;
+import com.diploma.proforientation.dto.analytics.QuizAttemptDistributionDto;
+import com.diploma.proforientation.dto.analytics.QuizReliabilityDto;
+import com.diploma.proforientation.dto.analytics.QuizVersionComparisonDto;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public interface QuizAnalyticsService {
     QuizAnalyticsOverviewDto getOverview(Integer quizId, Integer quizVersionId, LocalDate from, LocalDate to);
     QuizAnalyticsDetailedDto getDetailed(Integer quizId, Integer quizVersionId);
+    QuizAttemptDistributionDto getAttemptDistribution(Integer quizId, Integer quizVersionId, LocalDate from, LocalDate to);
+    QuizReliabilityDto getReliability(Integer quizId, Integer quizVersionId);
+    QuizVersionComparisonDto compareVersions(Integer quizId, List<Integer> quizVersionIds);
 }
@@ -1,6 +1,7 @@
 package com.diploma.proforientation.service;
 
 import com.diploma.proforientation.dto.QuizDto;
+import com.diploma.proforientation.dto.QuizSearchFacetsDto;
 import com.diploma.proforientation.dto.request.create.CreateQuizRequest;
 import com.diploma.proforientation.dto.request.update.UpdateQuizRequest;
 import org.springframework.data.domain.Page;
@@ -24,4 +25,10 @@ public interface QuizService {
             Integer maxDurationSec,
             Pageable pageable
     );
+    QuizSearchFacetsDto searchFacets(
+            String search,
+            Integer categoryId,
+            Integer minDurationSec,
+            Integer maxDurationSec
+    );
 }
\ No newline at end of file
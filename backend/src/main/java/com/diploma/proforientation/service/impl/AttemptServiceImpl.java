@@ -1,5 +1,7 @@
 package com.diploma.proforientation.service.impl;
 
+import com.diploma.proforientation.analytics.AttemptSketches;
+import com.diploma.proforientation.analytics.LiveActivityCounters;
 import com.diploma.proforientation.dto.AttemptResultDto;
 import com.diploma.proforientation.dto.AttemptSummaryDto;
 import com.diploma.proforientation.dto.RecommendationDto;
@@ -32,6 +34,11 @@ public class AttemptServiceImpl implements AttemptService {
     private static final String STATUS_IN_PROGRESS = "in_progress";
     private static final String STATUS_COMPLETED = "completed";
 
+    /** Same order as the rank backfill in V28: best score first, ties by profession. */
+    private static final Comparator<RecommendationDto> RECOMMENDATION_ORDER =
+            Comparator.comparing(RecommendationDto::score, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(RecommendationDto::professionId);
+
     private final AttemptRepository attemptRepo;
     private final UserRepository userRepo;
     private final QuizVersionRepository quizVersionRepo;
@@ -44,8 +51,11 @@ public class AttemptServiceImpl implements AttemptService {
     private final ScoringEngineFactory scoringEngineFactory;
     private final TranslationResolver translationResolver;
     private final I18n i18n;
+    private final LiveActivityCounters liveCounters;
+    private final AttemptSketches attemptSketches;
 
     @Override
+    @Transactional
     public AttemptStartResponse startAttempt(Integer quizVersionId, Integer userId) {
 
         Attempt attempt = new Attempt();
@@ -63,6 +73,7 @@ public class AttemptServiceImpl implements AttemptService {
             attempt.setGuestToken(UUID.randomUUID().toString());
         }
 
+        liveCounters.attemptStarted(quizVersionId, attempt.getStartedAt());
         attempt = attemptRepo.save(attempt);
         return new AttemptStartResponse(attempt.getId(), attempt.getGuestToken());
     }
@@ -101,7 +112,18 @@ public class AttemptServiceImpl implements AttemptService {
         Attempt attempt = attemptRepo.findById(attemptId)
                 .orElseThrow(() -> new EntityNotFoundException(ATTEMPT_NOT_FOUND));
 
-        attempt.setSubmittedAt(Instant.now());
+        Instant submittedAt = Instant.now();
+        if (attempt.getSubmittedAt() == null) {
+            liveCounters.attemptSubmitted(attempt.getQuizVersion().getId(), attempt.getStartedAt(), submittedAt);
+            attemptSketches.attemptSubmitted(
+                    attempt.getQuizVersion().getId(),
+                    attempt.getStartedAt(),
+                    submittedAt,
+                    attempt.getUser() != null ? attempt.getUser().getId() : null,
+                    attempt.getGuestToken()
+            );
+        }
+        attempt.setSubmittedAt(submittedAt);
         attemptRepo.save(attempt);
 
         ScoringEngine engine = scoringEngineFactory.getEngine(
@@ -269,8 +291,17 @@ public class AttemptServiceImpl implements AttemptService {
         }
     }
 
+    /**
+     * Saves recommendations best-first with their rank, so the rank-1 row is
+     * written first and the analytics trigger can skip the others.
+     */
     private void saveRecommendations(Attempt attempt, List<RecommendationDto> recs) {
-        for (RecommendationDto dto : recs) {
+        List<RecommendationDto> ranked = recs.stream()
+                .sorted(RECOMMENDATION_ORDER)
+                .toList();
+
+        int rank = 0;
+        for (RecommendationDto dto : ranked) {
 
             Profession prof = professionRepo.findById(dto.professionId())
                     .orElseThrow(() -> new EntityNotFoundException(PROFESSION_NOT_FOUND));
@@ -280,6 +311,7 @@ public class AttemptServiceImpl implements AttemptService {
             ar.setProfession(prof);
             ar.setScore(dto.score());
             ar.setLlmExplanation(dto.explanation());
+            ar.setRank(++rank);
 
             recRepo.save(ar);
         }
@@ -0,0 +1,277 @@
+package com.diploma.proforientation.service.impl;
+
+import com.diploma.proforientation.config.CacheInvalidationProperties;
+import com.diploma.proforientation.dto.cache.CacheInvalidationEvent;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Evicts local Caffeine entries and broadcasts the eviction to every other
+ * backend replica over Postgres {@code NOTIFY}. Each node keeps one dedicated
+ * {@code LISTEN} connection (outside the pool) and applies foreign events to
+ * its own caches. If that connection drops, notifications may have been missed,
+ * so all local caches are cleared before listening again.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationServiceImpl implements CacheInvalidationService, SmartLifecycle {
+
+    /** Postgres rejects NOTIFY payloads of 8000 bytes or more. */
+    private static final int MAX_PAYLOAD_BYTES = 7500;
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String SQL_NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheInvalidationProperties properties;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public CacheInvalidationServiceImpl(CacheManager cacheManager,
+                                        JdbcTemplate jdbcTemplate,
+                                        DataSourceProperties dataSourceProperties,
+                                        CacheInvalidationProperties properties) {
+        if (!CHANNEL_PATTERN.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel: " + properties.getChannel());
+        }
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+    }
+
+    @Override
+    public void evict(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        evictLocal(cacheName, keys);
+
+        for (List<String> chunk : chunkByPayloadSize(keys)) {
+            publish(new CacheInvalidationEvent(nodeId, cacheName, chunk, false));
+        }
+    }
+
+    @Override
+    public void evictAll(String cacheName) {
+        clearLocal(cacheName);
+        publish(new CacheInvalidationEvent(nodeId, cacheName, List.of(), true));
+    }
+
+    @Override
+    public void subscribe(String cacheName, Listener listener) {
+        listeners.computeIfAbsent(cacheName, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Applies an event received from the channel. Events published by this
+     * node are ignored because they were already applied locally.
+     */
+    public void onNotification(String payload) {
+        CacheInvalidationEvent event;
+        try {
+            event = mapper.readValue(payload, CacheInvalidationEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+            return;
+        }
+
+        if (nodeId.equals(event.origin())) {
+            return;
+        }
+
+        if (event.allEntries()) {
+            clearLocal(event.cache());
+        } else if (event.keys() != null) {
+            evictLocal(event.cache(), event.keys());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon(true)
+                .start(this::listenLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection conn = openListenConnection()) {
+                if (reconnect) {
+                    clearAllLocal();
+                }
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                int timeoutMillis = (int) properties.getPollTimeout().toMillis();
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(timeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification n : notifications) {
+                            onNotification(n.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected: {}", e.getMessage());
+                reconnect = true;
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private Connection openListenConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword()
+        );
+        try (Statement st = conn.createStatement()) {
+            st.execute("LISTEN " + properties.getChannel());
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(properties.getReconnectDelay());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void publish(CacheInvalidationEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            String payload = mapper.writeValueAsString(event);
+            jdbcTemplate.query(SQL_NOTIFY, (RowCallbackHandler) rs -> { }, properties.getChannel(), payload);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast eviction for cache {}: {}", event.cache(), e.getMessage());
+        }
+    }
+
+    private List<List<String>> chunkByPayloadSize(Collection<String> keys) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int size = 0;
+
+        for (String key : keys) {
+            int keySize = key.getBytes(StandardCharsets.UTF_8).length + 3;
+            if (!current.isEmpty() && size + keySize > MAX_PAYLOAD_BYTES) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                size = 0;
+            }
+            current.add(key);
+            size += keySize;
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private void evictLocal(String cacheName, Collection<String> keys) {
+        Cache cache = existingCache(cacheName);
+        if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+        for (Listener listener : listeners.getOrDefault(cacheName, List.of())) {
+            notifySafely(cacheName, () -> listener.onEvict(keys));
+        }
+    }
+
+    private void clearLocal(String cacheName) {
+        Cache cache = existingCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+        for (Listener listener : listeners.getOrDefault(cacheName, List.of())) {
+            notifySafely(cacheName, listener::onEvictAll);
+        }
+    }
+
+    private void clearAllLocal() {
+        cacheManager.getCacheNames().forEach(this::clearLocal);
+        listeners.keySet().stream()
+                .filter(name -> !cacheManager.getCacheNames().contains(name))
+                .forEach(this::clearLocal);
+    }
+
+    /**
+     * Caffeine creates caches on first lookup; an eviction must not create
+     * an empty cache for a name that is only used by listeners.
+     */
+    private Cache existingCache(String cacheName) {
+        return cacheManager.getCacheNames().contains(cacheName)
+                ? cacheManager.getCache(cacheName)
+                : null;
+    }
+
+    private void notifySafely(String cacheName, Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation listener for {} failed: {}", cacheName, e.getMessage());
+        }
+    }
+}
@@ -7,32 +7,56 @@ import com.diploma.proforientation.model.enumeration.QuestionType;
 import com.diploma.proforientation.model.enumeration.QuizProcessingMode;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
 import com.diploma.proforientation.repository.*;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.ImportService;
+import com.diploma.proforientation.util.ImportBatchWriter;
+import com.diploma.proforientation.util.ImportBatchWriter.ProfessionRow;
+import com.diploma.proforientation.util.ImportBatchWriter.QuizRow;
+import com.diploma.proforientation.util.TranslationCacheEvictor;
+import com.diploma.proforientation.util.XlsxRowReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.diploma.proforientation.util.Constants.*;
 
+@Slf4j
 @Service("excelImportService")
 @RequiredArgsConstructor
 public class ExcelImportServiceImpl implements ImportService {
 
-    private final TranslationRepository translationRepo;
     private final QuizRepository quizRepo;
-    private final ProfessionRepository professionRepo;
     private final ProfessionCategoryRepository categoryRepo;
     private final UserRepository userRepo;
     private final QuizVersionRepository quizVersionRepo;
     private final QuestionRepository questionRepo;
+    private final TranslationCacheEvictor translationCacheEvictor;
+    private final QuizCatalogIndex catalogIndex;
+    private final ImportBatchWriter batchWriter;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
 
-    private final DataFormatter fmt = new DataFormatter();
+    private TransactionTemplate chunkTx;
+
+    /** Rows validated together; their valid ones are written and committed in one transaction. */
+    private static final int IMPORT_CHUNK_SIZE = 500;
 
     private static final String COL_CODE = "code";
     private static final String COL_TITLE_DEFAULT = "title_default";
@@ -45,198 +69,130 @@ public class ExcelImportServiceImpl implements ImportService {
     private static final String COL_DESCRIPTION = "description";
     private static final String COL_ML_CLASS_CODE = "ml_class_code";
 
+    @PostConstruct
+    public void initTransactions() {
+        chunkTx = new TransactionTemplate(transactionManager);
+    }
+
     @Override
-    @Transactional
-    public ImportResultDto importTranslations(MultipartFile file) {
+    public ImportResultDto importTranslations(MultipartFile file, boolean dryRun) {
         validateFile(file);
 
-        List<ImportErrorDto> errors = new ArrayList<>();
-        List<Translation> valid = new ArrayList<>();
-        int total = 0;
-
-        try (InputStream is = file.getInputStream(); Workbook wb = WorkbookFactory.create(is)) {
-            SheetContext ctx = prepareSheetContext(
-                    wb,
-                    errors,
-                    List.of(COL_ENTITY_TYPE, COL_ENTITY_ID, COL_FIELD, COL_LOCALE, COL_TEXT)
-            );
-
-            ImportResultDto headerFailure = failIfHeaderInvalid(errors);
-            if (headerFailure != null) {
-                return headerFailure;
-            }
-
-            Sheet sheet = ctx.sheet();
-            Map<String, Integer> idx = ctx.idx();
-
-            for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-                Row row = sheet.getRow(r);
-                if (row != null && hasData(row)) {
-                    total++;
-                    int rowNum = r + 1;
-
-                    RowParseResult<Translation> parsed = parseTranslationRow(row, idx, rowNum);
-                    if (parsed.hasErrors()) {
-                        errors.addAll(parsed.errors());
-                    } else {
-                        valid.add(parsed.value());
+        try {
+            ImportResultDto result = importRows(file, dryRun, new ImportSpec<>(
+                    List.of(COL_ENTITY_TYPE, COL_ENTITY_ID, COL_FIELD, COL_LOCALE, COL_TEXT),
+                    null,
+                    List.of(),
+                    this::parseTranslationRow,
+                    chunk -> {
+                        batchWriter.upsertTranslations(chunk);
+                        translationCacheEvictor.evictTranslations(chunk);
                     }
-                }
+            ));
+            if (!dryRun && result.successCount() > 0) {
+                catalogIndex.catalogChanged();
             }
-
-            translationRepo.saveAll(valid);
-
-            return new ImportResultDto(total, valid.size(), errors);
+            return result;
         } catch (Exception e) {
             throw new IllegalStateException(ERROR_EXCEL_TRANSLATIONS_IMPORT_FAILED + e.getMessage(), e);
         }
     }
 
     @Override
-    @Transactional
-    public ImportResultDto importQuizzes(MultipartFile file) {
+    public ImportResultDto importQuizzes(MultipartFile file, boolean dryRun) {
         validateFile(file);
 
-        List<ImportErrorDto> errors = new ArrayList<>();
-        List<Quiz> valid = new ArrayList<>();
-        int total = 0;
-
-        try (InputStream is = file.getInputStream(); Workbook wb = WorkbookFactory.create(is)) {
-            SheetContext ctx = prepareSheetContext(
-                    wb,
-                    errors,
-                    List.of(COL_CODE, COL_TITLE_DEFAULT, COL_CATEGORY_ID, COL_AUTHOR_ID)
-            );
-
-            ImportResultDto headerFailure = failIfHeaderInvalid(errors);
-            if (headerFailure != null) {
-                return headerFailure;
-            }
-
-            Sheet sheet = ctx.sheet();
-            Map<String, Integer> idx = ctx.idx();
-
-            Set<String> codesInFile = new HashSet<>();
-
-            for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-                Row row = sheet.getRow(r);
-                if (row != null && hasData(row)) {
-                    total++;
-                    int rowNum = r + 1;
+        try {
+            ReferenceIds categories = new ReferenceIds(categoryRepo::findIdsByIdIn);
+            ReferenceIds authors = new ReferenceIds(userRepo::findIdsByIdIn);
+            Instant now = Instant.now();
 
-                    RowParseResult<Quiz> parsed = parseQuizRow(row, idx, rowNum, codesInFile);
-                    if (parsed.hasErrors()) {
-                        errors.addAll(parsed.errors());
-                    } else {
-                        valid.add(parsed.value());
+            ImportResultDto result = importRows(file, dryRun, new ImportSpec<>(
+                    List.of(COL_CODE, COL_TITLE_DEFAULT, COL_CATEGORY_ID, COL_AUTHOR_ID),
+                    new UniqueKey(List.of(COL_CODE), ERROR_EXCEL_DUPLICATE_CODE),
+                    List.of(new ColumnLookup(COL_CATEGORY_ID, categories), new ColumnLookup(COL_AUTHOR_ID, authors)),
+                    (row, idx, rowNum) -> parseQuizRow(row, idx, rowNum, categories, authors),
+                    chunk -> {
+                        batchWriter.upsertQuizzes(chunk);
+                        List<String> codes = chunk.stream().map(QuizRow::code).toList();
+                        for (Quiz q : quizRepo.findAllByCodeInAndStatus(codes, QuizStatus.PUBLISHED)) {
+                            ensurePublishedVersionExists(q, now);
+                        }
                     }
-                }
-            }
-
-            quizRepo.saveAll(valid);
-
-            Instant now = Instant.now();
-            for (Quiz q : valid) {
-                if (q.getStatus() == QuizStatus.PUBLISHED) {
-                    ensurePublishedVersionExists(q, now);
-                }
+            ));
+            if (!dryRun && result.successCount() > 0) {
+                catalogIndex.catalogChanged();
             }
-
-            return new ImportResultDto(total, valid.size(), errors);
+            return result;
         } catch (Exception e) {
             throw new IllegalStateException(ERROR_EXCEL_QUIZZES_IMPORT_FAILED + e.getMessage(), e);
         }
     }
 
     @Override
-    @Transactional
-    public ImportResultDto importProfessions(MultipartFile file) {
+    public ImportResultDto importProfessions(MultipartFile file, boolean dryRun) {
         validateFile(file);
 
-        List<ImportErrorDto> errors = new ArrayList<>();
-        List<Profession> valid = new ArrayList<>();
-        int total = 0;
-
-        try (InputStream is = file.getInputStream(); Workbook wb = WorkbookFactory.create(is)) {
-            Sheet sheet = wb.getSheetAt(0);
-            Map<String, Integer> idx = headerIndex(sheet, errors);
-
-            requireColumns(idx, errors,  List.of(
-                    COL_CODE, COL_TITLE_DEFAULT, COL_CATEGORY_ID
+        try {
+            ReferenceIds categories = new ReferenceIds(categoryRepo::findIdsByIdIn);
+
+            return importRows(file, dryRun, new ImportSpec<>(
+                    List.of(COL_CODE, COL_TITLE_DEFAULT, COL_CATEGORY_ID),
+                    new UniqueKey(List.of(COL_CODE), ERROR_EXCEL_DUPLICATE_CODE),
+                    List.of(new ColumnLookup(COL_CATEGORY_ID, categories)),
+                    (row, idx, rowNum) -> parseProfessionRow(row, idx, rowNum, categories),
+                    batchWriter::upsertProfessions
             ));
-            if (!errors.isEmpty()) {
-                return new ImportResultDto(0, 0, errors);
-            }
-
-            Set<String> codesInFile = new HashSet<>();
-
-            for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-                Row row = sheet.getRow(r);
-                if (row != null && hasData(row)) {
-                    total++;
-                    int rowNum = r + 1;
-
-                    RowParseResult<Profession> parsed = parseProfessionRow(row, idx, rowNum, codesInFile);
-                    if (parsed.hasErrors()) {
-                        errors.addAll(parsed.errors());
-                    } else {
-                        valid.add(parsed.value());
-                    }
-                }
-            }
-
-            professionRepo.saveAll(valid);
-
-            return new ImportResultDto(total, valid.size(), errors);
         } catch (Exception e) {
             throw new IllegalStateException(ERROR_EXCEL_PROFESSIONS_IMPORT_FAILED + e.getMessage(), e);
         }
     }
 
     @Override
-    @Transactional
-    public ImportResultDto importQuestions(MultipartFile file) {
+    public ImportResultDto importQuestions(MultipartFile file, boolean dryRun) {
         validateFile(file);
 
-        List<ImportErrorDto> errors = new ArrayList<>();
-        List<Question> valid = new ArrayList<>();
-        int total = 0;
-
-        try (InputStream is = file.getInputStream(); Workbook wb = WorkbookFactory.create(is)) {
-            Sheet sheet = wb.getSheetAt(0);
-            Map<String, Integer> idx = headerIndex(sheet, errors);
-
-            requireColumns(idx, errors,  List.of(
-                    FIELD_QUIZ_VERSION_ID, FIELD_ORD, FIELD_QTYPE, FIELD_TEXT_DEFAULT
+        try {
+            ReferenceIds versions = new ReferenceIds(quizVersionRepo::findIdsByIdIn);
+            ExistingOrds ords = new ExistingOrds(questionRepo::findOrdsByQuizVersionIdIn);
+
+            return importRows(file, dryRun, new ImportSpec<>(
+                    List.of(FIELD_QUIZ_VERSION_ID, FIELD_ORD, FIELD_QTYPE, FIELD_TEXT_DEFAULT),
+                    new UniqueKey(List.of(FIELD_QUIZ_VERSION_ID, FIELD_ORD), ERROR_EXCEL_DUPLICATE_ORD),
+                    List.of(new ColumnLookup(FIELD_QUIZ_VERSION_ID, versions),
+                            new ColumnLookup(FIELD_QUIZ_VERSION_ID, ords)),
+                    (row, idx, rowNum) -> parseQuestionRow(row, idx, rowNum, versions, ords),
+                    chunk -> questionRepo.saveAll(chunk.stream().map(this::toQuestion).toList())
             ));
-            if (!errors.isEmpty()) {
-                return new ImportResultDto(0, 0, errors);
-            }
-
-            for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-                Row row = sheet.getRow(r);
-                if (row != null && hasData(row)) {
-                    total++;
-                    int rowNum = r + 1;
-
-                    RowParseResult<Question> parsed = parseQuestionRow(row, idx, rowNum);
-                    if (parsed.hasErrors()) {
-                        errors.addAll(parsed.errors());
-                    } else {
-                        valid.add(parsed.value());
-                    }
-                }
-            }
-
-            questionRepo.saveAll(valid);
-
-            return new ImportResultDto(total, valid.size(), errors);
         } catch (Exception e) {
             throw new IllegalStateException(ERROR_EXCEL_QUESTIONS_IMPORT_FAILED + e.getMessage(), e);
         }
     }
 
-    private RowParseResult<Translation> parseTranslationRow(Row row, Map<String, Integer> idx, int rowNum) {
+    /**
+     * Streams the first sheet of the upload: the header row is checked, then
+     * the non-blank rows are validated and persisted in chunks of
+     * {@link #IMPORT_CHUNK_SIZE}, so neither the workbook nor the imported
+     * entities are held in memory as a whole.
+     * <p>
+     * For each chunk the ids it refers to are looked up with one query per
+     * {@link ColumnLookup}, then its rows are validated in parallel; the
+     * validators only look at the row and those lookups. Unless it is a dry
+     * run, the valid rows of the chunk are then written in their own
+     * transaction, so no lock is held for the length of the import. A chunk
+     * that fails is rolled back and its rows are written again one by one,
+     * so only the rows the database rejects are reported; the chunks
+     * committed before it stay and the import goes on with the next one.
+     */
+    private <T> ImportResultDto importRows(MultipartFile file, boolean dryRun, ImportSpec<T> spec) throws IOException {
+        ImportRun<T> run = new ImportRun<>(spec, dryRun);
+        try (InputStream is = file.getInputStream()) {
+            XlsxRowReader.read(is, run::accept);
+        }
+        return run.finish();
+    }
+
+    private RowParseResult<Translation> parseTranslationRow(String[] row, Map<String, Integer> idx, int rowNum) {
         List<ImportErrorDto> rowErrors = new ArrayList<>();
 
         String entityType = getString(row, idx, COL_ENTITY_TYPE);
@@ -260,10 +216,7 @@ public class ExcelImportServiceImpl implements ImportService {
             return RowParseResult.withErrors(rowErrors);
         }
 
-        Translation tr = translationRepo
-                .findByEntityTypeAndEntityIdAndFieldAndLocale(entityType, entityId, field, locale)
-                .orElseGet(Translation::new);
-
+        Translation tr = new Translation();
         tr.setEntityType(entityType);
         tr.setEntityId(entityId);
         tr.setField(field);
@@ -273,7 +226,11 @@ public class ExcelImportServiceImpl implements ImportService {
         return RowParseResult.ok(tr);
     }
 
-    private RowParseResult<Quiz> parseQuizRow(Row row, Map<String, Integer> idx, int rowNum, Set<String> codesInFile) {
+    private RowParseResult<QuizRow> parseQuizRow(String[] row,
+                                                 Map<String, Integer> idx,
+                                                 int rowNum,
+                                                 ReferenceIds categories,
+                                                 ReferenceIds authors) {
         List<ImportErrorDto> rowErrors = new ArrayList<>();
 
         String code = getString(row, idx, COL_CODE);
@@ -290,8 +247,6 @@ public class ExcelImportServiceImpl implements ImportService {
         validateRequiredString(rowErrors, rowNum, COL_CODE, code);
         validateRequiredString(rowErrors, rowNum, COL_TITLE_DEFAULT, title);
 
-        validateUniqueCode(rowErrors, rowNum, code, codesInFile);
-
         QuizStatus status = parseEnum(rowErrors, rowNum, COL_STATUS, statusStr, QuizStatus.class);
         QuizProcessingMode mode = parseEnum(rowErrors, rowNum, COL_PROCESSING_MODE, modeStr, QuizProcessingMode.class);
 
@@ -300,38 +255,23 @@ public class ExcelImportServiceImpl implements ImportService {
                     SECONDS_GT_ZERO));
         }
 
-        ProfessionCategory category = resolveCategory(rowErrors, rowNum, categoryId);
-        User author = resolveAuthor(rowErrors, rowNum, authorId);
+        validateReference(rowErrors, rowNum, COL_CATEGORY_ID, categoryId, categories, CATEGORY_NOT_FOUND);
+        validateReference(rowErrors, rowNum, COL_AUTHOR_ID, authorId, authors, AUTHOR_NOT_FOUND);
 
         if (!rowErrors.isEmpty()) {
             return RowParseResult.withErrors(rowErrors);
         }
 
-        Quiz q = quizRepo.findByCode(code).orElseGet(Quiz::new);
-        boolean isNew = q.getId() == null;
-
-        q.setCode(code);
-        q.setTitleDefault(title);
-        q.setCategory(category);
-        q.setAuthor(author);
-
-        q.setStatus(resolveStatus(status, q));
-        q.setProcessingMode(resolveMode(mode, q));
-
-        if (!isBlank(descriptionDefault)) {
-            q.setDescriptionDefault(descriptionDefault);
-        }
-        if (spq != null) {
-            q.setSecondsPerQuestionDefault(spq);
-        }
-
-        Instant now = Instant.now();
-        q.setUpdatedAt(now);
-        if (isNew && q.getCreatedAt() == null) {
-            q.setCreatedAt(now);
-        }
-
-        return RowParseResult.ok(q);
+        return RowParseResult.ok(new QuizRow(
+                code,
+                title,
+                status,
+                mode,
+                categoryId,
+                authorId,
+                isBlank(descriptionDefault) ? null : descriptionDefault,
+                spq
+        ));
     }
 
     private void validateRequiredString(List<ImportErrorDto> rowErrors, int rowNum, String col, String value) {
@@ -340,46 +280,22 @@ public class ExcelImportServiceImpl implements ImportService {
         }
     }
 
-    private void validateUniqueCode(List<ImportErrorDto> rowErrors, int rowNum, String code, Set<String> codesInFile) {
-        if (!isBlank(code)) {
-            String key = code.trim().toLowerCase();
-            if (!codesInFile.add(key)) {
-                rowErrors.add(new ImportErrorDto(rowNum, COL_CODE, ERROR_EXCEL_DUPLICATE_CODE));
-            }
-        }
-    }
-
-    private ProfessionCategory resolveCategory(List<ImportErrorDto> rowErrors, int rowNum, Integer categoryId) {
-        if (categoryId == null) return null;
-        ProfessionCategory category = categoryRepo.findById(categoryId).orElse(null);
-        if (category == null) {
-            rowErrors.add(new ImportErrorDto(rowNum, COL_CATEGORY_ID, CATEGORY_NOT_FOUND));
+    private void validateReference(List<ImportErrorDto> rowErrors,
+                                   int rowNum,
+                                   String col,
+                                   Integer id,
+                                   ReferenceIds existing,
+                                   String notFoundMessage) {
+        if (id != null && !existing.contains(id)) {
+            rowErrors.add(new ImportErrorDto(rowNum, col, notFoundMessage));
         }
-        return category;
     }
 
-    private User resolveAuthor(List<ImportErrorDto> rowErrors, int rowNum, Integer authorId) {
-        if (authorId == null) return null;
-        User author = userRepo.findById(authorId).orElse(null);
-        if (author == null) {
-            rowErrors.add(new ImportErrorDto(rowNum, COL_AUTHOR_ID, AUTHOR_NOT_FOUND));
-        }
-        return author;
-    }
-
-    private QuizStatus resolveStatus(QuizStatus incoming, Quiz existing) {
-        if (incoming != null) return incoming;
-        if (existing.getStatus() != null) return existing.getStatus();
-        return QuizStatus.DRAFT;
-    }
-
-    private QuizProcessingMode resolveMode(QuizProcessingMode incoming, Quiz existing) {
-        if (incoming != null) return incoming;
-        if (existing.getProcessingMode() != null) return existing.getProcessingMode();
-        return QuizProcessingMode.LLM;
-    }
-
-    private RowParseResult<Question> parseQuestionRow(Row row, Map<String, Integer> idx, int rowNum) {
+    private RowParseResult<QuestionRow> parseQuestionRow(String[] row,
+                                                         Map<String, Integer> idx,
+                                                         int rowNum,
+                                                         ReferenceIds versions,
+                                                         ExistingOrds ords) {
         List<ImportErrorDto> rowErrors = new ArrayList<>();
 
         Integer quizVersionId = getIntRequired(row, idx, FIELD_QUIZ_VERSION_ID, rowNum, rowErrors, MESSAGE_REQUIRED);
@@ -391,12 +307,9 @@ public class ExcelImportServiceImpl implements ImportService {
         if (isBlank(qtypeStr)) rowErrors.add(new ImportErrorDto(rowNum, FIELD_QTYPE, MESSAGE_REQUIRED));
         if (isBlank(text)) rowErrors.add(new ImportErrorDto(rowNum, FIELD_TEXT_DEFAULT, MESSAGE_REQUIRED));
 
-        QuizVersion qv = null;
-        if (quizVersionId != null) {
-            qv = quizVersionRepo.findById(quizVersionId).orElse(null);
-            if (qv == null) {
-                rowErrors.add(new ImportErrorDto(rowNum, FIELD_QUIZ_VERSION_ID, QUIZ_VERSION_NOT_FOUND));
-            }
+        validateReference(rowErrors, rowNum, FIELD_QUIZ_VERSION_ID, quizVersionId, versions, QUIZ_VERSION_NOT_FOUND);
+        if (quizVersionId != null && ord != null && ords.contains(quizVersionId, ord)) {
+            rowErrors.add(new ImportErrorDto(rowNum, FIELD_ORD, ERROR_EXCEL_ORD_TAKEN));
         }
 
         QuestionType qtype = parseEnum(rowErrors, rowNum, FIELD_QTYPE, qtypeStr, QuestionType.class);
@@ -405,16 +318,19 @@ public class ExcelImportServiceImpl implements ImportService {
             return RowParseResult.withErrors(rowErrors);
         }
 
-        Question q = new Question();
-        q.setQuizVersion(qv);
-        q.setOrd(ord);
-        q.setQtype(qtype);
-        q.setTextDefault(text);
+        return RowParseResult.ok(new QuestionRow(quizVersionId, ord, qtype, text));
+    }
 
-        return RowParseResult.ok(q);
+    private Question toQuestion(QuestionRow row) {
+        Question q = new Question();
+        q.setQuizVersion(quizVersionRepo.getReferenceById(row.quizVersionId()));
+        q.setOrd(row.ord());
+        q.setQtype(row.qtype());
+        q.setTextDefault(row.textDefault());
+        return q;
     }
 
-    private RowParseResult<Profession> parseProfessionRow(Row row, Map<String, Integer> idx, int rowNum, Set<String> codesInFile) {
+    private RowParseResult<ProfessionRow> parseProfessionRow(String[] row, Map<String, Integer> idx, int rowNum, ReferenceIds categories) {
         List<ImportErrorDto> rowErrors = new ArrayList<>();
 
         String code = getString(row, idx, COL_CODE);
@@ -426,22 +342,19 @@ public class ExcelImportServiceImpl implements ImportService {
 
         validateRequiredString(rowErrors, rowNum, COL_CODE, code);
         validateRequiredString(rowErrors, rowNum, COL_TITLE_DEFAULT, title);
-        validateUniqueCode(rowErrors, rowNum, code, codesInFile);
-
-        ProfessionCategory category = resolveCategory(rowErrors, rowNum, categoryId);
+        validateReference(rowErrors, rowNum, COL_CATEGORY_ID, categoryId, categories, CATEGORY_NOT_FOUND);
 
         if (!rowErrors.isEmpty()) {
             return RowParseResult.withErrors(rowErrors);
         }
 
-        Profession p = professionRepo.findByCode(code).orElseGet(Profession::new);
-        p.setCode(code);
-        p.setTitleDefault(title);
-        p.setDescription(isBlank(description) ? null : description);
-        p.setMlClassCode(isBlank(mlClassCode) ? null : mlClassCode);
-        p.setCategory(category);
-
-        return RowParseResult.ok(p);
+        return RowParseResult.ok(new ProfessionRow(
+                code,
+                title,
+                isBlank(description) ? null : description,
+                isBlank(mlClassCode) ? null : mlClassCode,
+                categoryId
+        ));
     }
 
     private void validateFile(MultipartFile file) {
@@ -450,18 +363,12 @@ public class ExcelImportServiceImpl implements ImportService {
         }
     }
 
-    private Map<String, Integer> headerIndex(Sheet sheet, List<ImportErrorDto> errors) {
-        Row header = sheet.getRow(0);
-        if (header == null) {
-            errors.add(new ImportErrorDto(1, FIELD_ROW, ERROR_EXCEL_MISSING_HEADER));
-            return Map.of();
-        }
-
+    private Map<String, Integer> headerIndex(String[] header) {
         Map<String, Integer> idx = new HashMap<>();
-        for (Cell c : header) {
-            String key = cellToString(c);
+        for (int i = 0; i < header.length; i++) {
+            String key = header[i];
             if (!isBlank(key)) {
-                idx.put(key.trim().toLowerCase(), c.getColumnIndex());
+                idx.put(key.trim().toLowerCase(), i);
             }
         }
         return idx;
@@ -483,23 +390,23 @@ public class ExcelImportServiceImpl implements ImportService {
         }
     }
 
-    private boolean hasData(Row row) {
-        for (Cell c : row) {
-            if (!isBlank(cellToString(c))) {
+    private boolean hasData(String[] row) {
+        for (String value : row) {
+            if (!isBlank(value)) {
                 return true;
             }
         }
         return false;
     }
 
-    private String getString(Row row, Map<String, Integer> idx, String col) {
+    private String getString(String[] row, Map<String, Integer> idx, String col) {
         Integer i = idx.get(col);
         if (i == null) return null;
-        return cellToString(row.getCell(i));
+        return cell(row, i);
     }
 
     private Integer getIntRequired(
-            Row row,
+            String[] row,
             Map<String, Integer> idx,
             String col,
             int rowNum,
@@ -511,7 +418,7 @@ public class ExcelImportServiceImpl implements ImportService {
             rowErrors.add(new ImportErrorDto(rowNum, col, MISSING_COLUMN));
             return null;
         }
-        String s = cellToString(row.getCell(i));
+        String s = cell(row, i);
         if (isBlank(s)) {
             rowErrors.add(new ImportErrorDto(rowNum, col, requiredMessage));
             return null;
@@ -524,11 +431,11 @@ public class ExcelImportServiceImpl implements ImportService {
         }
     }
 
-    private Integer getSecondsPerQuestion(Row row, Map<String, Integer> idx, int rowNum, List<ImportErrorDto> rowErrors) {
+    private Integer getSecondsPerQuestion(String[] row, Map<String, Integer> idx, int rowNum, List<ImportErrorDto> rowErrors) {
         Integer i = idx.get(COL_SECONDS_PER_QUESTION_DEFAULT);
         if (i == null) return null;
 
-        String s = cellToString(row.getCell(i));
+        String s = cell(row, i);
         if (isBlank(s)) return null;
 
         try {
@@ -543,9 +450,8 @@ public class ExcelImportServiceImpl implements ImportService {
         }
     }
 
-    private String cellToString(Cell cell) {
-        if (cell == null) return null;
-        return fmt.formatCellValue(cell).trim();
+    private String cell(String[] row, int i) {
+        return i < row.length ? row[i] : null;
     }
 
     private boolean isBlank(String s) {
@@ -595,6 +501,24 @@ public class ExcelImportServiceImpl implements ImportService {
         quizVersionRepo.save(v1);
     }
 
+    /**
+     * The constraint a rejected write violated, or else the SQL state and
+     * message of the database error; the exception message if neither is known.
+     */
+    private static String failureDetail(Throwable e) {
+        String detail = e.getMessage();
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName();
+            }
+            if (t instanceof SQLException sql) {
+                SQLException cause = sql.getNextException() != null ? sql.getNextException() : sql;
+                detail = cause.getSQLState() + " " + cause.getMessage();
+            }
+        }
+        return detail;
+    }
+
     private record RowParseResult<T>(T value, List<ImportErrorDto> errors) {
         static <T> RowParseResult<T> ok(T value) {
             return new RowParseResult<>(value, List.of());
@@ -608,20 +532,289 @@ public class ExcelImportServiceImpl implements ImportService {
             return errors != null && !errors.isEmpty();
         }
     }
-    private record SheetContext(Sheet sheet, Map<String, Integer> idx) {}
 
-    private SheetContext prepareSheetContext(
-            Workbook wb,
-            List<ImportErrorDto> errors,
-            List<String> requiredColumns
-    ) {
-        Sheet sheet = wb.getSheetAt(0);
-        Map<String, Integer> idx = headerIndex(sheet, errors);
-        requireColumns(idx, errors, requiredColumns);
-        return new SheetContext(sheet, idx);
+    /**
+     * Validates one row and maps it to what is persisted. Runs on several
+     * threads at once, so it must only read the row and the preloaded
+     * {@link ColumnLookup lookups}.
+     */
+    @FunctionalInterface
+    private interface RowParser<T> {
+        RowParseResult<T> parse(String[] row, Map<String, Integer> idx, int rowNum);
+    }
+
+    /**
+     * What an import reads and writes: the required header columns, the
+     * columns whose values must be unique within the file (or {@code null}),
+     * what is looked up per chunk for the ids in a column, the row validator
+     * and how a chunk of valid rows is persisted.
+     */
+    private record ImportSpec<T>(
+            List<String> requiredColumns,
+            UniqueKey uniqueKey,
+            List<ColumnLookup> lookups,
+            RowParser<T> parser,
+            Consumer<List<T>> persist
+    ) {}
+
+    /**
+     * Columns whose values together must be unique within the file; a repeat
+     * is reported on the last column with the given message.
+     */
+    private record UniqueKey(List<String> columns, String duplicateMessage) {
+        String field() {
+            return columns.getLast();
+        }
     }
 
-    private ImportResultDto failIfHeaderInvalid(List<ImportErrorDto> errors) {
-        return errors.isEmpty() ? null : new ImportResultDto(0, 0, errors);
+    private record ColumnLookup(String column, ChunkLookup lookup) {}
+
+    /**
+     * Something the validators need to know about the ids of one column,
+     * loaded once per chunk for the ids the chunk has in that column.
+     */
+    private interface ChunkLookup {
+        void load(Collection<Integer> ids);
+    }
+
+    private record SheetRow(int rowNum, String[] cells) {}
+
+    private record QuestionRow(Integer quizVersionId, Integer ord, QuestionType qtype, String textDefault) {}
+
+    /**
+     * Ids of one referenced table that exist, looked up once per chunk for
+     * the ids the chunk refers to and kept for the rest of the import.
+     * Loaded on the import thread only; read concurrently by the validators.
+     */
+    private static final class ReferenceIds implements ChunkLookup {
+        private final Function<Collection<Integer>, Set<Integer>> loader;
+        private final Set<Integer> existing = new HashSet<>();
+        private final Set<Integer> checked = new HashSet<>();
+
+        ReferenceIds(Function<Collection<Integer>, Set<Integer>> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public void load(Collection<Integer> ids) {
+            List<Integer> unchecked = ids.stream().filter(id -> !checked.contains(id)).distinct().toList();
+            if (unchecked.isEmpty()) {
+                return;
+            }
+            existing.addAll(loader.apply(unchecked));
+            checked.addAll(unchecked);
+        }
+
+        boolean contains(Integer id) {
+            return existing.contains(id);
+        }
+    }
+
+    /**
+     * Question orders already taken in the quiz versions a chunk refers to,
+     * looked up once per version and kept for the rest of the import; orders
+     * repeated within the file are caught by the unique key instead. Loaded
+     * on the import thread only; read concurrently by the validators.
+     */
+    private static final class ExistingOrds implements ChunkLookup {
+        private final Function<Collection<Integer>, List<QuestionRepository.QuestionOrd>> loader;
+        private final Map<Integer, Set<Integer>> ordsByVersion = new HashMap<>();
+
+        ExistingOrds(Function<Collection<Integer>, List<QuestionRepository.QuestionOrd>> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public void load(Collection<Integer> versionIds) {
+            List<Integer> unchecked = versionIds.stream()
+                    .filter(id -> !ordsByVersion.containsKey(id))
+                    .distinct()
+                    .toList();
+            if (unchecked.isEmpty()) {
+                return;
+            }
+            unchecked.forEach(id -> ordsByVersion.put(id, new HashSet<>()));
+            for (QuestionRepository.QuestionOrd o : loader.apply(unchecked)) {
+                ordsByVersion.get(o.getQuizVersionId()).add(o.getOrd());
+            }
+        }
+
+        boolean contains(Integer versionId, Integer ord) {
+            Set<Integer> ords = ordsByVersion.get(versionId);
+            return ords != null && ords.contains(ord);
+        }
+    }
+
+    /** State of one streaming import; fed the sheet rows by {@link XlsxRowReader}. */
+    private final class ImportRun<T> {
+        private final ImportSpec<T> spec;
+        private final boolean dryRun;
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private final Set<String> uniqueValues = new HashSet<>();
+        private List<SheetRow> pending = new ArrayList<>();
+        private Map<String, Integer> idx;
+        private boolean headerValid;
+        private int total;
+        private int saved;
+
+        ImportRun(ImportSpec<T> spec, boolean dryRun) {
+            this.spec = spec;
+            this.dryRun = dryRun;
+        }
+
+        /** Returns {@code false} to stop reading when the header is invalid. */
+        boolean accept(int rowIndex, String[] cells) {
+            if (idx == null) {
+                return header(rowIndex == 0 ? cells : null);
+            }
+            if (!hasData(cells)) {
+                return true;
+            }
+
+            total++;
+            pending.add(new SheetRow(rowIndex + 1, cells));
+            if (pending.size() >= IMPORT_CHUNK_SIZE) {
+                processChunk();
+            }
+            return true;
+        }
+
+        ImportResultDto finish() {
+            if (idx == null) {
+                header(null);
+            }
+            if (!headerValid) {
+                return new ImportResultDto(0, 0, errors);
+            }
+            processChunk();
+            return new ImportResultDto(total, saved, errors);
+        }
+
+        private boolean header(String[] cells) {
+            if (cells == null) {
+                errors.add(new ImportErrorDto(1, FIELD_ROW, ERROR_EXCEL_MISSING_HEADER));
+                idx = Map.of();
+            } else {
+                idx = headerIndex(cells);
+            }
+            requireColumns(idx, errors, spec.requiredColumns());
+            headerValid = errors.isEmpty();
+            return headerValid;
+        }
+
+        /**
+         * Validates the pending rows in parallel and persists the valid ones.
+         * Errors are reported in row order; of rows sharing a unique key
+         * the first one wins, as when validating one row after another.
+         */
+        private void processChunk() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<SheetRow> rows = pending;
+            pending = new ArrayList<>();
+
+            spec.lookups().forEach(l -> l.lookup().load(referencedIds(rows, l.column())));
+            List<RowParseResult<T>> results = rows.parallelStream()
+                    .map(r -> spec.parser().parse(r.cells(), idx, r.rowNum()))
+                    .toList();
+
+            List<T> chunk = new ArrayList<>();
+            List<Integer> chunkRows = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                SheetRow row = rows.get(i);
+                RowParseResult<T> parsed = results.get(i);
+                boolean duplicate = isDuplicate(row);
+
+                errors.addAll(parsed.errors());
+                if (duplicate) {
+                    UniqueKey key = spec.uniqueKey();
+                    errors.add(new ImportErrorDto(row.rowNum(), key.field(), key.duplicateMessage()));
+                }
+                if (!parsed.hasErrors() && !duplicate) {
+                    chunk.add(parsed.value());
+                    chunkRows.add(row.rowNum());
+                }
+            }
+
+            if (dryRun) {
+                saved += chunk.size();
+            } else {
+                persist(chunk, chunkRows);
+            }
+        }
+
+        private List<Integer> referencedIds(List<SheetRow> rows, String col) {
+            Integer i = idx.get(col);
+            if (i == null) {
+                return List.of();
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (SheetRow row : rows) {
+                String value = cell(row.cells(), i);
+                if (!isBlank(value)) {
+                    try {
+                        ids.add(Integer.parseInt(value.trim()));
+                    } catch (NumberFormatException e) {
+                        // reported by the validator
+                    }
+                }
+            }
+            return ids;
+        }
+
+        private boolean isDuplicate(SheetRow row) {
+            if (spec.uniqueKey() == null) {
+                return false;
+            }
+            StringJoiner key = new StringJoiner("\u0000");
+            for (String col : spec.uniqueKey().columns()) {
+                String value = getString(row.cells(), idx, col);
+                if (isBlank(value)) {
+                    return false;
+                }
+                key.add(value.trim().toLowerCase());
+            }
+            return !uniqueValues.add(key.toString());
+        }
+
+        private void persist(List<T> chunk, List<Integer> chunkRows) {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                write(chunk);
+                saved += chunk.size();
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                log.warn("Import chunk of rows {}-{} failed, retrying its rows one by one: {}",
+                        chunkRows.getFirst(), chunkRows.getLast(), e.getMessage());
+                persistRowByRow(chunk, chunkRows);
+            }
+        }
+
+        /**
+         * Writes the rows of a failed chunk one at a time, each in its own
+         * short transaction, so only the rows the database rejects are
+         * reported, with the constraint or SQL state that rejected them.
+         */
+        private void persistRowByRow(List<T> chunk, List<Integer> chunkRows) {
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    write(List.of(chunk.get(i)));
+                    saved++;
+                } catch (DataAccessException | PersistenceException | TransactionException e) {
+                    errors.add(new ImportErrorDto(chunkRows.get(i), FIELD_ROW,
+                            ERROR_EXCEL_ROW_FAILED + ": " + failureDetail(e)));
+                }
+            }
+        }
+
+        private void write(List<T> rows) {
+            chunkTx.executeWithoutResult(status -> {
+                spec.persist().accept(rows);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,372 @@
+package com.diploma.proforientation.service.impl;
+
+import com.diploma.proforientation.dto.importexport.ExportJobDto;
+import com.diploma.proforientation.dto.importexport.ExportJobRequest;
+import com.diploma.proforientation.exception.ApiException;
+import com.diploma.proforientation.exception.ExportJobException;
+import com.diploma.proforientation.model.ExportJob;
+import com.diploma.proforientation.model.enumeration.ExportJobStatus;
+import com.diploma.proforientation.model.enumeration.ExportJobType;
+import com.diploma.proforientation.repository.ExportJobRepository;
+import com.diploma.proforientation.service.ExportJobService;
+import com.diploma.proforientation.service.ExportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.diploma.proforientation.util.Constants.*;
+
+/**
+ * Runs exports in the background on the bounded {@code exportJobExecutor}
+ * and spools the result to a local directory, so long exports do not hold
+ * a request thread and survive proxy timeouts.
+ * <p>
+ * Jobs are kept in {@code export_jobs}, so any replica reports their status,
+ * and an equal request on any replica joins the job that is queued, running
+ * or still downloadable instead of starting another one. The file stays on
+ * the replica that ran the job ({@code export.jobs.node-id}, by default the
+ * host name), and only that replica serves it: the load balancer has to route
+ * {@code /api/export/jobs/{id}/file} to the node the job reports, any other
+ * replica answers with a conflict naming the node.
+ * <p>
+ * Every heartbeat interval a replica renews the lease of all its jobs and
+ * stores the bytes written by the unfinished ones, so any replica reports
+ * their progress. A job whose lease ran out belongs to a replica that is
+ * gone, whatever its status: it is reported as not found, an equal request
+ * takes it over and the cleanup deletes it. The lease must be several
+ * heartbeat intervals long.
+ * <p>
+ * Finished jobs and their files are removed after the time to live. On
+ * startup a replica fails the jobs it had not finished and removes files
+ * that no job refers to.
+ */
+@Slf4j
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+
+    /** Length of a job id, a random UUID. */
+    private static final int JOB_ID_LENGTH = 36;
+
+    private final ExportService exportService;
+    private final ExportJobRepository jobRepo;
+    private final Executor executor;
+    private final Path spoolDir;
+    private final Duration ttl;
+    private final Duration lease;
+    private final String node;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Bytes written by the unfinished jobs of this replica; stored on every heartbeat. */
+    private final Map<String, AtomicLong> progress = new ConcurrentHashMap<>();
+    private final Object spoolLock = new Object();
+
+    public ExportJobServiceImpl(ExportService exportService,
+                                ExportJobRepository jobRepo,
+                                @Qualifier("exportJobExecutor") Executor executor,
+                                @Value("${export.jobs.spool-dir:${java.io.tmpdir}/proforientation-exports}") Path spoolDir,
+                                @Value("${export.jobs.ttl:PT1H}") Duration ttl,
+                                @Value("${export.jobs.lease:PT2M}") Duration lease,
+                                @Value("${export.jobs.node-id:${HOSTNAME:local}}") String node) {
+        this.exportService = exportService;
+        this.jobRepo = jobRepo;
+        this.executor = executor;
+        this.spoolDir = spoolDir;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.node = node;
+    }
+
+    @PostConstruct
+    public void initSpoolDir() {
+        try {
+            Files.createDirectories(spoolDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare export spool directory " + spoolDir, e);
+        }
+        int interrupted = jobRepo.failUnfinished(node, EXPORT_JOB_INTERRUPTED, Instant.now());
+        if (interrupted > 0) {
+            log.warn("Failed {} export jobs interrupted by the restart of {}", interrupted, node);
+        }
+        deleteUnreferencedFiles();
+    }
+
+    @Override
+    public ExportJobDto submit(ExportJobRequest request) {
+        ExportJobRequest key = normalize(request);
+        // resolving the writer validates the request before a job is queued
+        writer(key);
+
+        String requestKey = requestKey(key);
+        String id = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        int claimed = jobRepo.claim(id, requestKey, key.type().name(), filename(key), node,
+                now, now.minus(ttl), now.minus(lease));
+        if (claimed == 0) {
+            return toDto(jobRepo.findByRequestKey(requestKey)
+                    .orElseThrow(() -> new EntityNotFoundException(EXPORT_JOB_NOT_FOUND)));
+        }
+
+        start(id, key);
+        return toDto(find(id));
+    }
+
+    @Override
+    public ExportJobDto get(String jobId) {
+        return toDto(find(jobId));
+    }
+
+    @Override
+    public SpooledFile file(String jobId) {
+        ExportJob job = find(jobId);
+        if (job.getStatus() != ExportJobStatus.DONE || expired(job, Instant.now())) {
+            throw new ExportJobException(EXPORT_JOB_NOT_READY, HttpStatus.CONFLICT);
+        }
+        if (!node.equals(job.getNode())) {
+            throw new ExportJobException(EXPORT_JOB_OTHER_NODE, HttpStatus.CONFLICT, job.getNode());
+        }
+        return new SpooledFile(Path.of(job.getFilePath()), job.getFilename(), job.getType().contentType);
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${export.jobs.cleanup-interval:PT5M}",
+            fixedDelayString = "${export.jobs.cleanup-interval:PT5M}"
+    )
+    public void cleanupExpired() {
+        Instant now = Instant.now();
+        jobRepo.deleteExpired(now.minus(ttl), now.minus(lease));
+        deleteUnreferencedFiles();
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${export.jobs.heartbeat-interval:PT15S}",
+            fixedDelayString = "${export.jobs.heartbeat-interval:PT15S}"
+    )
+    public void heartbeat() {
+        Instant now = Instant.now();
+        progress.forEach((id, bytesWritten) -> jobRepo.heartbeat(id, bytesWritten.get(), now));
+        jobRepo.heartbeatFinished(node, now);
+    }
+
+    private void start(String id, ExportJobRequest request) {
+        AtomicLong bytesWritten = new AtomicLong();
+        progress.put(id, bytesWritten);
+        try {
+            executor.execute(() -> run(id, request, bytesWritten));
+        } catch (RejectedExecutionException e) {
+            progress.remove(id);
+            jobRepo.markFinished(id, ExportJobStatus.FAILED, null, 0, EXPORT_QUEUE_FULL, Instant.now());
+            throw new ExportJobException(EXPORT_QUEUE_FULL, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void run(String id, ExportJobRequest request, AtomicLong bytesWritten) {
+
+        Path part = spoolDir.resolve(id + ".part");
+        Path file = null;
+        String error = null;
+        try {
+            jobRepo.markStarted(id, ExportJobStatus.RUNNING, Instant.now());
+            try (OutputStream out = new CountingOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(part)), bytesWritten)) {
+                writer(request).writeTo(out);
+            }
+            Path target = spoolDir.resolve(id + "-" + filename(request));
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            file = target;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(part);
+            error = e instanceof ApiException api ? api.getMessageKey() : ERROR_UNEXPECTED;
+            log.warn("Export job {} ({}) failed: {}", id, request.type(), e.getMessage());
+        } finally {
+            // the file is referenced before the job stops counting as running, see deleteUnreferencedFiles
+            synchronized (spoolLock) {
+                try {
+                    jobRepo.markFinished(id, file != null ? ExportJobStatus.DONE : ExportJobStatus.FAILED,
+                            file != null ? file.toString() : null, bytesWritten.get(), error, Instant.now());
+                } finally {
+                    progress.remove(id);
+                }
+            }
+        }
+    }
+
+    private ExportService.ExportWriter writer(ExportJobRequest r) {
+        return switch (r.type()) {
+            case ENTITY_CSV -> exportService.exportEntityToCsv(r.entity());
+            case FULL_EXCEL -> exportService.exportAllToExcel();
+            case QUIZ_METRICS_CSV -> bytes(() -> exportService.exportQuizMetricsToCsv(r.filter()));
+            case QUIZ_METRICS_EXCEL -> bytes(() -> exportService.exportQuizMetricsToExcel(r.filter()));
+            case ANALYTICS_OVERVIEW_CSV -> bytes(() ->
+                    exportService.exportQuizAnalyticsOverviewCsv(r.quizId(), r.quizVersionId()));
+            case ANALYTICS_DETAILED_CSV -> bytes(() ->
+                    exportService.exportQuizAnalyticsDetailedCsv(r.quizId(), r.quizVersionId()));
+            case ANALYTICS_OVERVIEW_EXCEL -> bytes(() ->
+                    exportService.exportQuizAnalyticsOverviewExcel(r.quizId(), r.quizVersionId()));
+            case ANALYTICS_DETAILED_EXCEL -> bytes(() ->
+                    exportService.exportQuizAnalyticsDetailedExcel(r.quizId(), r.quizVersionId()));
+            case ANSWER_MATRIX_CSV_GZ -> exportService.exportAnswerMatrix(r.quizId(), r.quizVersionId());
+        };
+    }
+
+    private static ExportService.ExportWriter bytes(Supplier<byte[]> export) {
+        return out -> out.write(export.get());
+    }
+
+    /**
+     * Keeps only the fields the export type uses, so requests that differ in
+     * irrelevant fields share a job.
+     */
+    private static ExportJobRequest normalize(ExportJobRequest r) {
+        ExportJobType type = r.type();
+        if (type == null) {
+            throw new ExportJobException(EXPORT_JOB_PARAMS, HttpStatus.BAD_REQUEST, "");
+        }
+        return switch (type) {
+            case ENTITY_CSV -> {
+                if (r.entity() == null || r.entity().isBlank()) {
+                    throw new ExportJobException(EXPORT_JOB_PARAMS, HttpStatus.BAD_REQUEST, type);
+                }
+                yield new ExportJobRequest(type, r.entity(), null, null, null);
+            }
+            case FULL_EXCEL -> new ExportJobRequest(type, null, null, null, null);
+            case QUIZ_METRICS_CSV, QUIZ_METRICS_EXCEL -> new ExportJobRequest(type, null, null, null, r.filter());
+            case ANALYTICS_OVERVIEW_CSV, ANALYTICS_DETAILED_CSV,
+                 ANALYTICS_OVERVIEW_EXCEL, ANALYTICS_DETAILED_EXCEL, ANSWER_MATRIX_CSV_GZ -> {
+                if (r.quizId() == null || r.quizVersionId() == null) {
+                    throw new ExportJobException(EXPORT_JOB_PARAMS, HttpStatus.BAD_REQUEST, type);
+                }
+                yield new ExportJobRequest(type, null, r.quizId(), r.quizVersionId(), null);
+            }
+        };
+    }
+
+    private String requestKey(ExportJobRequest normalized) {
+        try {
+            return mapper.writeValueAsString(normalized);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String filename(ExportJobRequest r) {
+        return r.type() == ExportJobType.ENTITY_CSV ? r.entity() + ".csv" : r.type().filename;
+    }
+
+    /** A job whose lease ran out is gone with its replica and treated as not found. */
+    private ExportJob find(String jobId) {
+        return jobRepo.findById(jobId)
+                .filter(job -> job.getHeartbeatAt().isAfter(Instant.now().minus(lease)))
+                .orElseThrow(() -> new EntityNotFoundException(EXPORT_JOB_NOT_FOUND));
+    }
+
+    private boolean expired(ExportJob job, Instant now) {
+        Instant finished = job.getFinishedAt();
+        return finished != null && !finished.plus(ttl).isAfter(now);
+    }
+
+    private ExportJobDto toDto(ExportJob job) {
+        AtomicLong running = progress.get(job.getId());
+        Instant finishedAt = job.getFinishedAt();
+        return new ExportJobDto(
+                job.getId(),
+                job.getType(),
+                job.getStatus(),
+                job.getFilename(),
+                running != null ? running.get() : job.getBytesWritten(),
+                job.getNode(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                finishedAt,
+                finishedAt != null ? finishedAt.plus(ttl) : null,
+                job.getError()
+        );
+    }
+
+    /**
+     * Removes the files in the spool directory that no job of this replica
+     * refers to: those of expired or taken over jobs, and on startup the
+     * partial files of interrupted ones.
+     */
+    private void deleteUnreferencedFiles() {
+        synchronized (spoolLock) {
+            Set<String> referenced = jobRepo.findFilePathsByNode(node);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir, Files::isRegularFile)) {
+                for (Path file : files) {
+                    if (!referenced.contains(file.toString()) && !progress.containsKey(jobId(file))) {
+                        deleteQuietly(file);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Cannot list export spool directory {}: {}", spoolDir, e.getMessage());
+            }
+        }
+    }
+
+    /** The job id a spool file is named after: {@code <id>.part} or {@code <id>-<filename>}. */
+    private static String jobId(Path file) {
+        String name = file.getFileName().toString();
+        return name.length() >= JOB_ID_LENGTH ? name.substring(0, JOB_ID_LENGTH) : name;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /** Publishes the number of written bytes as the progress of a running job. */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+}
@@ -1,123 +1,331 @@
 package com.diploma.proforientation.service.impl;
 
 import com.diploma.proforientation.dto.QuizMetricsFilter;
+import com.diploma.proforientation.dto.analytics.QuizAnalyticsDetailedDto;
+import com.diploma.proforientation.dto.analytics.QuizAnalyticsOverviewDto;
 import com.diploma.proforientation.exception.CsvExportException;
 import com.diploma.proforientation.exception.ExcelExportException;
 import com.diploma.proforientation.repository.spec.QuizPublicMetricsSpecs;
-import com.diploma.proforientation.repository.view.*;
+import com.diploma.proforientation.repository.view.QuizPublicMetricsRepository;
 import com.diploma.proforientation.service.ExportService;
-import com.diploma.proforientation.model.*;
+import com.diploma.proforientation.service.QuizAnalyticsService;
 import com.diploma.proforientation.repository.*;
+import com.diploma.proforientation.util.ParallelReads;
+import com.diploma.proforientation.util.SheetSpool;
 import com.opencsv.CSVWriter;
 import com.opencsv.ICSVWriter;
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.StringWriter;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static com.diploma.proforientation.util.Constants.*;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ExportServiceImpl implements ExportService {
 
+    /** Rows kept in memory per sheet of a streaming workbook; older rows are flushed to a temp file. */
+    private static final int EXCEL_ROW_WINDOW = 100;
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final QuizRepository quizRepo;
     private final QuizVersionRepository quizVersionRepo;
     private final QuestionRepository questionRepo;
     private final QuestionOptionRepository optionRepo;
     private final ProfessionRepository professionRepo;
     private final AttemptRepository attemptRepo;
+    private final AnswerRepository answerRepo;
     private final TranslationRepository translationRepo;
     private final QuizPublicMetricsRepository quizPublicMetricsRepo;
-    private final QuizFunnelOverviewRepository funnelRepo;
-    private final QuizActivityDailyRepository activityRepo;
-    private final QuizTopProfessionRepository topProfRepo;
-    private final QuizQuestionModeChoiceRepository modeChoiceRepo;
-    private final QuizQuestionOptionDistributionRepository distRepo;
-    private final QuizQuestionDiscriminationRepository discRepo;
-
-    private final Map<String, Consumer<CSVWriter>> csvExporters = new LinkedHashMap<>();
+    private final QuizAnalyticsService analyticsService;
+    private final PlatformTransactionManager transactionManager;
+    private final ParallelReads parallelReads;
+
+    private final Map<String, ExportSource> sources = new LinkedHashMap<>();
+    private final Map<String, DeltaSource> deltaSources = new LinkedHashMap<>();
+    private TransactionTemplate readTx;
+
+    @Value("${export.excel.parallel-sheets:true}")
+    private boolean parallelSheets;
+
+    /**
+     * Sheet reads one full Excel export runs at once. Each holds a pooled
+     * connection, so keep it well below the connection pool size; the reads
+     * are also subject to the application-wide {@code parallel-reads.max-concurrent}.
+     */
+    @Value("${export.excel.max-parallel-sheets:3}")
+    private int maxParallelSheets;
+
+    /**
+     * How far the returned delta cursor lags behind the start of the export,
+     * so rows stamped before it but committed after the read are exported
+     * again next time instead of being missed.
+     */
+    @Value("${export.delta.overlap:PT5M}")
+    private Duration deltaOverlap;
 
     @PostConstruct
     public void initExporters() {
-        csvExporters.put(ENTITY_QUIZZES, this::writeQuizzesCsv);
-        csvExporters.put(ENTITY_QUIZ_VERSIONS, this::writeQuizVersionsCsv);
-        csvExporters.put(ENTITY_QUESTIONS, this::writeQuestionsCsv);
-        csvExporters.put(ENTITY_QUESTION_OPTIONS, this::writeOptionsCsv);
-        csvExporters.put(ENTITY_PROFESSIONS, this::writeProfessionsCsv);
-        csvExporters.put(ENTITY_ATTEMPTS, this::writeAttemptsCsv);
-        csvExporters.put(ENTITY_TRANSLATIONS, this::writeTranslationsCsv);
+        sources.put(ENTITY_QUIZZES, new ExportSource(HEADERS_QUIZZES, quizRepo::streamExportRows));
+        sources.put(ENTITY_QUIZ_VERSIONS, new ExportSource(HEADERS_QUIZ_VERSIONS, quizVersionRepo::streamExportRows));
+        sources.put(ENTITY_QUESTIONS, new ExportSource(HEADERS_QUESTIONS, questionRepo::streamExportRows));
+        sources.put(ENTITY_QUESTION_OPTIONS, new ExportSource(HEADERS_QUESTION_OPTIONS, optionRepo::streamExportRows));
+        sources.put(ENTITY_PROFESSIONS, new ExportSource(HEADERS_PROFESSIONS, professionRepo::streamExportRows));
+        sources.put(ENTITY_ATTEMPTS, new ExportSource(HEADERS_ATTEMPTS, attemptRepo::streamExportRows));
+        sources.put(ENTITY_TRANSLATIONS, new ExportSource(HEADERS_TRANSLATIONS, translationRepo::streamExportRows));
+
+        deltaSources.put(ENTITY_QUIZZES, new DeltaSource(HEADERS_QUIZZES, quizRepo::streamExportRowsChangedSince));
+        deltaSources.put(ENTITY_ATTEMPTS,
+                new DeltaSource(HEADERS_ATTEMPTS_DELTA, attemptRepo::streamExportRowsChangedSince));
+
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
     }
 
     @Override
-    public byte[] exportEntityToCsv(String entity) {
-        Consumer<CSVWriter> exporter = csvExporters.get(entity);
+    public ExportWriter exportEntityToCsv(String entity) {
+        ExportSource source = sources.get(entity);
 
-        if (exporter == null) {
+        if (source == null) {
             throw new CsvExportException(UNSUPPORTED_EXPORT_ENTITY + entity);
         }
 
-        try (StringWriter sw = new StringWriter();
-             CSVWriter writer = new CSVWriter(
-                     sw,
-                     ICSVWriter.DEFAULT_SEPARATOR,
-                     ICSVWriter.NO_QUOTE_CHARACTER,
-                     ICSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                     ICSVWriter.DEFAULT_LINE_END
-             )) {
-
-            exporter.accept(writer);
-            writer.flush();
+        return out -> writeCsv(entity, source, out);
+    }
 
-            return sw.toString().getBytes(StandardCharsets.UTF_8);
+    @Override
+    public DeltaExport exportEntityChangesToCsv(String entity, Instant since) {
+        DeltaSource delta = deltaSources.get(entity);
+
+        if (delta == null) {
+            throw new CsvExportException(UNSUPPORTED_DELTA_EXPORT_ENTITY, entity);
+        }
 
+        Instant cursor = Instant.now().minus(deltaOverlap);
+        ExportSource source = new ExportSource(delta.headers(), () -> delta.rows().apply(since));
+        return new DeltaExport(cursor, out -> writeCsv(entity, source, out));
+    }
+
+    /**
+     * Streams one entity through a cursor read into the output. The writer
+     * is flushed but not closed: the stream belongs to the caller.
+     */
+    private void writeCsv(String entity, ExportSource source, OutputStream out) {
+        try {
+            CSVWriter writer = csvWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            writer.writeNext(source.headers());
+
+            readTx.executeWithoutResult(status ->
+                    forEachRow(source, row -> writer.writeNext(stringValues(row))));
+
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Failed to write CSV output");
+            }
         } catch (IOException | RuntimeException e) {
             throw new CsvExportException(CSV_EXPORT_FAILED + entity, e);
         }
     }
 
-    @Override
-    public byte[] exportAllToExcel() {
-        try (Workbook wb = new XSSFWorkbook()) {
+    /**
+     * Feeds the rows of a cursor read to the sink. The rows are flat
+     * projections, so nothing accumulates in the persistence context.
+     */
+    private void forEachRow(ExportSource source, Consumer<Object[]> sink) {
+        try (Stream<Object[]> rows = source.rows().get()) {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                sink.accept(it.next());
+            }
+        }
+    }
 
-            writeQuizzes(wb);
-            writeQuizVersions(wb);
-            writeQuestions(wb);
-            writeOptions(wb);
-            writeProfessions(wb);
-            writeAttempts(wb);
-            writeTranslations(wb);
+    @Override
+    public ExportWriter exportAllToExcel() {
+        return this::writeAllToExcel;
+    }
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
+    /**
+     * Writes one sheet per entity through a streaming workbook: only the
+     * last {@link #EXCEL_ROW_WINDOW} rows of a sheet stay in memory, the
+     * rest are flushed to compressed temp files that are removed afterwards.
+     */
+    private void writeAllToExcel(OutputStream out) {
+        SXSSFWorkbook wb = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        wb.setCompressTempFiles(true);
+        try (wb) {
+            if (parallelSheets) {
+                writeSheetsInParallel(wb);
+            } else {
+                for (Map.Entry<String, ExportSource> e : sources.entrySet()) {
+                    writeSheet(wb, e.getKey(), e.getValue());
+                }
+            }
             wb.write(out);
-            return out.toByteArray();
-
-        } catch (IOException | RuntimeException e){
+            out.flush();
+        } catch (IOException | RuntimeException e) {
             throw new ExcelExportException(EXCEL_EXPORT_FAILED, e);
+        } finally {
+            wb.dispose();
+        }
+    }
+
+    private void writeSheet(Workbook wb, String name, ExportSource source) {
+        Sheet s = wb.createSheet(name);
+        row(s, 0, (Object[]) source.headers());
+
+        int[] r = {1};
+        readTx.executeWithoutResult(status ->
+                forEachRow(source, values -> row(s, r[0]++, values)));
+    }
+
+    /**
+     * Reads the entities concurrently, each on its own read-only connection,
+     * into a per-sheet spool file, then assembles the sheets in order. At most
+     * {@link #maxParallelSheets} reads are in flight: the next one starts when
+     * the oldest sheet is written, so one export never holds more connections
+     * than that. The workbook is only touched by the calling thread. When a
+     * read fails, the reads still in flight stop at their next row and their
+     * files are dropped once they finish, without the export waiting for them.
+     */
+    private void writeSheetsInParallel(Workbook wb) throws IOException {
+        List<String> names = List.copyOf(sources.keySet());
+        Deque<CompletableFuture<SheetSpool>> reads = new ArrayDeque<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        int next = 0;
+        try {
+            for (String name : names) {
+                while (next < names.size() && reads.size() < Math.max(1, maxParallelSheets)) {
+                    ExportSource source = sources.get(names.get(next++));
+                    reads.add(parallelReads.submit(() -> spool(source, cancelled)));
+                }
+
+                try (SheetSpool spool = ParallelReads.join(reads.remove())) {
+                    Sheet s = wb.createSheet(name);
+                    row(s, 0, (Object[]) sources.get(name).headers());
+
+                    int[] r = {1};
+                    spool.forEach(values -> row(s, r[0]++, (Object[]) values));
+                }
+            }
+        } finally {
+            cancelled.set(true);
+            reads.forEach(read -> read.thenAccept(ExportServiceImpl::discard));
+        }
+    }
+
+    private SheetSpool spool(ExportSource source, AtomicBoolean cancelled) {
+        if (cancelled.get()) {
+            throw new CancellationException();
+        }
+        SheetSpool spool = SheetSpool.create();
+        try {
+            forEachRow(source, values -> {
+                if (cancelled.get()) {
+                    throw new CancellationException();
+                }
+                spool.write(values);
+            });
+            return spool;
+        } catch (RuntimeException e) {
+            try {
+                spool.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private static void discard(SheetSpool spool) {
+        try {
+            spool.close();
+        } catch (IOException e) {
+            log.warn("Failed to delete an export sheet spool file", e);
+        }
+    }
+
+    @Override
+    public ExportWriter exportAnswerMatrix(Integer quizId, Integer quizVersionId) {
+        if (!quizVersionRepo.existsByIdAndQuizId(quizVersionId, quizId)) {
+            throw new EntityNotFoundException(QUIZ_VERSION_NOT_FOUND);
+        }
+        return out -> writeAnswerMatrix(quizVersionId, out);
+    }
+
+    /**
+     * Writes the answer matrix as gzip-compressed CSV in one pass over the
+     * answers ordered by attempt; only the row of the current attempt is
+     * held in memory. The output stream is finished but not closed.
+     */
+    private void writeAnswerMatrix(Integer quizVersionId, OutputStream out) {
+        try {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            CSVWriter writer = csvWriter(new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8)));
+
+            readTx.executeWithoutResult(status -> {
+                List<Integer> questionOrds = questionRepo.findOrdsByQuizVersionIdIn(List.of(quizVersionId))
+                        .stream()
+                        .map(QuestionRepository.QuestionOrd::getOrd)
+                        .toList();
+                AnswerMatrixPivot pivot = new AnswerMatrixPivot(questionOrds, writer::writeNext);
+                writer.writeNext(pivot.headers());
+
+                try (Stream<Object[]> rows = answerRepo.streamAnswerMatrixRows(quizVersionId)) {
+                    rows.forEach(pivot::accept);
+                }
+                pivot.finish();
+            });
+
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Failed to write CSV output");
+            }
+            gzip.finish();
+        } catch (IOException | RuntimeException e) {
+            throw new CsvExportException(CSV_EXPORT_FAILED + ENTITY_ANSWER_MATRIX, e);
         }
     }
 
     @Override
     public byte[] exportQuizMetricsToCsv(QuizMetricsFilter filter) {
         try (StringWriter sw = new StringWriter();
-             CSVWriter writer = new CSVWriter(
-                     sw,
-                     ICSVWriter.DEFAULT_SEPARATOR,
-                     ICSVWriter.NO_QUOTE_CHARACTER,
-                     ICSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                     ICSVWriter.DEFAULT_LINE_END
-             )) {
+             CSVWriter writer = csvWriter(sw)) {
 
             writer.writeNext(HEADERS_QUIZ_PUBLIC_METRICS);
 
@@ -178,25 +386,20 @@ public class ExportServiceImpl implements ExportService {
     @Override
     public byte[] exportQuizAnalyticsOverviewCsv(Integer quizId, Integer quizVersionId) {
         try (StringWriter sw = new StringWriter();
-             CSVWriter writer = new CSVWriter(
-                     sw,
-                     ICSVWriter.DEFAULT_SEPARATOR,
-                     ICSVWriter.NO_QUOTE_CHARACTER,
-                     ICSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                     ICSVWriter.DEFAULT_LINE_END
-             )) {
+             CSVWriter writer = csvWriter(sw)) {
+
+            var overview = analyticsService.getOverview(quizId, quizVersionId, null, null);
 
             // Sheet 1: funnel
             writer.writeNext(HEADERS_ANALYTICS_FUNNEL);
-            var f = funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-            if (f != null) {
+            if (hasFunnel(overview)) {
                 writer.writeNext(new String[]{
-                        stringValue(f.getId().getQuizId()),
-                        stringValue(f.getId().getQuizVersionId()),
-                        stringValue(f.getAttemptsStarted()),
-                        stringValue(f.getAttemptsCompleted()),
-                        stringValue(f.getCompletionRate()),
-                        stringValue(f.getAvgDurationSeconds())
+                        stringValue(overview.quizId()),
+                        stringValue(overview.quizVersionId()),
+                        stringValue(overview.attemptsStarted()),
+                        stringValue(overview.attemptsCompleted()),
+                        stringValue(overview.completionRate()),
+                        stringValue(overview.avgDurationSeconds())
                 });
             }
 
@@ -204,13 +407,12 @@ public class ExportServiceImpl implements ExportService {
 
             // Sheet 2 in CSV: activity daily
             writer.writeNext(HEADERS_ANALYTICS_ACTIVITY_DAILY);
-            var days = activityRepo.findByIdQuizIdAndIdQuizVersionIdOrderByIdDayAsc(quizId, quizVersionId);
-            for (var d : days) {
+            for (var d : overview.activityDaily()) {
                 writer.writeNext(new String[]{
-                        stringValue(d.getId().getDay()),
-                        stringValue(d.getAttemptsStarted()),
-                        stringValue(d.getAttemptsCompleted()),
-                        stringValue(d.getAvgDurationSeconds())
+                        stringValue(d.day()),
+                        stringValue(d.started()),
+                        stringValue(d.completed()),
+                        stringValue(d.avgDurationSeconds())
                 });
             }
 
@@ -218,12 +420,11 @@ public class ExportServiceImpl implements ExportService {
 
             // Sheet 3 in CSV: top professions
             writer.writeNext(HEADERS_ANALYTICS_TOP_PROFESSIONS);
-            var top = topProfRepo.findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(quizId, quizVersionId);
-            for (var p : top) {
+            for (var p : overview.topProfessions()) {
                 writer.writeNext(new String[]{
-                        stringValue(p.getId().getProfessionId()),
-                        stringValue(p.getProfessionTitle()),
-                        stringValue(p.getTop1Count())
+                        stringValue(p.professionId()),
+                        stringValue(p.professionTitle()),
+                        stringValue(p.top1Count())
                 });
             }
 
@@ -238,27 +439,20 @@ public class ExportServiceImpl implements ExportService {
     @Override
     public byte[] exportQuizAnalyticsDetailedCsv(Integer quizId, Integer quizVersionId) {
         try (StringWriter sw = new StringWriter();
-             CSVWriter writer = new CSVWriter(
-                     sw,
-                     ICSVWriter.DEFAULT_SEPARATOR,
-                     ICSVWriter.NO_QUOTE_CHARACTER,
-                     ICSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                     ICSVWriter.DEFAULT_LINE_END
-             )) {
+             CSVWriter writer = csvWriter(sw)) {
+
+            var detailed = analyticsService.getDetailed(quizId, quizVersionId);
 
             // Mode choice per question
             writer.writeNext(HEADERS_ANALYTICS_MODE_CHOICE);
 
-            var modes = modeChoiceRepo
-                    .findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId);
-
-            for (var r : modes) {
+            for (var r : detailed.modeChoicePerQuestion()) {
                 writer.writeNext(new String[]{
-                        stringValue(r.getId().getQuestionId()),
-                        stringValue(r.getQuestionOrd()),
-                        stringValue(r.getModeChoice()),
-                        stringValue(r.getModeCount()),
-                        stringValue(r.getAnswersCount())
+                        stringValue(r.questionId()),
+                        stringValue(r.questionOrd()),
+                        stringValue(r.modeChoice()),
+                        stringValue(r.modeCount()),
+                        stringValue(r.answersCount())
                 });
             }
 
@@ -266,14 +460,13 @@ public class ExportServiceImpl implements ExportService {
 
             // Option distribution
             writer.writeNext(HEADERS_ANALYTICS_OPTION_DISTRIBUTION);
-            var dist = distRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-            for (var r : dist) {
+            for (var r : detailed.optionDistribution()) {
                 writer.writeNext(new String[]{
-                        stringValue(r.getId().getQuestionId()),
-                        stringValue(r.getQuestionOrd()),
-                        stringValue(r.getId().getOptionId()),
-                        stringValue(r.getOptionOrd()),
-                        stringValue(r.getCount())
+                        stringValue(r.questionId()),
+                        stringValue(r.questionOrd()),
+                        stringValue(r.optionId()),
+                        stringValue(r.optionOrd()),
+                        stringValue(r.count())
                 });
             }
 
@@ -281,13 +474,12 @@ public class ExportServiceImpl implements ExportService {
 
             // Discrimination
             writer.writeNext(HEADERS_ANALYTICS_DISCRIMINATION);
-            var disc = discRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-            for (var r : disc) {
+            for (var r : detailed.discrimination()) {
                 writer.writeNext(new String[]{
-                        stringValue(r.getId().getQuestionId()),
-                        stringValue(r.getDiscNorm()),
-                        stringValue(r.getDiscQuality()),
-                        stringValue(r.getAttemptsSubmitted())
+                        stringValue(r.questionId()),
+                        stringValue(r.discNorm()),
+                        stringValue(r.discQuality()),
+                        stringValue(r.attemptsSubmitted())
                 });
             }
 
@@ -303,9 +495,11 @@ public class ExportServiceImpl implements ExportService {
     public byte[] exportQuizAnalyticsOverviewExcel(Integer quizId, Integer quizVersionId) {
         try (Workbook wb = new XSSFWorkbook()) {
 
-            writeAnalyticsFunnelSheet(wb, quizId, quizVersionId);
-            writeAnalyticsActivityDailySheet(wb, quizId, quizVersionId);
-            writeAnalyticsTopProfessionsSheet(wb, quizId, quizVersionId);
+            var overview = analyticsService.getOverview(quizId, quizVersionId, null, null);
+
+            writeAnalyticsFunnelSheet(wb, overview);
+            writeAnalyticsActivityDailySheet(wb, overview);
+            writeAnalyticsTopProfessionsSheet(wb, overview);
 
             ByteArrayOutputStream out = new ByteArrayOutputStream();
             wb.write(out);
@@ -320,9 +514,11 @@ public class ExportServiceImpl implements ExportService {
     public byte[] exportQuizAnalyticsDetailedExcel(Integer quizId, Integer quizVersionId) {
         try (Workbook wb = new XSSFWorkbook()) {
 
-            writeAnalyticsModeChoiceSheet(wb, quizId, quizVersionId);
-            writeAnalyticsOptionDistributionSheet(wb, quizId, quizVersionId);
-            writeAnalyticsDiscriminationSheet(wb, quizId, quizVersionId);
+            var detailed = analyticsService.getDetailed(quizId, quizVersionId);
+
+            writeAnalyticsModeChoiceSheet(wb, detailed);
+            writeAnalyticsOptionDistributionSheet(wb, detailed);
+            writeAnalyticsDiscriminationSheet(wb, detailed);
 
             ByteArrayOutputStream out = new ByteArrayOutputStream();
             wb.write(out);
@@ -333,126 +529,6 @@ public class ExportServiceImpl implements ExportService {
         }
     }
 
-    private void writeQuizzes(Workbook wb) {
-        Sheet s = wb.createSheet(ENTITY_QUIZZES);
-        row(s, 0, (Object[]) HEADERS_QUIZZES);
-
-        int r = 1;
-        for (Quiz q : quizRepo.findAll()) {
-            row(s, r++,
-                    q.getId(),
-                    q.getCode(),
-                    q.getTitleDefault(),
-                    q.getDescriptionDefault(),
-                    q.getStatus(),
-                    q.getProcessingMode(),
-                    q.getCategory().getId(),
-                    q.getAuthor().getId(),
-                    q.getSecondsPerQuestionDefault()
-            );
-        }
-    }
-
-    private void writeQuizVersions(Workbook wb) {
-        Sheet s = wb.createSheet(ENTITY_QUIZ_VERSIONS);
-        row(s, 0, (Object[]) HEADERS_QUIZ_VERSIONS);
-
-        int r = 1;
-        for (QuizVersion v : quizVersionRepo.findAll()) {
-            row(s, r++,
-                    v.getId(),
-                    v.getQuiz().getId(),
-                    v.getVersion(),
-                    v.isCurrent(),
-                    v.getPublishedAt()
-            );
-        }
-    }
-
-    private void writeQuestions(Workbook wb) {
-        Sheet s = wb.createSheet(ENTITY_QUESTIONS);
-        row(s, 0, (Object[]) HEADERS_QUESTIONS);
-
-        int r = 1;
-        for (Question q : questionRepo.findAll()) {
-            row(s, r++,
-                    q.getId(),
-                    q.getQuizVersion().getId(),
-                    q.getOrd(),
-                    q.getQtype(),
-                    q.getTextDefault()
-            );
-        }
-    }
-
-    private void writeOptions(Workbook wb) {
-        Sheet s = wb.createSheet(ENTITY_QUESTION_OPTIONS);
-        row(s, 0, (Object[]) HEADERS_QUESTION_OPTIONS);
-
-        int r = 1;
-        for (QuestionOption o : optionRepo.findAll()) {
-            row(s, r++,
-                    o.getId(),
-                    o.getQuestion().getId(),
-                    o.getOrd(),
-                    o.getLabelDefault()
-            );
-        }
-    }
-
-    private void writeProfessions(Workbook wb) {
-        Sheet s = wb.createSheet(ENTITY_PROFESSIONS);
-        row(s, 0, (Object[]) HEADERS_PROFESSIONS);
-
-        int r = 1;
-        for (Profession p : professionRepo.findAll()) {
-            row(s, r++,
-                    p.getId(),
-                    p.getCode(),
-                    p.getTitleDefault(),
-                    p.getDescription(),
-                    p.getMlClassCode(),
-                    p.getCategory().getId()
-            );
-        }
-    }
-
-    private void writeAttempts(Workbook wb) {
-        Sheet s = wb.createSheet(ENTITY_ATTEMPTS);
-        row(s, 0, (Object[]) HEADERS_ATTEMPTS);
-
-        int r = 1;
-        for (Attempt a : attemptRepo.findAll()) {
-            row(s, r++,
-                    a.getId(),
-                    a.getQuizVersion().getId(),
-                    a.getUser() != null ? a.getUser().getId() : null,
-                    a.getGuestToken(),
-                    a.getLocale(),
-                    a.getStartedAt(),
-                    a.getSubmittedAt(),
-                    a.getUuid()
-            );
-        }
-    }
-
-    private void writeTranslations(Workbook wb) {
-        Sheet s = wb.createSheet(ENTITY_TRANSLATIONS);
-        row(s, 0, (Object[]) HEADERS_TRANSLATIONS);
-
-        int r = 1;
-        for (Translation t : translationRepo.findAll()) {
-            row(s, r++,
-                    t.getId(),
-                    t.getEntityType(),
-                    t.getEntityId(),
-                    t.getLocale(),
-                    t.getField(),
-                    t.getText()
-            );
-        }
-    }
-
     private void row(Sheet s, int rowNum, Object... values) {
         Row row = s.createRow(rowNum);
         for (int i = 0; i < values.length; i++) {
@@ -467,221 +543,185 @@ public class ExportServiceImpl implements ExportService {
         return o == null ? EMPTY_STRING : o.toString();
     }
 
-    private void writeQuizzesCsv(CSVWriter writer) {
-        writer.writeNext(HEADERS_QUIZZES);
-
-        for (Quiz q : quizRepo.findAll()) {
-            writer.writeNext(new String[]{
-                    stringValue(q.getId()),
-                    q.getCode(),
-                    q.getTitleDefault(),
-                    q.getDescriptionDefault(),
-                    q.getStatus().name(),
-                    q.getProcessingMode().name(),
-                    stringValue(q.getCategory().getId()),
-                    stringValue(q.getAuthor().getId()),
-                    stringValue(q.getSecondsPerQuestionDefault())
-            });
-        }
-    }
-
-    private void writeAttemptsCsv(CSVWriter writer) {
-        writer.writeNext(HEADERS_ATTEMPTS);
-
-        for (Attempt a : attemptRepo.findAll()) {
-            writer.writeNext(new String[]{
-                    stringValue(a.getId()),
-                    stringValue(a.getQuizVersion().getId()),
-                    a.getUser() != null ? stringValue(a.getUser().getId()) : EMPTY_STRING,
-                    a.getGuestToken(),
-                    a.getLocale(),
-                    stringValue(a.getStartedAt()),
-                    stringValue(a.getSubmittedAt()),
-                    stringValue(a.getUuid())
-            });
-        }
-    }
-
-    private void writeQuizVersionsCsv(CSVWriter writer) {
-        writer.writeNext(HEADERS_QUIZ_VERSIONS);
-
-        for (QuizVersion v : quizVersionRepo.findAll()) {
-            writer.writeNext(new String[]{
-                    stringValue(v.getId()),
-                    stringValue(v.getQuiz().getId()),
-                    stringValue(v.getVersion()),
-                    String.valueOf(v.isCurrent()),
-                    stringValue(v.getPublishedAt())
-            });
+    private String[] stringValues(Object[] row) {
+        String[] values = new String[row.length];
+        for (int i = 0; i < row.length; i++) {
+            values[i] = stringValue(row[i]);
         }
+        return values;
     }
 
-    private void writeQuestionsCsv(CSVWriter writer) {
-        writer.writeNext(HEADERS_QUESTIONS);
-
-        for (Question q : questionRepo.findAll()) {
-            writer.writeNext(new String[]{
-                    stringValue(q.getId()),
-                    stringValue(q.getQuizVersion().getId()),
-                    stringValue(q.getOrd()),
-                    q.getQtype().name(),
-                    q.getTextDefault()
-            });
-        }
-    }
-
-    private void writeOptionsCsv(CSVWriter writer) {
-        writer.writeNext(HEADERS_QUESTION_OPTIONS);
-
-        for (QuestionOption o : optionRepo.findAll()) {
-            writer.writeNext(new String[]{
-                    stringValue(o.getId()),
-                    stringValue(o.getQuestion().getId()),
-                    stringValue(o.getOrd()),
-                    o.getLabelDefault()
-            });
-        }
-    }
-
-    private void writeProfessionsCsv(CSVWriter writer) {
-        writer.writeNext(HEADERS_PROFESSIONS);
-
-        for (Profession p : professionRepo.findAll()) {
-            writer.writeNext(new String[]{
-                    stringValue(p.getId()),
-                    p.getCode(),
-                    p.getTitleDefault(),
-                    p.getDescription(),
-                    p.getMlClassCode(),
-                    stringValue(p.getCategory().getId())
-            });
-        }
+    private static CSVWriter csvWriter(Writer out) {
+        return new CSVWriter(
+                out,
+                ICSVWriter.DEFAULT_SEPARATOR,
+                ICSVWriter.NO_QUOTE_CHARACTER,
+                ICSVWriter.DEFAULT_ESCAPE_CHARACTER,
+                ICSVWriter.DEFAULT_LINE_END
+        );
     }
 
-    private void writeTranslationsCsv(CSVWriter writer) {
-        writer.writeNext(HEADERS_TRANSLATIONS);
-
-        for (Translation t : translationRepo.findAll()) {
-            writer.writeNext(new String[]{
-                    stringValue(t.getId()),
-                    t.getEntityType(),
-                    stringValue(t.getEntityId()),
-                    t.getLocale(),
-                    t.getField(),
-                    t.getText()
-            });
-        }
+    /** The funnel rollup has a row as soon as one attempt was started. */
+    private static boolean hasFunnel(QuizAnalyticsOverviewDto overview) {
+        return overview.attemptsStarted() != null && overview.attemptsStarted() > 0;
     }
 
-    private void writeAnalyticsFunnelSheet(Workbook wb, Integer quizId, Integer quizVersionId) {
+    private void writeAnalyticsFunnelSheet(Workbook wb, QuizAnalyticsOverviewDto overview) {
         Sheet s = wb.createSheet(SHEET_ANALYTICS_FUNNEL);
         row(s, 0, (Object[]) HEADERS_ANALYTICS_FUNNEL);
 
-        var f = funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-
-        if (f == null) return;
+        if (!hasFunnel(overview)) return;
 
         row(s, 1,
-                f.getId().getQuizId(),
-                f.getId().getQuizVersionId(),
-                f.getAttemptsStarted(),
-                f.getAttemptsCompleted(),
-                f.getCompletionRate(),
-                f.getAvgDurationSeconds()
+                overview.quizId(),
+                overview.quizVersionId(),
+                overview.attemptsStarted(),
+                overview.attemptsCompleted(),
+                overview.completionRate(),
+                overview.avgDurationSeconds()
         );
     }
 
-    private void writeAnalyticsActivityDailySheet(Workbook wb, Integer quizId, Integer quizVersionId) {
+    private void writeAnalyticsActivityDailySheet(Workbook wb, QuizAnalyticsOverviewDto overview) {
         Sheet s = wb.createSheet(SHEET_ANALYTICS_ACTIVITY_DAILY);
         row(s, 0, (Object[]) HEADERS_ANALYTICS_ACTIVITY_DAILY);
 
         int r = 1;
-        var rows = activityRepo.findByIdQuizIdAndIdQuizVersionIdOrderByIdDayAsc(quizId, quizVersionId);
-
-        for (var d : rows) {
+        for (var d : overview.activityDaily()) {
             row(s, r++,
-                    d.getId().getDay(),
-                    d.getAttemptsStarted(),
-                    d.getAttemptsCompleted(),
-                    d.getAvgDurationSeconds()
+                    d.day(),
+                    d.started(),
+                    d.completed(),
+                    d.avgDurationSeconds()
             );
         }
     }
 
-    private void writeAnalyticsTopProfessionsSheet(
-            Workbook wb,
-            Integer quizId,
-            Integer quizVersionId
-    ) {
+    private void writeAnalyticsTopProfessionsSheet(Workbook wb, QuizAnalyticsOverviewDto overview) {
         Sheet s = wb.createSheet(SHEET_ANALYTICS_TOP_PROFESSIONS);
         row(s, 0, (Object[]) HEADERS_ANALYTICS_TOP_PROFESSIONS);
 
         int r = 1;
-        var rows =
-                topProfRepo.findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(
-                        quizId,
-                        quizVersionId
-                );
-
-        for (var p : rows) {
+        for (var p : overview.topProfessions()) {
             row(s, r++,
-                    p.getId().getProfessionId(),
-                    p.getProfessionTitle(),
-                    p.getTop1Count()
+                    p.professionId(),
+                    p.professionTitle(),
+                    p.top1Count()
             );
         }
     }
 
-    private void writeAnalyticsModeChoiceSheet(Workbook wb, Integer quizId, Integer quizVersionId) {
+    private void writeAnalyticsModeChoiceSheet(Workbook wb, QuizAnalyticsDetailedDto detailed) {
         Sheet s = wb.createSheet(SHEET_ANALYTICS_MODE_CHOICE);
         row(s, 0, (Object[]) HEADERS_ANALYTICS_MODE_CHOICE);
 
         int r = 1;
-        var rows = modeChoiceRepo.findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId);
-
-        for (var x : rows) {
+        for (var x : detailed.modeChoicePerQuestion()) {
             row(s, r++,
-                    x.getId().getQuestionId(),
-                    x.getQuestionOrd(),
-                    x.getModeChoice(),
-                    x.getModeCount(),
-                    x.getAnswersCount()
+                    x.questionId(),
+                    x.questionOrd(),
+                    x.modeChoice(),
+                    x.modeCount(),
+                    x.answersCount()
             );
         }
     }
 
-    private void writeAnalyticsOptionDistributionSheet(Workbook wb, Integer quizId, Integer quizVersionId) {
+    private void writeAnalyticsOptionDistributionSheet(Workbook wb, QuizAnalyticsDetailedDto detailed) {
         Sheet s = wb.createSheet(SHEET_ANALYTICS_OPTION_DISTRIBUTION);
         row(s, 0, (Object[]) HEADERS_ANALYTICS_OPTION_DISTRIBUTION);
 
         int r = 1;
-        var rows = distRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-
-        for (var x : rows) {
+        for (var x : detailed.optionDistribution()) {
             row(s, r++,
-                    x.getId().getQuestionId(),
-                    x.getQuestionOrd(),
-                    x.getId().getOptionId(),
-                    x.getOptionOrd(),
-                    x.getCount()
+                    x.questionId(),
+                    x.questionOrd(),
+                    x.optionId(),
+                    x.optionOrd(),
+                    x.count()
             );
         }
     }
 
-    private void writeAnalyticsDiscriminationSheet(Workbook wb, Integer quizId, Integer quizVersionId) {
+    private void writeAnalyticsDiscriminationSheet(Workbook wb, QuizAnalyticsDetailedDto detailed) {
         Sheet s = wb.createSheet(SHEET_ANALYTICS_DISCRIMINATION);
         row(s, 0, (Object[]) HEADERS_ANALYTICS_DISCRIMINATION);
 
         int r = 1;
-        var rows = discRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-
-        for (var x : rows) {
+        for (var x : detailed.discrimination()) {
             row(s, r++,
-                    x.getId().getQuestionId(),
-                    x.getDiscNorm(),
-                    x.getDiscQuality(),
-                    x.getAttemptsSubmitted()
+                    x.questionId(),
+                    x.discNorm(),
+                    x.discQuality(),
+                    x.attemptsSubmitted()
             );
         }
     }
+
+    /**
+     * Turns answer rows ordered by attempt ({@code attempt id, submitted at,
+     * professions, question ord, option ord}) into one row per attempt with a
+     * column per question. Several options of one question are joined with
+     * {@code ;}; questions without an answer stay empty.
+     */
+    private static final class AnswerMatrixPivot {
+        private final Map<Integer, Integer> columnByOrd = new HashMap<>();
+        private final String[] headers;
+        private final Consumer<String[]> sink;
+        private Object attemptId;
+        private String[] row;
+
+        AnswerMatrixPivot(List<Integer> questionOrds, Consumer<String[]> sink) {
+            this.sink = sink;
+            this.headers = Arrays.copyOf(HEADERS_ANSWER_MATRIX, HEADERS_ANSWER_MATRIX.length + questionOrds.size());
+            for (Integer ord : questionOrds) {
+                int column = HEADERS_ANSWER_MATRIX.length + columnByOrd.size();
+                columnByOrd.put(ord, column);
+                headers[column] = ANSWER_MATRIX_QUESTION_PREFIX + ord;
+            }
+        }
+
+        String[] headers() {
+            return headers;
+        }
+
+        void accept(Object[] r) {
+            if (row == null || !attemptId.equals(r[0])) {
+                finish();
+                attemptId = r[0];
+                row = new String[headers.length];
+                Arrays.fill(row, EMPTY_STRING);
+                row[0] = attemptId.toString();
+                row[1] = timestamp(r[1]);
+                row[2] = r[2] == null ? EMPTY_STRING : r[2].toString();
+            }
+            Integer column = columnByOrd.get(((Number) r[3]).intValue());
+            if (column != null && r[4] != null) {
+                row[column] = row[column].isEmpty() ? r[4].toString() : row[column] + ";" + r[4];
+            }
+        }
+
+        void finish() {
+            if (row != null) {
+                sink.accept(row);
+                row = null;
+            }
+        }
+
+        /** Native queries return JDBC timestamps; written as ISO instants like the entity exports. */
+        private static String timestamp(Object value) {
+            return switch (value) {
+                case null -> EMPTY_STRING;
+                case Timestamp ts -> ts.toInstant().toString();
+                case OffsetDateTime odt -> odt.toInstant().toString();
+                default -> value.toString();
+            };
+        }
+    }
+
+    /** Headers and cursor read of one exported entity; the rows follow the header order. */
+    private record ExportSource(String[] headers, Supplier<Stream<Object[]>> rows) {}
+
+    /** Like {@link ExportSource}, for the rows changed after a given time. */
+    private record DeltaSource(String[] headers, Function<Instant, Stream<Object[]>> rows) {}
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import com.diploma.proforientation.util.TranslationResolver;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -98,7 +99,14 @@ public class ProfessionServiceImpl implements ProfessionService {
     public Page<ProfessionDto> searchLocalized(String q, Integer categoryId, Pageable pageable) {
         String locale = i18n.currentLanguage();
 
-        return repo.search(q, categoryId, pageable)
+        if (q == null || q.isBlank()) {
+            return repo.findAllByCategory(categoryId, pageable)
+                    .map(p -> toDtoLocalized(p, locale));
+        }
+
+        // results are ordered by relevance, so the requested sort is not applied
+        Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return repo.search(q.trim(), locale, categoryId, byRelevance)
                 .map(p -> toDtoLocalized(p, locale));
     }
 
@@ -1,19 +1,43 @@
 package com.diploma.proforientation.service.impl;
 
+import com.diploma.proforientation.analytics.AnalyticsResponseCache;
+import com.diploma.proforientation.analytics.AttemptSketch;
+import com.diploma.proforientation.analytics.AttemptSketches;
 import com.diploma.proforientation.dto.analytics.*;
+import com.diploma.proforientation.model.QuizVersion;
+import com.diploma.proforientation.model.view.QuizActivityDailyEntity;
+import com.diploma.proforientation.model.view.QuizFunnelOverviewEntity;
+import com.diploma.proforientation.model.view.QuizItemReliabilityEntity;
+import com.diploma.proforientation.model.view.QuizQuestionDiscriminationEntity;
+import com.diploma.proforientation.model.view.QuizQuestionOptionDistributionEntity;
+import com.diploma.proforientation.model.view.QuizTraitReliabilityEntity;
+import com.diploma.proforientation.repository.QuestionRepository;
+import com.diploma.proforientation.repository.QuizVersionRepository;
 import com.diploma.proforientation.repository.view.*;
 import com.diploma.proforientation.service.QuizAnalyticsService;
+import com.diploma.proforientation.util.ParallelReads;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.diploma.proforientation.analytics.AnalyticsResponseCache.KIND_DETAILED;
+import static com.diploma.proforientation.analytics.AnalyticsResponseCache.KIND_OVERVIEW;
+import static com.diploma.proforientation.util.Constants.COMPARE_VERSIONS_COUNT;
+import static com.diploma.proforientation.util.Constants.QUIZ_VERSION_NOT_FOUND;
 
 @Service
 @RequiredArgsConstructor
 public class QuizAnalyticsServiceImpl implements QuizAnalyticsService {
 
+    private static final int MAX_COMPARED_VERSIONS = 10;
+    private static final int SHARE_SCALE = 6;
+
     private final QuizFunnelOverviewRepository funnelRepo;
     private final QuizActivityDailyRepository activityRepo;
     private final QuizTopProfessionRepository topProfRepo;
@@ -21,6 +45,15 @@ public class QuizAnalyticsServiceImpl implements QuizAnalyticsService {
     private final QuizQuestionModeChoiceRepository modeChoiceRepo;
     private final QuizQuestionOptionDistributionRepository distRepo;
     private final QuizQuestionDiscriminationRepository discRepo;
+    private final QuizTraitReliabilityRepository traitReliabilityRepo;
+    private final QuizItemReliabilityRepository itemReliabilityRepo;
+
+    private final QuizVersionRepository quizVersionRepo;
+    private final QuestionRepository questionRepo;
+
+    private final ParallelReads parallelReads;
+    private final AnalyticsResponseCache responseCache;
+    private final AttemptSketches attemptSketches;
 
     public QuizAnalyticsOverviewDto getOverview(
             Integer quizId,
@@ -28,26 +61,195 @@ public class QuizAnalyticsServiceImpl implements QuizAnalyticsService {
             LocalDate from,
             LocalDate to
     ) {
-        var funnel = funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
+        return responseCache.get(KIND_OVERVIEW, quizId, quizVersionId, from, to,
+                () -> computeOverview(quizId, quizVersionId, from, to));
+    }
 
-        var activity = activityRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
+    public QuizAnalyticsDetailedDto getDetailed(Integer quizId, Integer quizVersionId) {
+        return responseCache.get(KIND_DETAILED, quizId, quizVersionId, null, null,
+                () -> computeDetailed(quizId, quizVersionId));
+    }
 
-        if (from != null && to != null) {
-            activity = activityRepo.findByIdQuizIdAndIdQuizVersionIdAndIdDayBetween(
-                    quizId, quizVersionId, from, to
-            );
-        } else if (from != null) {
-            activity = activityRepo.findByIdQuizIdAndIdQuizVersionIdAndIdDayGreaterThanEqual(
-                    quizId, quizVersionId, from
-            );
-        } else if (to != null) {
-            activity = activityRepo.findByIdQuizIdAndIdQuizVersionIdAndIdDayLessThanEqual(
-                    quizId, quizVersionId, to
-            );
+    public QuizAttemptDistributionDto getAttemptDistribution(
+            Integer quizId,
+            Integer quizVersionId,
+            LocalDate from,
+            LocalDate to
+    ) {
+        return toDistribution(quizId, quizVersionId, attemptSketches.load(quizId, quizVersionId, from, to));
+    }
+
+    public QuizReliabilityDto getReliability(Integer quizId, Integer quizVersionId) {
+        var traitsRead = parallelReads.submit(() ->
+                traitReliabilityRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId));
+        var itemsRead = parallelReads.submit(() ->
+                itemReliabilityRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId));
+
+        var traits = ParallelReads.join(traitsRead);
+        var items = ParallelReads.join(itemsRead);
+
+        Map<Integer, List<QuizItemReliabilityEntity>> itemsByTrait = items.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(i -> i.getId().getTraitId()));
+
+        return new QuizReliabilityDto(
+                quizId,
+                quizVersionId,
+                traits.stream()
+                        .filter(Objects::nonNull)
+                        .sorted(Comparator.comparing(t -> t.getId().getTraitId()))
+                        .map(t -> new QuizReliabilityDto.TraitReliability(
+                                t.getId().getTraitId(),
+                                t.getAttemptsSubmitted(),
+                                t.getItems(),
+                                t.getTotalMean(),
+                                t.getTotalVariance(),
+                                t.getAlpha(),
+                                t.getAlphaQuality(),
+                                itemsByTrait.getOrDefault(t.getId().getTraitId(), List.of()).stream()
+                                        .sorted(Comparator.comparing(i -> i.getId().getQuestionId()))
+                                        .map(i -> new QuizReliabilityDto.ItemReliability(
+                                                i.getId().getQuestionId(),
+                                                i.getItemMean(),
+                                                i.getItemVariance(),
+                                                i.getItemTotalCorrelation(),
+                                                i.getAlphaIfDeleted()
+                                        ))
+                                        .toList()
+                        ))
+                        .toList(),
+                traits.stream()
+                        .filter(Objects::nonNull)
+                        .map(QuizTraitReliabilityEntity::getComputedAt)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null)
+        );
+    }
+
+    /**
+     * Compares versions from the rollups with a fixed number of reads, each
+     * covering all requested versions at once, so the cost does not grow
+     * with the number of versions. Questions are aligned by {@code ord} and
+     * options by their {@code ord} within the question.
+     */
+    public QuizVersionComparisonDto compareVersions(Integer quizId, List<Integer> quizVersionIds) {
+        List<Integer> ids = quizVersionIds == null ? List.of() : quizVersionIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (ids.size() < 2 || ids.size() > MAX_COMPARED_VERSIONS) {
+            throw new IllegalArgumentException(COMPARE_VERSIONS_COUNT);
+        }
+
+        var versionsRead = parallelReads.submit(() ->
+                quizVersionRepo.findByQuizIdOrderByVersionDesc(quizId));
+        var questionsRead = parallelReads.submit(() ->
+                questionRepo.findOrdsByQuizVersionIdIn(ids));
+        var funnelRead = parallelReads.submit(() ->
+                funnelRepo.findByIdQuizIdAndIdQuizVersionIdIn(quizId, ids));
+        var distRead = parallelReads.submit(() ->
+                distRepo.findByIdQuizIdAndIdQuizVersionIdIn(quizId, ids));
+        var discRead = parallelReads.submit(() ->
+                discRepo.findByIdQuizIdAndIdQuizVersionIdIn(quizId, ids));
+
+        Map<Integer, Integer> versionNumbers = ParallelReads.join(versionsRead).stream()
+                .collect(Collectors.toMap(QuizVersion::getId, QuizVersion::getVersion));
+        var questions = ParallelReads.join(questionsRead);
+        var funnels = ParallelReads.join(funnelRead);
+        var dist = ParallelReads.join(distRead);
+        var disc = ParallelReads.join(discRead);
+
+        if (!versionNumbers.keySet().containsAll(ids)) {
+            throw new EntityNotFoundException(QUIZ_VERSION_NOT_FOUND);
+        }
+
+        Integer baselineId = ids.getFirst();
+
+        Map<Integer, QuizFunnelOverviewEntity> funnelByVersion = funnels.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(f -> f.getId().getQuizVersionId(), f -> f));
+        QuizFunnelOverviewEntity baseFunnel = funnelByVersion.get(baselineId);
+        BigDecimal baseRate = baseFunnel != null ? baseFunnel.getCompletionRate() : BigDecimal.ZERO;
+        BigDecimal baseAvg = baseFunnel != null ? baseFunnel.getAvgDurationSeconds() : null;
+
+        List<QuizVersionComparisonDto.VersionFunnel> versionFunnels = ids.stream()
+                .map(id -> {
+                    QuizFunnelOverviewEntity f = funnelByVersion.get(id);
+                    BigDecimal rate = f != null ? f.getCompletionRate() : BigDecimal.ZERO;
+                    BigDecimal avg = f != null ? f.getAvgDurationSeconds() : null;
+                    return new QuizVersionComparisonDto.VersionFunnel(
+                            id,
+                            versionNumbers.get(id),
+                            f != null ? f.getAttemptsStarted() : 0,
+                            f != null ? f.getAttemptsCompleted() : 0,
+                            rate,
+                            avg,
+                            delta(rate, baseRate),
+                            delta(avg, baseAvg)
+                    );
+                })
+                .toList();
+
+        // ord -> (version -> question)
+        Map<Integer, Map<Integer, Integer>> questionsByOrd = new TreeMap<>();
+        for (QuestionRepository.QuestionOrd q : questions) {
+            questionsByOrd.computeIfAbsent(q.getOrd(), ord -> new HashMap<>())
+                    .putIfAbsent(q.getQuizVersionId(), q.getQuestionId());
         }
+        Map<Integer, List<QuizQuestionOptionDistributionEntity>> distByQuestion = dist.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(d -> d.getId().getQuestionId()));
+        Map<Integer, QuizQuestionDiscriminationEntity> discByQuestion = disc.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(d -> d.getId().getQuestionId(), d -> d));
+
+        List<QuizVersionComparisonDto.QuestionComparison> questionComparisons = new ArrayList<>();
+        for (var entry : questionsByOrd.entrySet()) {
+            Map<Integer, Integer> questionByVersion = entry.getValue();
+            Integer baseQuestion = questionByVersion.get(baselineId);
+            Map<Integer, BigDecimal> baseShares = baseQuestion == null
+                    ? Map.of()
+                    : shares(distByQuestion.getOrDefault(baseQuestion, List.of()));
+            QuizQuestionDiscriminationEntity baseDisc = baseQuestion == null ? null : discByQuestion.get(baseQuestion);
 
-        var top = topProfRepo
-                .findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(quizId, quizVersionId);
+            questionComparisons.add(new QuizVersionComparisonDto.QuestionComparison(
+                    entry.getKey(),
+                    ids.stream()
+                            .map(id -> toQuestionVersion(
+                                    id,
+                                    questionByVersion.get(id),
+                                    distByQuestion,
+                                    discByQuestion,
+                                    baseShares,
+                                    baseDisc != null ? baseDisc.getDiscNorm() : null
+                            ))
+                            .toList()
+            ));
+        }
+
+        return new QuizVersionComparisonDto(quizId, baselineId, versionFunnels, questionComparisons);
+    }
+
+    private QuizAnalyticsOverviewDto computeOverview(
+            Integer quizId,
+            Integer quizVersionId,
+            LocalDate from,
+            LocalDate to
+    ) {
+        var funnelRead = parallelReads.submit(() ->
+                funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId));
+        var activityRead = parallelReads.submit(() ->
+                findActivity(quizId, quizVersionId, from, to));
+        var topRead = parallelReads.submit(() ->
+                topProfRepo.findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(quizId, quizVersionId));
+        var sketchRead = parallelReads.submit(() ->
+                attemptSketches.load(quizId, quizVersionId, from, to));
+
+        var funnel = ParallelReads.join(funnelRead);
+        var activity = ParallelReads.join(activityRead);
+        var top = ParallelReads.join(topRead);
+        var sketch = ParallelReads.join(sketchRead);
 
         var activityPoints = activity.stream()
                 .filter(Objects::nonNull)
@@ -57,6 +259,7 @@ public class QuizAnalyticsServiceImpl implements QuizAnalyticsService {
                         r.getAttemptsCompleted(),
                         r.getAvgDurationSeconds()
                 ))
+                .sorted(Comparator.comparing(QuizAnalyticsOverviewDto.DailyPoint::day))
                 .toList();
 
         return new QuizAnalyticsOverviewDto(
@@ -74,14 +277,22 @@ public class QuizAnalyticsServiceImpl implements QuizAnalyticsService {
                                 r.getProfessionTitle(),
                                 r.getTop1Count()
                         ))
-                        .toList()
+                        .toList(),
+                toDistribution(quizId, quizVersionId, sketch)
         );
     }
 
-    public QuizAnalyticsDetailedDto getDetailed(Integer quizId, Integer quizVersionId) {
-        var modes = modeChoiceRepo.findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId);
-        var dist = distRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-        var disc = discRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
+    private QuizAnalyticsDetailedDto computeDetailed(Integer quizId, Integer quizVersionId) {
+        var modesRead = parallelReads.submit(() ->
+                modeChoiceRepo.findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId));
+        var distRead = parallelReads.submit(() ->
+                distRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId));
+        var discRead = parallelReads.submit(() ->
+                discRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId));
+
+        var modes = ParallelReads.join(modesRead);
+        var dist = ParallelReads.join(distRead);
+        var disc = ParallelReads.join(discRead);
 
         return new QuizAnalyticsDetailedDto(
                 quizId,
@@ -114,7 +325,115 @@ public class QuizAnalyticsServiceImpl implements QuizAnalyticsService {
                                 r.getDiscQuality(),
                                 r.getAttemptsSubmitted()
                         ))
+                        .toList(),
+                disc.stream()
+                        .filter(Objects::nonNull)
+                        .map(QuizQuestionDiscriminationEntity::getComputedAt)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null)
+        );
+    }
+
+    private static QuizAttemptDistributionDto toDistribution(
+            Integer quizId,
+            Integer quizVersionId,
+            AttemptSketch sketch
+    ) {
+        return new QuizAttemptDistributionDto(
+                quizId,
+                quizVersionId,
+                sketch.attempts(),
+                sketch.durationPercentileSeconds(50),
+                sketch.durationPercentileSeconds(90),
+                sketch.durationPercentileSeconds(99),
+                sketch.distinctUsers(),
+                sketch.distinctGuests()
+        );
+    }
+
+    private static QuizVersionComparisonDto.QuestionVersion toQuestionVersion(
+            Integer quizVersionId,
+            Integer questionId,
+            Map<Integer, List<QuizQuestionOptionDistributionEntity>> distByQuestion,
+            Map<Integer, QuizQuestionDiscriminationEntity> discByQuestion,
+            Map<Integer, BigDecimal> baseShares,
+            BigDecimal baseDiscNorm
+    ) {
+        if (questionId == null) {
+            return new QuizVersionComparisonDto.QuestionVersion(
+                    quizVersionId, null, 0, null, null, null, List.of());
+        }
+
+        List<QuizQuestionOptionDistributionEntity> rows = distByQuestion.getOrDefault(questionId, List.of());
+        int answers = rows.stream().mapToInt(QuizQuestionOptionDistributionEntity::getCount).sum();
+        Map<Integer, BigDecimal> shares = shares(rows);
+
+        QuizQuestionDiscriminationEntity d = discByQuestion.get(questionId);
+        BigDecimal discNorm = d != null ? d.getDiscNorm() : null;
+
+        return new QuizVersionComparisonDto.QuestionVersion(
+                quizVersionId,
+                questionId,
+                answers,
+                discNorm,
+                delta(discNorm, baseDiscNorm),
+                d != null ? d.getDiscQuality() : null,
+                rows.stream()
+                        .sorted(Comparator.comparing(QuizQuestionOptionDistributionEntity::getOptionOrd))
+                        .map(r -> {
+                            BigDecimal share = shares.get(r.getOptionOrd());
+                            return new QuizVersionComparisonDto.OptionShare(
+                                    r.getOptionOrd(),
+                                    r.getId().getOptionId(),
+                                    r.getCount(),
+                                    share,
+                                    baseShares.isEmpty()
+                                            ? null
+                                            : share.subtract(baseShares.getOrDefault(r.getOptionOrd(), BigDecimal.ZERO))
+                            );
+                        })
                         .toList()
         );
     }
-}
\ No newline at end of file
+
+    /** Share of the question's answers per option ord; empty if the question has no answers. */
+    private static Map<Integer, BigDecimal> shares(List<QuizQuestionOptionDistributionEntity> rows) {
+        int answers = rows.stream().mapToInt(QuizQuestionOptionDistributionEntity::getCount).sum();
+        if (answers == 0) {
+            return Map.of();
+        }
+        BigDecimal total = BigDecimal.valueOf(answers);
+        return rows.stream().collect(Collectors.toMap(
+                QuizQuestionOptionDistributionEntity::getOptionOrd,
+                r -> BigDecimal.valueOf(r.getCount()).divide(total, SHARE_SCALE, RoundingMode.HALF_UP),
+                BigDecimal::add
+        ));
+    }
+
+    private static BigDecimal delta(BigDecimal value, BigDecimal baseline) {
+        return value == null || baseline == null ? null : value.subtract(baseline);
+    }
+
+    private List<QuizActivityDailyEntity> findActivity(
+            Integer quizId,
+            Integer quizVersionId,
+            LocalDate from,
+            LocalDate to
+    ) {
+        if (from != null && to != null) {
+            return activityRepo.findByIdQuizIdAndIdQuizVersionIdAndIdDayBetween(
+                    quizId, quizVersionId, from, to
+            );
+        } else if (from != null) {
+            return activityRepo.findByIdQuizIdAndIdQuizVersionIdAndIdDayGreaterThanEqual(
+                    quizId, quizVersionId, from
+            );
+        } else if (to != null) {
+            return activityRepo.findByIdQuizIdAndIdQuizVersionIdAndIdDayLessThanEqual(
+                    quizId, quizVersionId, to
+            );
+        }
+        return activityRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
+    }
+}
@@ -1,5 +1,6 @@
 package com.diploma.proforientation.service.impl;
 
+import com.diploma.proforientation.analytics.PublicMetricsSnapshot;
 import com.diploma.proforientation.dto.QuizMetricsFilter;
 import com.diploma.proforientation.dto.QuizPublicMetricsDto;
 import com.diploma.proforientation.model.view.QuizPublicMetricsEntity;
@@ -23,16 +24,21 @@ import static com.diploma.proforientation.util.Constants.QUIZ_METRICS_NOT_FOUND;
 public class QuizMetricsServiceImpl implements QuizMetricsService {
 
     private final QuizPublicMetricsRepository repository;
+    private final PublicMetricsSnapshot snapshot;
 
     @Override
     public List<QuizPublicMetricsDto> getAllPublicMetrics() {
-        return repository.findAll().stream()
+        return snapshot.find(null).orElseGet(() -> repository.findAll().stream()
                 .map(QuizPublicMetricsDto::from)
-                .toList();
+                .toList());
     }
 
     @Override
     public QuizPublicMetricsDto getMetricsForQuiz(Integer quizId) {
+        if (snapshot.isReady()) {
+            return snapshot.get(quizId)
+                    .orElseThrow(() -> new EntityNotFoundException(QUIZ_METRICS_NOT_FOUND));
+        }
         QuizPublicMetricsEntity e = repository.findById(quizId)
                 .orElseThrow(() -> new EntityNotFoundException(QUIZ_METRICS_NOT_FOUND));
         return QuizPublicMetricsDto.from(e);
@@ -40,11 +46,11 @@ public class QuizMetricsServiceImpl implements QuizMetricsService {
 
     @Override
     public List<QuizPublicMetricsDto> getPublicMetrics(QuizMetricsFilter filter) {
-        return repository.findAll(
+        return snapshot.find(filter).orElseGet(() -> repository.findAll(
                         QuizPublicMetricsSpecs.byFilter(filter),
                         Sort.by(Sort.Direction.ASC, QUIZ_ID)
                 ).stream()
                 .map(QuizPublicMetricsDto::from)
-                .toList();
+                .toList());
     }
 }
@@ -1,24 +1,29 @@
 package com.diploma.proforientation.service.impl;
 
 import com.diploma.proforientation.dto.QuizDto;
+import com.diploma.proforientation.dto.QuizSearchFacetsDto;
 import com.diploma.proforientation.dto.request.create.CreateQuizRequest;
 import com.diploma.proforientation.dto.request.update.UpdateQuizRequest;
 import com.diploma.proforientation.model.ProfessionCategory;
 import com.diploma.proforientation.model.Quiz;
+import com.diploma.proforientation.model.QuizDuration;
 import com.diploma.proforientation.model.User;
 import com.diploma.proforientation.model.enumeration.QuizProcessingMode;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
 import com.diploma.proforientation.repository.ProfessionCategoryRepository;
 import com.diploma.proforientation.repository.QuizRepository;
 import com.diploma.proforientation.repository.UserRepository;
-import com.diploma.proforientation.repository.view.QuizPublicMetricsRepository;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.QuizService;
 import com.diploma.proforientation.util.I18n;
 import com.diploma.proforientation.util.TranslationResolver;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -27,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static com.diploma.proforientation.util.Constants.*;
 
@@ -37,16 +43,15 @@ public class QuizServiceImpl implements QuizService {
     private static final String STATUS_FIELD = "status";
     private static final String ID_FIELD = "id";
     private static final String CATEGORY_FIELD = "category";
-    private static final String TITLE_FIELD = "titleDefault";
-    private static final String CODE_FIELD = "code";
-    private static final String DESCRIPTION_FIELD = "descriptionDefault";
+    private static final String QUIZ_ID_FIELD = "quizId";
+    private static final String DURATION_FIELD = "estimatedDurationSeconds";
 
     private final QuizRepository quizRepo;
     private final ProfessionCategoryRepository categoryRepo;
     private final UserRepository userRepo;
     private final TranslationResolver translationResolver;
     private final I18n i18n;
-    private final QuizPublicMetricsRepository quizPublicMetricsRepo;
+    private final QuizCatalogIndex catalogIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -137,7 +142,9 @@ public class QuizServiceImpl implements QuizService {
 
         q.setUpdatedAt(Instant.now());
 
-        return toDto(quizRepo.save(q));
+        QuizDto dto = toDto(quizRepo.save(q));
+        catalogIndex.quizChanged(id);
+        return dto;
     }
 
     @Override
@@ -149,6 +156,7 @@ public class QuizServiceImpl implements QuizService {
         quiz.setStatus(QuizStatus.ARCHIVED);
         quiz.setUpdatedAt(Instant.now());
         quizRepo.save(quiz);
+        catalogIndex.quizChanged(id);
     }
 
     @Override
@@ -176,15 +184,18 @@ public class QuizServiceImpl implements QuizService {
     ) {
         String locale = i18n.currentLanguage();
 
-        boolean hasDurationFilter = minDurationSec != null || maxDurationSec != null;
-
-        final List<Integer> durationQuizIds =
-                hasDurationFilter
-                        ? quizPublicMetricsRepo.findQuizIdsByDuration(minDurationSec, maxDurationSec)
-                        : null;
+        Optional<Page<QuizDto>> indexed = catalogIndex.search(
+                search, categoryId, minDurationSec, maxDurationSec, locale, pageable);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
 
-        if (durationQuizIds != null && durationQuizIds.isEmpty()) {
-            return Page.empty(pageable);
+        if (search != null && !search.isBlank()) {
+            // results are ordered by relevance, so the requested sort is not applied
+            Pageable byRelevance = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return quizRepo.searchPublished(
+                            search.trim(), locale, categoryId, minDurationSec, maxDurationSec, byRelevance)
+                    .map(q -> toDtoLocalized(q, locale));
         }
 
         Specification<Quiz> spec = (root, query, cb) -> {
@@ -192,21 +203,27 @@ public class QuizServiceImpl implements QuizService {
 
             predicates.add(cb.equal(root.get(STATUS_FIELD), QuizStatus.PUBLISHED));
 
-            if (search != null && !search.isBlank()) {
-                String like = PERCENT + search.trim().toLowerCase() + PERCENT;
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get(TITLE_FIELD)), like),
-                        cb.like(cb.lower(root.get(CODE_FIELD)), like),
-                        cb.like(cb.lower(root.get(DESCRIPTION_FIELD)), like)
-                ));
-            }
-
             if (categoryId != null) {
                 predicates.add(cb.equal(root.get(CATEGORY_FIELD).get(ID_FIELD), categoryId));
             }
 
-            if (hasDurationFilter) {
-                predicates.add(root.get(ID_FIELD).in(durationQuizIds));
+            if (minDurationSec != null || maxDurationSec != null) {
+                // semi-join on the precomputed duration table instead of an IN list of ids
+                Subquery<Integer> durations = query.subquery(Integer.class);
+                Root<QuizDuration> d = durations.from(QuizDuration.class);
+
+                List<Predicate> durationPredicates = new ArrayList<>();
+                durationPredicates.add(cb.equal(d.get(QUIZ_ID_FIELD), root.get(ID_FIELD)));
+                if (minDurationSec != null) {
+                    durationPredicates.add(cb.ge(d.get(DURATION_FIELD), minDurationSec));
+                }
+                if (maxDurationSec != null) {
+                    durationPredicates.add(cb.le(d.get(DURATION_FIELD), maxDurationSec));
+                }
+
+                durations.select(d.get(QUIZ_ID_FIELD))
+                        .where(durationPredicates.toArray(new Predicate[0]));
+                predicates.add(cb.exists(durations));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
@@ -216,6 +233,16 @@ public class QuizServiceImpl implements QuizService {
                 .map(q -> toDtoLocalized(q, locale));
     }
 
+    @Override
+    public QuizSearchFacetsDto searchFacets(
+            String search,
+            Integer categoryId,
+            Integer minDurationSec,
+            Integer maxDurationSec
+    ) {
+        return catalogIndex.facets(search, categoryId, minDurationSec, maxDurationSec, i18n.currentLanguage());
+    }
+
     private void applyCommonFields(
             Quiz q,
             Integer categoryId,
@@ -12,6 +12,7 @@ import com.diploma.proforientation.repository.QuestionOptionTraitRepository;
 import com.diploma.proforientation.repository.QuestionRepository;
 import com.diploma.proforientation.repository.QuizRepository;
 import com.diploma.proforientation.repository.QuizVersionRepository;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.QuizVersionService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +33,7 @@ public class QuizVersionServiceImpl implements QuizVersionService {
     private final QuestionRepository questionRepo;
     private final QuestionOptionRepository optionRepo;
     private final QuestionOptionTraitRepository qotRepo;
+    private final QuizCatalogIndex catalogIndex;
 
     @Override
     @Transactional
@@ -52,6 +54,7 @@ public class QuizVersionServiceImpl implements QuizVersionService {
         quiz.setStatus(QuizStatus.PUBLISHED);
         quiz.setUpdatedAt(Instant.now());
         quizRepo.save(quiz);
+        catalogIndex.quizChanged(quiz.getId());
 
         return toDto(v);
     }
@@ -80,6 +83,7 @@ public QuizVersionDto copyLatestVersion(Integer quizId) {
         quiz.setStatus(QuizStatus.UPDATED);
         quiz.setUpdatedAt(Instant.now());
         quizRepo.save(quiz);
+        catalogIndex.quizChanged(quizId);
     }
 
     return toDto(copy);
@@ -182,6 +186,7 @@ public QuizVersionDto createDraftVersion(Integer quizId) {
             quiz.setStatus(QuizStatus.UPDATED);
             quiz.setUpdatedAt(Instant.now());
             quizRepo.save(quiz);
+            catalogIndex.quizChanged(quizId);
         }
     }
 
@@ -5,30 +5,28 @@ import com.diploma.proforientation.dto.request.create.CreateTranslationRequest;
 import com.diploma.proforientation.dto.request.update.UpdateTranslationRequest;
 import com.diploma.proforientation.model.Translation;
 import com.diploma.proforientation.repository.TranslationRepository;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.TranslationService;
+import com.diploma.proforientation.util.TranslationCacheEvictor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
-import static com.diploma.proforientation.util.Constants.ENTITY_TRANSLATIONS;
-import static com.diploma.proforientation.util.Constants.TRANSLATION_NOT_FOUND;
+import static com.diploma.proforientation.util.Constants.*;
 
 @Service
 @RequiredArgsConstructor
 public class TranslationServiceImpl implements TranslationService {
 
     private final TranslationRepository repo;
+    private final TranslationCacheEvictor cacheEvictor;
+    private final QuizCatalogIndex catalogIndex;
 
     @Override
-    @CacheEvict(
-            value = ENTITY_TRANSLATIONS,
-            key = "T(String).format('%s:%d:%s:%s', #req.entityType(), #req.entityId(), #req.field(), #req.locale())"
-    )
     @Transactional
     public TranslationDto create(CreateTranslationRequest req) {
         Translation t = new Translation();
@@ -38,28 +36,34 @@ public class TranslationServiceImpl implements TranslationService {
         t.setLocale(req.locale());
         t.setText(req.text());
 
-        return toDto(repo.save(t));
+        Translation saved = repo.save(t);
+        cacheEvictor.evict(saved);
+        notifyCatalog(saved);
+        return toDto(saved);
     }
 
     @Override
-    @CacheEvict(value = ENTITY_TRANSLATIONS, allEntries = true)
     @Transactional
     public TranslationDto update(Integer id, UpdateTranslationRequest req) {
         Translation t = repo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(TRANSLATION_NOT_FOUND));
 
         t.setText(req.text());
-        return toDto(repo.save(t));
+        Translation saved = repo.save(t);
+        cacheEvictor.evict(saved);
+        notifyCatalog(saved);
+        return toDto(saved);
     }
 
     @Override
-    @CacheEvict(value = ENTITY_TRANSLATIONS, allEntries = true)
     @Transactional
     public void delete(Integer id) {
-        if (!repo.existsById(id)) {
-            throw new EntityNotFoundException(TRANSLATION_NOT_FOUND);
-        }
+        Translation t = repo.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(TRANSLATION_NOT_FOUND));
+
         repo.deleteById(id);
+        cacheEvictor.evict(t);
+        notifyCatalog(t);
     }
 
     @Override
@@ -93,7 +97,7 @@ public class TranslationServiceImpl implements TranslationService {
     @Override
     @Cacheable(
             value = ENTITY_TRANSLATIONS, unless = "#result == null",
-            key = "T(String).format('%s:%d:%s:%s', #entityType, #entityId, #field, #locale)"
+            key = "T(com.diploma.proforientation.util.TranslationCacheEvictor).key(#entityType, #entityId, #field, #locale)"
     )
     public String translate(String entityType, Integer entityId, String field, String locale) {
         return repo.findByEntityTypeAndEntityIdAndFieldAndLocale(entityType, entityId, field, locale)
@@ -101,6 +105,14 @@ public class TranslationServiceImpl implements TranslationService {
                 .orElse(null);
     }
 
+    private void notifyCatalog(Translation t) {
+        if (ENTITY_TYPE_QUIZ.equals(t.getEntityType())) {
+            catalogIndex.quizChanged(t.getEntityId());
+        } else if (ENTITY_TYPE_CATEGORY.equals(t.getEntityType())) {
+            catalogIndex.catalogChanged();
+        }
+    }
+
     private TranslationDto toDto(Translation t) {
         return new TranslationDto(
                 t.getId(),
@@ -56,6 +56,12 @@ public final class Constants {
     public static final String ENTITY_QUIZ_PUBLIC_METRICS = "quiz_public_metrics";
     public static final String ENTITY_ANALYTICS_OVERVIEW = "quiz_analytics_overview";
     public static final String ENTITY_ANALYTICS_DETAILED = "quiz_analytics_detailed";
+    public static final String ENTITY_ANSWER_MATRIX = "answer_matrix";
+
+    /** JDBC fetch size of the cursor reads behind streaming exports. */
+    public static final String EXPORT_FETCH_SIZE = "1000";
+
+    public static final String QUIZ_CATALOG = "quiz_catalog";
 
     public static final String SHEET_ANALYTICS_FUNNEL = "overview_funnel";
     public static final String SHEET_ANALYTICS_ACTIVITY_DAILY = "overview_activity_daily";
@@ -98,6 +104,17 @@ public final class Constants {
             "locale", "started_at", "submitted_at", "uuid"
     };
 
+    public static final String[] HEADERS_ATTEMPTS_DELTA = {
+            "id", "quiz_version_id", "user_id", "guest_token",
+            "locale", "started_at", "submitted_at", "uuid", "deleted_at"
+    };
+
+    /** Leading columns of the answer matrix; a {@code q_<ord>} column per question follows. */
+    public static final String[] HEADERS_ANSWER_MATRIX = {
+            "attempt_id", "submitted_at", "recommended_professions"
+    };
+    public static final String ANSWER_MATRIX_QUESTION_PREFIX = "q_";
+
     public static final String[] HEADERS_TRANSLATIONS = {
             "id", "entity_type", "entity_id", "locale", "field", "text"
     };
@@ -152,6 +169,7 @@ public final class Constants {
     public static final String TRANSLATION_NOT_FOUND = "error.translation.not_found";
     public static final String QUIZ_METRICS_NOT_FOUND = "error.quiz_metrics.not_found";
     public static final String QUIZ_CODE_NOT_FOUND = "error.quiz_code.not_found";
+    public static final String EXPORT_JOB_NOT_FOUND = "error.export_job.not_found";
 
     // VALIDATION / BUSINESS
     public static final String INVALID_INT = "error.invalid_int";
@@ -162,11 +180,18 @@ public final class Constants {
     public static final String MISSING_REQUIRED_COLUMN = "error.missing_required_column";
     public static final String NOT_INTEGER = "error.not_integer";
     public static final String UNSUPPORTED_EXPORT_ENTITY = "error.unsupported_export_entity";
+    public static final String UNSUPPORTED_DELTA_EXPORT_ENTITY = "error.unsupported_delta_export_entity";
     public static final String CSV_EXPORT_FAILED = "error.csv_export_failed";
     public static final String EXCEL_EXPORT_FAILED = "error.excel_export_failed";
     public static final String SECONDS_GT_ZERO = "error.seconds_gt_zero";
     public static final String CANNOT_CHANGE_OWN_ROLE = "error.cannot_change_own_role";
     public static final String DELETE_ATTEMPT_CONFIRMATION = "error.delete_attempt_confirmation";
+    public static final String COMPARE_VERSIONS_COUNT = "error.compare_versions_count";
+    public static final String EXPORT_JOB_PARAMS = "error.export_job_params";
+    public static final String EXPORT_JOB_NOT_READY = "error.export_job_not_ready";
+    public static final String EXPORT_QUEUE_FULL = "error.export_queue_full";
+    public static final String EXPORT_JOB_OTHER_NODE = "error.export_job_other_node";
+    public static final String EXPORT_JOB_INTERRUPTED = "error.export_job_interrupted";
 
     // AUTH
     public static final String INVALID_CREDENTIALS = "error.invalid_credentials";
@@ -212,8 +237,11 @@ public final class Constants {
     public static final String ERROR_EXCEL_QUESTIONS_IMPORT_FAILED = "error.excel_questions_import_failed";
 
     public static final String ERROR_EXCEL_DUPLICATE_CODE = "error.excel_duplicate_code";
+    public static final String ERROR_EXCEL_DUPLICATE_ORD = "error.excel_duplicate_ord";
+    public static final String ERROR_EXCEL_ORD_TAKEN = "error.excel_ord_taken";
     public static final String ERROR_EXCEL_EMPTY_FILE = "error.excel_empty_file";
     public static final String ERROR_EXCEL_MISSING_HEADER = "error.excel_missing_header";
+    public static final String ERROR_EXCEL_ROW_FAILED = "error.excel_row_failed";
 
     private Constants() {}
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.diploma.proforientation.util;
+
+import com.diploma.proforientation.model.Translation;
+import com.diploma.proforientation.model.enumeration.QuizProcessingMode;
+import com.diploma.proforientation.model.enumeration.QuizStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one chunk of imported rows with a single JDBC batch of
+ * {@code INSERT ... ON CONFLICT DO UPDATE} statements, instead of looking up
+ * and saving every entity through JPA. With {@code reWriteBatchedInserts} on
+ * the datasource the driver sends the translation and profession batches as
+ * multi-row inserts. Must run inside the caller's chunk transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportBatchWriter {
+
+    private static final String SQL_UPSERT_TRANSLATION = """
+            INSERT INTO translations (entity_type, entity_id, locale, field, text)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (entity_type, entity_id, locale, field) DO UPDATE
+            SET text = EXCLUDED.text
+            """;
+
+    private static final String SQL_UPSERT_PROFESSION = """
+            INSERT INTO professions (code, title_default, description, ml_class_code, category_id)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (code) DO UPDATE
+            SET title_default = EXCLUDED.title_default,
+                description = EXCLUDED.description,
+                ml_class_code = EXCLUDED.ml_class_code,
+                category_id = EXCLUDED.category_id
+            """;
+
+    /**
+     * Blank status, mode, description and seconds per question keep the
+     * values of an existing quiz and fall back to the column defaults for a
+     * new one, so status, mode and seconds are bound twice.
+     */
+    private static final String SQL_UPSERT_QUIZ = """
+            INSERT INTO quizzes (code, title_default, status, processing_mode, category_id, author_id,
+                                 description_default, seconds_per_question_default, created_at, updated_at)
+            VALUES (?, ?,
+                    COALESCE(CAST(? AS quiz_status), 'DRAFT'),
+                    COALESCE(CAST(? AS quiz_processing_mode), 'LLM'),
+                    ?, ?, ?,
+                    COALESCE(CAST(? AS INT), 30),
+                    now(), now())
+            ON CONFLICT (code) DO UPDATE
+            SET title_default = EXCLUDED.title_default,
+                status = COALESCE(CAST(? AS quiz_status), quizzes.status),
+                processing_mode = COALESCE(CAST(? AS quiz_processing_mode), quizzes.processing_mode),
+                category_id = EXCLUDED.category_id,
+                author_id = EXCLUDED.author_id,
+                description_default = COALESCE(EXCLUDED.description_default, quizzes.description_default),
+                seconds_per_question_default = COALESCE(CAST(? AS INT), quizzes.seconds_per_question_default),
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Upserts on the unique (entity type, entity id, locale, field) key. A
+     * key repeated within the chunk is written once with its last text, as a
+     * multi-row upsert cannot touch the same row twice.
+     */
+    public void upsertTranslations(Collection<Translation> translations) {
+        Map<String, Translation> byKey = new LinkedHashMap<>();
+        for (Translation t : translations) {
+            byKey.put(TranslationCacheEvictor.key(t.getEntityType(), t.getEntityId(), t.getField(), t.getLocale()), t);
+        }
+        List<Translation> rows = List.copyOf(byKey.values());
+        jdbcTemplate.batchUpdate(SQL_UPSERT_TRANSLATION, rows, rows.size(), (ps, t) -> {
+            ps.setString(1, t.getEntityType());
+            ps.setInt(2, t.getEntityId());
+            ps.setString(3, t.getLocale());
+            ps.setString(4, t.getField());
+            ps.setString(5, t.getText());
+        });
+    }
+
+    /** Upserts by code; the codes must be unique within the chunk. */
+    public void upsertProfessions(List<ProfessionRow> professions) {
+        jdbcTemplate.batchUpdate(SQL_UPSERT_PROFESSION, professions, professions.size(), (ps, p) -> {
+            ps.setString(1, p.code());
+            ps.setString(2, p.titleDefault());
+            ps.setString(3, p.description());
+            ps.setString(4, p.mlClassCode());
+            ps.setInt(5, p.categoryId());
+        });
+    }
+
+    /** Upserts by code; the codes must be unique within the chunk. */
+    public void upsertQuizzes(List<QuizRow> quizzes) {
+        jdbcTemplate.batchUpdate(SQL_UPSERT_QUIZ, quizzes, quizzes.size(), (ps, q) -> {
+            String status = q.status() != null ? q.status().name() : null;
+            String mode = q.processingMode() != null ? q.processingMode().name() : null;
+            ps.setString(1, q.code());
+            ps.setString(2, q.titleDefault());
+            ps.setString(3, status);
+            ps.setString(4, mode);
+            ps.setInt(5, q.categoryId());
+            ps.setInt(6, q.authorId());
+            ps.setString(7, q.descriptionDefault());
+            ps.setObject(8, q.secondsPerQuestionDefault(), Types.INTEGER);
+            ps.setString(9, status);
+            ps.setString(10, mode);
+            ps.setObject(11, q.secondsPerQuestionDefault(), Types.INTEGER);
+        });
+    }
+
+    /** A profession row of an import; blank optional values are {@code null}. */
+    public record ProfessionRow(
+            String code,
+            String titleDefault,
+            String description,
+            String mlClassCode,
+            Integer categoryId
+    ) {}
+
+    /** A quiz row of an import; {@code null} optional values keep what the quiz has. */
+    public record QuizRow(
+            String code,
+            String titleDefault,
+            QuizStatus status,
+            QuizProcessingMode processingMode,
+            Integer categoryId,
+            Integer authorId,
+            String descriptionDefault,
+            Integer secondsPerQuestionDefault
+    ) {}
+}
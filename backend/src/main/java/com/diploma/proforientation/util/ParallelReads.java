@@ -0,0 +1,72 @@
+package com.diploma.proforientation.util;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent database reads concurrently on virtual threads, each in
+ * its own read-only transaction, so a request that needs several of them
+ * waits for the slowest read instead of their sum.
+ * <p>
+ * Every running read holds a pooled connection, so at most
+ * {@code parallel-reads.max-concurrent} of them run at once across the whole
+ * application; further reads wait for a permit on their virtual thread. Keep
+ * the limit well below {@code spring.datasource.hikari.maximum-pool-size}, so
+ * request threads still get connections while reads fan out.
+ */
+@Component
+public class ParallelReads {
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readTx;
+    private final Semaphore permits;
+
+    public ParallelReads(@Qualifier("virtualThreadExecutor") ExecutorService executor,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${parallel-reads.max-concurrent:4}") int maxConcurrentReads) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrentReads, true);
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> read) {
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return readTx.execute(status -> read.get());
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Waits for a read and rethrows its failure as is, so callers see the
+     * same exceptions as with a sequential call.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.diploma.proforientation.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Rows of one export sheet buffered in a temp file, so a sheet can be read
+ * from the database independently of the workbook it ends up in. Values are
+ * kept as strings; {@code null} stays {@code null}. Writing and reading are
+ * single-threaded; the file is deleted on {@link #close()}.
+ */
+public final class SheetSpool implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private DataOutputStream out;
+    private int rows;
+
+    private SheetSpool(Path file, DataOutputStream out) {
+        this.file = file;
+        this.out = out;
+    }
+
+    public static SheetSpool create() {
+        try {
+            Path file = Files.createTempFile("export-sheet-", ".spool");
+            return new SheetSpool(file, new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Object[] values) {
+        try {
+            out.writeInt(values.length);
+            for (Object value : values) {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /** Finishes writing and feeds the buffered rows to the sink in write order. */
+    public void forEach(Consumer<String[]> sink) {
+        try {
+            closeOutput();
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+                for (int r = 0; r < rows; r++) {
+                    String[] values = new String[in.readInt()];
+                    for (int i = 0; i < values.length; i++) {
+                        int length = in.readInt();
+                        if (length >= 0) {
+                            values[i] = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+                        }
+                    }
+                    sink.accept(values);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeOutput();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void closeOutput() throws IOException {
+        if (out != null) {
+            DataOutputStream o = out;
+            out = null;
+            o.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.diploma.proforientation.util;
+
+import com.diploma.proforientation.model.Translation;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.diploma.proforientation.util.Constants.ENTITY_TRANSLATIONS;
+
+@Component
+@RequiredArgsConstructor
+public class TranslationCacheEvictor {
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    /**
+     * Builds the cache key used by {@code TranslationService.translate}.
+     */
+    public static String key(String entityType, Integer entityId, String field, String locale) {
+        return String.format("%s:%d:%s:%s", entityType, entityId, field, locale);
+    }
+
+    public void evict(Translation t) {
+        evictKeys(Set.of(key(t.getEntityType(), t.getEntityId(), t.getField(), t.getLocale())));
+    }
+
+    public void evictTranslations(Collection<Translation> translations) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Translation t : translations) {
+            keys.add(key(t.getEntityType(), t.getEntityId(), t.getField(), t.getLocale()));
+        }
+        evictKeys(keys);
+    }
+
+    /**
+     * Evicts only the given keys on this and every other node. Inside a
+     * transaction the eviction is deferred until commit, so concurrent readers
+     * cannot re-cache the old text.
+     */
+    public void evictKeys(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheInvalidationService.evict(ENTITY_TRANSLATIONS, keys);
+                }
+            });
+        } else {
+            cacheInvalidationService.evict(ENTITY_TRANSLATIONS, keys);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.diploma.proforientation.util;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an .xlsx file row by row through the XSSF event
+ * API, so the workbook is never built in memory. The upload is copied to a
+ * temp file first, which lets the zip be read by random access instead of
+ * being buffered; only the shared strings are held while parsing.
+ * <p>
+ * Cell values are formatted like {@link DataFormatter} does for the
+ * usermodel and trimmed; cells that are absent are {@code null}. Rows
+ * without any cell are skipped.
+ */
+public final class XlsxRowReader {
+
+    /** Receives the rows in sheet order; returning {@code false} stops reading. */
+    @FunctionalInterface
+    public interface RowHandler {
+        boolean row(int rowIndex, String[] cells);
+    }
+
+    private XlsxRowReader() {
+    }
+
+    public static void read(InputStream in, RowHandler handler) throws IOException {
+        Path file = Files.createTempFile("import-", ".xlsx");
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+            try {
+                XSSFReader reader = new XSSFReader(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(),
+                        new ReadOnlySharedStringsTable(pkg, false),
+                        new RowCollector(handler),
+                        new DataFormatter(),
+                        false
+                ));
+                try (InputStream sheet = sheets.next()) {
+                    parser.parse(new InputSource(sheet));
+                } catch (Stop stop) {
+                    // the handler has seen enough
+                }
+            } finally {
+                // a read-only package is reverted; close() would try to save it
+                pkg.revert();
+            }
+        } catch (OpenXML4JException | UnsupportedFileFormatException
+                 | SAXException | ParserConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private String[] cells = new String[16];
+        private int width;
+        private int nextColumn;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, 0, width, null);
+            width = 0;
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            if (column >= cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(column + 1, cells.length * 2));
+            }
+            cells[column] = formattedValue != null ? formattedValue.trim() : null;
+            width = Math.max(width, column + 1);
+            nextColumn = column + 1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (width > 0 && !handler.row(rowNum, Arrays.copyOf(cells, width))) {
+                throw new Stop();
+            }
+        }
+    }
+
+    /** Unwinds the SAX parser when the handler stops reading. */
+    private static final class Stop extends RuntimeException {
+        Stop() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.AnalyticsResponseCache;
+import com.diploma.proforientation.model.view.QuizFunnelOverviewEntity;
+import com.diploma.proforientation.repository.view.QuizFunnelOverviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.diploma.proforientation.analytics.AnalyticsResponseCache.KIND_DETAILED;
+import static com.diploma.proforientation.analytics.AnalyticsResponseCache.KIND_OVERVIEW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AnalyticsResponseCacheTest {
+
+    private QuizFunnelOverviewRepository funnelRepo;
+    private AnalyticsResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        funnelRepo = mock(QuizFunnelOverviewRepository.class);
+        cache = new AnalyticsResponseCache(funnelRepo, Duration.ofMinutes(5), 10);
+        loads = new AtomicInteger();
+    }
+
+    private void submitted(int count) {
+        QuizFunnelOverviewEntity funnel = new QuizFunnelOverviewEntity();
+        funnel.setAttemptsCompleted(count);
+        when(funnelRepo.findByIdQuizIdAndIdQuizVersionId(1, 10)).thenReturn(funnel);
+    }
+
+    private Integer load(String kind, LocalDate from) {
+        return cache.get(kind, 1, 10, from, null, loads::incrementAndGet);
+    }
+
+    @Test
+    void get_reusesResponseWhileSubmittedCountWithinDelta() {
+        submitted(100);
+        assertThat(load(KIND_OVERVIEW, null)).isEqualTo(1);
+
+        submitted(109);
+        assertThat(load(KIND_OVERVIEW, null)).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_recomputesOnceDeltaReached() {
+        submitted(100);
+        load(KIND_OVERVIEW, null);
+
+        submitted(110);
+        assertThat(load(KIND_OVERVIEW, null)).isEqualTo(2);
+
+        // the new entry is based on 110
+        submitted(115);
+        assertThat(load(KIND_OVERVIEW, null)).isEqualTo(2);
+    }
+
+    @Test
+    void get_keysByKindAndDateRange() {
+        submitted(0);
+
+        load(KIND_OVERVIEW, null);
+        load(KIND_OVERVIEW, LocalDate.of(2026, 1, 1));
+        load(KIND_DETAILED, null);
+        load(KIND_OVERVIEW, LocalDate.of(2026, 1, 1));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_missingFunnelCountsAsZero() {
+        when(funnelRepo.findByIdQuizIdAndIdQuizVersionId(1, 10)).thenReturn(null);
+
+        load(KIND_DETAILED, null);
+        load(KIND_DETAILED, null);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_expiresAfterTtl() throws InterruptedException {
+        cache = new AnalyticsResponseCache(funnelRepo, Duration.ofMillis(1), 10);
+        submitted(5);
+
+        load(KIND_OVERVIEW, null);
+        Thread.sleep(20);
+        load(KIND_OVERVIEW, null);
+
+        assertThat(loads).hasValue(2);
+    }
+}
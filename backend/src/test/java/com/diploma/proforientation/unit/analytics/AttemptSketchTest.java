@@ -0,0 +1,68 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.AttemptSketch;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AttemptSketchTest {
+
+    @Test
+    void percentiles_ignoreLongOutliers() {
+        AttemptSketch sketch = new AttemptSketch();
+        for (int i = 0; i < 99; i++) {
+            sketch.record(300_000, i, null);
+        }
+        sketch.record(86_400_000, 1000, null);
+
+        assertThat(sketch.durationPercentileSeconds(50)).isCloseTo(new BigDecimal("300"), within(new BigDecimal("3")));
+        assertThat(sketch.durationPercentileSeconds(99)).isCloseTo(new BigDecimal("300"), within(new BigDecimal("3")));
+        assertThat(sketch.durationPercentileSeconds(100)).isGreaterThan(new BigDecimal("86000"));
+    }
+
+    @Test
+    void empty_hasNoPercentiles() {
+        AttemptSketch sketch = new AttemptSketch();
+
+        assertThat(sketch.attempts()).isZero();
+        assertThat(sketch.durationPercentileSeconds(50)).isNull();
+        assertThat(sketch.usersBytes()).isNull();
+        assertThat(sketch.guestsBytes()).isNull();
+    }
+
+    @Test
+    void merge_combinesDurationsAndParticipants() {
+        AttemptSketch day1 = new AttemptSketch();
+        day1.record(10_000, 1, null);
+        day1.record(20_000, null, "g1");
+
+        AttemptSketch day2 = new AttemptSketch();
+        day2.record(30_000, 1, null);
+        day2.record(40_000, 2, null);
+
+        day1.merge(day2);
+
+        assertThat(day1.attempts()).isEqualTo(4);
+        assertThat(day1.distinctUsers()).isEqualTo(2);
+        assertThat(day1.distinctGuests()).isEqualTo(1);
+    }
+
+    @Test
+    void bytes_roundTrip() {
+        AttemptSketch sketch = new AttemptSketch();
+        for (int i = 0; i < 1_000; i++) {
+            sketch.record(60_000L + i * 100L, i % 2 == 0 ? i % 50 : null, "g" + i);
+        }
+
+        AttemptSketch restored = AttemptSketch.fromBytes(
+                sketch.durationBytes(), sketch.usersBytes(), sketch.guestsBytes());
+
+        assertThat(restored.attempts()).isEqualTo(1_000);
+        assertThat(restored.durationPercentileSeconds(90)).isEqualTo(sketch.durationPercentileSeconds(90));
+        assertThat(restored.distinctUsers()).isEqualTo(sketch.distinctUsers());
+        assertThat(restored.distinctGuests()).isEqualTo(sketch.distinctGuests());
+    }
+}
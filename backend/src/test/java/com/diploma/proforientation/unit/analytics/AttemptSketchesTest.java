@@ -0,0 +1,136 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.AttemptSketch;
+import com.diploma.proforientation.analytics.impl.AttemptSketchesImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AttemptSketchesTest {
+
+    private static final Instant STARTED = Instant.parse("2026-03-01T10:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private AttemptSketchesImpl sketches;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(contains("FOR UPDATE"), any(RowMapper.class), any(), any()))
+                .thenAnswer(inv -> List.of(new AttemptSketch()));
+        sketches = new AttemptSketchesImpl(jdbcTemplate, mock(PlatformTransactionManager.class), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void submit(Integer userId, String guestToken, long seconds) {
+        sketches.attemptSubmitted(7, STARTED, STARTED.plusSeconds(seconds), userId, guestToken);
+    }
+
+    private AttemptSketch flushedSketch() {
+        ArgumentCaptor<Object> hist = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<Object> users = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<Object> guests = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(contains("UPDATE quiz_version_sketches"),
+                hist.capture(), users.capture(), guests.capture(), eq(7), any());
+        return AttemptSketch.fromBytes(
+                (byte[]) hist.getValue(), (byte[]) users.getValue(), (byte[]) guests.getValue());
+    }
+
+    @Test
+    void recordsAfterCommit_andMergesIntoStoredRow() {
+        TransactionSynchronizationManager.initSynchronization();
+        submit(1, null, 100);
+        submit(2, null, 200);
+        submit(null, "guest", 300);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(3);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        sketches.flush();
+
+        LocalDate day = LocalDate.ofInstant(STARTED, ZoneId.systemDefault());
+        verify(jdbcTemplate).update(contains("INSERT INTO quiz_version_sketches"), eq(day), eq(7));
+
+        AttemptSketch stored = flushedSketch();
+        assertThat(stored.attempts()).isEqualTo(3);
+        assertThat(stored.distinctUsers()).isEqualTo(2);
+        assertThat(stored.distinctGuests()).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackTransaction_isNotRecorded() {
+        TransactionSynchronizationManager.initSynchronization();
+        submit(1, null, 100);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        sketches.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void withoutTransaction_recordsImmediately() {
+        submit(1, null, 100);
+
+        sketches.flush();
+
+        assertThat(flushedSketch().attempts()).isEqualTo(1);
+    }
+
+    @Test
+    void disabled_recordsNothing() {
+        sketches = new AttemptSketchesImpl(jdbcTemplate, mock(PlatformTransactionManager.class), false);
+
+        submit(1, null, 100);
+        sketches.flush();
+        sketches.backfill();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void failedFlush_keepsSketchesForNextFlush() {
+        submit(1, null, 100);
+        when(jdbcTemplate.update(contains("INSERT INTO quiz_version_sketches"), any(LocalDate.class), eq(7)))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+
+        assertThatCode(sketches::flush).doesNotThrowAnyException();
+        sketches.flush();
+
+        assertThat(flushedSketch().attempts()).isEqualTo(1);
+    }
+
+    @Test
+    void flushedSketches_areNotWrittenTwice() {
+        submit(1, null, 100);
+
+        sketches.flush();
+        sketches.flush();
+
+        verify(jdbcTemplate, times(1)).update(contains("INSERT INTO quiz_version_sketches"), any(LocalDate.class), eq(7));
+    }
+}
@@ -0,0 +1,136 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.DiscriminationAccumulator;
+import com.diploma.proforientation.analytics.DiscriminationAccumulator.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.diploma.proforientation.analytics.DiscriminationAccumulator.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiscriminationAccumulatorTest {
+
+    private static final int QUESTION = 7;
+    private static final Map<Integer, int[]> RANGE_1_TO_4 = Map.of(QUESTION, new int[]{1, 4});
+
+    /** Attempts 1..n with total score equal to their id; every attempt answers QUESTION. */
+    private static DiscriminationAccumulator ranked(int n) {
+        DiscriminationAccumulator acc = new DiscriminationAccumulator();
+        for (int id = 1; id <= n; id++) {
+            acc.addAttempt(id, id);
+        }
+        acc.rankAttempts();
+        return acc;
+    }
+
+    @Test
+    void bucketsByPercentRank_andComputesNormalizedIndex() {
+        DiscriminationAccumulator acc = ranked(40);
+        for (int id = 1; id <= 40; id++) {
+            // bottom group (pr <= 0.27): ids 1..11, top group (pr >= 0.73): ids 30..40
+            acc.accept(id, QUESTION, id <= 20 ? 1 : 4);
+        }
+
+        List<Result> results = acc.results(RANGE_1_TO_4);
+
+        assertThat(results).hasSize(1);
+        Result r = results.getFirst();
+        assertThat(r.questionId()).isEqualTo(QUESTION);
+        assertThat(r.attemptsSubmitted()).isEqualTo(40);
+        assertThat(r.answersBottom()).isEqualTo(11);
+        assertThat(r.answersTop()).isEqualTo(11);
+        assertThat(r.bottomAvgOrd()).isEqualByComparingTo("1");
+        assertThat(r.topAvgOrd()).isEqualByComparingTo("4");
+        assertThat(r.discRaw()).isEqualByComparingTo("3");
+        assertThat(r.discNorm()).isEqualByComparingTo("1.000000");
+        assertThat(r.discQuality()).isEqualTo(QUALITY_GOOD);
+    }
+
+    @Test
+    void roundsNormalizedIndexToSixDigits_andGradesIt() {
+        DiscriminationAccumulator acc = ranked(40);
+        acc.accept(1, QUESTION, 1);
+        acc.accept(2, QUESTION, 2);
+        acc.accept(3, QUESTION, 2);
+        acc.accept(40, QUESTION, 2);
+
+        Result r = acc.results(RANGE_1_TO_4).getFirst();
+
+        // (2 - 5/3) / 3 = 0.111111...
+        assertThat(r.discNorm()).isEqualByComparingTo("0.111111");
+        assertThat(r.discQuality()).isEqualTo(QUALITY_WEAK);
+    }
+
+    @Test
+    void tiedTotalsShareTheirRank() {
+        DiscriminationAccumulator acc = new DiscriminationAccumulator();
+        for (int id = 1; id <= 30; id++) {
+            acc.addAttempt(id, 5.0);
+        }
+        acc.rankAttempts();
+        for (int id = 1; id <= 30; id++) {
+            acc.accept(id, QUESTION, 3);
+        }
+
+        Result r = acc.results(RANGE_1_TO_4).getFirst();
+
+        // percent_rank of all-equal values is 0, so everybody is in the bottom group
+        assertThat(r.answersBottom()).isEqualTo(30);
+        assertThat(r.answersTop()).isZero();
+        assertThat(r.discRaw()).isNull();
+        assertThat(r.discNorm()).isNull();
+        assertThat(r.discQuality()).isEqualTo(QUALITY_MISSING_BUCKET_DATA);
+    }
+
+    @Test
+    void singleAttempt_isBottom_andLowSample() {
+        DiscriminationAccumulator acc = ranked(1);
+        acc.accept(1, QUESTION, 2);
+
+        Result r = acc.results(RANGE_1_TO_4).getFirst();
+
+        assertThat(r.answersBottom()).isEqualTo(1);
+        assertThat(r.discQuality()).isEqualTo(QUALITY_LOW_SAMPLE);
+    }
+
+    @Test
+    void reverseAndFlatScalesAreReported() {
+        DiscriminationAccumulator acc = ranked(40);
+        acc.accept(1, QUESTION, 4);
+        acc.accept(40, QUESTION, 1);
+        acc.accept(1, 8, 1);
+        acc.accept(40, 8, 1);
+
+        Map<Integer, Result> byQuestion = new HashMap<>();
+        acc.results(Map.of(QUESTION, new int[]{1, 4}, 8, new int[]{1, 1}))
+                .forEach(r -> byQuestion.put(r.questionId(), r));
+
+        assertThat(byQuestion.get(QUESTION).discQuality()).isEqualTo(QUALITY_REVERSE);
+        assertThat(byQuestion.get(QUESTION).discNorm()).isEqualByComparingTo("-1");
+        assertThat(byQuestion.get(8).discQuality()).isEqualTo(QUALITY_NO_SCALE_RANGE);
+        assertThat(byQuestion.get(8).discNorm()).isNull();
+    }
+
+    @Test
+    void middleAndUnknownAttemptsAndUnrangedQuestionsAreIgnored() {
+        DiscriminationAccumulator acc = ranked(40);
+        acc.accept(20, QUESTION, 4);
+        acc.accept(999, QUESTION, 4);
+        acc.accept(1, 99, 4);
+
+        assertThat(acc.results(RANGE_1_TO_4)).isEmpty();
+    }
+
+    @Test
+    void stagesMustBeUsedInOrder() {
+        DiscriminationAccumulator acc = new DiscriminationAccumulator();
+        assertThatThrownBy(() -> acc.accept(1, QUESTION, 1)).isInstanceOf(IllegalStateException.class);
+
+        acc.rankAttempts();
+        assertThatThrownBy(() -> acc.addAttempt(1, 1.0)).isInstanceOf(IllegalStateException.class);
+    }
+}
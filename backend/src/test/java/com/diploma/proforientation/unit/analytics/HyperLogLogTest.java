@@ -0,0 +1,71 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.HyperLogLog;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_smallCardinality_isExactEnough() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            hll.offer("u:" + i);
+            hll.offer("u:" + i);
+        }
+
+        assertThat(hll.estimate()).isCloseTo(100L, within(2L));
+    }
+
+    @Test
+    void estimate_largeCardinality_staysWithinFivePercent() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            hll.offer("u:" + i);
+        }
+
+        assertThat(hll.estimate()).isCloseTo(100_000L, within(5_000L));
+    }
+
+    @Test
+    void merge_estimatesTheUnion() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        for (int i = 0; i < 3_000; i++) {
+            a.offer("g:" + i);
+        }
+        for (int i = 2_000; i < 5_000; i++) {
+            b.offer("g:" + i);
+        }
+
+        a.merge(b);
+
+        assertThat(a.estimate()).isCloseTo(5_000L, within(250L));
+    }
+
+    @Test
+    void bytes_roundTripInSparseAndDenseForm() {
+        HyperLogLog sparse = new HyperLogLog();
+        sparse.offer("u:1");
+        sparse.offer("u:2");
+
+        HyperLogLog dense = new HyperLogLog();
+        for (int i = 0; i < 50_000; i++) {
+            dense.offer("u:" + i);
+        }
+
+        assertThat(sparse.toBytes()).hasSizeLessThan(16);
+        assertThat(HyperLogLog.fromBytes(sparse.toBytes()).estimate()).isEqualTo(sparse.estimate());
+        assertThat(HyperLogLog.fromBytes(dense.toBytes()).estimate()).isEqualTo(dense.estimate());
+    }
+
+    @Test
+    void fromBytes_nullIsEmpty_unknownFormatFails() {
+        assertThat(HyperLogLog.fromBytes(null).isEmpty()).isTrue();
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{9}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,209 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.impl.LiveActivityCountersImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LiveActivityCountersTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LiveActivityCountersImpl counters;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        counters = new LiveActivityCountersImpl(
+                jdbcTemplate, mock(PlatformTransactionManager.class), true, 7, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private void beginTx() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private void commitTx() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> flushedArgs(String table) {
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains(table), args.capture());
+        return args.getValue();
+    }
+
+    @Test
+    void countsAfterCommit_andFlushesOneBatchPerRollup() {
+        Instant started = Instant.parse("2026-03-01T10:00:00Z");
+        LocalDate day = LocalDate.ofInstant(started, ZoneId.systemDefault());
+
+        beginTx();
+        counters.attemptStarted(7, started);
+        counters.attemptStarted(7, started);
+        counters.attemptSubmitted(7, started, started.plusMillis(90_500));
+        commitTx();
+
+        counters.flush();
+
+        verify(jdbcTemplate, times(3)).query(contains("set_config"), any(RowCallbackHandler.class));
+
+        List<Object[]> funnel = flushedArgs("quiz_version_funnel");
+        assertThat(funnel).hasSize(1);
+        assertThat(funnel.getFirst()).containsExactly(2L, 1L, new BigDecimal("90.500000"), 7);
+
+        List<Object[]> daily = flushedArgs("quiz_activity_daily");
+        assertThat(daily).hasSize(1);
+        assertThat(daily.getFirst()).containsExactly(day, 2L, 1L, new BigDecimal("90.500000"), 7);
+    }
+
+    @Test
+    void rolledBackTransaction_isNotCounted() {
+        beginTx();
+        counters.attemptStarted(7, Instant.now());
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        counters.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void withoutTransaction_leavesCountingToTheTrigger() {
+        counters.attemptStarted(7, Instant.now());
+        counters.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void disabled_leavesCountingToTheTrigger() {
+        counters = new LiveActivityCountersImpl(
+                jdbcTemplate, mock(PlatformTransactionManager.class), false, 7, Duration.ofMinutes(10));
+
+        beginTx();
+        counters.attemptStarted(7, Instant.now());
+        commitTx();
+        counters.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void failedFlush_keepsDeltasForNextFlush() {
+        beginTx();
+        counters.attemptStarted(7, Instant.now());
+        commitTx();
+
+        when(jdbcTemplate.batchUpdate(contains("quiz_version_funnel"), anyList()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(new int[]{1});
+
+        assertThatCode(counters::flush).doesNotThrowAnyException();
+        counters.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(contains("quiz_version_funnel"), anyList());
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("quiz_activity_daily"), anyList());
+    }
+
+    @Test
+    void flushedDeltas_areNotWrittenTwice() {
+        beginTx();
+        counters.attemptStarted(7, Instant.now());
+        commitTx();
+
+        counters.flush();
+        counters.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("quiz_version_funnel"), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcile_writesDriftToBothRollups() {
+        LocalDate day = LocalDate.of(2026, 3, 1);
+        when(jdbcTemplate.queryForObject(contains("advisory"), eq(Boolean.class), any(), any())).thenReturn(true);
+        when(jdbcTemplate.query(contains("WITH touched"), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    RowMapper<Object> mapper = inv.getArgument(1);
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getInt(1)).thenReturn(7);
+                    when(rs.getObject(2, LocalDate.class)).thenReturn(day, day.plusDays(1));
+                    when(rs.getLong(3)).thenReturn(2L, 1L);
+                    when(rs.getLong(4)).thenReturn(1L, 0L);
+                    when(rs.getLong(5)).thenReturn(30_000_000L, 0L);
+                    return List.of(mapper.mapRow(rs, 0), mapper.mapRow(rs, 1));
+                });
+
+        counters.reconcile();
+
+        List<Object[]> funnel = flushedArgs("quiz_version_funnel");
+        assertThat(funnel).hasSize(1);
+        assertThat(funnel.getFirst()).containsExactly(3L, 1L, new BigDecimal("30.000000"), 7);
+
+        List<Object[]> daily = flushedArgs("quiz_activity_daily");
+        assertThat(daily).hasSize(2);
+        assertThat(daily.get(0)).containsExactly(day, 2L, 1L, new BigDecimal("30.000000"), 7);
+        assertThat(daily.get(1)).containsExactly(day.plusDays(1), 1L, 0L, new BigDecimal("0.000000"), 7);
+    }
+
+    @Test
+    void reconcile_skipsRecentActivityAndRunsOnOneReplica() {
+        when(jdbcTemplate.queryForObject(contains("advisory"), eq(Boolean.class), any(), any()))
+                .thenReturn(true, false);
+
+        counters.reconcile();
+        counters.reconcile();
+
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(1)).query(contains("WITH touched"), any(RowMapper.class),
+                args.capture(), args.capture(), args.capture(), args.capture(), args.capture());
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        assertThat(args.getAllValues().subList(0, 3)).containsOnly(today.minusDays(7));
+        assertThat(((Timestamp) args.getAllValues().get(3)).toInstant())
+                .isBefore(Instant.now().minus(Duration.ofMinutes(9)));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void reconcile_disabled_doesNothing() {
+        counters = new LiveActivityCountersImpl(
+                jdbcTemplate, mock(PlatformTransactionManager.class), false, 7, Duration.ofMinutes(10));
+
+        counters.reconcile();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
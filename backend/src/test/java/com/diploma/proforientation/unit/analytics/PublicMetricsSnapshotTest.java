@@ -0,0 +1,155 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.impl.PublicMetricsSnapshotImpl;
+import com.diploma.proforientation.dto.QuizMetricsFilter;
+import com.diploma.proforientation.dto.QuizPublicMetricsDto;
+import com.diploma.proforientation.model.enumeration.QuizStatus;
+import com.diploma.proforientation.model.view.QuizPublicMetricsEntity;
+import com.diploma.proforientation.repository.view.QuizPublicMetricsRepository;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static com.diploma.proforientation.util.Constants.QUIZ_CATALOG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PublicMetricsSnapshotTest {
+
+    private QuizPublicMetricsRepository repository;
+    private JdbcTemplate jdbcTemplate;
+    private CacheInvalidationService invalidation;
+    private PublicMetricsSnapshotImpl snapshot;
+
+    private long started = 10;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws SQLException {
+        repository = mock(QuizPublicMetricsRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        invalidation = mock(CacheInvalidationService.class);
+
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class))).thenAnswer(inv -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(2L);
+            when(rs.getLong(2)).thenReturn(started);
+            when(rs.getLong(3)).thenReturn(5L);
+            return inv.<RowMapper<?>>getArgument(1).mapRow(rs, 0);
+        });
+        when(repository.findAll(any(Sort.class))).thenReturn(List.of(
+                entity(1, "career_basics", "PUBLISHED", 3, 120, new BigDecimal("300.5")),
+                entity(2, "it_profile", "ARCHIVED", 4, 20, null)
+        ));
+
+        snapshot = new PublicMetricsSnapshotImpl(repository, jdbcTemplate, invalidation,
+                mock(PlatformTransactionManager.class), true, Duration.ofMinutes(5));
+    }
+
+    private static QuizPublicMetricsEntity entity(Integer id, String code, String status,
+                                                  Integer category, Integer attempts, BigDecimal avg) {
+        QuizPublicMetricsEntity e = new QuizPublicMetricsEntity();
+        e.setQuizId(id);
+        e.setQuizCode(code);
+        e.setQuizStatus(status);
+        e.setCategoryId(category);
+        e.setAttemptsTotal(attempts);
+        e.setAttemptsSubmitted(attempts / 2);
+        e.setQuestionsTotal(10);
+        e.setAvgDurationSeconds(avg);
+        e.setEstimatedDurationSeconds(300);
+        return e;
+    }
+
+    private static QuizMetricsFilter filter(String codeContains, QuizStatus status,
+                                            Integer attemptsMin, BigDecimal avgMin) {
+        return new QuizMetricsFilter(
+                null, codeContains, status, null,
+                attemptsMin, null, null, null, null, null,
+                avgMin, null, null, null
+        );
+    }
+
+    @Test
+    void notReady_untilFirstLoad() {
+        assertThat(snapshot.isReady()).isFalse();
+        assertThat(snapshot.find(null)).isEmpty();
+        assertThat(snapshot.get(1)).isEmpty();
+
+        snapshot.refreshIfStale();
+
+        assertThat(snapshot.isReady()).isTrue();
+        assertThat(snapshot.find(null).orElseThrow())
+                .extracting(QuizPublicMetricsDto::quizId)
+                .containsExactly(1, 2);
+        assertThat(snapshot.get(2).orElseThrow().quizCode()).isEqualTo("it_profile");
+        assertThat(snapshot.get(3)).isEmpty();
+    }
+
+    @Test
+    void find_appliesFiltersInMemory() {
+        snapshot.refreshIfStale();
+
+        assertThat(snapshot.find(filter("CAREER", null, null, null)).orElseThrow())
+                .extracting(QuizPublicMetricsDto::quizId).containsExactly(1);
+        assertThat(snapshot.find(filter(null, QuizStatus.ARCHIVED, null, null)).orElseThrow())
+                .extracting(QuizPublicMetricsDto::quizId).containsExactly(2);
+        assertThat(snapshot.find(filter(null, null, 50, null)).orElseThrow())
+                .extracting(QuizPublicMetricsDto::quizId).containsExactly(1);
+        // a null average never satisfies a bound, as in SQL
+        assertThat(snapshot.find(filter(null, null, null, BigDecimal.ZERO)).orElseThrow())
+                .extracting(QuizPublicMetricsDto::quizId).containsExactly(1);
+    }
+
+    @Test
+    void unchangedFingerprint_doesNotReload() {
+        snapshot.refreshIfStale();
+        snapshot.refreshIfStale();
+
+        verify(repository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void changedAttemptTotals_reload() {
+        snapshot.refreshIfStale();
+        started = 11;
+        snapshot.refreshIfStale();
+
+        verify(repository, times(2)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void catalogInvalidation_reloadsOnNextCheck() {
+        verify(invalidation).subscribe(QUIZ_CATALOG, snapshot);
+        snapshot.refreshIfStale();
+
+        snapshot.onEvict(Set.of("1"));
+        snapshot.refreshIfStale();
+        snapshot.refreshIfStale();
+
+        verify(repository, times(2)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void failedLoad_keepsPreviousSnapshot() {
+        snapshot.refreshIfStale();
+        started = 11;
+        when(repository.findAll(any(Sort.class))).thenThrow(new IllegalStateException("db down"));
+
+        snapshot.refreshIfStale();
+
+        assertThat(snapshot.find(null).orElseThrow()).hasSize(2);
+    }
+}
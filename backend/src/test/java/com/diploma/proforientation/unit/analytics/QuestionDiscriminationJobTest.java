@@ -0,0 +1,93 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.impl.QuestionDiscriminationJobImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuestionDiscriminationJobTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+
+    private QuestionDiscriminationJobImpl job(boolean enabled) {
+        return new QuestionDiscriminationJobImpl(jdbcTemplate, transactionManager, enabled, Duration.ofHours(24));
+    }
+
+    @Test
+    void refresh_skipsVersionLockedByAnotherNode() {
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(5)))
+                .thenReturn(false);
+
+        assertThat(job(true).refresh(5)).isFalse();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void refresh_missingVersion_returnsFalse() {
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(5)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForList(contains("FROM quiz_versions"), eq(Integer.class), eq(5)))
+                .thenReturn(List.of());
+
+        assertThat(job(true).refresh(5)).isFalse();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void refresh_replacesStoredValues_andRecordsRun() {
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(5)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForList(contains("FROM quiz_versions"), eq(Integer.class), eq(5)))
+                .thenReturn(List.of(1));
+
+        assertThat(job(true).refresh(5)).isTrue();
+
+        verify(jdbcTemplate, times(3)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        verify(jdbcTemplate).update(contains("DELETE FROM quiz_question_discrimination"), eq(5));
+        verify(jdbcTemplate).update(contains("INSERT INTO quiz_discrimination_runs"), eq(5), eq(0), any(Timestamp.class));
+    }
+
+    @Test
+    void refreshStale_continuesAfterFailedVersion() {
+        when(jdbcTemplate.queryForList(contains("quiz_version_funnel"), eq(Integer.class), any(Timestamp.class)))
+                .thenReturn(List.of(1, 2));
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(1)))
+                .thenThrow(new IllegalStateException("boom"));
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(2)))
+                .thenReturn(false);
+
+        job(true).refreshStale();
+
+        verify(jdbcTemplate).queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(2));
+    }
+
+    @Test
+    void refreshStale_disabled_doesNothing() {
+        job(false).refreshStale();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
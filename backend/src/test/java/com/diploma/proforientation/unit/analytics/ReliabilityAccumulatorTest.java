@@ -0,0 +1,192 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.ReliabilityAccumulator;
+import com.diploma.proforientation.analytics.ReliabilityAccumulator.ItemResult;
+import com.diploma.proforientation.analytics.ReliabilityAccumulator.TraitResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.diploma.proforientation.analytics.ReliabilityAccumulator.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ReliabilityAccumulatorTest {
+
+    private static final int TRAIT = 3;
+    private static final List<Integer> QUESTIONS = List.of(10, 11, 12, 13);
+
+    /** Item scores driven by a common latent factor plus noise, so the scale is consistent. */
+    private static double[][] scores(int attempts, double offset) {
+        Random random = new Random(42);
+        double[][] x = new double[attempts][QUESTIONS.size()];
+        for (int a = 0; a < attempts; a++) {
+            double latent = random.nextGaussian();
+            for (int i = 0; i < QUESTIONS.size(); i++) {
+                x[a][i] = offset + Math.round(2 * latent + random.nextGaussian() * (i + 1));
+            }
+        }
+        return x;
+    }
+
+    private static TraitResult accumulate(double[][] x) {
+        ReliabilityAccumulator acc = new ReliabilityAccumulator(Map.of(TRAIT, QUESTIONS));
+        for (int a = 0; a < x.length; a++) {
+            for (int i = 0; i < QUESTIONS.size(); i++) {
+                acc.accept(a + 1, QUESTIONS.get(i), TRAIT, x[a][i]);
+            }
+        }
+        return acc.results().getFirst();
+    }
+
+    private static double variance(double[] v) {
+        double mean = 0;
+        for (double d : v) mean += d;
+        mean /= v.length;
+        double ss = 0;
+        for (double d : v) ss += (d - mean) * (d - mean);
+        return ss / (v.length - 1);
+    }
+
+    private static double covariance(double[] a, double[] b) {
+        double ma = 0, mb = 0;
+        for (int i = 0; i < a.length; i++) {
+            ma += a[i];
+            mb += b[i];
+        }
+        ma /= a.length;
+        mb /= b.length;
+        double s = 0;
+        for (int i = 0; i < a.length; i++) s += (a[i] - ma) * (b[i] - mb);
+        return s / (a.length - 1);
+    }
+
+    private static double[] column(double[][] x, int i) {
+        double[] c = new double[x.length];
+        for (int a = 0; a < x.length; a++) c[a] = x[a][i];
+        return c;
+    }
+
+    private static double[] total(double[][] x, int skip) {
+        double[] t = new double[x.length];
+        for (int a = 0; a < x.length; a++) {
+            for (int i = 0; i < x[a].length; i++) {
+                if (i != skip) t[a] += x[a][i];
+            }
+        }
+        return t;
+    }
+
+    /** Textbook two-pass alpha over the items except {@code skip} (-1 for none). */
+    private static double alpha(double[][] x, int skip) {
+        int k = skip < 0 ? x[0].length : x[0].length - 1;
+        double sumVar = 0;
+        for (int i = 0; i < x[0].length; i++) {
+            if (i != skip) sumVar += variance(column(x, i));
+        }
+        return (double) k / (k - 1) * (1 - sumVar / variance(total(x, skip)));
+    }
+
+    @Test
+    void matchesTwoPassFormulas() {
+        double[][] x = scores(500, 0);
+
+        TraitResult r = accumulate(x);
+
+        assertThat(r.traitId()).isEqualTo(TRAIT);
+        assertThat(r.attemptsSubmitted()).isEqualTo(500);
+        assertThat(r.items()).isEqualTo(4);
+        assertThat(r.totalVariance().doubleValue()).isCloseTo(variance(total(x, -1)), within(1e-5));
+        assertThat(r.alpha().doubleValue()).isCloseTo(alpha(x, -1), within(1e-5));
+
+        for (int i = 0; i < QUESTIONS.size(); i++) {
+            ItemResult item = r.itemResults().get(i);
+            double[] col = column(x, i);
+            double[] rest = total(x, i);
+            double corr = covariance(col, rest) / Math.sqrt(variance(col) * variance(rest));
+
+            assertThat(item.questionId()).isEqualTo(QUESTIONS.get(i));
+            assertThat(item.itemVariance().doubleValue()).isCloseTo(variance(col), within(1e-5));
+            assertThat(item.itemTotalCorrelation().doubleValue()).isCloseTo(corr, within(1e-5));
+            assertThat(item.alphaIfDeleted().doubleValue()).isCloseTo(alpha(x, i), within(1e-5));
+        }
+    }
+
+    @Test
+    void staysAccurateWithLargeOffsets() {
+        double[][] shifted = scores(500, 1e9);
+        double[][] plain = scores(500, 0);
+
+        TraitResult r = accumulate(shifted);
+
+        assertThat(r.alpha().doubleValue()).isCloseTo(alpha(plain, -1), within(1e-5));
+        assertThat(r.itemResults().getFirst().itemVariance().doubleValue())
+                .isCloseTo(variance(column(plain, 0)), within(1e-5));
+    }
+
+    @Test
+    void gradesAlpha() {
+        TraitResult r = accumulate(scores(500, 0));
+
+        double alpha = r.alpha().doubleValue();
+        assertThat(alpha).isBetween(0.5, 1.0);
+        assertThat(r.alphaQuality()).isNotIn(QUALITY_LOW_SAMPLE, QUALITY_TOO_FEW_ITEMS, QUALITY_NO_VARIANCE);
+    }
+
+    @Test
+    void smallSample_isLowSample() {
+        TraitResult r = accumulate(scores(MIN_SAMPLE - 1, 0));
+
+        assertThat(r.alphaQuality()).isEqualTo(QUALITY_LOW_SAMPLE);
+        assertThat(r.alpha()).isNotNull();
+    }
+
+    @Test
+    void singleItem_hasNoAlpha() {
+        ReliabilityAccumulator acc = new ReliabilityAccumulator(Map.of(TRAIT, List.of(10)));
+        for (int a = 1; a <= 40; a++) {
+            acc.accept(a, 10, TRAIT, a % 3);
+        }
+
+        TraitResult r = acc.results().getFirst();
+
+        assertThat(r.alpha()).isNull();
+        assertThat(r.alphaQuality()).isEqualTo(QUALITY_TOO_FEW_ITEMS);
+        assertThat(r.itemResults().getFirst().alphaIfDeleted()).isNull();
+    }
+
+    @Test
+    void constantScores_haveNoVariance() {
+        ReliabilityAccumulator acc = new ReliabilityAccumulator(Map.of(TRAIT, List.of(10, 11)));
+        for (int a = 1; a <= 40; a++) {
+            acc.accept(a, 10, TRAIT, 1);
+            acc.accept(a, 11, TRAIT, 2);
+        }
+
+        TraitResult r = acc.results().getFirst();
+
+        assertThat(r.alpha()).isNull();
+        assertThat(r.alphaQuality()).isEqualTo(QUALITY_NO_VARIANCE);
+        assertThat(r.itemResults().getFirst().itemTotalCorrelation()).isNull();
+    }
+
+    @Test
+    void unansweredItemsAndUnweightedAnswers_scoreZero() {
+        ReliabilityAccumulator acc = new ReliabilityAccumulator(Map.of(TRAIT, List.of(10, 11)));
+        acc.accept(1, 10, TRAIT, 2);
+        acc.accept(1, 11, TRAIT, 4);
+        acc.accept(2, 10, TRAIT, 1);
+        // attempt 3 only chose an option without trait weights
+        acc.accept(3, 11, null, 0);
+
+        TraitResult r = acc.results().getFirst();
+
+        assertThat(acc.attempts()).isEqualTo(3);
+        assertThat(r.attemptsSubmitted()).isEqualTo(3);
+        assertThat(r.totalMean()).isEqualByComparingTo("2.333333");
+        assertThat(r.itemResults().get(0).itemMean()).isEqualByComparingTo("1.000000");
+        assertThat(r.itemResults().get(1).itemMean()).isEqualByComparingTo("1.333333");
+    }
+}
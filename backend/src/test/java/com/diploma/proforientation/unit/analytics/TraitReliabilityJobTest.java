@@ -0,0 +1,84 @@
+package com.diploma.proforientation.unit.analytics;
+
+import com.diploma.proforientation.analytics.impl.TraitReliabilityJobImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TraitReliabilityJobTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+
+    private TraitReliabilityJobImpl job(boolean enabled) {
+        return new TraitReliabilityJobImpl(jdbcTemplate, transactionManager, enabled, Duration.ofHours(24));
+    }
+
+    @Test
+    void refresh_skipsVersionLockedByAnotherNode() {
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(5)))
+                .thenReturn(false);
+
+        assertThat(job(true).refresh(5)).isFalse();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void refresh_replacesStoredValues_andRecordsFunnelCount() {
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(5)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForList(contains("FROM quiz_versions"), eq(Integer.class), eq(5)))
+                .thenReturn(List.of(1));
+        when(jdbcTemplate.queryForObject(contains("FROM quiz_version_funnel"), eq(Integer.class), eq(5)))
+                .thenReturn(12);
+
+        assertThat(job(true).refresh(5)).isTrue();
+
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        verify(jdbcTemplate).update(contains("DELETE FROM quiz_item_reliability"), eq(5));
+        verify(jdbcTemplate).update(contains("DELETE FROM quiz_trait_reliability"), eq(5));
+        verify(jdbcTemplate).update(contains("INSERT INTO quiz_reliability_runs"), eq(5), eq(12), any(Timestamp.class));
+    }
+
+    @Test
+    void refreshStale_continuesAfterFailedVersion() {
+        when(jdbcTemplate.queryForList(contains("quiz_reliability_runs"), eq(Integer.class), any(Timestamp.class)))
+                .thenReturn(List.of(1, 2));
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(1)))
+                .thenThrow(new IllegalStateException("boom"));
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(2)))
+                .thenReturn(false);
+
+        job(true).refreshStale();
+
+        verify(jdbcTemplate).queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyInt(), eq(2));
+    }
+
+    @Test
+    void refreshStale_disabled_doesNothing() {
+        job(false).refreshStale();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
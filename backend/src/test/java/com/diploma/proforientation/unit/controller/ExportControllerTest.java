@@ -11,8 +11,11 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -32,13 +35,16 @@ class ExportControllerTest {
     }
 
     @Test
-    void exportExcel_success_returnsByteArray() {
+    void exportExcel_success_streamsBody() throws Exception {
         byte[] data = new byte[]{1, 2, 3};
-        when(exportService.exportAllToExcel()).thenReturn(data);
+        when(exportService.exportAllToExcel()).thenReturn(out -> out.write(data));
 
-        ResponseEntity<byte[]> response = exportController.exportExcel();
+        ResponseEntity<StreamingResponseBody> response = exportController.exportExcel();
 
-        assertThat(response.getBody()).isEqualTo(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toByteArray()).isEqualTo(data);
         assertThat(response.getHeaders().getFirst("Content-Disposition"))
                 .isEqualTo("attachment; filename=data.xlsx");
 
@@ -46,20 +52,42 @@ class ExportControllerTest {
     }
 
     @Test
-    void exportCsv_supportedEntity_returnsByteArray() {
+    void exportCsv_supportedEntity_streamsBody() throws Exception {
         String entity = "questions";
         byte[] data = "csv-data".getBytes();
-        when(exportService.exportEntityToCsv(entity)).thenReturn(data);
+        when(exportService.exportEntityToCsv(entity)).thenReturn(out -> out.write(data));
 
-        ResponseEntity<byte[]> response = exportController.exportCsv(entity);
+        ResponseEntity<StreamingResponseBody> response = exportController.exportCsv(entity, null);
 
-        assertThat(response.getBody()).isEqualTo(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toByteArray()).isEqualTo(data);
         assertThat(response.getHeaders().getFirst("Content-Disposition"))
                 .isEqualTo("attachment; filename=questions.csv");
+        assertThat(response.getHeaders().getContentType().toString())
+                .isEqualTo("text/csv;charset=UTF-8");
 
         verify(exportService).exportEntityToCsv(entity);
     }
 
+    @Test
+    void exportCsv_since_streamsChangesAndReturnsCursor() throws Exception {
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        Instant cursor = Instant.parse("2025-01-02T00:00:00Z");
+        when(exportService.exportEntityChangesToCsv("attempts", since))
+                .thenReturn(new ExportService.DeltaExport(cursor, out -> out.write(1)));
+
+        ResponseEntity<StreamingResponseBody> response = exportController.exportCsv("attempts", since);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toByteArray()).containsExactly(1);
+        assertThat(response.getHeaders().getFirst("X-Export-Cursor")).isEqualTo("2025-01-02T00:00:00Z");
+        verify(exportService, never()).exportEntityToCsv(any());
+    }
+
     @Test
     void exportCsv_unsupportedEntity_throwsException() {
         String entity = "unknown";
@@ -67,7 +95,7 @@ class ExportControllerTest {
                 .thenThrow(new IllegalArgumentException("Unsupported export entity"));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-                () -> exportController.exportCsv(entity));
+                () -> exportController.exportCsv(entity, null));
 
         assertThat(ex.getMessage()).contains("Unsupported export entity");
         verify(exportService).exportEntityToCsv(entity);
@@ -80,7 +108,7 @@ class ExportControllerTest {
                 .thenThrow(new RuntimeException("CSV failed"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> exportController.exportCsv(entity));
+                () -> exportController.exportCsv(entity, null));
 
         assertThat(ex.getMessage()).contains("CSV failed");
         verify(exportService).exportEntityToCsv(entity);
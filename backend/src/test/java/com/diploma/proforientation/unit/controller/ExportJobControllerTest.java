@@ -0,0 +1,73 @@
+package com.diploma.proforientation.unit.controller;
+
+import com.diploma.proforientation.controller.ExportJobController;
+import com.diploma.proforientation.dto.importexport.ExportJobDto;
+import com.diploma.proforientation.dto.importexport.ExportJobRequest;
+import com.diploma.proforientation.model.enumeration.ExportJobStatus;
+import com.diploma.proforientation.model.enumeration.ExportJobType;
+import com.diploma.proforientation.service.ExportJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ExportJobControllerTest {
+
+    @Mock
+    private ExportJobService exportJobService;
+
+    @InjectMocks
+    private ExportJobController controller;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void submit_returnsAcceptedWithLocation() {
+        ExportJobRequest request = new ExportJobRequest(ExportJobType.FULL_EXCEL, null, null, null, null);
+        ExportJobDto job = new ExportJobDto("job-1", ExportJobType.FULL_EXCEL, ExportJobStatus.QUEUED,
+                "data.xlsx", 0, "backend-0", Instant.now(), null, null, null, null);
+        when(exportJobService.submit(request)).thenReturn(job);
+
+        ResponseEntity<ExportJobDto> response = controller.submit(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getHeaders().getLocation()).hasToString("/api/export/jobs/job-1");
+        assertThat(response.getBody()).isEqualTo(job);
+    }
+
+    @Test
+    void download_returnsFileResourceWithHeaders() throws Exception {
+        Path file = Files.writeString(dir.resolve("attempts.csv"), "id\n1\n");
+        when(exportJobService.file("job-1"))
+                .thenReturn(new ExportJobService.SpooledFile(file, "attempts.csv", "text/csv"));
+
+        ResponseEntity<Resource> response = controller.download("job-1");
+
+        assertThat(response.getBody()).isInstanceOf(FileSystemResource.class);
+        assertThat(response.getBody().contentLength()).isEqualTo(5);
+        assertThat(response.getHeaders().getFirst("Content-Disposition"))
+                .isEqualTo("attachment; filename=\"attempts.csv\"");
+        assertThat(response.getHeaders().getFirst("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("text/csv"));
+    }
+}
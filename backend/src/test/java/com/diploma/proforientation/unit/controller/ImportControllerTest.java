@@ -37,12 +37,12 @@ class ImportControllerTest {
         );
 
         ImportResultDto mockResult = new ImportResultDto(2, 2, java.util.List.of());
-        when(excelImportService.importTranslations(file)).thenReturn(mockResult);
+        when(excelImportService.importTranslations(file, false)).thenReturn(mockResult);
 
-        ImportResultDto result = controller.importTranslationsExcel(file);
+        ImportResultDto result = controller.importTranslationsExcel(file, false);
 
         assertThat(result).isEqualTo(mockResult);
-        verify(excelImportService).importTranslations(file);
+        verify(excelImportService).importTranslations(file, false);
         verifyNoMoreInteractions(excelImportService);
     }
 
@@ -54,14 +54,14 @@ class ImportControllerTest {
                 "xlsx-content".getBytes()
         );
 
-        when(excelImportService.importTranslations(file))
+        when(excelImportService.importTranslations(file, false))
                 .thenThrow(new RuntimeException("Invalid Excel"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> controller.importTranslationsExcel(file));
+                () -> controller.importTranslationsExcel(file, false));
 
         assertThat(ex.getMessage()).contains("Invalid Excel");
-        verify(excelImportService).importTranslations(file);
+        verify(excelImportService).importTranslations(file, false);
         verifyNoMoreInteractions(excelImportService);
     }
 
@@ -74,12 +74,30 @@ class ImportControllerTest {
         );
 
         ImportResultDto mockResult = new ImportResultDto(3, 2, java.util.List.of());
-        when(excelImportService.importQuizzes(file)).thenReturn(mockResult);
+        when(excelImportService.importQuizzes(file, false)).thenReturn(mockResult);
 
-        ImportResultDto result = controller.importQuizzesExcel(file);
+        ImportResultDto result = controller.importQuizzesExcel(file, false);
 
         assertThat(result).isEqualTo(mockResult);
-        verify(excelImportService).importQuizzes(file);
+        verify(excelImportService).importQuizzes(file, false);
+        verifyNoMoreInteractions(excelImportService);
+    }
+
+    @Test
+    void importQuizzesExcel_dryRun_passedToService() {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "quizzes.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                "xlsx-content".getBytes()
+        );
+
+        ImportResultDto mockResult = new ImportResultDto(3, 2, java.util.List.of());
+        when(excelImportService.importQuizzes(file, true)).thenReturn(mockResult);
+
+        ImportResultDto result = controller.importQuizzesExcel(file, true);
+
+        assertThat(result).isEqualTo(mockResult);
+        verify(excelImportService).importQuizzes(file, true);
         verifyNoMoreInteractions(excelImportService);
     }
 
@@ -92,12 +110,12 @@ class ImportControllerTest {
         );
 
         ImportResultDto mockResult = new ImportResultDto(5, 5, java.util.List.of());
-        when(excelImportService.importProfessions(file)).thenReturn(mockResult);
+        when(excelImportService.importProfessions(file, false)).thenReturn(mockResult);
 
-        ImportResultDto result = controller.importProfessionsExcel(file);
+        ImportResultDto result = controller.importProfessionsExcel(file, false);
 
         assertThat(result).isEqualTo(mockResult);
-        verify(excelImportService).importProfessions(file);
+        verify(excelImportService).importProfessions(file, false);
         verifyNoMoreInteractions(excelImportService);
     }
 
@@ -110,12 +128,12 @@ class ImportControllerTest {
         );
 
         ImportResultDto mockResult = new ImportResultDto(10, 9, java.util.List.of());
-        when(excelImportService.importQuestions(file)).thenReturn(mockResult);
+        when(excelImportService.importQuestions(file, false)).thenReturn(mockResult);
 
-        ImportResultDto result = controller.importQuestions(file);
+        ImportResultDto result = controller.importQuestions(file, false);
 
         assertThat(result).isEqualTo(mockResult);
-        verify(excelImportService).importQuestions(file);
+        verify(excelImportService).importQuestions(file, false);
         verifyNoMoreInteractions(excelImportService);
     }
 
@@ -127,14 +145,14 @@ class ImportControllerTest {
                 "xlsx-content".getBytes()
         );
 
-        when(excelImportService.importQuestions(file))
+        when(excelImportService.importQuestions(file, false))
                 .thenThrow(new RuntimeException("Boom"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> controller.importQuestions(file));
+                () -> controller.importQuestions(file, false));
 
         assertThat(ex.getMessage()).contains("Boom");
-        verify(excelImportService).importQuestions(file);
+        verify(excelImportService).importQuestions(file, false);
         verifyNoMoreInteractions(excelImportService);
     }
 }
\ No newline at end of file
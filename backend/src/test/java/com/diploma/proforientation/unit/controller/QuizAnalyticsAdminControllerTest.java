@@ -3,6 +3,9 @@ package com.diploma.proforientation.unit.controller;
 import com.diploma.proforientation.controller.QuizAnalyticsAdminController;
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsDetailedDto;
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsOverviewDto;
+import com.diploma.proforientation.dto.analytics.QuizAttemptDistributionDto;
+import com.diploma.proforientation.dto.analytics.QuizReliabilityDto;
+import com.diploma.proforientation.dto.analytics.QuizVersionComparisonDto;
 import com.diploma.proforientation.service.QuizAnalyticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -73,7 +77,8 @@ class QuizAnalyticsAdminControllerTest {
                                         "Software Engineer",
                                         25
                                 )
-                        )
+                        ),
+                        null
                 );
 
         when(service.getOverview(10, 2, from, to))
@@ -103,7 +108,8 @@ class QuizAnalyticsAdminControllerTest {
                         BigDecimal.valueOf(0.8),
                         BigDecimal.valueOf(90),
                         List.of(),
-                        List.of()
+                        List.of(),
+                        null
                 );
 
         when(service.getOverview(10, 1, null, null))
@@ -150,7 +156,8 @@ class QuizAnalyticsAdminControllerTest {
                                         "GOOD",
                                         90
                                 )
-                        )
+                        ),
+                        Instant.parse("2026-01-01T00:00:00Z")
                 );
 
         when(service.getDetailed(10, 2))
@@ -167,4 +174,98 @@ class QuizAnalyticsAdminControllerTest {
 
         verify(service).getDetailed(10, 2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void distribution_asAdmin_withoutVersion_shouldReturnQuizWideDistribution() {
+        setAdmin();
+
+        QuizAttemptDistributionDto distribution =
+                new QuizAttemptDistributionDto(
+                        10,
+                        null,
+                        120L,
+                        BigDecimal.valueOf(284),
+                        BigDecimal.valueOf(512),
+                        BigDecimal.valueOf(1210),
+                        95L,
+                        20L
+                );
+
+        when(service.getAttemptDistribution(10, null, null, null))
+                .thenReturn(distribution);
+
+        QuizAttemptDistributionDto result =
+                controller.distribution(10, null, null, null);
+
+        assertThat(result.attemptsMeasured()).isEqualTo(120L);
+        assertThat(result.distinctUsers()).isEqualTo(95L);
+
+        verify(service).getAttemptDistribution(10, null, null, null);
+    }
+
+    @Test
+    void reliability_asAdmin_shouldReturnReliability() {
+        setAdmin();
+
+        QuizReliabilityDto reliability =
+                new QuizReliabilityDto(
+                        10,
+                        2,
+                        List.of(
+                                new QuizReliabilityDto.TraitReliability(
+                                        1, 120, 2,
+                                        BigDecimal.valueOf(4.5), BigDecimal.valueOf(2.1),
+                                        BigDecimal.valueOf(0.81), "good",
+                                        List.of()
+                                )
+                        ),
+                        Instant.parse("2026-01-01T10:00:00Z")
+                );
+
+        when(service.getReliability(10, 2))
+                .thenReturn(reliability);
+
+        QuizReliabilityDto result = controller.reliability(10, 2);
+
+        assertThat(result.traits()).hasSize(1);
+        assertThat(result.traits().getFirst().alphaQuality()).isEqualTo("good");
+
+        verify(service).getReliability(10, 2);
+    }
+
+    @Test
+    void compare_asAdmin_shouldReturnComparison() {
+        setAdmin();
+
+        QuizVersionComparisonDto comparison =
+                new QuizVersionComparisonDto(
+                        10,
+                        2,
+                        List.of(
+                                new QuizVersionComparisonDto.VersionFunnel(
+                                        2, 1, 100, 80,
+                                        BigDecimal.valueOf(0.8), BigDecimal.valueOf(120),
+                                        BigDecimal.ZERO, BigDecimal.ZERO
+                                ),
+                                new QuizVersionComparisonDto.VersionFunnel(
+                                        3, 2, 50, 45,
+                                        BigDecimal.valueOf(0.9), BigDecimal.valueOf(100),
+                                        BigDecimal.valueOf(0.1), BigDecimal.valueOf(-20)
+                                )
+                        ),
+                        List.of()
+                );
+
+        when(service.compareVersions(10, List.of(2, 3)))
+                .thenReturn(comparison);
+
+        QuizVersionComparisonDto result =
+                controller.compare(10, List.of(2, 3));
+
+        assertThat(result.baselineVersionId()).isEqualTo(2);
+        assertThat(result.versions()).hasSize(2);
+        assertThat(result.versions().get(1).completionRateDelta()).isEqualByComparingTo("0.1");
+
+        verify(service).compareVersions(10, List.of(2, 3));
+    }
+}
@@ -12,7 +12,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -107,4 +109,20 @@ class QuizAnalyticsExportControllerTest {
 
         verify(exportService).exportQuizAnalyticsDetailedExcel(10, 2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void answerMatrix_shouldStreamGzipFile() throws Exception {
+        setAdmin();
+        when(exportService.exportAnswerMatrix(10, 2)).thenReturn(out -> out.write(new byte[]{1, 2}));
+
+        ResponseEntity<StreamingResponseBody> response = controller.answerMatrix(10, 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toByteArray()).containsExactly(1, 2);
+        assertThat(response.getHeaders().getFirst("Content-Disposition"))
+                .isEqualTo("attachment; filename=\"answer_matrix.csv.gz\"");
+        assertThat(response.getHeaders().getContentType()).hasToString("application/gzip");
+    }
+}
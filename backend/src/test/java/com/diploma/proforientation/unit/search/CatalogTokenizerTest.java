@@ -0,0 +1,34 @@
+package com.diploma.proforientation.unit.search;
+
+import com.diploma.proforientation.search.CatalogTokenizer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogTokenizerTest {
+
+    @Test
+    void tokenize_splitsOnNonLetters_andLowercases() {
+        assertThat(CatalogTokenizer.tokenize("RIASEC_v2: Career-Test!", "en"))
+                .containsExactly("riasec", "v2", "career", "test");
+    }
+
+    @Test
+    void tokenize_foldsYoToYe_andDropsDuplicates() {
+        assertThat(CatalogTokenizer.tokenize("Ёлка и елка", "ru"))
+                .containsExactly("елка", "и");
+    }
+
+    @Test
+    void tokenize_usesLocaleCaseRules() {
+        assertThat(CatalogTokenizer.tokenize("TIP", "tr")).containsExactly("tıp");
+        assertThat(CatalogTokenizer.tokenize("TIP", "en")).containsExactly("tip");
+    }
+
+    @Test
+    void tokenize_blankOrNull_returnsEmpty() {
+        assertThat(CatalogTokenizer.tokenize(null, "en")).isEmpty();
+        assertThat(CatalogTokenizer.tokenize("  ", "en")).isEmpty();
+        assertThat(CatalogTokenizer.tokenize("-- !!", "en")).isEmpty();
+    }
+}
@@ -0,0 +1,244 @@
+package com.diploma.proforientation.unit.search;
+
+import com.diploma.proforientation.dto.QuizDto;
+import com.diploma.proforientation.dto.QuizSearchFacetsDto;
+import com.diploma.proforientation.model.ProfessionCategory;
+import com.diploma.proforientation.model.Quiz;
+import com.diploma.proforientation.model.QuizDuration;
+import com.diploma.proforientation.model.Translation;
+import com.diploma.proforientation.model.User;
+import com.diploma.proforientation.model.enumeration.DurationFilter;
+import com.diploma.proforientation.model.enumeration.QuizStatus;
+import com.diploma.proforientation.repository.QuizDurationRepository;
+import com.diploma.proforientation.repository.QuizRepository;
+import com.diploma.proforientation.repository.TranslationRepository;
+import com.diploma.proforientation.search.impl.QuizCatalogIndexImpl;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.diploma.proforientation.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.*;
+
+class QuizCatalogIndexTest {
+
+    private QuizRepository quizRepo;
+    private TranslationRepository translationRepo;
+    private QuizDurationRepository durationRepo;
+    private CacheInvalidationService cacheInvalidationService;
+    private QuizCatalogIndexImpl index;
+
+    private ProfessionCategory it;
+    private ProfessionCategory medicine;
+
+    @BeforeEach
+    void setUp() {
+        quizRepo = mock(QuizRepository.class);
+        translationRepo = mock(TranslationRepository.class);
+        durationRepo = mock(QuizDurationRepository.class);
+        cacheInvalidationService = mock(CacheInvalidationService.class);
+
+        index = new QuizCatalogIndexImpl(quizRepo, translationRepo, durationRepo,
+                cacheInvalidationService, mock(PlatformTransactionManager.class), true);
+
+        it = category(1, "Information technology");
+        medicine = category(2, "Medicine");
+
+        Quiz q1 = quiz(1, "riasec", "Career orientation test", "Find a profession that suits you", it);
+        Quiz q2 = quiz(2, "it_skills", "Programming aptitude", "Career in software", it);
+        Quiz q3 = quiz(3, "med", "Medical school readiness", "Are you ready?", medicine);
+
+        when(quizRepo.findAllByStatus(QuizStatus.PUBLISHED)).thenReturn(List.of(q1, q2, q3));
+        when(translationRepo.findByEntityType(ENTITY_TYPE_QUIZ)).thenReturn(List.of(
+                translation(ENTITY_TYPE_QUIZ, 1, FIELD_TITLE, "ru", "Тест профориентации"),
+                translation(ENTITY_TYPE_QUIZ, 3, FIELD_TITLE, "ru", "Готовность к медицинскому вузу")
+        ));
+        when(translationRepo.findByEntityType(ENTITY_TYPE_CATEGORY)).thenReturn(List.of(
+                translation(ENTITY_TYPE_CATEGORY, 2, FIELD_TITLE, "ru", "Медицина")
+        ));
+        when(durationRepo.findAll()).thenReturn(List.of(duration(1, 240), duration(2, 600), duration(3, 2400)));
+    }
+
+    @Test
+    void search_beforeBuild_returnsEmptySoCallerFallsBack() {
+        assertThat(index.search("career", null, null, null, "en", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.facets("career", null, null, null, "en").total()).isZero();
+    }
+
+    @Test
+    void constructor_subscribesToCatalogInvalidations() {
+        verify(cacheInvalidationService).subscribe(QUIZ_CATALOG, index);
+    }
+
+    @Test
+    void search_prefixMatch_ranksTitleAboveDescription() {
+        index.rebuild();
+
+        Page<QuizDto> page = index.search("care", null, null, null, "en", PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(page.getContent()).extracting(QuizDto::id).containsExactly(1, 2);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void search_allTermsMustMatch() {
+        index.rebuild();
+
+        Page<QuizDto> page = index.search("career software", null, null, null, "en", PageRequest.of(0, 10))
+                .orElseThrow();
+
+        assertThat(page.getContent()).extracting(QuizDto::id).containsExactly(2);
+    }
+
+    @Test
+    void search_translationsMatchOnlyInTheirLocale_andDtoIsLocalized() {
+        index.rebuild();
+
+        Page<QuizDto> ru = index.search("профориент", null, null, null, "ru", PageRequest.of(0, 10)).orElseThrow();
+        Page<QuizDto> en = index.search("профориент", null, null, null, "en", PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(ru.getContent()).extracting(QuizDto::title).containsExactly("Тест профориентации");
+        assertThat(en.getContent()).isEmpty();
+    }
+
+    @Test
+    void search_matchesCategoryNames() {
+        index.rebuild();
+
+        Page<QuizDto> page = index.search("медицина", null, null, null, "ru", PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(page.getContent()).extracting(QuizDto::id).containsExactly(3);
+    }
+
+    @Test
+    void search_withoutText_filtersAndAppliesRequestedSort() {
+        index.rebuild();
+
+        Page<QuizDto> page = index.search(null, 1, null, 900, "en",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"))).orElseThrow();
+
+        assertThat(page.getContent()).extracting(QuizDto::id).containsExactly(2, 1);
+    }
+
+    @Test
+    void search_withoutText_pagesThroughResults() {
+        index.rebuild();
+
+        Page<QuizDto> page = index.search("", null, null, null, "en", PageRequest.of(1, 2, Sort.by("id")))
+                .orElseThrow();
+
+        assertThat(page.getContent()).extracting(QuizDto::id).containsExactly(3);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void search_unsupportedSort_returnsEmpty() {
+        index.rebuild();
+
+        assertThat(index.search(null, null, null, null, "en", PageRequest.of(0, 10, Sort.by("createdAt"))))
+                .isEmpty();
+    }
+
+    @Test
+    void facets_eachFacetIgnoresItsOwnFilter() {
+        index.rebuild();
+
+        QuizSearchFacetsDto facets = index.facets(null, 1, 300, 900, "en");
+
+        assertThat(facets.total()).isEqualTo(1);
+        assertThat(facets.categories()).containsExactly(entry(1, 1L));
+        assertThat(facets.durations())
+                .containsEntry(DurationFilter.LT_5_MIN, 1L)
+                .containsEntry(DurationFilter.MIN_5_15, 1L)
+                .doesNotContainKey(DurationFilter.GT_30_MIN);
+    }
+
+    @Test
+    void onEvict_unpublishedQuiz_isRemoved() {
+        index.rebuild();
+        Quiz archived = quiz(1, "riasec", "Career orientation test", null, it);
+        archived.setStatus(QuizStatus.ARCHIVED);
+        when(quizRepo.findById(1)).thenReturn(Optional.of(archived));
+
+        index.onEvict(List.of("1"));
+
+        Page<QuizDto> page = index.search("career", null, null, null, "en", PageRequest.of(0, 10)).orElseThrow();
+        assertThat(page.getContent()).extracting(QuizDto::id).containsExactly(2);
+    }
+
+    @Test
+    void onEvict_updatedQuiz_isReindexed() {
+        index.rebuild();
+        Quiz renamed = quiz(3, "med", "Nursing basics", null, medicine);
+        when(quizRepo.findById(3)).thenReturn(Optional.of(renamed));
+        when(translationRepo.findByEntityTypeAndEntityId(anyString(), anyInt())).thenReturn(List.of());
+        when(durationRepo.findById(3)).thenReturn(Optional.of(duration(3, 2400)));
+
+        index.onEvict(List.of("3"));
+
+        assertThat(index.search("nursing", null, null, null, "en", PageRequest.of(0, 10)).orElseThrow()
+                .getContent()).extracting(QuizDto::id).containsExactly(3);
+        assertThat(index.search("readiness", null, null, null, "en", PageRequest.of(0, 10)).orElseThrow()
+                .getContent()).isEmpty();
+    }
+
+    @Test
+    void quizChanged_outsideTransaction_broadcastsImmediately() {
+        index.quizChanged(7);
+
+        verify(cacheInvalidationService).evict(QUIZ_CATALOG, List.of("7"));
+    }
+
+    @Test
+    void rebuild_disabled_doesNotLoad() {
+        QuizCatalogIndexImpl disabled = new QuizCatalogIndexImpl(quizRepo, translationRepo, durationRepo,
+                cacheInvalidationService, mock(PlatformTransactionManager.class), false);
+
+        disabled.rebuild();
+
+        verifyNoInteractions(quizRepo);
+        assertThat(disabled.search("career", null, null, null, "en", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private static ProfessionCategory category(int id, String name) {
+        ProfessionCategory c = new ProfessionCategory();
+        c.setId(id);
+        c.setName(name);
+        return c;
+    }
+
+    private static Quiz quiz(int id, String code, String title, String description, ProfessionCategory category) {
+        User author = new User();
+        author.setId(1);
+
+        Quiz q = new Quiz();
+        q.setId(id);
+        q.setCode(code);
+        q.setTitleDefault(title);
+        q.setDescriptionDefault(description);
+        q.setCategory(category);
+        q.setAuthor(author);
+        q.setStatus(QuizStatus.PUBLISHED);
+        return q;
+    }
+
+    private static Translation translation(String entityType, int entityId, String field, String locale, String text) {
+        return new Translation(null, entityType, entityId, locale, field, text);
+    }
+
+    private static QuizDuration duration(int quizId, int durationSec) {
+        QuizDuration d = new QuizDuration();
+        d.setQuizId(quizId);
+        d.setEstimatedDurationSeconds(durationSec);
+        return d;
+    }
+}
@@ -1,5 +1,7 @@
 package com.diploma.proforientation.unit.service;
 
+import com.diploma.proforientation.analytics.AttemptSketches;
+import com.diploma.proforientation.analytics.LiveActivityCounters;
 import com.diploma.proforientation.dto.AttemptResultDto;
 import com.diploma.proforientation.dto.AttemptSummaryDto;
 import com.diploma.proforientation.dto.RecommendationDto;
@@ -44,6 +46,8 @@ class AttemptServiceTest {
     @Mock ScoringEngine scoringEngine;
     @Mock TranslationResolver translationResolver;
     @Mock I18n localeProvider;
+    @Mock LiveActivityCounters liveCounters;
+    @Mock AttemptSketches attemptSketches;
 
     @InjectMocks AttemptServiceImpl service;
 
@@ -69,6 +73,7 @@ class AttemptServiceTest {
 
         assertThat(res.attemptId()).isEqualTo(55);
         assertThat(res.guestToken()).isEqualTo("guest-123");
+        verify(liveCounters).attemptStarted(eq(10), any(Instant.class));
     }
 
     @Test
@@ -157,6 +162,76 @@ class AttemptServiceTest {
         verify(recRepo, times(1)).deleteByAttempt_Id(10);
         verify(traitScoreRepo, times(1)).save(any());
         verify(recRepo, times(1)).save(any());
+        verify(liveCounters).attemptSubmitted(eq(2), eq(attempt.getStartedAt()), eq(attempt.getSubmittedAt()));
+        verify(attemptSketches).attemptSubmitted(
+                eq(2), eq(attempt.getStartedAt()), eq(attempt.getSubmittedAt()), any(), any());
+    }
+
+    @Test
+    void testSubmitAttempt_savesRecommendationsBestFirstWithRank() {
+
+        Attempt attempt = new Attempt();
+        attempt.setId(10);
+
+        Quiz quiz = new Quiz();
+        quiz.setProcessingMode(QuizProcessingMode.ML_RIASEC);
+
+        QuizVersion qv = new QuizVersion();
+        qv.setId(2);
+        qv.setQuiz(quiz);
+        attempt.setQuizVersion(qv);
+
+        List<RecommendationDto> recs = List.of(
+                new RecommendationDto(300, new BigDecimal("0.2"), "c"),
+                new RecommendationDto(100, null, "a"),
+                new RecommendationDto(200, new BigDecimal("0.9"), "b")
+        );
+
+        when(attemptRepo.findById(10)).thenReturn(Optional.of(attempt));
+        when(scoringEngineFactory.getEngine(QuizProcessingMode.ML_RIASEC)).thenReturn(scoringEngine);
+        when(scoringEngine.evaluate(10)).thenReturn(new ScoringResult(new HashMap<>(), recs));
+        for (int id : new int[]{100, 200, 300}) {
+            Profession prof = new Profession();
+            prof.setId(id);
+            when(professionRepo.findById(id)).thenReturn(Optional.of(prof));
+        }
+
+        service.submitAttempt(10);
+
+        ArgumentCaptor<AttemptRecommendation> saved = ArgumentCaptor.forClass(AttemptRecommendation.class);
+        verify(recRepo, times(3)).save(saved.capture());
+        assertThat(saved.getAllValues())
+                .extracting(r -> r.getProfession().getId(), AttemptRecommendation::getRank)
+                .containsExactly(
+                        tuple(200, 1),
+                        tuple(300, 2),
+                        tuple(100, 3)
+                );
+    }
+
+    @Test
+    void testSubmitAttempt_resubmit_isNotCountedAsLiveSubmit() {
+
+        Attempt attempt = new Attempt();
+        attempt.setId(10);
+        attempt.setSubmittedAt(Instant.now().minusSeconds(60));
+
+        Quiz quiz = new Quiz();
+        quiz.setProcessingMode(QuizProcessingMode.ML_RIASEC);
+
+        QuizVersion qv = new QuizVersion();
+        qv.setId(2);
+        qv.setQuiz(quiz);
+        attempt.setQuizVersion(qv);
+
+        when(attemptRepo.findById(10)).thenReturn(Optional.of(attempt));
+        when(scoringEngineFactory.getEngine(QuizProcessingMode.ML_RIASEC)).thenReturn(scoringEngine);
+        when(scoringEngine.evaluate(10)).thenReturn(new ScoringResult(new HashMap<>(), List.of()));
+
+        service.submitAttempt(10);
+
+        verify(liveCounters, never()).attemptSubmitted(any(), any(), any());
+        verify(attemptSketches, never()).attemptSubmitted(any(), any(), any(), any(), any());
     }
 
     @Test
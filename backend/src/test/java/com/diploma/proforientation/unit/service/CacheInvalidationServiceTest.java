@@ -0,0 +1,168 @@
+package com.diploma.proforientation.unit.service;
+
+import com.diploma.proforientation.config.CacheInvalidationProperties;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import com.diploma.proforientation.service.impl.CacheInvalidationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private CacheInvalidationProperties properties;
+    private Cache cache;
+    private CacheInvalidationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        properties = new CacheInvalidationProperties();
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("translations");
+        cache = cacheManager.getCache("translations");
+        cache.put("quiz:1:title:en", "Quiz");
+        cache.put("quiz:1:title:ru", "Тест");
+
+        service = new CacheInvalidationServiceImpl(
+                cacheManager, jdbcTemplate, new DataSourceProperties(), properties);
+    }
+
+    @Test
+    void constructor_invalidChannel_throws() {
+        properties.setChannel("bad; DROP TABLE x");
+
+        assertThatThrownBy(() -> new CacheInvalidationServiceImpl(
+                new ConcurrentMapCacheManager(), jdbcTemplate, new DataSourceProperties(), properties))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evict_evictsLocallyAndPublishesNotify() {
+        service.evict("translations", List.of("quiz:1:title:en"));
+
+        assertThat(cache.get("quiz:1:title:en")).isNull();
+        assertThat(cache.get("quiz:1:title:ru")).isNotNull();
+
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(RowCallbackHandler.class), args.capture(), args.capture());
+        assertThat(args.getAllValues().getFirst()).isEqualTo("cache_invalidation");
+        assertThat((String) args.getAllValues().get(1))
+                .contains("\"cache\":\"translations\"")
+                .contains("quiz:1:title:en");
+    }
+
+    @Test
+    void evict_largeKeySet_splitIntoSeveralNotifications() {
+        List<String> keys = new ArrayList<>();
+        IntStream.range(0, 1000).forEach(i -> keys.add("question_option:" + i + ":text:ru"));
+
+        service.evict("translations", keys);
+
+        verify(jdbcTemplate, atLeast(2))
+                .query(anyString(), any(RowCallbackHandler.class), any(), any());
+    }
+
+    @Test
+    void evict_disabled_onlyEvictsLocally() {
+        properties.setEnabled(false);
+
+        service.evict("translations", List.of("quiz:1:title:en"));
+
+        assertThat(cache.get("quiz:1:title:en")).isNull();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void evict_publishFailure_doesNotPropagate() {
+        doThrow(new RuntimeException("db down"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+
+        service.evict("translations", List.of("quiz:1:title:en"));
+
+        assertThat(cache.get("quiz:1:title:en")).isNull();
+    }
+
+    @Test
+    void evictAll_clearsCache() {
+        service.evictAll("translations");
+
+        assertThat(cache.get("quiz:1:title:en")).isNull();
+        assertThat(cache.get("quiz:1:title:ru")).isNull();
+    }
+
+    @Test
+    void onNotification_foreignEvent_evictsKeys() {
+        service.onNotification("""
+                {"origin":"other-node","cache":"translations","keys":["quiz:1:title:ru"],"allEntries":false}
+                """);
+
+        assertThat(cache.get("quiz:1:title:ru")).isNull();
+        assertThat(cache.get("quiz:1:title:en")).isNotNull();
+    }
+
+    @Test
+    void onNotification_foreignAllEntries_clearsCache() {
+        service.onNotification("""
+                {"origin":"other-node","cache":"translations","keys":[],"allEntries":true}
+                """);
+
+        assertThat(cache.get("quiz:1:title:en")).isNull();
+        assertThat(cache.get("quiz:1:title:ru")).isNull();
+    }
+
+    @Test
+    void onNotification_ownEvent_ignored() {
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        service.evict("translations", List.of("quiz:1:title:en"));
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), args.capture(), args.capture());
+        String ownPayload = ((String) args.getAllValues().get(1))
+                .replace("quiz:1:title:en", "quiz:1:title:ru");
+
+        service.onNotification(ownPayload);
+
+        assertThat(cache.get("quiz:1:title:ru")).isNotNull();
+    }
+
+    @Test
+    void onNotification_malformedPayload_ignored() {
+        service.onNotification("not json");
+
+        assertThat(cache.get("quiz:1:title:en")).isNotNull();
+    }
+
+    @Test
+    void subscribe_listenerNotifiedOfLocalAndRemoteEvictions() {
+        CacheInvalidationService.Listener listener = mock(CacheInvalidationService.Listener.class);
+        service.subscribe("quiz_catalog", listener);
+
+        service.evict("quiz_catalog", List.of("3"));
+        service.onNotification("{\"origin\":\"other\",\"cache\":\"quiz_catalog\",\"keys\":[],\"allEntries\":true}");
+
+        verify(listener).onEvict(List.of("3"));
+        verify(listener).onEvictAll();
+    }
+
+    @Test
+    void start_disabled_doesNotStartListener() {
+        properties.setEnabled(false);
+
+        service.start();
+
+        assertThat(service.isRunning()).isFalse();
+    }
+}
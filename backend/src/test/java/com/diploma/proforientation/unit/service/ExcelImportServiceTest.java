@@ -2,10 +2,16 @@ package com.diploma.proforientation.unit.service;
 
 import com.diploma.proforientation.dto.importexport.ImportResultDto;
 import com.diploma.proforientation.model.*;
-import com.diploma.proforientation.model.enumeration.QuizProcessingMode;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
 import com.diploma.proforientation.repository.*;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.impl.ExcelImportServiceImpl;
+import com.diploma.proforientation.util.ImportBatchWriter;
+import com.diploma.proforientation.util.ImportBatchWriter.ProfessionRow;
+import com.diploma.proforientation.util.ImportBatchWriter.QuizRow;
+import com.diploma.proforientation.util.TranslationCacheEvictor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -14,46 +20,57 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static com.diploma.proforientation.util.Constants.ERROR_EXCEL_DUPLICATE_ORD;
+import static com.diploma.proforientation.util.Constants.ERROR_EXCEL_ORD_TAKEN;
+import static com.diploma.proforientation.util.Constants.ERROR_EXCEL_ROW_FAILED;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class ExcelImportServiceTest {
 
-    private final TranslationRepository translationRepo = Mockito.mock(TranslationRepository.class);
     private final QuizRepository quizRepo = Mockito.mock(QuizRepository.class);
-    private final ProfessionRepository professionRepo = Mockito.mock(ProfessionRepository.class);
     private final ProfessionCategoryRepository categoryRepo = Mockito.mock(ProfessionCategoryRepository.class);
     private final UserRepository userRepo = Mockito.mock(UserRepository.class);
     private final QuizVersionRepository quizVersionRepo = Mockito.mock(QuizVersionRepository.class);
     private final QuestionRepository questionRepo = Mockito.mock(QuestionRepository.class);
+    private final TranslationCacheEvictor translationCacheEvictor = Mockito.mock(TranslationCacheEvictor.class);
+    private final QuizCatalogIndex catalogIndex = Mockito.mock(QuizCatalogIndex.class);
+    private final ImportBatchWriter batchWriter = Mockito.mock(ImportBatchWriter.class);
+    private final EntityManager entityManager = Mockito.mock(EntityManager.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
 
     private ExcelImportServiceImpl service;
 
     @BeforeEach
     void setup() {
         service = new ExcelImportServiceImpl(
-                translationRepo,
                 quizRepo,
-                professionRepo,
                 categoryRepo,
                 userRepo,
                 quizVersionRepo,
-                questionRepo
+                questionRepo,
+                translationCacheEvictor,
+                catalogIndex,
+                batchWriter,
+                entityManager,
+                transactionManager
         );
+        service.initTransactions();
     }
 
     @Test
     void importQuestions_validExcel_success() throws Exception {
-        QuizVersion qv = new QuizVersion();
-        qv.setId(1);
-
         MockMultipartFile file = excelFile(
                 "questions.xlsx",
                 new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
@@ -62,9 +79,9 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(quizVersionRepo.findById(1)).thenReturn(Optional.of(qv));
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
@@ -77,9 +94,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuestions_invalidEnum_returnsError_andDoesNotSave() throws Exception {
-        QuizVersion qv = new QuizVersion();
-        qv.setId(1);
-
         MockMultipartFile file = excelFile(
                 "questions.xlsx",
                 new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
@@ -88,9 +102,9 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(quizVersionRepo.findById(1)).thenReturn(Optional.of(qv));
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
@@ -102,9 +116,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuestions_missingRequiredField_returnsError_andDoesNotSave() throws Exception {
-        QuizVersion qv = new QuizVersion();
-        qv.setId(1);
-
         MockMultipartFile file = excelFile(
                 "questions.xlsx",
                 new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
@@ -113,9 +124,9 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(quizVersionRepo.findById(1)).thenReturn(Optional.of(qv));
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
@@ -135,9 +146,7 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(quizVersionRepo.findById(99)).thenReturn(Optional.empty());
-
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
@@ -149,9 +158,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuestions_partialSuccess_savesOnlyValidRows() throws Exception {
-        QuizVersion qv = new QuizVersion();
-        qv.setId(1);
-
         MockMultipartFile file = excelFile(
                 "questions.xlsx",
                 new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
@@ -161,9 +167,9 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(quizVersionRepo.findById(1)).thenReturn(Optional.of(qv));
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(2);
         assertThat(result.successCount()).isEqualTo(1);
@@ -184,7 +190,7 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isZero();
         assertThat(result.successCount()).isZero();
@@ -195,9 +201,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importProfessions_validExcel_success() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory();
-        cat.setId(10);
-
         MockMultipartFile file = excelFile(
                 "professions.xlsx",
                 new String[]{"code", "title_default", "category_id", "description", "ml_class_code"},
@@ -206,18 +209,17 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(10)).thenReturn(Optional.of(cat));
-        when(professionRepo.findByCode("DEV")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(10));
 
-        ImportResultDto result = service.importProfessions(file);
+        ImportResultDto result = service.importProfessions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isEmpty();
 
-        List<Profession> saved = captureSavedAll(professionRepo);
+        List<ProfessionRow> saved = captureUpsertedProfessions();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getCode()).isEqualTo("DEV");
+        assertThat(saved.getFirst().code()).isEqualTo("DEV");
     }
 
     @Test
@@ -230,26 +232,18 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(999)).thenReturn(Optional.empty());
-
-        ImportResultDto result = service.importProfessions(file);
+        ImportResultDto result = service.importProfessions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Profession> saved = captureSavedAll(professionRepo);
+        List<ProfessionRow> saved = captureUpsertedProfessions();
         assertThat(saved).isEmpty();
     }
 
     @Test
     void importQuizzes_validExcel_success() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory();
-        cat.setId(5);
-
-        User author = new User();
-        author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id", "status", "processing_mode"},
@@ -258,29 +252,22 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getCode()).isEqualTo("Q1");
+        assertThat(saved.getFirst().code()).isEqualTo("Q1");
     }
 
     @Test
     void importQuizzes_invalidEnum_returnsError_andDoesNotSave() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory();
-        cat.setId(5);
-
-        User author = new User();
-        author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id", "status", "processing_mode"},
@@ -289,16 +276,16 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).isEmpty();
     }
 
@@ -312,18 +299,17 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(translationRepo.findByEntityTypeAndEntityIdAndFieldAndLocale("quiz", 1, "title", "en"))
-                .thenReturn(Optional.empty());
-
-        ImportResultDto result = service.importTranslations(file);
+        ImportResultDto result = service.importTranslations(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isEmpty();
 
-        List<Translation> saved = captureSavedAll(translationRepo);
+        List<Translation> saved = captureUpsertedTranslations();
         assertThat(saved).hasSize(1);
         assertThat(saved.getFirst().getText()).isEqualTo("Hello");
+        verify(translationCacheEvictor).evictTranslations(saved);
+        verify(catalogIndex).catalogChanged();
     }
 
     @Test
@@ -336,13 +322,13 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importTranslations(file);
+        ImportResultDto result = service.importTranslations(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Translation> saved = captureSavedAll(translationRepo);
+        List<Translation> saved = captureUpsertedTranslations();
         assertThat(saved).isEmpty();
     }
 
@@ -355,7 +341,7 @@ class ExcelImportServiceTest {
                 new byte[0]
         );
 
-        assertThatThrownBy(() -> service.importQuestions(file))
+        assertThatThrownBy(() -> service.importQuestions(file, false))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("error.excel_empty_file");
     }
@@ -401,9 +387,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuizzes_duplicateCodeInFile_secondRowRejected_firstSaved() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id", "status", "processing_mode"},
@@ -413,26 +396,22 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(2);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isNotEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getCode()).isEqualTo("Q1");
+        assertThat(saved.getFirst().code()).isEqualTo("Q1");
     }
 
     @Test
-    void importQuizzes_missingOptionalEnumFields_defaultsToDraftAndLLM() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
+    void importQuizzes_missingOptionalEnumFields_leftToUpsertDefaults() throws Exception {
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id"}, // status & processing_mode missing
@@ -441,33 +420,23 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getStatus()).isEqualTo(QuizStatus.DRAFT);
-        assertThat(saved.getFirst().getProcessingMode()).isEqualTo(QuizProcessingMode.LLM);
+        assertThat(saved.getFirst().status()).isNull();
+        assertThat(saved.getFirst().processingMode()).isNull();
     }
 
     @Test
-    void importQuizzes_existingQuiz_keepsExistingStatusAndMode_whenIncomingBlank() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
-        Quiz existing = new Quiz();
-        existing.setId(123);
-        existing.setCode("Q1");
-        existing.setStatus(QuizStatus.PUBLISHED);
-        existing.setProcessingMode(QuizProcessingMode.LLM);
-
+    void importQuizzes_blankStatusAndMode_upsertedAsNull_soExistingValuesAreKept() throws Exception {
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id", "status", "processing_mode"},
@@ -476,30 +445,24 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.of(existing));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getId()).isEqualTo(123);
-        assertThat(saved.getFirst().getTitleDefault()).isEqualTo("New Title");
-        assertThat(saved.getFirst().getStatus()).isEqualTo(QuizStatus.PUBLISHED);
-        assertThat(saved.getFirst().getProcessingMode()).isEqualTo(QuizProcessingMode.LLM);
-        assertThat(saved.getFirst().getUpdatedAt()).isNotNull();
+        assertThat(saved.getFirst().titleDefault()).isEqualTo("New Title");
+        assertThat(saved.getFirst().status()).isNull();
+        assertThat(saved.getFirst().processingMode()).isNull();
     }
 
     @Test
     void importQuizzes_descriptionAndSpq_optionalFields_setWhenProvided() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{
@@ -511,27 +474,23 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getDescriptionDefault()).isEqualTo("Desc");
-        assertThat(saved.getFirst().getSecondsPerQuestionDefault()).isEqualTo(30);
+        assertThat(saved.getFirst().descriptionDefault()).isEqualTo("Desc");
+        assertThat(saved.getFirst().secondsPerQuestionDefault()).isEqualTo(30);
     }
 
     @Test
     void importQuizzes_secondsPerQuestion_zeroOrNegative_rowRejected() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{
@@ -543,24 +502,21 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).isEmpty();
     }
 
     @Test
     void importQuizzes_secondsPerQuestion_invalidInt_rowRejected() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{
@@ -572,24 +528,21 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).isEmpty();
     }
 
     @Test
     void importQuizzes_publishedQuiz_currentVersionExistsWithoutPublishedAt_updatesPublishedAt() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         Quiz quiz = new Quiz();
         quiz.setId(100);
         quiz.setCode("Q1");
@@ -608,13 +561,13 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.of(quiz));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
+        when(quizRepo.findAllByCodeInAndStatus(List.of("Q1"), QuizStatus.PUBLISHED)).thenReturn(List.of(quiz));
 
         when(quizVersionRepo.findByQuizIdAndCurrentTrue(100)).thenReturn(Optional.of(current));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
@@ -625,9 +578,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuizzes_publishedQuiz_noCurrentButHasVersions_marksLatestCurrent_andPublishes() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         Quiz quiz = new Quiz();
         quiz.setId(101);
         quiz.setCode("Q2");
@@ -647,14 +597,14 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q2")).thenReturn(Optional.of(quiz));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
+        when(quizRepo.findAllByCodeInAndStatus(List.of("Q2"), QuizStatus.PUBLISHED)).thenReturn(List.of(quiz));
 
         when(quizVersionRepo.findByQuizIdAndCurrentTrue(101)).thenReturn(Optional.empty());
         when(quizVersionRepo.findByQuizIdOrderByVersionDesc(101)).thenReturn(List.of(v2));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.successCount()).isEqualTo(1);
 
@@ -667,9 +617,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuizzes_publishedQuiz_noVersions_createsV1CurrentPublished() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         Quiz quiz = new Quiz();
         quiz.setId(102);
         quiz.setCode("Q3");
@@ -682,14 +629,14 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q3")).thenReturn(Optional.of(quiz));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
+        when(quizRepo.findAllByCodeInAndStatus(List.of("Q3"), QuizStatus.PUBLISHED)).thenReturn(List.of(quiz));
 
         when(quizVersionRepo.findByQuizIdAndCurrentTrue(102)).thenReturn(Optional.empty());
         when(quizVersionRepo.findByQuizIdOrderByVersionDesc(102)).thenReturn(List.of());
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.successCount()).isEqualTo(1);
 
@@ -704,8 +651,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importProfessions_duplicateCodeInFile_secondRowRejected_firstSaved() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(10);
-
         MockMultipartFile file = excelFile(
                 "professions.xlsx",
                 new String[]{"code", "title_default", "category_id"},
@@ -715,24 +660,21 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(10)).thenReturn(Optional.of(cat));
-        when(professionRepo.findByCode("DEV")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(10));
 
-        ImportResultDto result = service.importProfessions(file);
+        ImportResultDto result = service.importProfessions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(2);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isNotEmpty();
 
-        List<Profession> saved = captureSavedAll(professionRepo);
+        List<ProfessionRow> saved = captureUpsertedProfessions();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getCode()).isEqualTo("DEV");
+        assertThat(saved.getFirst().code()).isEqualTo("DEV");
     }
 
     @Test
     void importProfessions_optionalFields_blankBecomeNull() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(10);
-
         MockMultipartFile file = excelFile(
                 "professions.xlsx",
                 new String[]{"code", "title_default", "category_id", "description", "ml_class_code"},
@@ -741,28 +683,20 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(10)).thenReturn(Optional.of(cat));
-        when(professionRepo.findByCode("DEV")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(10));
 
-        ImportResultDto result = service.importProfessions(file);
+        ImportResultDto result = service.importProfessions(file, false);
 
         assertThat(result.successCount()).isEqualTo(1);
 
-        List<Profession> saved = captureSavedAll(professionRepo);
+        List<ProfessionRow> saved = captureUpsertedProfessions();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getDescription()).isNull();
-        assertThat(saved.getFirst().getMlClassCode()).isNull();
+        assertThat(saved.getFirst().description()).isNull();
+        assertThat(saved.getFirst().mlClassCode()).isNull();
     }
 
     @Test
-    void importProfessions_existingProfession_updatesFields() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(10);
-
-        Profession existing = new Profession();
-        existing.setId(55);
-        existing.setCode("DEV");
-        existing.setTitleDefault("Old");
-
+    void importProfessions_upsertsAllFieldsByCode() throws Exception {
         MockMultipartFile file = excelFile(
                 "professions.xlsx",
                 new String[]{"code", "title_default", "category_id", "description"},
@@ -771,31 +705,31 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(10)).thenReturn(Optional.of(cat));
-        when(professionRepo.findByCode("DEV")).thenReturn(Optional.of(existing));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(10));
 
-        ImportResultDto result = service.importProfessions(file);
+        ImportResultDto result = service.importProfessions(file, false);
 
         assertThat(result.successCount()).isEqualTo(1);
 
-        List<Profession> saved = captureSavedAll(professionRepo);
+        List<ProfessionRow> saved = captureUpsertedProfessions();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getId()).isEqualTo(55);
-        assertThat(saved.getFirst().getTitleDefault()).isEqualTo("New");
-        assertThat(saved.getFirst().getCategory()).isEqualTo(cat);
+        assertThat(saved.getFirst().code()).isEqualTo("DEV");
+        assertThat(saved.getFirst().titleDefault()).isEqualTo("New");
+        assertThat(saved.getFirst().description()).isEqualTo("Writes code");
+        assertThat(saved.getFirst().categoryId()).isEqualTo(10);
     }
 
     @Test
     void importProfessions_missingHeaderRow_returnsError() throws Exception {
         MockMultipartFile file = excelFileWithoutHeader("professions.xlsx");
 
-        ImportResultDto result = service.importProfessions(file);
+        ImportResultDto result = service.importProfessions(file, false);
 
         assertThat(result.totalRows()).isZero();
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        verify(professionRepo, never()).saveAll(any());
+        verify(batchWriter, never()).upsertProfessions(any());
     }
 
     @Test
@@ -808,13 +742,13 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importTranslations(file);
+        ImportResultDto result = service.importTranslations(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Translation> saved = captureSavedAll(translationRepo);
+        List<Translation> saved = captureUpsertedTranslations();
         assertThat(saved).isEmpty();
     }
 
@@ -828,26 +762,18 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importTranslations(file);
+        ImportResultDto result = service.importTranslations(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Translation> saved = captureSavedAll(translationRepo);
+        List<Translation> saved = captureUpsertedTranslations();
         assertThat(saved).isEmpty();
     }
 
     @Test
-    void importTranslations_existingTranslation_updatesText() throws Exception {
-        Translation existing = new Translation();
-        existing.setId(9);
-        existing.setEntityType("quiz");
-        existing.setEntityId(1);
-        existing.setField("title");
-        existing.setLocale("en");
-        existing.setText("Old");
-
+    void importTranslations_upsertsByKeyWithoutLookingUpRows() throws Exception {
         MockMultipartFile file = excelFile(
                 "translations.xlsx",
                 new String[]{"entity_type", "entity_id", "field", "locale", "text"},
@@ -856,24 +782,20 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(translationRepo.findByEntityTypeAndEntityIdAndFieldAndLocale("quiz", 1, "title", "en"))
-                .thenReturn(Optional.of(existing));
-
-        ImportResultDto result = service.importTranslations(file);
+        ImportResultDto result = service.importTranslations(file, false);
 
         assertThat(result.successCount()).isEqualTo(1);
 
-        List<Translation> saved = captureSavedAll(translationRepo);
+        List<Translation> saved = captureUpsertedTranslations();
         assertThat(saved).hasSize(1);
-        assertThat(saved.getFirst().getId()).isEqualTo(9);
+        assertThat(saved.getFirst().getId()).isNull();
+        assertThat(saved.getFirst().getEntityType()).isEqualTo("quiz");
+        assertThat(saved.getFirst().getEntityId()).isEqualTo(1);
         assertThat(saved.getFirst().getText()).isEqualTo("New text");
     }
 
     @Test
     void importQuestions_blankRows_ignored_totalCountsOnlyNonBlankRows() throws Exception {
-        QuizVersion qv = new QuizVersion();
-        qv.setId(1);
-
         MockMultipartFile file = excelFile(
                 "questions.xlsx",
                 new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
@@ -883,9 +805,9 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(quizVersionRepo.findById(1)).thenReturn(Optional.of(qv));
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
@@ -904,7 +826,7 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isZero();
         assertThat(result.successCount()).isZero();
@@ -915,9 +837,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuizzes_headerCaseAndSpaces_areNormalized() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{" Code ", "TITLE_DEFAULT", " Category_Id ", "AUTHOR_ID"},
@@ -926,17 +845,16 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.empty());
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isEqualTo(1);
         assertThat(result.errors()).isEmpty();
 
-        verify(quizRepo).saveAll(any());
+        verify(batchWriter).upsertQuizzes(any());
     }
 
     @Test
@@ -952,20 +870,18 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isZero();      // header invalid => fail fast
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        verify(quizRepo, never()).saveAll(any());
+        verify(batchWriter, never()).upsertQuizzes(any());
     }
 
     @Test
     void importQuizzes_invalidCategoryId_notInteger_rowRejected() throws Exception {
         // Hit getIntRequired NumberFormatException -> INVALID_INT
-        User author = new User(); author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id"},
@@ -974,9 +890,9 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
@@ -984,14 +900,12 @@ class ExcelImportServiceTest {
 
         // no valid rows => saveAll called with empty list (your service calls saveAll(valid) always)
         // We can either verify called and captured empty, or verify it is called.
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).isEmpty();
     }
 
     @Test
     void importQuizzes_authorNotFound_rowRejected() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id"},
@@ -1000,24 +914,19 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(999)).thenReturn(Optional.empty());
-
-        ImportResultDto result = service.importQuizzes(file);
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).isEmpty();
     }
 
     @Test
     void importQuizzes_invalidProcessingModeEnum_rowRejected() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         MockMultipartFile file = excelFile(
                 "quizzes.xlsx",
                 new String[]{"code", "title_default", "category_id", "author_id", "processing_mode"},
@@ -1026,24 +935,21 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Quiz> saved = captureSavedAll(quizRepo);
+        List<QuizRow> saved = captureUpsertedQuizzes();
         assertThat(saved).isEmpty();
     }
 
     @Test
     void importQuizzes_publishedQuiz_currentVersionAlreadyPublished_doesNotSaveVersion() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         Quiz quiz = new Quiz();
         quiz.setId(100);
         quiz.setCode("Q1");
@@ -1062,12 +968,12 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.of(quiz));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
+        when(quizRepo.findAllByCodeInAndStatus(List.of("Q1"), QuizStatus.PUBLISHED)).thenReturn(List.of(quiz));
         when(quizVersionRepo.findByQuizIdAndCurrentTrue(100)).thenReturn(Optional.of(current));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.successCount()).isEqualTo(1);
         verify(quizVersionRepo, never()).save(any(QuizVersion.class));
@@ -1075,9 +981,6 @@ class ExcelImportServiceTest {
 
     @Test
     void importQuizzes_publishedQuiz_quizIdNull_doesNotTouchVersions() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory(); cat.setId(5);
-        User author = new User(); author.setId(7);
-
         Quiz quiz = new Quiz();
         // id stays null
         quiz.setCode("Q1");
@@ -1090,11 +993,11 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(categoryRepo.findById(5)).thenReturn(Optional.of(cat));
-        when(userRepo.findById(7)).thenReturn(Optional.of(author));
-        when(quizRepo.findByCode("Q1")).thenReturn(Optional.of(quiz));
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
+        when(quizRepo.findAllByCodeInAndStatus(List.of("Q1"), QuizStatus.PUBLISHED)).thenReturn(List.of(quiz));
 
-        ImportResultDto result = service.importQuizzes(file);
+        ImportResultDto result = service.importQuizzes(file, false);
 
         assertThat(result.successCount()).isEqualTo(1);
 
@@ -1113,7 +1016,7 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importTranslations(file);
+        ImportResultDto result = service.importTranslations(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
@@ -1121,7 +1024,7 @@ class ExcelImportServiceTest {
         // should accumulate more than 1 error from the same row
         assertThat(result.errors().size()).isGreaterThanOrEqualTo(2);
 
-        List<Translation> saved = captureSavedAll(translationRepo);
+        List<Translation> saved = captureUpsertedTranslations();
         assertThat(saved).isEmpty();
     }
 
@@ -1136,15 +1039,12 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(translationRepo.findByEntityTypeAndEntityIdAndFieldAndLocale("quiz", 1, "title", "en"))
-                .thenReturn(Optional.empty());
-
-        ImportResultDto result = service.importTranslations(file);
+        ImportResultDto result = service.importTranslations(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);  // blank ignored
         assertThat(result.successCount()).isEqualTo(1);
 
-        List<Translation> saved = captureSavedAll(translationRepo);
+        List<Translation> saved = captureUpsertedTranslations();
         assertThat(saved).hasSize(1);
     }
 
@@ -1158,13 +1058,13 @@ class ExcelImportServiceTest {
                 }
         );
 
-        ImportResultDto result = service.importProfessions(file);
+        ImportResultDto result = service.importProfessions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
         assertThat(result.errors()).isNotEmpty();
 
-        List<Profession> saved = captureSavedAll(professionRepo);
+        List<ProfessionRow> saved = captureUpsertedProfessions();
         assertThat(saved).isEmpty();
     }
 
@@ -1178,9 +1078,9 @@ class ExcelImportServiceTest {
                 }
         );
 
-        when(quizVersionRepo.findById(1)).thenReturn(Optional.of(new QuizVersion()));
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
 
-        ImportResultDto result = service.importQuestions(file);
+        ImportResultDto result = service.importQuestions(file, false);
 
         assertThat(result.totalRows()).isEqualTo(1);
         assertThat(result.successCount()).isZero();
@@ -1190,9 +1090,220 @@ class ExcelImportServiceTest {
         assertThat(saved).isEmpty();
     }
 
+    @Test
+    void importQuestions_manyRows_savedInChunksEachCommittedSeparately() throws Exception {
+        Object[][] rows = new Object[1201][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{1, i + 1, "single_choice", "Q" + (i + 1)};
+        }
+        MockMultipartFile file = excelFile(
+                "questions.xlsx",
+                new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
+                rows
+        );
+
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
+
+        ImportResultDto result = service.importQuestions(file, false);
+
+        assertThat(result.totalRows()).isEqualTo(1201);
+        assertThat(result.successCount()).isEqualTo(1201);
+        verify(questionRepo, times(3)).saveAll(any());
+        verify(entityManager, times(3)).clear();
+        verify(transactionManager, times(3)).commit(any());
+
+        List<Question> saved = captureSavedAll(questionRepo);
+        assertThat(saved).hasSize(1201);
+        assertThat(saved.getLast().getTextDefault()).isEqualTo("Q1201");
+    }
+
+    @Test
+    void importProfessions_chunkFails_onlyRejectedRowsReportedWithSqlState() throws Exception {
+        Object[][] rows = new Object[600][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{"P" + i, "Profession " + i, 10};
+        }
+        MockMultipartFile file = excelFile(
+                "professions.xlsx",
+                new String[]{"code", "title_default", "category_id"},
+                rows
+        );
+
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(10));
+        SQLException duplicate = new SQLException("duplicate key value violates unique constraint", "23505");
+        doAnswer(inv -> {
+            List<ProfessionRow> chunk = inv.getArgument(0);
+            if (chunk.size() == 500 || chunk.getFirst().code().equals("P7")) {
+                throw new DataIntegrityViolationException("could not execute batch", duplicate);
+            }
+            return null;
+        }).when(batchWriter).upsertProfessions(any());
+
+        ImportResultDto result = service.importProfessions(file, false);
+
+        assertThat(result.totalRows()).isEqualTo(600);
+        assertThat(result.successCount()).isEqualTo(599);
+        assertThat(result.errors()).singleElement().satisfies(e -> {
+            assertThat(e.rowNumber()).isEqualTo(9);
+            assertThat(e.message()).isEqualTo(ERROR_EXCEL_ROW_FAILED + ": 23505 duplicate key value violates unique constraint");
+        });
+        // the chunk, then each of its rows on its own, then the next chunk
+        verify(batchWriter, times(502)).upsertProfessions(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(500)).commit(any());
+    }
+
+    @Test
+    void importProfessions_rowRejectedByConstraint_reportsConstraintName() throws Exception {
+        MockMultipartFile file = excelFile(
+                "professions.xlsx",
+                new String[]{"code", "title_default", "category_id"},
+                new Object[][]{
+                        {"P1", "Profession 1", 10},
+                        {"P2", "Profession 2", 10}
+                }
+        );
+
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(10));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("constraint",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("violates foreign key constraint", "23503"), "professions_category_id_fkey"));
+        doAnswer(inv -> {
+            List<ProfessionRow> chunk = inv.getArgument(0);
+            if (chunk.size() == 2 || chunk.getFirst().code().equals("P2")) {
+                throw violation;
+            }
+            return null;
+        }).when(batchWriter).upsertProfessions(any());
+
+        ImportResultDto result = service.importProfessions(file, false);
+
+        assertThat(result.successCount()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(e -> {
+            assertThat(e.rowNumber()).isEqualTo(3);
+            assertThat(e.message()).isEqualTo(ERROR_EXCEL_ROW_FAILED + ": professions_category_id_fkey");
+        });
+    }
+
+    @Test
+    void importQuizzes_dryRun_reportsErrorsAndCountsValidRows_withoutWriting() throws Exception {
+        MockMultipartFile file = excelFile(
+                "quizzes.xlsx",
+                new String[]{"code", "title_default", "category_id", "author_id", "status"},
+                new Object[][]{
+                        {"Q1", "Quiz One", 5, 7, "published"},
+                        {"Q2", "Quiz Two", 6, 7, "draft"},
+                        {"q1", "Quiz One DUP", 5, 7, "draft"}
+                }
+        );
+
+        when(categoryRepo.findIdsByIdIn(any())).thenReturn(Set.of(5));
+        when(userRepo.findIdsByIdIn(any())).thenReturn(Set.of(7));
+
+        ImportResultDto result = service.importQuizzes(file, true);
+
+        assertThat(result.totalRows()).isEqualTo(3);
+        assertThat(result.successCount()).isEqualTo(1);
+        assertThat(result.errors()).extracting(e -> e.rowNumber()).containsExactly(3, 4);
+        verifyNoInteractions(batchWriter, transactionManager, catalogIndex);
+        verify(quizRepo, never()).findAllByCodeInAndStatus(any(), any());
+    }
+
+    @Test
+    void importQuestions_referencedIds_checkedOncePerImport_notPerRow() throws Exception {
+        Object[][] rows = new Object[1201][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{i % 2 == 0 ? 1 : 2, i + 1, "single_choice", "Q" + (i + 1)};
+        }
+        MockMultipartFile file = excelFile(
+                "questions.xlsx",
+                new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
+                rows
+        );
+
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
+
+        ImportResultDto result = service.importQuestions(file, false);
+
+        assertThat(result.successCount()).isEqualTo(601);
+        assertThat(result.errors()).hasSize(600);
+        verify(quizVersionRepo, times(1)).findIdsByIdIn(List.of(1, 2));
+        verify(quizVersionRepo, never()).findById(anyInt());
+    }
+
+    @Test
+    void importQuestions_dryRun_ordRepeatedForVersionInFile_reported() throws Exception {
+        MockMultipartFile file = excelFile(
+                "questions.xlsx",
+                new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
+                new Object[][]{
+                        {1, 1, "single_choice", "Q1"},
+                        {1, 2, "single_choice", "Q2"},
+                        {1, 1, "single_choice", "Q1 again"},
+                        {2, 1, "single_choice", "Other version"}
+                }
+        );
+
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1, 2));
+
+        ImportResultDto result = service.importQuestions(file, true);
+
+        assertThat(result.successCount()).isEqualTo(3);
+        assertThat(result.errors()).singleElement().satisfies(e -> {
+            assertThat(e.rowNumber()).isEqualTo(4);
+            assertThat(e.field()).isEqualTo("ord");
+            assertThat(e.message()).isEqualTo(ERROR_EXCEL_DUPLICATE_ORD);
+        });
+        verify(questionRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void importQuestions_dryRun_ordTakenInVersion_reportedWithOneLookupPerVersion() throws Exception {
+        Object[][] rows = new Object[600][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{1, i + 1, "single_choice", "Q" + (i + 1)};
+        }
+        MockMultipartFile file = excelFile(
+                "questions.xlsx",
+                new String[]{"quiz_version_id", "ord", "qtype", "text_default"},
+                rows
+        );
+
+        when(quizVersionRepo.findIdsByIdIn(any())).thenReturn(Set.of(1));
+        when(questionRepo.findOrdsByQuizVersionIdIn(List.of(1)))
+                .thenReturn(List.of(questionOrd(1, 2), questionOrd(1, 550)));
+
+        ImportResultDto result = service.importQuestions(file, true);
+
+        assertThat(result.successCount()).isEqualTo(598);
+        assertThat(result.errors())
+                .extracting(e -> e.rowNumber() + ":" + e.field() + ":" + e.message())
+                .containsExactly("3:ord:" + ERROR_EXCEL_ORD_TAKEN, "551:ord:" + ERROR_EXCEL_ORD_TAKEN);
+        verify(questionRepo, times(1)).findOrdsByQuizVersionIdIn(any());
+    }
+
+    private static QuestionRepository.QuestionOrd questionOrd(int quizVersionId, int ord) {
+        return new QuestionRepository.QuestionOrd() {
+            @Override
+            public Integer getQuizVersionId() {
+                return quizVersionId;
+            }
+
+            @Override
+            public Integer getQuestionId() {
+                return null;
+            }
+
+            @Override
+            public Integer getOrd() {
+                return ord;
+            }
+        };
+    }
+
     @Test
     void importQuestions_nullFile_throwsIllegalArgumentException() {
-        assertThatThrownBy(() -> service.importQuestions(null))
+        assertThatThrownBy(() -> service.importQuestions(null, false))
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
@@ -1204,7 +1315,7 @@ class ExcelImportServiceTest {
                 new byte[0]
         );
 
-        assertThatThrownBy(() -> service.importProfessions(file))
+        assertThatThrownBy(() -> service.importProfessions(file, false))
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
@@ -1229,6 +1340,13 @@ class ExcelImportServiceTest {
         }
     }
 
+    /** Entities of every saved chunk, in save order. */
+    private static <T> List<T> flatten(List<? extends Iterable<T>> chunks) {
+        List<T> out = new ArrayList<>();
+        chunks.forEach(chunk -> out.addAll(toList(chunk)));
+        return out;
+    }
+
     private static <T> List<T> toList(Iterable<T> it) {
         List<T> out = new ArrayList<>();
         if (it != null) {
@@ -1239,25 +1357,25 @@ class ExcelImportServiceTest {
 
     private List<Question> captureSavedAll(QuestionRepository repo) {
         ArgumentCaptor<Iterable<Question>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(repo).saveAll(captor.capture());
-        return toList(captor.getValue());
+        verify(repo, atLeast(0)).saveAll(captor.capture());
+        return flatten(captor.getAllValues());
     }
 
-    private List<Profession> captureSavedAll(ProfessionRepository repo) {
-        ArgumentCaptor<Iterable<Profession>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(repo).saveAll(captor.capture());
-        return toList(captor.getValue());
+    private List<ProfessionRow> captureUpsertedProfessions() {
+        ArgumentCaptor<List<ProfessionRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter, atLeast(0)).upsertProfessions(captor.capture());
+        return flatten(captor.getAllValues());
     }
 
-    private List<Quiz> captureSavedAll(QuizRepository repo) {
-        ArgumentCaptor<Iterable<Quiz>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(repo).saveAll(captor.capture());
-        return toList(captor.getValue());
+    private List<QuizRow> captureUpsertedQuizzes() {
+        ArgumentCaptor<List<QuizRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter, atLeast(0)).upsertQuizzes(captor.capture());
+        return flatten(captor.getAllValues());
     }
 
-    private List<Translation> captureSavedAll(TranslationRepository repo) {
-        ArgumentCaptor<Iterable<Translation>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(repo).saveAll(captor.capture());
-        return toList(captor.getValue());
+    private List<Translation> captureUpsertedTranslations() {
+        ArgumentCaptor<List<Translation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter, atLeast(0)).upsertTranslations(captor.capture());
+        return flatten(captor.getAllValues());
     }
 }
\ No newline at end of file
@@ -0,0 +1,472 @@
+package com.diploma.proforientation.unit.service;
+
+import com.diploma.proforientation.dto.importexport.ExportJobDto;
+import com.diploma.proforientation.dto.importexport.ExportJobRequest;
+import com.diploma.proforientation.exception.CsvExportException;
+import com.diploma.proforientation.exception.ExportJobException;
+import com.diploma.proforientation.model.ExportJob;
+import com.diploma.proforientation.model.enumeration.ExportJobStatus;
+import com.diploma.proforientation.model.enumeration.ExportJobType;
+import com.diploma.proforientation.repository.ExportJobRepository;
+import com.diploma.proforientation.service.ExportJobService;
+import com.diploma.proforientation.service.ExportService;
+import com.diploma.proforientation.service.impl.ExportJobServiceImpl;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static com.diploma.proforientation.util.Constants.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    private static final ExportJobRequest ATTEMPTS_CSV =
+            new ExportJobRequest(ExportJobType.ENTITY_CSV, "attempts", null, null, null);
+
+    private static final Duration LEASE = Duration.ofMinutes(2);
+
+    @Mock ExportService exportService;
+    @Mock ExportJobRepository jobRepo;
+
+    @TempDir Path spoolDir;
+
+    /** Queued tasks, run explicitly by the tests. */
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+
+    /** The export_jobs table shared by the replicas of a test. */
+    private final Map<String, ExportJob> rows = new ConcurrentHashMap<>();
+
+    private ExportJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        stubJobTable();
+        service = service(Duration.ofHours(1));
+    }
+
+    private ExportJobServiceImpl service(Duration ttl) {
+        return service(ttl, "node-a");
+    }
+
+    private ExportJobServiceImpl service(Duration ttl, String node) {
+        ExportJobServiceImpl service =
+                new ExportJobServiceImpl(exportService, jobRepo, executor, spoolDir, ttl, LEASE, node);
+        service.initSpoolDir();
+        return service;
+    }
+
+    private void stubJobTable() {
+        lenient().when(jobRepo.claim(any(), any(), any(), any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            String requestKey = inv.getArgument(1);
+            Instant expiredBefore = inv.getArgument(6);
+            Instant staleBefore = inv.getArgument(7);
+            Optional<ExportJob> existing = byRequestKey(requestKey);
+            if (existing.isPresent()
+                    && existing.get().getStatus() != ExportJobStatus.FAILED
+                    && (existing.get().getFinishedAt() == null || existing.get().getFinishedAt().isAfter(expiredBefore))
+                    && existing.get().getHeartbeatAt().isAfter(staleBefore)) {
+                return 0;
+            }
+            existing.ifPresent(job -> rows.remove(job.getId()));
+
+            ExportJob job = new ExportJob();
+            job.setId(inv.getArgument(0));
+            job.setRequestKey(requestKey);
+            job.setType(ExportJobType.valueOf(inv.getArgument(2)));
+            job.setStatus(ExportJobStatus.QUEUED);
+            job.setFilename(inv.getArgument(3));
+            job.setNode(inv.getArgument(4));
+            job.setCreatedAt(inv.getArgument(5));
+            job.setHeartbeatAt(inv.getArgument(5));
+            rows.put(job.getId(), job);
+            return 1;
+        });
+        lenient().when(jobRepo.findByRequestKey(any())).thenAnswer(inv -> byRequestKey(inv.getArgument(0)));
+        lenient().when(jobRepo.findById(any())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<String>getArgument(0))));
+        lenient().doAnswer(inv -> {
+            ExportJob job = rows.get(inv.<String>getArgument(0));
+            job.setStatus(inv.getArgument(1));
+            job.setStartedAt(inv.getArgument(2));
+            return null;
+        }).when(jobRepo).markStarted(any(), any(), any());
+        lenient().doAnswer(inv -> {
+            ExportJob job = rows.get(inv.<String>getArgument(0));
+            job.setStatus(inv.getArgument(1));
+            job.setFilePath(inv.getArgument(2));
+            job.setBytesWritten(inv.getArgument(3));
+            job.setError(inv.getArgument(4));
+            job.setFinishedAt(inv.getArgument(5));
+            return null;
+        }).when(jobRepo).markFinished(any(), any(), any(), anyLong(), any(), any());
+        lenient().when(jobRepo.failUnfinished(any(), any(), any())).thenAnswer(inv -> {
+            int failed = 0;
+            for (ExportJob job : rows.values()) {
+                if (job.getNode().equals(inv.getArgument(0)) && job.getFinishedAt() == null) {
+                    job.setStatus(ExportJobStatus.FAILED);
+                    job.setError(inv.getArgument(1));
+                    job.setFinishedAt(inv.getArgument(2));
+                    failed++;
+                }
+            }
+            return failed;
+        });
+        lenient().doAnswer(inv -> {
+            ExportJob job = rows.get(inv.<String>getArgument(0));
+            if (job != null && job.getFinishedAt() == null) {
+                job.setBytesWritten(inv.getArgument(1));
+                job.setHeartbeatAt(inv.getArgument(2));
+            }
+            return null;
+        }).when(jobRepo).heartbeat(any(), anyLong(), any());
+        lenient().doAnswer(inv -> {
+            rows.values().stream()
+                    .filter(job -> job.getNode().equals(inv.getArgument(0)) && job.getFinishedAt() != null)
+                    .forEach(job -> job.setHeartbeatAt(inv.getArgument(1)));
+            return null;
+        }).when(jobRepo).heartbeatFinished(any(), any());
+        lenient().when(jobRepo.deleteExpired(any(), any())).thenAnswer(inv -> {
+            Instant expiredBefore = inv.getArgument(0);
+            Instant staleBefore = inv.getArgument(1);
+            int before = rows.size();
+            rows.values().removeIf(job -> job.getFinishedAt() != null && !job.getFinishedAt().isAfter(expiredBefore)
+                    || !job.getHeartbeatAt().isAfter(staleBefore));
+            return before - rows.size();
+        });
+        lenient().when(jobRepo.findFilePathsByNode(any())).thenAnswer(inv -> rows.values().stream()
+                .filter(job -> job.getNode().equals(inv.getArgument(0)))
+                .map(ExportJob::getFilePath)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+
+    private Optional<ExportJob> byRequestKey(String requestKey) {
+        return rows.values().stream().filter(job -> job.getRequestKey().equals(requestKey)).findFirst();
+    }
+
+    private void runQueued() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    void submit_entityCsv_spoolsFileAndServesIt() throws Exception {
+        when(exportService.exportEntityToCsv("attempts"))
+                .thenReturn(out -> out.write("id\n1\n".getBytes(StandardCharsets.UTF_8)));
+
+        ExportJobDto queued = service.submit(ATTEMPTS_CSV);
+        assertThat(queued.status()).isEqualTo(ExportJobStatus.QUEUED);
+        assertThat(queued.filename()).isEqualTo("attempts.csv");
+
+        runQueued();
+
+        ExportJobDto done = service.get(queued.id());
+        assertThat(done.status()).isEqualTo(ExportJobStatus.DONE);
+        assertThat(done.bytesWritten()).isEqualTo(5);
+        assertThat(done.expiresAt()).isEqualTo(done.finishedAt().plus(Duration.ofHours(1)));
+
+        ExportJobService.SpooledFile file = service.file(queued.id());
+        assertThat(Files.readString(file.path())).isEqualTo("id\n1\n");
+        assertThat(file.filename()).isEqualTo("attempts.csv");
+        assertThat(file.contentType()).isEqualTo("text/csv");
+    }
+
+    @Test
+    void submit_equalRequest_joinsExistingJob() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+
+        ExportJobDto first = service.submit(ATTEMPTS_CSV);
+        // irrelevant fields do not make the request different
+        ExportJobDto second = service.submit(
+                new ExportJobRequest(ExportJobType.ENTITY_CSV, "attempts", 5, 6, null));
+        runQueued();
+        ExportJobDto third = service.submit(ATTEMPTS_CSV);
+
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(third.id()).isEqualTo(first.id());
+        assertThat(third.status()).isEqualTo(ExportJobStatus.DONE);
+        assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    void submit_afterFailedJob_startsNewJob() throws Exception {
+        when(exportService.exportEntityToCsv("attempts"))
+                .thenReturn(out -> out.write(1))
+                .thenReturn(out -> {
+                    throw new CsvExportException(CSV_EXPORT_FAILED + "attempts", new IllegalStateException());
+                })
+                .thenReturn(out -> out.write(1));
+
+        ExportJobDto failed = service.submit(ATTEMPTS_CSV);
+        runQueued();
+
+        assertThat(service.get(failed.id()).status()).isEqualTo(ExportJobStatus.FAILED);
+        assertThat(service.get(failed.id()).error()).isEqualTo(CSV_EXPORT_FAILED + "attempts");
+        assertThat(spoolDir).isEmptyDirectory();
+
+        ExportJobDto retry = service.submit(ATTEMPTS_CSV);
+        assertThat(retry.id()).isNotEqualTo(failed.id());
+        assertThat(retry.status()).isEqualTo(ExportJobStatus.QUEUED);
+    }
+
+    @Test
+    void file_notFinished_isConflict() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+
+        ExportJobDto job = service.submit(ATTEMPTS_CSV);
+
+        assertThatThrownBy(() -> service.file(job.id()))
+                .isInstanceOf(ExportJobException.class)
+                .hasMessage(EXPORT_JOB_NOT_READY)
+                .extracting("status").isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void submit_queueFull_isRejected() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+        ExportJobServiceImpl full = new ExportJobServiceImpl(exportService, jobRepo, task -> {
+            throw new RejectedExecutionException();
+        }, spoolDir, Duration.ofHours(1), LEASE, "node-a");
+
+        assertThatThrownBy(() -> full.submit(ATTEMPTS_CSV))
+                .isInstanceOf(ExportJobException.class)
+                .hasMessage(EXPORT_QUEUE_FULL)
+                .extracting("status").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // the rejected job does not block the next equal request
+        ExportJobDto retry = service.submit(ATTEMPTS_CSV);
+        assertThat(retry.status()).isEqualTo(ExportJobStatus.QUEUED);
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void submit_analyticsWithoutVersion_isBadRequest() {
+        ExportJobRequest request =
+                new ExportJobRequest(ExportJobType.ANALYTICS_OVERVIEW_CSV, null, 1, null, null);
+
+        assertThatThrownBy(() -> service.submit(request))
+                .isInstanceOf(ExportJobException.class)
+                .hasMessage(EXPORT_JOB_PARAMS);
+        assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    void submit_unsupportedEntity_failsBeforeQueueing() {
+        when(exportService.exportEntityToCsv("unknown"))
+                .thenThrow(new CsvExportException(UNSUPPORTED_EXPORT_ENTITY + "unknown"));
+
+        assertThatThrownBy(() -> service.submit(
+                new ExportJobRequest(ExportJobType.ENTITY_CSV, "unknown", null, null, null)))
+                .isInstanceOf(CsvExportException.class);
+        assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    void submit_analyticsExport_writesServiceBytes() throws Exception {
+        when(exportService.exportQuizAnalyticsDetailedExcel(1, 10)).thenReturn(new byte[]{1, 2, 3});
+
+        ExportJobDto job = service.submit(
+                new ExportJobRequest(ExportJobType.ANALYTICS_DETAILED_EXCEL, "ignored", 1, 10, null));
+        runQueued();
+
+        ExportJobService.SpooledFile file = service.file(job.id());
+        assertThat(Files.readAllBytes(file.path())).containsExactly(1, 2, 3);
+        assertThat(file.filename()).isEqualTo("quiz_detailed.xlsx");
+        verify(exportService, never()).exportEntityToCsv(any());
+    }
+
+    @Test
+    void submit_answerMatrix_streamsServiceWriter() throws Exception {
+        when(exportService.exportAnswerMatrix(1, 10)).thenReturn(out -> out.write(new byte[]{4, 2}));
+
+        ExportJobDto job = service.submit(
+                new ExportJobRequest(ExportJobType.ANSWER_MATRIX_CSV_GZ, null, 1, 10, null));
+        runQueued();
+
+        ExportJobService.SpooledFile file = service.file(job.id());
+        assertThat(Files.readAllBytes(file.path())).containsExactly(4, 2);
+        assertThat(file.filename()).isEqualTo("answer_matrix.csv.gz");
+        assertThat(file.contentType()).isEqualTo("application/gzip");
+    }
+
+    @Test
+    void cleanupExpired_removesJobAndFile() throws Exception {
+        ExportJobServiceImpl expiring = service(Duration.ZERO);
+        when(exportService.exportAllToExcel()).thenReturn(out -> out.write(1));
+
+        ExportJobDto job = expiring.submit(new ExportJobRequest(ExportJobType.FULL_EXCEL, null, null, null, null));
+        runQueued();
+        Path file = spoolDir.resolve(job.id() + "-data.xlsx");
+        assertThat(file).exists();
+
+        expiring.cleanupExpired();
+
+        assertThat(file).doesNotExist();
+        assertThatThrownBy(() -> expiring.get(job.id()))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage(EXPORT_JOB_NOT_FOUND);
+    }
+
+    @Test
+    void submit_equalRequestOnOtherReplica_joinsJob() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+        ExportJobServiceImpl other = service(Duration.ofHours(1), "node-b");
+
+        ExportJobDto first = service.submit(ATTEMPTS_CSV);
+        ExportJobDto second = other.submit(ATTEMPTS_CSV);
+
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(second.node()).isEqualTo("node-a");
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void get_onOtherReplica_reportsStatus() {
+        when(exportService.exportEntityToCsv("attempts"))
+                .thenReturn(out -> out.write("id\n".getBytes(StandardCharsets.UTF_8)));
+        ExportJobServiceImpl other = service(Duration.ofHours(1), "node-b");
+
+        ExportJobDto job = service.submit(ATTEMPTS_CSV);
+        runQueued();
+
+        ExportJobDto seen = other.get(job.id());
+        assertThat(seen.status()).isEqualTo(ExportJobStatus.DONE);
+        assertThat(seen.bytesWritten()).isEqualTo(3);
+        assertThat(seen.node()).isEqualTo("node-a");
+    }
+
+    @Test
+    void file_onOtherReplica_isConflictNamingOwner() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+        ExportJobServiceImpl other = service(Duration.ofHours(1), "node-b");
+
+        ExportJobDto job = service.submit(ATTEMPTS_CSV);
+        runQueued();
+
+        assertThatThrownBy(() -> other.file(job.id()))
+                .isInstanceOf(ExportJobException.class)
+                .hasMessage(EXPORT_JOB_OTHER_NODE)
+                .satisfies(e -> assertThat(((ExportJobException) e).getArgs()).containsExactly("node-a"))
+                .extracting("status").isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void submit_equalRequestOfGoneReplica_takesJobOver() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+        ExportJobServiceImpl other = service(Duration.ofHours(1), "node-b");
+
+        ExportJobDto dead = service.submit(ATTEMPTS_CSV);
+        tasks.clear();
+        // node-a is gone and stopped renewing the lease of its queued job
+        rows.get(dead.id()).setHeartbeatAt(Instant.now().minus(LEASE).minusSeconds(1));
+
+        ExportJobDto retry = other.submit(ATTEMPTS_CSV);
+
+        assertThat(retry.id()).isNotEqualTo(dead.id());
+        assertThat(retry.node()).isEqualTo("node-b");
+        assertThat(retry.status()).isEqualTo(ExportJobStatus.QUEUED);
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void get_jobOfGoneReplica_isNotFoundAndCleanedUp() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+        ExportJobServiceImpl other = service(Duration.ofHours(1), "node-b");
+
+        ExportJobDto job = service.submit(ATTEMPTS_CSV);
+        runQueued();
+        rows.get(job.id()).setHeartbeatAt(Instant.now().minus(LEASE).minusSeconds(1));
+
+        assertThatThrownBy(() -> other.file(job.id()))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage(EXPORT_JOB_NOT_FOUND);
+
+        other.cleanupExpired();
+
+        assertThat(rows).isEmpty();
+    }
+
+    @Test
+    void heartbeat_renewsLeaseAndPublishesProgressOfRunningJob() {
+        ExportJobServiceImpl other = service(Duration.ofHours(1), "node-b");
+        long[] seenByOther = new long[1];
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> {
+            out.write(new byte[]{1, 2, 3});
+            service.heartbeat();
+            seenByOther[0] = other.get(rows.keySet().iterator().next()).bytesWritten();
+            out.write(4);
+        });
+
+        ExportJobDto job = service.submit(ATTEMPTS_CSV);
+        rows.get(job.id()).setHeartbeatAt(Instant.now().minusSeconds(60));
+        runQueued();
+
+        assertThat(seenByOther[0]).isEqualTo(3);
+        assertThat(other.get(job.id()).bytesWritten()).isEqualTo(4);
+
+        Instant before = Instant.now();
+        service.heartbeat();
+        assertThat(rows.get(job.id()).getHeartbeatAt()).isAfterOrEqualTo(before);
+    }
+
+    @Test
+    void initSpoolDir_failsJobsInterruptedByRestart() {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+
+        ExportJobDto job = service.submit(ATTEMPTS_CSV);
+        tasks.clear();
+
+        service(Duration.ofHours(1));
+
+        ExportJobDto failed = service.get(job.id());
+        assertThat(failed.status()).isEqualTo(ExportJobStatus.FAILED);
+        assertThat(failed.error()).isEqualTo(EXPORT_JOB_INTERRUPTED);
+        assertThat(service.submit(ATTEMPTS_CSV).id()).isNotEqualTo(job.id());
+    }
+
+    @Test
+    void initSpoolDir_keepsFilesOfFinishedJobs() throws Exception {
+        when(exportService.exportEntityToCsv("attempts")).thenReturn(out -> out.write(1));
+
+        ExportJobDto job = service.submit(ATTEMPTS_CSV);
+        runQueued();
+
+        service(Duration.ofHours(1));
+
+        assertThat(service.file(job.id()).path()).exists();
+    }
+
+    @Test
+    void initSpoolDir_removesLeftovers() throws Exception {
+        Path leftover = Files.writeString(spoolDir.resolve("old.part"), "x");
+
+        service(Duration.ofHours(1));
+
+        assertThat(leftover).doesNotExist();
+    }
+}
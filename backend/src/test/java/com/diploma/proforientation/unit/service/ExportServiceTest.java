@@ -1,8 +1,10 @@
 package com.diploma.proforientation.unit.service;
 
 import com.diploma.proforientation.dto.QuizMetricsFilter;
+import com.diploma.proforientation.dto.analytics.QuizAnalyticsDetailedDto;
+import com.diploma.proforientation.dto.analytics.QuizAnalyticsOverviewDto;
 import com.diploma.proforientation.exception.CsvExportException;
-import com.diploma.proforientation.model.*;
+import com.diploma.proforientation.exception.ExcelExportException;
 import com.diploma.proforientation.model.enumeration.QuestionType;
 import com.diploma.proforientation.model.enumeration.QuizProcessingMode;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
@@ -10,23 +12,46 @@ import com.diploma.proforientation.model.view.*;
 import com.diploma.proforientation.repository.*;
 import com.diploma.proforientation.repository.view.*;
 import com.diploma.proforientation.service.ExportService;
+import com.diploma.proforientation.service.QuizAnalyticsService;
 import com.diploma.proforientation.service.impl.ExportServiceImpl;
+import com.diploma.proforientation.util.ParallelReads;
+import jakarta.persistence.EntityNotFoundException;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static com.diploma.proforientation.util.Constants.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -42,52 +67,46 @@ class ExportServiceTest {
     @Mock QuestionOptionRepository optionRepo;
     @Mock ProfessionRepository professionRepo;
     @Mock AttemptRepository attemptRepo;
+    @Mock AnswerRepository answerRepo;
     @Mock TranslationRepository translationRepo;
     @Mock QuizPublicMetricsRepository quizPublicMetricsRepo;
-    @Mock QuizFunnelOverviewRepository funnelRepo;
-    @Mock QuizActivityDailyRepository activityRepo;
-    @Mock QuizTopProfessionRepository topProfRepo;
-    @Mock QuizQuestionModeChoiceRepository modeChoiceRepo;
-    @Mock QuizQuestionOptionDistributionRepository distRepo;
-    @Mock QuizQuestionDiscriminationRepository discRepo;
+    @Mock QuizAnalyticsService analyticsService;
+    @Mock PlatformTransactionManager transactionManager;
 
     ExportService service;
+    ExportServiceImpl impl;
+    ExecutorService executor;
 
     @BeforeEach
     void setUp() {
-        ExportServiceImpl impl = new ExportServiceImpl(
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        impl = new ExportServiceImpl(
                 quizRepo,
                 quizVersionRepo,
                 questionRepo,
                 optionRepo,
                 professionRepo,
                 attemptRepo,
+                answerRepo,
                 translationRepo,
                 quizPublicMetricsRepo,
-                funnelRepo,
-                activityRepo,
-                topProfRepo,
-                modeChoiceRepo,
-                distRepo,
-                discRepo
+                analyticsService,
+                transactionManager,
+                new ParallelReads(executor, transactionManager, 4)
         );
         impl.initExporters();
         service = impl;
     }
 
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
     @Test
     void exportQuestions_singleRow_returnsCsv() {
-        QuizVersion version = new QuizVersion();
-        version.setId(1);
-
-        Question q = new Question();
-        q.setId(10);
-        q.setQuizVersion(version);
-        q.setOrd(1);
-        q.setQtype(QuestionType.SINGLE_CHOICE);
-        q.setTextDefault("Question text");
-
-        when(questionRepo.findAll()).thenReturn(List.of(q));
+        when(questionRepo.streamExportRows())
+                .thenReturn(row(10, 1, 1, QuestionType.SINGLE_CHOICE, "Question text"));
 
         String csv = csv(service.exportEntityToCsv("questions"));
 
@@ -96,33 +115,24 @@ class ExportServiceTest {
                 "10,1,1,SINGLE_CHOICE,Question text"
         );
 
-        verify(questionRepo).findAll();
+        verify(questionRepo).streamExportRows();
     }
 
     @Test
     void exportQuestions_empty_returnsHeaderOnly() {
-        when(questionRepo.findAll()).thenReturn(List.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
 
         String csv = csv(service.exportEntityToCsv("questions"));
 
         assertThat(csv.trim())
                 .isEqualTo("id,quiz_version_id,ord,qtype,text_default");
 
-        verify(questionRepo).findAll();
+        verify(questionRepo).streamExportRows();
     }
 
     @Test
     void exportQuestionOptions_singleRow_returnsCsv() {
-        Question q = new Question();
-        q.setId(5);
-
-        QuestionOption o = new QuestionOption();
-        o.setId(20);
-        o.setQuestion(q);
-        o.setOrd(1);
-        o.setLabelDefault("Option A");
-
-        when(optionRepo.findAll()).thenReturn(List.of(o));
+        when(optionRepo.streamExportRows()).thenReturn(row(20, 5, 1, "Option A"));
 
         String csv = csv(service.exportEntityToCsv("question_options"));
 
@@ -131,20 +141,13 @@ class ExportServiceTest {
                 "20,5,1,Option A"
         );
 
-        verify(optionRepo).findAll();
+        verify(optionRepo).streamExportRows();
     }
 
     @Test
     void exportTranslations_singleRow_returnsCsv() {
-        Translation t = new Translation();
-        t.setId(1);
-        t.setEntityType("question");
-        t.setEntityId(10);
-        t.setLocale("en");
-        t.setField("text");
-        t.setText("Translated text");
-
-        when(translationRepo.findAll()).thenReturn(List.of(t));
+        when(translationRepo.streamExportRows())
+                .thenReturn(row(1, "question", 10, "en", "text", "Translated text"));
 
         String csv = csv(service.exportEntityToCsv("translations"));
 
@@ -153,25 +156,14 @@ class ExportServiceTest {
                 "1,question,10,en,text,Translated text"
         );
 
-        verify(translationRepo).findAll();
+        verify(translationRepo).streamExportRows();
     }
 
     @Test
     void exportAttempts_guestAttempt_returnsCsv() {
-        QuizVersion version = new QuizVersion();
-        version.setId(3);
-
-        Attempt a = new Attempt();
-        a.setId(7);
-        a.setQuizVersion(version);
-        a.setGuestToken("guest-123");
-        a.setLocale("en");
         UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
-        a.setUuid(uuid);
-        a.setStartedAt(null);
-        a.setSubmittedAt(null);
-
-        when(attemptRepo.findAll()).thenReturn(List.of(a));
+        when(attemptRepo.streamExportRows())
+                .thenReturn(row(7, 3, null, "guest-123", "en", null, null, uuid));
 
         String csv = csv(service.exportEntityToCsv("attempts"));
 
@@ -180,7 +172,111 @@ class ExportServiceTest {
                 "7,3,,guest-123,en,,," + "123e4567-e89b-12d3-a456-426614174000"
         );
 
-        verify(attemptRepo).findAll();
+        verify(attemptRepo).streamExportRows();
+    }
+
+    @Test
+    void exportQuestions_manyRows_writesEveryRow() {
+        when(questionRepo.streamExportRows()).thenReturn(IntStream.rangeClosed(1, 2500)
+                .mapToObj(i -> new Object[]{i, 1, i, QuestionType.SINGLE_CHOICE, "Q" + i}));
+
+        String csv = csv(service.exportEntityToCsv("questions"));
+
+        assertThat(csv.lines()).hasSize(2501);
+        assertThat(csv.lines().reduce((first, last) -> last)).hasValue("2500,1,2500,SINGLE_CHOICE,Q2500");
+    }
+
+    @Test
+    void exportQuizzes_withoutCategoryAndAuthor_writesEmptyIds() {
+        when(quizRepo.streamExportRows()).thenReturn(
+                row(12, "draft", "Draft", null, QuizStatus.DRAFT, QuizProcessingMode.ML_RIASEC, null, null, null));
+
+        String csv = csv(service.exportEntityToCsv("quizzes"));
+
+        assertThat(csv).contains("12,draft,Draft,,DRAFT,ML_RIASEC,,,");
+    }
+
+    @Test
+    void exportAttemptChanges_includesTombstonesAndReturnsCursor() {
+        ReflectionTestUtils.setField(impl, "deltaOverlap", Duration.ofMinutes(5));
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        Instant deletedAt = Instant.parse("2025-01-02T10:00:00Z");
+        when(attemptRepo.streamExportRowsChangedSince(since)).thenReturn(Stream.of(
+                new Object[]{7, 3, 1, null, "en", since.plusSeconds(60), null, null, null},
+                new Object[]{8, 3, null, "guest-1", "en", null, null, null, deletedAt}));
+
+        Instant before = Instant.now();
+        ExportService.DeltaExport delta = service.exportEntityChangesToCsv("attempts", since);
+        String csv = csv(delta.writer());
+
+        assertThat(csv).contains(
+                "id,quiz_version_id,user_id,guest_token,locale,started_at,submitted_at,uuid,deleted_at",
+                "7,3,1,,en,2025-01-01T00:01:00Z,,,",
+                "8,3,,guest-1,en,,,,2025-01-02T10:00:00Z"
+        );
+        assertThat(delta.cursor()).isBetween(before.minus(Duration.ofMinutes(5)), Instant.now());
+        verify(attemptRepo, never()).streamExportRows();
+    }
+
+    @Test
+    void exportQuizChanges_usesChangedRowsOnly() {
+        ReflectionTestUtils.setField(impl, "deltaOverlap", Duration.ZERO);
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        when(quizRepo.streamExportRowsChangedSince(since)).thenReturn(
+                row(12, "draft", "Draft", null, QuizStatus.DRAFT, QuizProcessingMode.ML_RIASEC, null, null, null));
+
+        String csv = csv(service.exportEntityChangesToCsv("quizzes", since).writer());
+
+        assertThat(csv.lines()).containsExactly(
+                "id,code,title_default,description_default,status,processing_mode,category_id,author_id,seconds_per_question",
+                "12,draft,Draft,,DRAFT,ML_RIASEC,,,");
+    }
+
+    @Test
+    void exportChanges_entityWithoutChangeTimes_throwsException() {
+        Instant since = Instant.now();
+
+        assertThatThrownBy(() -> service.exportEntityChangesToCsv("questions", since))
+                .isInstanceOf(CsvExportException.class)
+                .hasMessage(UNSUPPORTED_DELTA_EXPORT_ENTITY);
+        verifyNoInteractions(questionRepo);
+    }
+
+    @Test
+    void exportAnswerMatrix_pivotsAnswersPerAttempt() throws Exception {
+        when(quizVersionRepo.existsByIdAndQuizId(5, 1)).thenReturn(true);
+        when(questionRepo.findOrdsByQuizVersionIdIn(List.of(5)))
+                .thenReturn(List.of(questionOrd(1), questionOrd(2), questionOrd(3)));
+        Timestamp submitted = Timestamp.from(Instant.parse("2025-03-01T12:00:00Z"));
+        when(answerRepo.streamAnswerMatrixRows(5)).thenReturn(Stream.of(
+                new Object[]{7, submitted, "dev_java;analyst", 1, 4},
+                new Object[]{7, submitted, "dev_java;analyst", 2, 5},
+                new Object[]{7, submitted, "dev_java;analyst", 3, 1},
+                new Object[]{8, submitted, null, 1, 2},
+                new Object[]{8, submitted, null, 3, 1},
+                new Object[]{8, submitted, null, 3, 3}));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportAnswerMatrix(1, 5).writeTo(out);
+
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(csv.lines()).containsExactly(
+                "attempt_id,submitted_at,recommended_professions,q_1,q_2,q_3",
+                "7,2025-03-01T12:00:00Z,dev_java;analyst,4,5,1",
+                "8,2025-03-01T12:00:00Z,,2,,1;3");
+    }
+
+    @Test
+    void exportAnswerMatrix_versionOfOtherQuiz_throwsNotFound() {
+        when(quizVersionRepo.existsByIdAndQuizId(5, 2)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.exportAnswerMatrix(2, 5))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage(QUIZ_VERSION_NOT_FOUND);
+        verifyNoInteractions(answerRepo);
     }
 
     @Test
@@ -190,15 +286,106 @@ class ExportServiceTest {
                 .hasMessageContaining("error.unsupported_export_entityunknown");
     }
 
+    @Test
+    void exportAllToExcel_moreRowsThanWindow_keepsAllRows() throws Exception {
+        when(questionRepo.streamExportRows()).thenReturn(IntStream.rangeClosed(1, 1500)
+                .mapToObj(i -> new Object[]{i, 1, i, QuestionType.SINGLE_CHOICE, "Q" + i}));
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
+
+        Sheet s = workbook(service.exportAllToExcel()).getSheet("questions");
+
+        assertThat(s.getPhysicalNumberOfRows()).isEqualTo(1501);
+        assertThat(cell(s, 1, 0)).isEqualTo("1");
+        assertThat(cell(s, 1500, 4)).isEqualTo("Q1500");
+    }
+
+    @Test
+    void exportAllToExcel_parallelSheets_readsAtMostMaxSheetsAtOnceAndKeepsSheetOrder() throws Exception {
+        ReflectionTestUtils.setField(impl, "parallelSheets", true);
+        ReflectionTestUtils.setField(impl, "maxParallelSheets", 3);
+
+        Object[] attempt = {3, 5, null, "guest-1", null, null, null, null};
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Supplier<Stream<Object[]>> slowRead = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            return Stream.<Object[]>of().onClose(running::decrementAndGet);
+        };
+        when(quizRepo.streamExportRows()).thenAnswer(inv -> slowRead.get());
+        when(quizVersionRepo.streamExportRows()).thenAnswer(inv -> slowRead.get());
+        when(questionRepo.streamExportRows()).thenAnswer(inv -> slowRead.get());
+        when(optionRepo.streamExportRows()).thenAnswer(inv -> slowRead.get());
+        when(professionRepo.streamExportRows()).thenAnswer(inv -> slowRead.get());
+        when(attemptRepo.streamExportRows()).thenAnswer(inv ->
+                Stream.concat(slowRead.get(), Stream.<Object[]>of(attempt)).onClose(running::decrementAndGet));
+        when(translationRepo.streamExportRows()).thenAnswer(inv -> slowRead.get());
+
+        Workbook wb = workbook(service.exportAllToExcel());
+
+        assertThat(maxRunning.get()).isBetween(2, 3);
+        assertThat(wb.getNumberOfSheets()).isEqualTo(7);
+        assertThat(wb.getSheetName(0)).isEqualTo("quizzes");
+        assertThat(wb.getSheetName(6)).isEqualTo("translations");
+        Sheet s = wb.getSheet("attempts");
+        assertThat(s.getPhysicalNumberOfRows()).isEqualTo(2);
+        assertThat(cell(s, 1, 0)).isEqualTo("3");
+        assertThat(cell(s, 1, 2)).isEmpty();
+        assertThat(cell(s, 1, 3)).isEqualTo("guest-1");
+    }
+
+    @Test
+    void exportAllToExcel_parallelSheetFails_throwsExcelExportException() {
+        ReflectionTestUtils.setField(impl, "parallelSheets", true);
+        ReflectionTestUtils.setField(impl, "maxParallelSheets", 1);
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> service.exportAllToExcel().writeTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(ExcelExportException.class)
+                .hasRootCauseMessage("db down");
+        verify(optionRepo, never()).streamExportRows();
+        verify(translationRepo, never()).streamExportRows();
+    }
+
+    @Test
+    void exportAllToExcel_parallelSheetFails_stopsReadsInFlight() throws Exception {
+        ReflectionTestUtils.setField(impl, "parallelSheets", true);
+        ReflectionTestUtils.setField(impl, "maxParallelSheets", 7);
+
+        // the options read never ends on its own, so it has to notice the failure to stop
+        CountDownLatch optionsClosed = new CountDownLatch(1);
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenThrow(new IllegalStateException("db down"));
+        when(optionRepo.streamExportRows()).thenReturn(
+                Stream.generate(() -> new Object[]{1, "opt"}).onClose(optionsClosed::countDown));
+        lenient().when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        lenient().when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        lenient().when(translationRepo.streamExportRows()).thenReturn(Stream.of());
+
+        assertThatThrownBy(() -> service.exportAllToExcel().writeTo(OutputStream.nullOutputStream()))
+                .isInstanceOf(ExcelExportException.class)
+                .hasRootCauseMessage("db down");
+        assertThat(optionsClosed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
     @Test
     void exportAllToExcel_createsAllSheets() throws Exception {
-        when(quizRepo.findAll()).thenReturn(List.of());
-        when(quizVersionRepo.findAll()).thenReturn(List.of());
-        when(questionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(professionRepo.findAll()).thenReturn(List.of());
-        when(attemptRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
 
         Workbook wb = workbook(service.exportAllToExcel());
 
@@ -213,23 +400,14 @@ class ExportServiceTest {
 
     @Test
     void exportQuestions_sheetContainsRow() throws Exception {
-        QuizVersion version = new QuizVersion();
-        version.setId(1);
-
-        Question q = new Question();
-        q.setId(10);
-        q.setQuizVersion(version);
-        q.setOrd(1);
-        q.setQtype(QuestionType.MULTI_CHOICE);
-        q.setTextDefault("Question text");
-
-        when(questionRepo.findAll()).thenReturn(List.of(q));
-        when(quizRepo.findAll()).thenReturn(List.of());
-        when(quizVersionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(professionRepo.findAll()).thenReturn(List.of());
-        when(attemptRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
+        when(questionRepo.streamExportRows())
+                .thenReturn(row(10, 1, 1, QuestionType.MULTI_CHOICE, "Question text"));
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
 
         Workbook wb = workbook(service.exportAllToExcel());
         Sheet s = wb.getSheet("questions");
@@ -249,24 +427,15 @@ class ExportServiceTest {
 
     @Test
     void exportAttempts_guestAttempt_writtenCorrectly() throws Exception {
-        QuizVersion version = new QuizVersion();
-        version.setId(5);
-
-        Attempt a = new Attempt();
-        a.setId(3);
-        a.setQuizVersion(version);
-        a.setGuestToken("guest-1");
-        a.setLocale("en");
         UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
-        a.setUuid(uuid);
-
-        when(attemptRepo.findAll()).thenReturn(List.of(a));
-        when(quizRepo.findAll()).thenReturn(List.of());
-        when(quizVersionRepo.findAll()).thenReturn(List.of());
-        when(questionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(professionRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
+        when(attemptRepo.streamExportRows())
+                .thenReturn(row(3, 5, null, "guest-1", "en", null, null, uuid));
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
 
         Workbook wb = workbook(service.exportAllToExcel());
         Sheet s = wb.getSheet("attempts");
@@ -283,13 +452,13 @@ class ExportServiceTest {
 
     @Test
     void exportEmptyRepositories_onlyHeadersPresent() throws Exception {
-        when(quizRepo.findAll()).thenReturn(List.of());
-        when(quizVersionRepo.findAll()).thenReturn(List.of());
-        when(questionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(professionRepo.findAll()).thenReturn(List.of());
-        when(attemptRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
 
         Workbook wb = workbook(service.exportAllToExcel());
 
@@ -299,24 +468,8 @@ class ExportServiceTest {
 
     @Test
     void exportQuizzes_singleRow_returnsCsv() {
-        ProfessionCategory cat = new ProfessionCategory();
-        cat.setId(2);
-
-        User author = new User();
-        author.setId(1);
-
-        Quiz quiz = new Quiz();
-        quiz.setId(11);
-        quiz.setCode("riasec_main");
-        quiz.setTitleDefault("Career Orientation Test (RIASEC)");
-        quiz.setDescriptionDefault("Desc");
-        quiz.setStatus(QuizStatus.PUBLISHED);
-        quiz.setProcessingMode(QuizProcessingMode.ML_RIASEC);
-        quiz.setCategory(cat);
-        quiz.setAuthor(author);
-        quiz.setSecondsPerQuestionDefault(30);
-
-        when(quizRepo.findAll()).thenReturn(List.of(quiz));
+        when(quizRepo.streamExportRows()).thenReturn(row(11, "riasec_main", "Career Orientation Test (RIASEC)",
+                "Desc", QuizStatus.PUBLISHED, QuizProcessingMode.ML_RIASEC, 2, 1, 30));
 
         String csv = csv(service.exportEntityToCsv("quizzes"));
 
@@ -324,22 +477,12 @@ class ExportServiceTest {
                 "id,code,title_default,description_default,status,processing_mode,category_id,author_id",
                 "11,riasec_main,Career Orientation Test (RIASEC),Desc,PUBLISHED,ML_RIASEC,2,1,30"
         );
-        verify(quizRepo).findAll();
+        verify(quizRepo).streamExportRows();
     }
 
     @Test
     void exportQuizVersions_singleRow_returnsCsv() {
-        Quiz quiz = new Quiz();
-        quiz.setId(9);
-
-        QuizVersion v = new QuizVersion();
-        v.setId(100);
-        v.setQuiz(quiz);
-        v.setVersion(2);
-        v.setCurrent(true);
-        v.setPublishedAt(null);
-
-        when(quizVersionRepo.findAll()).thenReturn(List.of(v));
+        when(quizVersionRepo.streamExportRows()).thenReturn(row(100, 9, 2, true, null));
 
         String csv = csv(service.exportEntityToCsv("quiz_versions"));
 
@@ -348,23 +491,13 @@ class ExportServiceTest {
                 "100,9,2,true,"
         );
 
-        verify(quizVersionRepo).findAll();
+        verify(quizVersionRepo).streamExportRows();
     }
 
     @Test
     void exportProfessions_singleRow_returnsCsv() {
-        ProfessionCategory cat = new ProfessionCategory();
-        cat.setId(4);
-
-        Profession p = new Profession();
-        p.setId(77);
-        p.setCode("dev_java");
-        p.setTitleDefault("Java Developer");
-        p.setDescription("Writes Java");
-        p.setMlClassCode("A12");
-        p.setCategory(cat);
-
-        when(professionRepo.findAll()).thenReturn(List.of(p));
+        when(professionRepo.streamExportRows())
+                .thenReturn(row(77, "dev_java", "Java Developer", "Writes Java", "A12", 4));
 
         String csv = csv(service.exportEntityToCsv("professions"));
 
@@ -373,35 +506,19 @@ class ExportServiceTest {
                 "77,dev_java,Java Developer,Writes Java,A12,4"
         );
 
-        verify(professionRepo).findAll();
+        verify(professionRepo).streamExportRows();
     }
 
     @Test
     void exportQuizzes_excelRowContainsValues() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory();
-        cat.setId(2);
-
-        User author = new User();
-        author.setId(1);
-
-        Quiz quiz = new Quiz();
-        quiz.setId(11);
-        quiz.setCode("riasec_main");
-        quiz.setTitleDefault("Career Orientation Test (RIASEC)");
-        quiz.setDescriptionDefault("Desc");
-        quiz.setStatus(QuizStatus.PUBLISHED);
-        quiz.setProcessingMode(QuizProcessingMode.ML_RIASEC);
-        quiz.setCategory(cat);
-        quiz.setAuthor(author);
-        quiz.setSecondsPerQuestionDefault(30);
-
-        when(quizRepo.findAll()).thenReturn(List.of(quiz));
-        when(quizVersionRepo.findAll()).thenReturn(List.of());
-        when(questionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(professionRepo.findAll()).thenReturn(List.of());
-        when(attemptRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
+        when(quizRepo.streamExportRows()).thenReturn(row(11, "riasec_main", "Career Orientation Test (RIASEC)",
+                "Desc", QuizStatus.PUBLISHED, QuizProcessingMode.ML_RIASEC, 2, 1, 30));
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
 
         Workbook wb = workbook(service.exportAllToExcel());
         Sheet s = wb.getSheet("quizzes");
@@ -422,23 +539,13 @@ class ExportServiceTest {
 
     @Test
     void exportQuizVersions_excelRowContainsValues() throws Exception {
-        Quiz quiz = new Quiz();
-        quiz.setId(9);
-
-        QuizVersion v = new QuizVersion();
-        v.setId(100);
-        v.setQuiz(quiz);
-        v.setVersion(2);
-        v.setCurrent(true);
-        v.setPublishedAt(null);
-
-        when(quizVersionRepo.findAll()).thenReturn(List.of(v));
-        when(quizRepo.findAll()).thenReturn(List.of());
-        when(questionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(professionRepo.findAll()).thenReturn(List.of());
-        when(attemptRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(row(100, 9, 2, true, null));
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
 
         Workbook wb = workbook(service.exportAllToExcel());
         Sheet s = wb.getSheet("quiz_versions");
@@ -455,24 +562,14 @@ class ExportServiceTest {
 
     @Test
     void exportProfessions_excelRowContainsValues() throws Exception {
-        ProfessionCategory cat = new ProfessionCategory();
-        cat.setId(4);
-
-        Profession p = new Profession();
-        p.setId(77);
-        p.setCode("dev_java");
-        p.setTitleDefault("Java Developer");
-        p.setDescription("Writes Java");
-        p.setMlClassCode("A12");
-        p.setCategory(cat);
-
-        when(professionRepo.findAll()).thenReturn(List.of(p));
-        when(quizRepo.findAll()).thenReturn(List.of());
-        when(quizVersionRepo.findAll()).thenReturn(List.of());
-        when(questionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(attemptRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
+        when(professionRepo.streamExportRows())
+                .thenReturn(row(77, "dev_java", "Java Developer", "Writes Java", "A12", 4));
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
 
         Workbook wb = workbook(service.exportAllToExcel());
         Sheet s = wb.getSheet("professions");
@@ -489,24 +586,24 @@ class ExportServiceTest {
     }
 
     @Test
-    void exportAllToExcel_callsAllRepositoriesOnce() {
-        when(quizRepo.findAll()).thenReturn(List.of());
-        when(quizVersionRepo.findAll()).thenReturn(List.of());
-        when(questionRepo.findAll()).thenReturn(List.of());
-        when(optionRepo.findAll()).thenReturn(List.of());
-        when(professionRepo.findAll()).thenReturn(List.of());
-        when(attemptRepo.findAll()).thenReturn(List.of());
-        when(translationRepo.findAll()).thenReturn(List.of());
-
-        service.exportAllToExcel();
-
-        verify(quizRepo, times(1)).findAll();
-        verify(quizVersionRepo, times(1)).findAll();
-        verify(questionRepo, times(1)).findAll();
-        verify(optionRepo, times(1)).findAll();
-        verify(professionRepo, times(1)).findAll();
-        verify(attemptRepo, times(1)).findAll();
-        verify(translationRepo, times(1)).findAll();
+    void exportAllToExcel_callsAllRepositoriesOnce() throws Exception {
+        when(quizRepo.streamExportRows()).thenReturn(Stream.of());
+        when(quizVersionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(questionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(optionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(professionRepo.streamExportRows()).thenReturn(Stream.of());
+        when(attemptRepo.streamExportRows()).thenReturn(Stream.of());
+        when(translationRepo.streamExportRows()).thenReturn(Stream.of());
+
+        service.exportAllToExcel().writeTo(OutputStream.nullOutputStream());
+
+        verify(quizRepo, times(1)).streamExportRows();
+        verify(quizVersionRepo, times(1)).streamExportRows();
+        verify(questionRepo, times(1)).streamExportRows();
+        verify(optionRepo, times(1)).streamExportRows();
+        verify(professionRepo, times(1)).streamExportRows();
+        verify(attemptRepo, times(1)).streamExportRows();
+        verify(translationRepo, times(1)).streamExportRows();
     }
 
     @Test
@@ -613,38 +710,23 @@ class ExportServiceTest {
         Integer quizId = 1;
         Integer quizVersionId = 10;
 
-        QuizFunnelOverviewEntity f = new QuizFunnelOverviewEntity();
-        f.setId(new QuizFunnelOverviewEntity.Id(quizId, quizVersionId));
-        f.setAttemptsStarted(100);
-        f.setAttemptsCompleted(80);
-        f.setCompletionRate(new java.math.BigDecimal("0.800000"));
-        f.setAvgDurationSeconds(new java.math.BigDecimal("650.5"));
-
-        when(funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
-                .thenReturn(f);
-
-        QuizActivityDailyEntity d1 = new QuizActivityDailyEntity();
-        d1.setId(new QuizActivityDailyEntity.Id(quizId, quizVersionId, java.time.LocalDate.of(2026, 1, 1)));
-        d1.setAttemptsStarted(10);
-        d1.setAttemptsCompleted(8);
-        d1.setAvgDurationSeconds(new java.math.BigDecimal("600"));
-
-        QuizActivityDailyEntity d2 = new QuizActivityDailyEntity();
-        d2.setId(new QuizActivityDailyEntity.Id(quizId, quizVersionId, java.time.LocalDate.of(2026, 1, 2)));
-        d2.setAttemptsStarted(20);
-        d2.setAttemptsCompleted(15);
-        d2.setAvgDurationSeconds(new java.math.BigDecimal("700"));
-
-        when(activityRepo.findByIdQuizIdAndIdQuizVersionIdOrderByIdDayAsc(quizId, quizVersionId))
-                .thenReturn(List.of(d1, d2));
-
-        QuizTopProfessionEntity p1 = new QuizTopProfessionEntity();
-        p1.setId(new QuizTopProfessionEntity.Id(quizId, quizVersionId, 7));
-        p1.setProfessionTitle("Java Developer");
-        p1.setTop1Count(12);
-
-        when(topProfRepo.findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(quizId, quizVersionId))
-                .thenReturn(List.of(p1));
+        when(analyticsService.getOverview(quizId, quizVersionId, null, null))
+                .thenReturn(new QuizAnalyticsOverviewDto(
+                        quizId,
+                        quizVersionId,
+                        100,
+                        80,
+                        new BigDecimal("0.800000"),
+                        new BigDecimal("650.5"),
+                        List.of(
+                                new QuizAnalyticsOverviewDto.DailyPoint(
+                                        LocalDate.of(2026, 1, 1), 10, 8, new BigDecimal("600")),
+                                new QuizAnalyticsOverviewDto.DailyPoint(
+                                        LocalDate.of(2026, 1, 2), 20, 15, new BigDecimal("700"))
+                        ),
+                        List.of(new QuizAnalyticsOverviewDto.TopProfession(7, "Java Developer", 12)),
+                        null
+                ));
 
         String csv = new String(
                 service.exportQuizAnalyticsOverviewCsv(quizId, quizVersionId),
@@ -661,43 +743,29 @@ class ExportServiceTest {
         assertThat(csv).contains("profession_id,profession_title,top1_count");
         assertThat(csv).contains("7,Java Developer,12");
 
-        verify(funnelRepo).findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-        verify(activityRepo).findByIdQuizIdAndIdQuizVersionIdOrderByIdDayAsc(quizId, quizVersionId);
-        verify(topProfRepo).findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(quizId, quizVersionId);
+        verify(analyticsService).getOverview(quizId, quizVersionId, null, null);
+        verifyNoMoreInteractions(analyticsService);
     }
 
     @Test
-    void exportQuizAnalyticsDetailedCsv_containsModeChoiceDistributionAndDiscrimination() {
-        Integer quizId = 2;
-        Integer quizVersionId = 20;
-
-        QuizQuestionModeChoiceEntity m1 = new QuizQuestionModeChoiceEntity();
-        m1.setId(new QuizQuestionModeChoiceEntity.Id(quizId, quizVersionId, 100));
-        m1.setQuestionOrd(1);
-        m1.setModeChoice(4);
-        m1.setModeCount(25);
-        m1.setAnswersCount(40);
-
-        when(modeChoiceRepo.findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId))
-                .thenReturn(List.of(m1));
+    void exportQuizAnalyticsOverviewCsv_noAttempts_writesHeadersWithoutFunnelRow() {
+        when(analyticsService.getOverview(1, 10, null, null))
+                .thenReturn(new QuizAnalyticsOverviewDto(
+                        1, 10, 0, 0, BigDecimal.ZERO, null, List.of(), List.of(), null
+                ));
 
-        QuizQuestionOptionDistributionEntity o1 = new QuizQuestionOptionDistributionEntity();
-        o1.setId(new QuizQuestionOptionDistributionEntity.Id(quizId, quizVersionId, 100, 1000));
-        o1.setQuestionOrd(1);
-        o1.setOptionOrd(1);
-        o1.setCount(10);
+        String csv = csv(service.exportQuizAnalyticsOverviewCsv(1, 10));
 
-        when(distRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
-                .thenReturn(List.of(o1));
+        assertThat(csv).contains("quiz_id,quiz_version_id,attempts_started,attempts_completed,completion_rate,avg_duration_seconds");
+        assertThat(csv).doesNotContain("1,10,0,0");
+    }
 
-        QuizQuestionDiscriminationEntity qd = new QuizQuestionDiscriminationEntity();
-        qd.setId(new QuizQuestionDiscriminationEntity.Id(quizId, quizVersionId, 100));
-        qd.setDiscNorm(new java.math.BigDecimal("0.250000"));
-        qd.setDiscQuality("ok");
-        qd.setAttemptsSubmitted(80);
+    @Test
+    void exportQuizAnalyticsDetailedCsv_containsModeChoiceDistributionAndDiscrimination() {
+        Integer quizId = 2;
+        Integer quizVersionId = 20;
 
-        when(discRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
-                .thenReturn(List.of(qd));
+        when(analyticsService.getDetailed(quizId, quizVersionId)).thenReturn(detailed(quizId, quizVersionId));
 
         String csv = new String(
                 service.exportQuizAnalyticsDetailedCsv(quizId, quizVersionId),
@@ -713,9 +781,8 @@ class ExportServiceTest {
         assertThat(csv).contains("question_id,disc_norm,disc_quality,attempts_submitted");
         assertThat(csv).contains("100,0.250000,ok,80");
 
-        verify(modeChoiceRepo).findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId);
-        verify(distRepo).findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
-        verify(discRepo).findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
+        verify(analyticsService).getDetailed(quizId, quizVersionId);
+        verifyNoMoreInteractions(analyticsService);
     }
 
     @Test
@@ -723,31 +790,19 @@ class ExportServiceTest {
         Integer quizId = 1;
         Integer quizVersionId = 10;
 
-        QuizFunnelOverviewEntity f = new QuizFunnelOverviewEntity();
-        f.setId(new QuizFunnelOverviewEntity.Id(quizId, quizVersionId));
-        f.setAttemptsStarted(5);
-        f.setAttemptsCompleted(3);
-        f.setCompletionRate(new java.math.BigDecimal("0.600000"));
-        f.setAvgDurationSeconds(new java.math.BigDecimal("100"));
-
-        when(funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId)).thenReturn(f);
-
-        QuizActivityDailyEntity d = new QuizActivityDailyEntity();
-        d.setId(new QuizActivityDailyEntity.Id(quizId, quizVersionId, java.time.LocalDate.of(2026, 1, 1)));
-        d.setAttemptsStarted(5);
-        d.setAttemptsCompleted(3);
-        d.setAvgDurationSeconds(new java.math.BigDecimal("100"));
-
-        when(activityRepo.findByIdQuizIdAndIdQuizVersionIdOrderByIdDayAsc(quizId, quizVersionId))
-                .thenReturn(List.of(d));
-
-        QuizTopProfessionEntity tp = new QuizTopProfessionEntity();
-        tp.setId(new QuizTopProfessionEntity.Id(quizId, quizVersionId, 7));
-        tp.setProfessionTitle("Java Developer");
-        tp.setTop1Count(1);
-
-        when(topProfRepo.findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(quizId, quizVersionId))
-                .thenReturn(List.of(tp));
+        when(analyticsService.getOverview(quizId, quizVersionId, null, null))
+                .thenReturn(new QuizAnalyticsOverviewDto(
+                        quizId,
+                        quizVersionId,
+                        5,
+                        3,
+                        new BigDecimal("0.600000"),
+                        new BigDecimal("100"),
+                        List.of(new QuizAnalyticsOverviewDto.DailyPoint(
+                                LocalDate.of(2026, 1, 1), 5, 3, new BigDecimal("100"))),
+                        List.of(new QuizAnalyticsOverviewDto.TopProfession(7, "Java Developer", 1)),
+                        null
+                ));
 
         Workbook wb = workbook(service.exportQuizAnalyticsOverviewExcel(quizId, quizVersionId));
 
@@ -776,33 +831,7 @@ class ExportServiceTest {
         Integer quizId = 2;
         Integer quizVersionId = 20;
 
-        QuizQuestionModeChoiceEntity mode = new QuizQuestionModeChoiceEntity();
-        mode.setId(new QuizQuestionModeChoiceEntity.Id(quizId, quizVersionId, 100));
-        mode.setQuestionOrd(1);
-        mode.setModeChoice(4);
-        mode.setModeCount(25);
-        mode.setAnswersCount(40);
-
-        when(modeChoiceRepo.findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId))
-                .thenReturn(List.of(mode));
-
-        QuizQuestionOptionDistributionEntity dist = new QuizQuestionOptionDistributionEntity();
-        dist.setId(new QuizQuestionOptionDistributionEntity.Id(quizId, quizVersionId, 100, 1000));
-        dist.setQuestionOrd(1);
-        dist.setOptionOrd(1);
-        dist.setCount(10);
-
-        when(distRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
-                .thenReturn(List.of(dist));
-
-        QuizQuestionDiscriminationEntity disc = new QuizQuestionDiscriminationEntity();
-        disc.setId(new QuizQuestionDiscriminationEntity.Id(quizId, quizVersionId, 100));
-        disc.setDiscNorm(new java.math.BigDecimal("0.250000"));
-        disc.setDiscQuality("ok");
-        disc.setAttemptsSubmitted(80);
-
-        when(discRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
-                .thenReturn(List.of(disc));
+        when(analyticsService.getDetailed(quizId, quizVersionId)).thenReturn(detailed(quizId, quizVersionId));
 
         Workbook wb = workbook(service.exportQuizAnalyticsDetailedExcel(quizId, quizVersionId));
 
@@ -829,14 +858,55 @@ class ExportServiceTest {
         assertThat(cell(sDisc, 1, 3)).isEqualTo("80");
     }
 
+    private QuizAnalyticsDetailedDto detailed(Integer quizId, Integer quizVersionId) {
+        return new QuizAnalyticsDetailedDto(
+                quizId,
+                quizVersionId,
+                List.of(new QuizAnalyticsDetailedDto.QuestionModeChoice(100, 1, 4, 25, 40)),
+                List.of(new QuizAnalyticsDetailedDto.OptionDistribution(100, 1, 1000, 1, 10)),
+                List.of(new QuizAnalyticsDetailedDto.QuestionDiscrimination(
+                        100, new BigDecimal("0.250000"), "ok", 80)),
+                null
+        );
+    }
+
+    private static QuestionRepository.QuestionOrd questionOrd(int ord) {
+        return new QuestionRepository.QuestionOrd() {
+            @Override public Integer getQuizVersionId() { return 5; }
+            @Override public Integer getQuestionId() { return 100 + ord; }
+            @Override public Integer getOrd() { return ord; }
+        };
+    }
+
+    /** A single projection row as returned by {@code streamExportRows()}. */
+    private static Stream<Object[]> row(Object... values) {
+        return Stream.<Object[]>of(values);
+    }
+
     private String csv(byte[] bytes) {
         return new String(bytes, StandardCharsets.UTF_8);
     }
 
+    private String csv(ExportService.ExportWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writer.writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return csv(out.toByteArray());
+    }
+
     private Workbook workbook(byte[] bytes) throws Exception {
         return new XSSFWorkbook(new ByteArrayInputStream(bytes));
     }
 
+    private Workbook workbook(ExportService.ExportWriter writer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return workbook(out.toByteArray());
+    }
+
     private String cell(Sheet s, int row, int col) {
         Row r = s.getRow(row);
         if (r == null || r.getCell(col) == null) return "";
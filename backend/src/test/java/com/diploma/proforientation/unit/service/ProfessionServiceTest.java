@@ -19,11 +19,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class ProfessionServiceTest {
@@ -212,7 +214,7 @@ class ProfessionServiceTest {
         Page<Profession> page = new PageImpl<>(List.of(profession), pageable, 1);
 
         when(localeProvider.currentLanguage()).thenReturn("en");
-        when(repo.search("dev", 10, pageable)).thenReturn(page);
+        when(repo.search("dev", "en", 10, pageable)).thenReturn(page);
 
         when(translationResolver.resolve(any(), any(), eq("title"), eq("en"), any()))
                 .thenReturn("Developer EN");
@@ -229,7 +231,7 @@ class ProfessionServiceTest {
         assertEquals("Writes code EN", dto.description());
 
         verify(localeProvider).currentLanguage();
-        verify(repo).search("dev", 10, pageable);
+        verify(repo).search("dev", "en", 10, pageable);
         verify(translationResolver, times(2)).resolve(any(), any(), any(), eq("en"), any());
         verifyNoMoreInteractions(repo, localeProvider, translationResolver);
     }
@@ -240,7 +242,7 @@ class ProfessionServiceTest {
         Page<Profession> page = new PageImpl<>(List.of(profession), pageable, 1);
 
         when(localeProvider.currentLanguage()).thenReturn("en");
-        when(repo.search("", null, pageable)).thenReturn(page);
+        when(repo.findAllByCategory(null, pageable)).thenReturn(page);
 
         when(translationResolver.resolve(any(), any(), eq("title"), eq("en"), any()))
                 .thenReturn("Developer EN");
@@ -250,7 +252,21 @@ class ProfessionServiceTest {
         Page<ProfessionDto> result = service.searchLocalized("", null, pageable);
 
         assertEquals(1, result.getContent().size());
-        verify(repo).search("", null, pageable);
+        verify(repo).findAllByCategory(null, pageable);
+        verify(repo, never()).search(any(), any(), any(), any());
+    }
+
+    @Test
+    void searchLocalized_withQuery_ordersByRelevanceInsteadOfRequestedSort() {
+        Pageable pageable = PageRequest.of(1, 5, Sort.by("title"));
+
+        when(localeProvider.currentLanguage()).thenReturn("ru");
+        when(repo.search(eq("врач"), eq("ru"), isNull(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        service.searchLocalized("  врач ", null, pageable);
+
+        verify(repo).search("врач", "ru", null, PageRequest.of(1, 5));
     }
 
     @Test
@@ -259,7 +275,7 @@ class ProfessionServiceTest {
         Page<Profession> emptyPage = Page.empty(pageable);
 
         when(localeProvider.currentLanguage()).thenReturn("en");
-        when(repo.search("zzz", null, pageable)).thenReturn(emptyPage);
+        when(repo.search("zzz", "en", null, pageable)).thenReturn(emptyPage);
 
         Page<ProfessionDto> result = service.searchLocalized("zzz", null, pageable);
 
@@ -267,7 +283,7 @@ class ProfessionServiceTest {
         assertTrue(result.isEmpty());
         assertEquals(0, result.getTotalElements());
 
-        verify(repo).search("zzz", null, pageable);
+        verify(repo).search("zzz", "en", null, pageable);
         // translationResolver should not be called because no elements
         verifyNoInteractions(translationResolver);
     }
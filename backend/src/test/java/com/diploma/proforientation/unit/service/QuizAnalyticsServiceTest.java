@@ -1,22 +1,39 @@
 package com.diploma.proforientation.unit.service;
 
+import com.diploma.proforientation.analytics.AnalyticsResponseCache;
+import com.diploma.proforientation.analytics.AttemptSketch;
+import com.diploma.proforientation.analytics.AttemptSketches;
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsDetailedDto;
 import com.diploma.proforientation.dto.analytics.QuizAnalyticsOverviewDto;
+import com.diploma.proforientation.dto.analytics.QuizAttemptDistributionDto;
+import com.diploma.proforientation.dto.analytics.QuizReliabilityDto;
+import com.diploma.proforientation.dto.analytics.QuizVersionComparisonDto;
+import com.diploma.proforientation.model.QuizVersion;
 import com.diploma.proforientation.model.view.*;
+import com.diploma.proforientation.repository.QuestionRepository;
+import com.diploma.proforientation.repository.QuizVersionRepository;
 import com.diploma.proforientation.repository.view.*;
 import com.diploma.proforientation.service.QuizAnalyticsService;
 import com.diploma.proforientation.service.impl.QuizAnalyticsServiceImpl;
+import com.diploma.proforientation.util.ParallelReads;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,18 +46,38 @@ class QuizAnalyticsServiceTest {
     @Mock QuizQuestionModeChoiceRepository modeChoiceRepo;
     @Mock QuizQuestionOptionDistributionRepository distRepo;
     @Mock QuizQuestionDiscriminationRepository discRepo;
+    @Mock QuizTraitReliabilityRepository traitReliabilityRepo;
+    @Mock QuizItemReliabilityRepository itemReliabilityRepo;
+
+    @Mock QuizVersionRepository quizVersionRepo;
+    @Mock QuestionRepository questionRepo;
+
+    @Mock AnalyticsResponseCache responseCache;
+    @Mock AttemptSketches attemptSketches;
 
     QuizAnalyticsService service;
 
     @BeforeEach
     void setUp() {
+        lenient().when(responseCache.get(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(5).get());
+        lenient().when(attemptSketches.load(any(), any(), any(), any()))
+                .thenReturn(new AttemptSketch());
+
         service = new QuizAnalyticsServiceImpl(
                 funnelRepo,
                 activityRepo,
                 topProfRepo,
                 modeChoiceRepo,
                 distRepo,
-                discRepo
+                discRepo,
+                traitReliabilityRepo,
+                itemReliabilityRepo,
+                quizVersionRepo,
+                questionRepo,
+                new ParallelReads(Executors.newVirtualThreadPerTaskExecutor(), mock(PlatformTransactionManager.class), 4),
+                responseCache,
+                attemptSketches
         );
     }
 
@@ -121,9 +158,6 @@ class QuizAnalyticsServiceTest {
         when(funnelRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
                 .thenReturn(funnel);
 
-        when(activityRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
-                .thenReturn(List.of());
-
         QuizActivityDailyEntity d = new QuizActivityDailyEntity();
         d.setId(new QuizActivityDailyEntity.Id(quizId, quizVersionId, LocalDate.of(2026, 1, 10)));
         d.setAttemptsStarted(5);
@@ -143,11 +177,46 @@ class QuizAnalyticsServiceTest {
         assertThat(dto.activityDaily()).hasSize(1);
         assertThat(dto.activityDaily().getFirst().day()).isEqualTo(LocalDate.of(2026, 1, 10));
 
-        verify(activityRepo).findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
         verify(activityRepo).findByIdQuizIdAndIdQuizVersionIdAndIdDayBetween(quizId, quizVersionId, from, to);
+        verify(activityRepo, never()).findByIdQuizIdAndIdQuizVersionId(any(), any());
 
         verify(activityRepo, never()).findByIdQuizIdAndIdQuizVersionIdAndIdDayGreaterThanEqual(any(), any(), any());
         verify(activityRepo, never()).findByIdQuizIdAndIdQuizVersionIdAndIdDayLessThanEqual(any(), any(), any());
+        verify(attemptSketches).load(quizId, quizVersionId, from, to);
+    }
+
+    @Test
+    void getOverview_mapsAttemptDistributionFromSketches() {
+        AttemptSketch sketch = new AttemptSketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.record(i * 1_000L, i % 10, null);
+        }
+        sketch.record(50_000, null, "guest-a");
+        when(attemptSketches.load(1, 10, null, null)).thenReturn(sketch);
+        when(activityRepo.findByIdQuizIdAndIdQuizVersionId(1, 10)).thenReturn(List.of());
+        when(topProfRepo.findByIdQuizIdAndIdQuizVersionIdOrderByTop1CountDesc(1, 10)).thenReturn(List.of());
+
+        QuizAttemptDistributionDto dist = service.getOverview(1, 10, null, null).attemptDistribution();
+
+        assertThat(dist.attemptsMeasured()).isEqualTo(101);
+        assertThat(dist.durationP50Seconds()).isCloseTo(new BigDecimal("50"), within(new BigDecimal("0.5")));
+        assertThat(dist.durationP90Seconds()).isCloseTo(new BigDecimal("90"), within(new BigDecimal("0.9")));
+        assertThat(dist.durationP99Seconds()).isCloseTo(new BigDecimal("99"), within(new BigDecimal("1.0")));
+        assertThat(dist.distinctUsers()).isEqualTo(10);
+        assertThat(dist.distinctGuests()).isEqualTo(1);
+    }
+
+    @Test
+    void getAttemptDistribution_withoutVersion_mergesAcrossVersions() {
+        when(attemptSketches.load(1, null, null, null)).thenReturn(new AttemptSketch());
+
+        QuizAttemptDistributionDto dist = service.getAttemptDistribution(1, null, null, null);
+
+        assertThat(dist.quizVersionId()).isNull();
+        assertThat(dist.attemptsMeasured()).isZero();
+        assertThat(dist.durationP50Seconds()).isNull();
+        assertThat(dist.distinctUsers()).isZero();
+        verifyNoInteractions(funnelRepo, activityRepo, topProfRepo);
     }
 
     @Test
@@ -182,6 +251,7 @@ class QuizAnalyticsServiceTest {
         disc.setDiscNorm(new BigDecimal("0.250000"));
         disc.setDiscQuality("ok");
         disc.setAttemptsSubmitted(80);
+        disc.setComputedAt(Instant.parse("2026-01-01T10:00:00Z"));
 
         when(discRepo.findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId))
                 .thenReturn(List.of(disc));
@@ -209,6 +279,7 @@ class QuizAnalyticsServiceTest {
         assertThat(dto.discrimination().getFirst().discNorm()).isEqualByComparingTo("0.250000");
         assertThat(dto.discrimination().getFirst().discQuality()).isEqualTo("ok");
         assertThat(dto.discrimination().getFirst().attemptsSubmitted()).isEqualTo(80);
+        assertThat(dto.discriminationComputedAt()).isEqualTo(Instant.parse("2026-01-01T10:00:00Z"));
 
         verify(modeChoiceRepo).findByIdQuizIdAndIdQuizVersionIdOrderByQuestionOrdAsc(quizId, quizVersionId);
         verify(distRepo).findByIdQuizIdAndIdQuizVersionId(quizId, quizVersionId);
@@ -234,4 +305,147 @@ class QuizAnalyticsServiceTest {
         assertThat(dto.optionDistribution()).isEmpty();
         assertThat(dto.discrimination()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getReliability_groupsItemsUnderTheirTrait() {
+        QuizTraitReliabilityEntity t1 = new QuizTraitReliabilityEntity(
+                new QuizTraitReliabilityEntity.Id(3, 30, 2), 120, 3,
+                new BigDecimal("4.5"), new BigDecimal("2.1"), new BigDecimal("0.780000"), "acceptable",
+                Instant.parse("2026-01-01T10:00:00Z"));
+        QuizTraitReliabilityEntity t2 = new QuizTraitReliabilityEntity(
+                new QuizTraitReliabilityEntity.Id(3, 30, 1), 120, 1,
+                new BigDecimal("1.0"), new BigDecimal("0.2"), null, "too_few_items",
+                Instant.parse("2026-01-01T11:00:00Z"));
+        when(traitReliabilityRepo.findByIdQuizIdAndIdQuizVersionId(3, 30)).thenReturn(List.of(t1, t2));
+
+        when(itemReliabilityRepo.findByIdQuizIdAndIdQuizVersionId(3, 30)).thenReturn(List.of(
+                new QuizItemReliabilityEntity(new QuizItemReliabilityEntity.Id(3, 30, 2, 101),
+                        new BigDecimal("1.5"), new BigDecimal("0.7"), new BigDecimal("0.41"), new BigDecimal("0.75"), null),
+                new QuizItemReliabilityEntity(new QuizItemReliabilityEntity.Id(3, 30, 2, 100),
+                        new BigDecimal("1.2"), new BigDecimal("0.6"), new BigDecimal("0.52"), new BigDecimal("0.70"), null),
+                new QuizItemReliabilityEntity(new QuizItemReliabilityEntity.Id(3, 30, 1, 100),
+                        new BigDecimal("1.0"), new BigDecimal("0.2"), null, null, null)
+        ));
+
+        QuizReliabilityDto dto = service.getReliability(3, 30);
+
+        assertThat(dto.traits()).extracting(QuizReliabilityDto.TraitReliability::traitId).containsExactly(1, 2);
+        QuizReliabilityDto.TraitReliability trait = dto.traits().get(1);
+        assertThat(trait.alpha()).isEqualByComparingTo("0.78");
+        assertThat(trait.alphaQuality()).isEqualTo("acceptable");
+        assertThat(trait.items()).extracting(QuizReliabilityDto.ItemReliability::questionId).containsExactly(100, 101);
+        assertThat(trait.items().getFirst().itemTotalCorrelation()).isEqualByComparingTo("0.52");
+        assertThat(dto.traits().getFirst().items()).hasSize(1);
+        assertThat(dto.computedAt()).isEqualTo(Instant.parse("2026-01-01T11:00:00Z"));
+    }
+
+    @Test
+    void getReliability_notComputedYet_returnsEmpty() {
+        QuizReliabilityDto dto = service.getReliability(3, 30);
+
+        assertThat(dto.traits()).isEmpty();
+        assertThat(dto.computedAt()).isNull();
+    }
+
+    private record Ord(Integer getQuizVersionId, Integer getQuestionId, Integer getOrd)
+            implements QuestionRepository.QuestionOrd {}
+
+    private static QuizVersion version(Integer id, Integer number) {
+        QuizVersion v = new QuizVersion();
+        v.setId(id);
+        v.setVersion(number);
+        return v;
+    }
+
+    private static QuizQuestionOptionDistributionEntity option(Integer quizVersionId, Integer questionId,
+                                                               Integer optionId, Integer optionOrd, Integer count) {
+        QuizQuestionOptionDistributionEntity e = new QuizQuestionOptionDistributionEntity();
+        e.setId(new QuizQuestionOptionDistributionEntity.Id(5, quizVersionId, questionId, optionId));
+        e.setOptionOrd(optionOrd);
+        e.setCount(count);
+        return e;
+    }
+
+    @Test
+    void compareVersions_alignsQuestionsByOrd_andComputesDeltasAgainstFirstVersion() {
+        when(quizVersionRepo.findByQuizIdOrderByVersionDesc(5))
+                .thenReturn(List.of(version(52, 2), version(51, 1)));
+        when(questionRepo.findOrdsByQuizVersionIdIn(List.of(51, 52))).thenReturn(List.of(
+                new Ord(51, 100, 1), new Ord(52, 200, 1),
+                new Ord(52, 201, 2)
+        ));
+
+        QuizFunnelOverviewEntity f1 = new QuizFunnelOverviewEntity(
+                new QuizFunnelOverviewEntity.Id(5, 51), 100, 80, new BigDecimal("0.800000"), new BigDecimal("600"));
+        QuizFunnelOverviewEntity f2 = new QuizFunnelOverviewEntity(
+                new QuizFunnelOverviewEntity.Id(5, 52), 50, 45, new BigDecimal("0.900000"), new BigDecimal("540"));
+        when(funnelRepo.findByIdQuizIdAndIdQuizVersionIdIn(5, List.of(51, 52))).thenReturn(List.of(f2, f1));
+
+        when(distRepo.findByIdQuizIdAndIdQuizVersionIdIn(5, List.of(51, 52))).thenReturn(List.of(
+                option(51, 100, 1000, 1, 30), option(51, 100, 1001, 2, 10),
+                option(52, 200, 2001, 2, 20), option(52, 200, 2000, 1, 20)
+        ));
+
+        QuizQuestionDiscriminationEntity d1 = new QuizQuestionDiscriminationEntity();
+        d1.setId(new QuizQuestionDiscriminationEntity.Id(5, 51, 100));
+        d1.setDiscNorm(new BigDecimal("0.40"));
+        QuizQuestionDiscriminationEntity d2 = new QuizQuestionDiscriminationEntity();
+        d2.setId(new QuizQuestionDiscriminationEntity.Id(5, 52, 200));
+        d2.setDiscNorm(new BigDecimal("0.55"));
+        d2.setDiscQuality("good");
+        when(discRepo.findByIdQuizIdAndIdQuizVersionIdIn(5, List.of(51, 52))).thenReturn(List.of(d1, d2));
+
+        QuizVersionComparisonDto dto = service.compareVersions(5, List.of(51, 52, 51));
+
+        assertThat(dto.baselineVersionId()).isEqualTo(51);
+        assertThat(dto.versions()).extracting(QuizVersionComparisonDto.VersionFunnel::version)
+                .containsExactly(1, 2);
+        QuizVersionComparisonDto.VersionFunnel v2 = dto.versions().get(1);
+        assertThat(v2.completionRateDelta()).isEqualByComparingTo("0.1");
+        assertThat(v2.avgDurationDelta()).isEqualByComparingTo("-60");
+        assertThat(dto.versions().getFirst().completionRateDelta()).isEqualByComparingTo("0");
+
+        assertThat(dto.questions()).extracting(QuizVersionComparisonDto.QuestionComparison::questionOrd)
+                .containsExactly(1, 2);
+
+        var first = dto.questions().getFirst().versions();
+        assertThat(first).extracting(QuizVersionComparisonDto.QuestionVersion::questionId)
+                .containsExactly(100, 200);
+        assertThat(first.get(0).answersCount()).isEqualTo(40);
+        assertThat(first.get(1).answersCount()).isEqualTo(40);
+        assertThat(first.get(1).discNormDelta()).isEqualByComparingTo("0.15");
+        assertThat(first.get(1).discQuality()).isEqualTo("good");
+
+        var options = first.get(1).options();
+        assertThat(options).extracting(QuizVersionComparisonDto.OptionShare::optionOrd).containsExactly(1, 2);
+        assertThat(options.get(0).share()).isEqualByComparingTo("0.5");
+        assertThat(options.get(0).shareDelta()).isEqualByComparingTo("-0.25");
+        assertThat(options.get(1).shareDelta()).isEqualByComparingTo("0.25");
+
+        // the question added in version 2 has no baseline counterpart
+        var second = dto.questions().get(1).versions();
+        assertThat(second.get(0).questionId()).isNull();
+        assertThat(second.get(0).options()).isEmpty();
+        assertThat(second.get(1).questionId()).isEqualTo(201);
+        assertThat(second.get(1).answersCount()).isZero();
+        assertThat(second.get(1).discNormDelta()).isNull();
+    }
+
+    @Test
+    void compareVersions_versionOfAnotherQuiz_throwsNotFound() {
+        when(quizVersionRepo.findByQuizIdOrderByVersionDesc(5)).thenReturn(List.of(version(51, 1)));
+
+        assertThatThrownBy(() -> service.compareVersions(5, List.of(51, 99)))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void compareVersions_needsAtLeastTwoDistinctVersions() {
+        assertThatThrownBy(() -> service.compareVersions(5, List.of(51, 51)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.compareVersions(5, null))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(quizVersionRepo, questionRepo, funnelRepo, distRepo, discRepo);
+    }
+}
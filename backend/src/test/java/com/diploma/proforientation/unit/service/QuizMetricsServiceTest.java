@@ -1,5 +1,6 @@
 package com.diploma.proforientation.unit.service;
 
+import com.diploma.proforientation.analytics.PublicMetricsSnapshot;
 import com.diploma.proforientation.dto.QuizMetricsFilter;
 import com.diploma.proforientation.dto.QuizPublicMetricsDto;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
@@ -31,6 +32,9 @@ class QuizMetricsServiceTest {
     @Mock
     private QuizPublicMetricsRepository repository;
 
+    @Mock
+    private PublicMetricsSnapshot snapshot;
+
     @InjectMocks
     private QuizMetricsServiceImpl service;
 
@@ -138,4 +142,29 @@ class QuizMetricsServiceTest {
 
         verifyNoMoreInteractions(repository);
     }
-}
\ No newline at end of file
+
+    @Test
+    void readySnapshot_servesAllFilteredAndSingleMetricsWithoutRepository() {
+        QuizPublicMetricsDto dto = new QuizPublicMetricsDto(
+                7, "quiz_7", "PUBLISHED", 1, 10, 50, 40, BigDecimal.TEN, 120
+        );
+        QuizMetricsFilter filter = new QuizMetricsFilter(
+                null, "quiz", null, null,
+                null, null, null, null, null, null, null, null, null, null
+        );
+
+        when(snapshot.isReady()).thenReturn(true);
+        when(snapshot.find(null)).thenReturn(Optional.of(List.of(dto)));
+        when(snapshot.find(filter)).thenReturn(Optional.of(List.of(dto)));
+        when(snapshot.get(7)).thenReturn(Optional.of(dto));
+
+        assertThat(service.getAllPublicMetrics()).containsExactly(dto);
+        assertThat(service.getPublicMetrics(filter)).containsExactly(dto);
+        assertThat(service.getMetricsForQuiz(7)).isEqualTo(dto);
+        assertThatThrownBy(() -> service.getMetricsForQuiz(8))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining(QUIZ_METRICS_NOT_FOUND);
+
+        verifyNoInteractions(repository);
+    }
+}
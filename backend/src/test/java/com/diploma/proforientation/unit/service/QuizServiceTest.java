@@ -1,6 +1,7 @@
 package com.diploma.proforientation.unit.service;
 
 import com.diploma.proforientation.dto.QuizDto;
+import com.diploma.proforientation.dto.QuizSearchFacetsDto;
 import com.diploma.proforientation.dto.request.create.CreateQuizRequest;
 import com.diploma.proforientation.dto.request.update.UpdateQuizRequest;
 import com.diploma.proforientation.model.ProfessionCategory;
@@ -9,9 +10,9 @@ import com.diploma.proforientation.model.User;
 import com.diploma.proforientation.model.enumeration.QuizProcessingMode;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
 import com.diploma.proforientation.repository.ProfessionCategoryRepository;
-import com.diploma.proforientation.repository.view.QuizPublicMetricsRepository;
 import com.diploma.proforientation.repository.QuizRepository;
 import com.diploma.proforientation.repository.UserRepository;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.impl.QuizServiceImpl;
 import com.diploma.proforientation.util.I18n;
 import com.diploma.proforientation.util.TranslationResolver;
@@ -25,6 +26,7 @@ import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -38,8 +40,6 @@ class QuizServiceTest {
 
     @Mock
     private ProfessionCategoryRepository categoryRepo;
-    @Mock
-    private QuizPublicMetricsRepository quizPublicMetricsRepo;
 
     @Mock
     private UserRepository userRepo;
@@ -47,6 +47,8 @@ class QuizServiceTest {
     private TranslationResolver translationResolver;
     @Mock
     private I18n localeProvider;
+    @Mock
+    private QuizCatalogIndex catalogIndex;
 
     @InjectMocks
     private QuizServiceImpl service;
@@ -310,7 +312,7 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         when(translationResolver.resolve(anyString(), anyInt(), anyString(), eq("en"), anyString()))
                 .thenAnswer(inv -> inv.getArgument(4));
 
-        when(quizRepo.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
+        when(quizRepo.searchPublished("Test", "en", 5, null, null, pageable)).thenReturn(page);
 
         Page<QuizDto> result = service.search(
                 "Test",
@@ -323,9 +325,46 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().getFirst().title()).isEqualTo("Test Quiz");
 
-        verifyNoInteractions(quizPublicMetricsRepo);
 
-        verify(quizRepo).findAll(any(Specification.class), eq(pageable));
+        verify(quizRepo).searchPublished("Test", "en", 5, null, null, pageable);
+        verify(quizRepo, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void search_withSearchAndDuration_usesRankedSearchWithRelevanceOrder() {
+        Pageable pageable = PageRequest.of(2, 10, Sort.by("id"));
+
+        when(localeProvider.currentLanguage()).thenReturn("ru");
+        when(quizRepo.searchPublished(anyString(), anyString(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        service.search(" профессия ", null, 300, 900, pageable);
+
+        verify(quizRepo).searchPublished("профессия", "ru", null, 300, 900, PageRequest.of(2, 10));
+    }
+
+    @Test
+    void search_indexReady_servedFromIndexWithoutDatabase() {
+        Pageable pageable = PageRequest.of(0, 10);
+        QuizDto dto = new QuizDto(1, "Q1", "Тест", "PUBLISHED", "LLM", 5, 1, "Описание", 30);
+        Page<QuizDto> indexed = new PageImpl<>(List.of(dto), pageable, 1);
+
+        when(localeProvider.currentLanguage()).thenReturn("ru");
+        when(catalogIndex.search("тест", 5, null, 600, "ru", pageable)).thenReturn(Optional.of(indexed));
+
+        Page<QuizDto> result = service.search("тест", 5, null, 600, pageable);
+
+        assertThat(result).isSameAs(indexed);
+        verifyNoInteractions(quizRepo, translationResolver);
+    }
+
+    @Test
+    void searchFacets_delegatesToIndexWithCurrentLocale() {
+        QuizSearchFacetsDto facets = new QuizSearchFacetsDto(0, Map.of(), Map.of());
+        when(localeProvider.currentLanguage()).thenReturn("en");
+        when(catalogIndex.facets("career", null, 300, null, "en")).thenReturn(facets);
+
+        assertThat(service.searchFacets("career", null, 300, null)).isSameAs(facets);
     }
 
     @Test
@@ -367,12 +406,11 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         assertThat(result.getContent().get(0).title()).isEqualTo("Quiz One");
         assertThat(result.getContent().get(1).title()).isEqualTo("Quiz Two");
 
-        verifyNoInteractions(quizPublicMetricsRepo);
         verify(quizRepo).findAll(any(Specification.class), eq(pageable));
     }
 
     @Test
-    void search_withDurationFilter_callsMetricsRepo_andFiltersByIds() {
+    void search_withDurationFilter_filtersInSingleQuery() {
         Quiz quiz = new Quiz();
         quiz.setId(10);
         quiz.setCode("Q10");
@@ -388,9 +426,6 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         when(translationResolver.resolve(anyString(), anyInt(), anyString(), eq("en"), anyString()))
                 .thenAnswer(inv -> inv.getArgument(4));
 
-        when(quizPublicMetricsRepo.findQuizIdsByDuration(300, 900))
-                .thenReturn(List.of(10));
-
         when(quizRepo.findAll(any(Specification.class), eq(pageable)))
                 .thenReturn(page);
 
@@ -405,16 +440,16 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().getFirst().id()).isEqualTo(10);
 
-        verify(quizPublicMetricsRepo).findQuizIdsByDuration(300, 900);
         verify(quizRepo).findAll(any(Specification.class), eq(pageable));
+        verifyNoMoreInteractions(quizRepo);
     }
 
     @Test
-    void search_withDurationFilter_noIds_returnsEmptyPage_andDoesNotCallQuizRepo() {
+    void search_withDurationFilter_noMatches_returnsEmptyPage() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(quizPublicMetricsRepo.findQuizIdsByDuration(300, 900))
-                .thenReturn(List.of());
+        when(quizRepo.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(Page.empty(pageable));
 
         Page<QuizDto> result = service.search(
                 null,
@@ -427,8 +462,8 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         assertThat(result.getContent()).isEmpty();
         assertThat(result.getTotalElements()).isZero();
 
-        verify(quizPublicMetricsRepo).findQuizIdsByDuration(300, 900);
-        verifyNoInteractions(quizRepo);
+        verify(quizRepo).findAll(any(Specification.class), eq(pageable));
+        verifyNoInteractions(translationResolver);
     }
 
     @Test
@@ -614,6 +649,7 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         assertEquals(QuizStatus.ARCHIVED, quiz.getStatus());
         verify(quizRepo).save(quiz);
         verify(quizRepo, never()).delete(org.mockito.Mockito.any(Quiz.class));
+        verify(catalogIndex).quizChanged(7);
     }
 
     @Test
@@ -650,14 +686,12 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
 
         assertThat(result.getContent()).hasSize(1);
         verify(quizRepo).findAll(any(Specification.class), eq(pageable));
-        verifyNoInteractions(quizPublicMetricsRepo);
     }
 
     @Test
-    void search_durationFilterOnlyMin_callsMetricsRepo() {
+    void search_durationFilterOnlyMin_usesSpecification() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(quizPublicMetricsRepo.findQuizIdsByDuration(300, null)).thenReturn(List.of(1));
         when(localeProvider.currentLanguage()).thenReturn("en");
         when(translationResolver.resolve(anyString(), anyInt(), anyString(), eq("en"), anyString()))
                 .thenAnswer(inv -> inv.getArgument(4));
@@ -678,7 +712,6 @@ void getByAuthor_shouldReturnPageOfQuizzes() {
         Page<QuizDto> result = service.search(null, null, 300, null, pageable);
 
         assertThat(result.getContent()).hasSize(1);
-        verify(quizPublicMetricsRepo).findQuizIdsByDuration(300, null);
         verify(quizRepo).findAll(any(Specification.class), eq(pageable));
     }
 
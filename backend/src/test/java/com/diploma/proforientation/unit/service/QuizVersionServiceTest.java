@@ -5,6 +5,7 @@ import com.diploma.proforientation.model.*;
 import com.diploma.proforientation.model.enumeration.QuestionType;
 import com.diploma.proforientation.model.enumeration.QuizStatus;
 import com.diploma.proforientation.repository.*;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.impl.QuizVersionServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,6 +27,7 @@ class QuizVersionServiceTest {
     @Mock private QuestionRepository questionRepo;
     @Mock private QuestionOptionRepository optionRepo;
     @Mock private QuestionOptionTraitRepository qotRepo;
+    @Mock private QuizCatalogIndex catalogIndex;
 
     @InjectMocks
     private QuizVersionServiceImpl service;
@@ -86,6 +88,7 @@ class QuizVersionServiceTest {
         verify(optionRepo, never()).findByQuestionId(any());
         verify(questionRepo, never()).save(any());
         verify(optionRepo, never()).save(any());
+        verify(catalogIndex).quizChanged(quizId);
     }
 
     @Test
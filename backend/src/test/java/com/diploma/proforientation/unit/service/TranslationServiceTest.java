@@ -5,7 +5,9 @@ import com.diploma.proforientation.dto.request.create.CreateTranslationRequest;
 import com.diploma.proforientation.dto.request.update.UpdateTranslationRequest;
 import com.diploma.proforientation.model.Translation;
 import com.diploma.proforientation.repository.TranslationRepository;
+import com.diploma.proforientation.search.QuizCatalogIndex;
 import com.diploma.proforientation.service.impl.TranslationServiceImpl;
+import com.diploma.proforientation.util.TranslationCacheEvictor;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +24,12 @@ class TranslationServiceTest {
     @Mock
     private TranslationRepository repo;
 
+    @Mock
+    private TranslationCacheEvictor cacheEvictor;
+
+    @Mock
+    private QuizCatalogIndex catalogIndex;
+
     @InjectMocks
     private TranslationServiceImpl service;
 
@@ -84,6 +92,7 @@ class TranslationServiceTest {
 
         assertThat(dto.text()).isEqualTo("Updated");
         verify(repo).save(translation);
+        verify(cacheEvictor).evict(translation);
     }
 
     @Test
@@ -96,20 +105,22 @@ class TranslationServiceTest {
 
     @Test
     void delete_shouldRemoveTranslation() {
-        when(repo.existsById(10)).thenReturn(true);
+        when(repo.findById(10)).thenReturn(Optional.of(translation));
 
         service.delete(10);
 
         verify(repo).deleteById(10);
+        verify(cacheEvictor).evict(translation);
     }
 
     @Test
     void delete_shouldThrowIfMissing() {
-        when(repo.existsById(99)).thenReturn(false);
+        when(repo.findById(99)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.delete(99))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessage("error.translation.not_found");
+        verifyNoInteractions(cacheEvictor);
     }
 
 
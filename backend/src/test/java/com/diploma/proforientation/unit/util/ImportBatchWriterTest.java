@@ -0,0 +1,79 @@
+package com.diploma.proforientation.unit.util;
+
+import com.diploma.proforientation.model.Translation;
+import com.diploma.proforientation.model.enumeration.QuizStatus;
+import com.diploma.proforientation.util.ImportBatchWriter;
+import com.diploma.proforientation.util.ImportBatchWriter.QuizRow;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImportBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ImportBatchWriter writer = new ImportBatchWriter(jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertTranslations_repeatedKey_writtenOnceWithLastText() {
+        writer.upsertTranslations(List.of(
+                new Translation(null, "quiz", 1, "en", "title", "First"),
+                new Translation(null, "quiz", 2, "en", "title", "Other"),
+                new Translation(null, "quiz", 1, "en", "title", "Last")
+        ));
+
+        ArgumentCaptor<List<Translation>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(
+                contains("ON CONFLICT (entity_type, entity_id, locale, field)"),
+                rows.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(rows.getValue()).extracting(Translation::getText).containsExactly("Last", "Other");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertQuizzes_blankOptionalValues_boundAsNullForInsertAndUpdate() throws Exception {
+        QuizRow row = new QuizRow("Q1", "Quiz", null, null, 5, 7, null, null);
+
+        writer.upsertQuizzes(List.of(row));
+
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<QuizRow>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(contains("ON CONFLICT (code)"), eq(List.of(row)), eq(1), setter.capture());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, row);
+        verify(ps).setString(1, "Q1");
+        verify(ps).setString(3, null);
+        verify(ps).setString(9, null);
+        verify(ps).setObject(8, null, Types.INTEGER);
+        verify(ps).setObject(11, null, Types.INTEGER);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertQuizzes_givenStatus_boundByName() throws Exception {
+        QuizRow row = new QuizRow("Q1", "Quiz", QuizStatus.PUBLISHED, null, 5, 7, "Desc", 45);
+
+        writer.upsertQuizzes(List.of(row));
+
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<QuizRow>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), anyInt(), setter.capture());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, row);
+        verify(ps).setString(3, "PUBLISHED");
+        verify(ps).setString(9, "PUBLISHED");
+        verify(ps).setString(7, "Desc");
+        verify(ps).setObject(8, 45, Types.INTEGER);
+    }
+}
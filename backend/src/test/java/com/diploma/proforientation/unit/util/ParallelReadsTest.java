@@ -0,0 +1,103 @@
+package com.diploma.proforientation.unit.util;
+
+import com.diploma.proforientation.util.ParallelReads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ParallelReadsTest {
+
+    private ExecutorService executor;
+    private PlatformTransactionManager transactionManager;
+    private ParallelReads parallelReads;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        transactionManager = mock(PlatformTransactionManager.class);
+        parallelReads = new ParallelReads(executor, transactionManager, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void submit_runsEachReadInOwnReadOnlyTransaction() {
+        assertThat(ParallelReads.join(parallelReads.submit(() -> 42))).isEqualTo(42);
+
+        ArgumentCaptor<TransactionDefinition> def = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(def.capture());
+        assertThat(def.getValue().isReadOnly()).isTrue();
+        assertThat(def.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void submit_runsReadsConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> first = parallelReads.submit(() -> awaitOther(bothStarted));
+        CompletableFuture<Boolean> second = parallelReads.submit(() -> awaitOther(bothStarted));
+
+        assertThat(ParallelReads.join(first)).isTrue();
+        assertThat(ParallelReads.join(second)).isTrue();
+    }
+
+    @Test
+    void submit_runsAtMostMaxConcurrentReadsAtOnce() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> reads = IntStream.range(0, 6)
+                .mapToObj(i -> parallelReads.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+                    running.decrementAndGet();
+                    return i;
+                }))
+                .toList();
+
+        assertThat(reads.stream().map(ParallelReads::join)).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    @Test
+    void join_rethrowsOriginalException() {
+        CompletableFuture<Object> failed = parallelReads.submit(() -> {
+            throw new IllegalArgumentException("bad read");
+        });
+
+        assertThatThrownBy(() -> ParallelReads.join(failed))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad read");
+    }
+
+    private static boolean awaitOther(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
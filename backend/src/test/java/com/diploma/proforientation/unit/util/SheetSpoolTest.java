@@ -0,0 +1,45 @@
+package com.diploma.proforientation.unit.util;
+
+import com.diploma.proforientation.util.SheetSpool;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SheetSpoolTest {
+
+    @Test
+    void forEach_returnsRowsInWriteOrderWithNulls() throws Exception {
+        List<String[]> rows = new ArrayList<>();
+
+        try (SheetSpool spool = SheetSpool.create()) {
+            spool.write(new Object[]{1, "Кириллица", null, ""});
+            spool.write(new Object[]{2L, true});
+            spool.write(new Object[]{});
+
+            spool.forEach(rows::add);
+
+            assertThat(spool.rows()).isEqualTo(3);
+        }
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0)).containsExactly("1", "Кириллица", null, "");
+        assertThat(rows.get(1)).containsExactly("2", "true");
+        assertThat(rows.get(2)).isEmpty();
+    }
+
+    @Test
+    void write_longValue_isKeptWhole() throws Exception {
+        String text = "x".repeat(200_000);
+        List<String[]> rows = new ArrayList<>();
+
+        try (SheetSpool spool = SheetSpool.create()) {
+            spool.write(new Object[]{text});
+            spool.forEach(rows::add);
+        }
+
+        assertThat(rows.getFirst()[0]).isEqualTo(text);
+    }
+}
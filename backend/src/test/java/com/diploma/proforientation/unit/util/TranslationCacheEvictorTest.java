@@ -0,0 +1,100 @@
+package com.diploma.proforientation.unit.util;
+
+import com.diploma.proforientation.model.Translation;
+import com.diploma.proforientation.service.CacheInvalidationService;
+import com.diploma.proforientation.util.TranslationCacheEvictor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.diploma.proforientation.util.Constants.ENTITY_TRANSLATIONS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TranslationCacheEvictorTest {
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    private TranslationCacheEvictor evictor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        evictor = new TranslationCacheEvictor(cacheInvalidationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void key_matchesTranslateCacheKeyFormat() {
+        assertThat(TranslationCacheEvictor.key("quiz", 1, "title", "en"))
+                .isEqualTo("quiz:1:title:en");
+    }
+
+    @Test
+    void evict_evictsOnlyAffectedKey() {
+        evictor.evict(translation("quiz", 1, "title", "en"));
+
+        verify(cacheInvalidationService).evict(ENTITY_TRANSLATIONS, Set.of("quiz:1:title:en"));
+        verify(cacheInvalidationService, never()).evictAll(any());
+    }
+
+    @Test
+    void evictTranslations_evictsAllGivenKeysInOneCall() {
+        evictor.evictTranslations(List.of(
+                translation("quiz", 1, "title", "ru"),
+                translation("profession", 2, "title", "en"),
+                translation("quiz", 1, "title", "ru")
+        ));
+
+        verify(cacheInvalidationService).evict(eq(ENTITY_TRANSLATIONS), argThat(keys ->
+                keys.size() == 2
+                        && keys.contains("quiz:1:title:ru")
+                        && keys.contains("profession:2:title:en")));
+    }
+
+    @Test
+    void evictTranslations_emptyList_doesNothing() {
+        evictor.evictTranslations(List.of());
+
+        verifyNoInteractions(cacheInvalidationService);
+    }
+
+    @Test
+    void evict_insideTransaction_deferredUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        evictor.evict(translation("quiz", 1, "title", "en"));
+
+        verifyNoInteractions(cacheInvalidationService);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+
+        verify(cacheInvalidationService).evict(ENTITY_TRANSLATIONS, Set.of("quiz:1:title:en"));
+    }
+
+    private Translation translation(String entityType, Integer entityId, String field, String locale) {
+        Translation t = new Translation();
+        t.setEntityType(entityType);
+        t.setEntityId(entityId);
+        t.setField(field);
+        t.setLocale(locale);
+        return t;
+    }
+}
@@ -0,0 +1,80 @@
+package com.diploma.proforientation.unit.util;
+
+import com.diploma.proforientation.util.XlsxRowReader;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XlsxRowReaderTest {
+
+    @Test
+    void read_formatsCellsAndKeepsColumnPositions() throws Exception {
+        byte[] xlsx = workbook(wb -> {
+            var sheet = wb.createSheet("first");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue(" code ");
+            header.createCell(1).setCellValue("ord");
+            Row data = sheet.createRow(2);
+            data.createCell(1).setCellValue(7);
+            data.createCell(3).setCellValue("Текст");
+            wb.createSheet("second").createRow(0).createCell(0).setCellValue("ignored");
+        });
+        List<Integer> indexes = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
+
+        XlsxRowReader.read(new ByteArrayInputStream(xlsx), (index, cells) -> {
+            indexes.add(index);
+            rows.add(cells);
+            return true;
+        });
+
+        assertThat(indexes).containsExactly(0, 2);
+        assertThat(rows.get(0)).containsExactly("code", "ord");
+        assertThat(rows.get(1)).containsExactly(null, "7", null, "Текст");
+    }
+
+    @Test
+    void read_handlerReturnsFalse_stopsReading() throws Exception {
+        byte[] xlsx = workbook(wb -> {
+            var sheet = wb.createSheet("first");
+            for (int r = 0; r < 10; r++) {
+                sheet.createRow(r).createCell(0).setCellValue(r);
+            }
+        });
+        List<String[]> rows = new ArrayList<>();
+
+        XlsxRowReader.read(new ByteArrayInputStream(xlsx), (index, cells) -> {
+            rows.add(cells);
+            return rows.size() < 3;
+        });
+
+        assertThat(rows).hasSize(3);
+    }
+
+    @Test
+    void read_notAnXlsxFile_throwsIOException() {
+        ByteArrayInputStream in = new ByteArrayInputStream("not a workbook".getBytes());
+
+        assertThatThrownBy(() -> XlsxRowReader.read(in, (index, cells) -> true))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static byte[] workbook(Consumer<Workbook> content) throws IOException {
+        try (Workbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            content.accept(wb);
+            wb.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+----------------------------------------------------------------------
+-- Full-text + trigram search for quizzes and professions
+----------------------------------------------------------------------
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- One searchable document per entity and locale.
+-- locale = '' holds the default (untranslated) text: code, title, description.
+-- Other locales hold only the translated texts for that locale.
+CREATE TABLE search_documents (
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id   INT         NOT NULL,
+    locale      VARCHAR(10) NOT NULL,
+    body        TEXT        NOT NULL,
+    tsv         tsvector GENERATED ALWAYS AS (to_tsvector('simple', body)) STORED,
+    PRIMARY KEY (entity_type, entity_id, locale)
+);
+
+-- Whole-word matches (any language, no stemming)
+CREATE INDEX idx_search_documents_tsv
+    ON search_documents USING GIN (tsv);
+
+-- Substring, prefix and typo-tolerant matches
+CREATE INDEX idx_search_documents_body_trgm
+    ON search_documents USING GIN (body gin_trgm_ops);
+
+
+----------------------------------------------------------------------
+-- Rebuild the documents of one entity
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION search_refresh_document(p_entity_type TEXT, p_entity_id INT)
+RETURNS void AS $$
+BEGIN
+  DELETE FROM search_documents
+  WHERE entity_type = p_entity_type
+    AND entity_id = p_entity_id;
+
+  IF p_entity_type = 'quiz' THEN
+    INSERT INTO search_documents (entity_type, entity_id, locale, body)
+    SELECT 'quiz', q.id, '', concat_ws(' ', q.code, q.title_default, q.description_default)
+    FROM quizzes q
+    WHERE q.id = p_entity_id;
+  ELSIF p_entity_type = 'profession' THEN
+    INSERT INTO search_documents (entity_type, entity_id, locale, body)
+    SELECT 'profession', p.id, '', concat_ws(' ', p.code, p.title_default, p.description, p.ml_class_code)
+    FROM professions p
+    WHERE p.id = p_entity_id;
+  ELSE
+    RETURN;
+  END IF;
+
+  -- Entity was deleted: no default document, so no translated ones either
+  IF NOT FOUND THEN
+    RETURN;
+  END IF;
+
+  INSERT INTO search_documents (entity_type, entity_id, locale, body)
+  SELECT t.entity_type, t.entity_id, t.locale, string_agg(t.text, ' ' ORDER BY t.field)
+  FROM translations t
+  WHERE t.entity_type = p_entity_type
+    AND t.entity_id = p_entity_id
+    AND t.locale <> ''
+  GROUP BY t.entity_type, t.entity_id, t.locale;
+END;
+$$ LANGUAGE plpgsql;
+
+
+----------------------------------------------------------------------
+-- Triggers: keep documents in sync with source rows
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION trg_search_quizzes()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    PERFORM search_refresh_document('quiz', OLD.id);
+    RETURN OLD;
+  END IF;
+
+  PERFORM search_refresh_document('quiz', NEW.id);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_search_quizzes
+AFTER INSERT OR DELETE OR UPDATE OF code, title_default, description_default ON quizzes
+FOR EACH ROW
+EXECUTE FUNCTION trg_search_quizzes();
+
+
+CREATE OR REPLACE FUNCTION trg_search_professions()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    PERFORM search_refresh_document('profession', OLD.id);
+    RETURN OLD;
+  END IF;
+
+  PERFORM search_refresh_document('profession', NEW.id);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_search_professions
+AFTER INSERT OR DELETE OR UPDATE OF code, title_default, description, ml_class_code ON professions
+FOR EACH ROW
+EXECUTE FUNCTION trg_search_professions();
+
+
+CREATE OR REPLACE FUNCTION trg_search_translations()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM search_refresh_document(OLD.entity_type, OLD.entity_id);
+  END IF;
+
+  IF TG_OP IN ('INSERT', 'UPDATE')
+     AND (TG_OP = 'INSERT'
+          OR NEW.entity_type <> OLD.entity_type
+          OR NEW.entity_id <> OLD.entity_id)
+  THEN
+    PERFORM search_refresh_document(NEW.entity_type, NEW.entity_id);
+  END IF;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_search_translations
+AFTER INSERT OR UPDATE OR DELETE ON translations
+FOR EACH ROW
+EXECUTE FUNCTION trg_search_translations();
+
+
+----------------------------------------------------------------------
+-- Ranked matches for one entity type in one locale.
+-- Matches whole words (tsvector), substrings (ILIKE) and misspelled words
+-- (word similarity); all three are served by the GIN indexes above.
+-- Plain SQL + STABLE so the planner inlines it into the caller's query.
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION search_rank(p_entity_type TEXT, p_locale TEXT, p_query TEXT)
+RETURNS TABLE (entity_id INT, rank REAL) AS $$
+  SELECT
+      d.entity_id,
+      MAX(GREATEST(
+          ts_rank(d.tsv, websearch_to_tsquery('simple', p_query)),
+          word_similarity(p_query, d.body)
+      )) AS rank
+  FROM search_documents d
+  WHERE d.entity_type = p_entity_type
+    AND d.locale IN ('', p_locale)
+    AND (
+        d.tsv @@ websearch_to_tsquery('simple', p_query)
+        OR d.body ILIKE '%' || replace(replace(replace(p_query, '\', '\\'), '%', '\%'), '_', '\_') || '%'
+        OR p_query <% d.body
+    )
+  GROUP BY d.entity_id
+$$ LANGUAGE sql STABLE;
+
+
+----------------------------------------------------------------------
+-- Backfill
+----------------------------------------------------------------------
+
+SELECT search_refresh_document('quiz', id) FROM quizzes;
+SELECT search_refresh_document('profession', id) FROM professions;
@@ -0,0 +1,158 @@
+----------------------------------------------------------------------
+-- Precomputed estimated duration per quiz (current version)
+-- Same estimate as v_quiz_public_metrics, but stored and kept up to date
+-- incrementally, so search can filter by duration with an index lookup.
+----------------------------------------------------------------------
+
+CREATE TABLE quiz_durations (
+    quiz_id                    INT     PRIMARY KEY REFERENCES quizzes(id) ON DELETE CASCADE,
+    quiz_version_id            INT     NOT NULL UNIQUE REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    seconds_per_question       INT     NOT NULL,
+    questions_total            INT     NOT NULL DEFAULT 0,
+    attempts_submitted         INT     NOT NULL DEFAULT 0,
+    duration_sum_seconds       NUMERIC NOT NULL DEFAULT 0,
+    estimated_duration_seconds INT GENERATED ALWAYS AS (
+        CASE
+          WHEN attempts_submitted >= 30
+            THEN ROUND(duration_sum_seconds / attempts_submitted)::int
+          ELSE questions_total * seconds_per_question
+        END
+    ) STORED
+);
+
+CREATE INDEX idx_quiz_durations_estimate
+    ON quiz_durations (estimated_duration_seconds, quiz_id);
+
+
+----------------------------------------------------------------------
+-- Full recompute for one quiz (publish / version switch only)
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION quiz_durations_refresh(p_quiz_id INT)
+RETURNS void AS $$
+BEGIN
+  DELETE FROM quiz_durations WHERE quiz_id = p_quiz_id;
+
+  INSERT INTO quiz_durations (
+      quiz_id, quiz_version_id, seconds_per_question,
+      questions_total, attempts_submitted, duration_sum_seconds
+  )
+  SELECT
+      q.id,
+      qv.id,
+      q.seconds_per_question_default,
+      (SELECT COUNT(*) FROM questions qu WHERE qu.quiz_version_id = qv.id),
+      (SELECT COUNT(*) FROM attempts a
+        WHERE a.quiz_version_id = qv.id AND a.submitted_at IS NOT NULL),
+      (SELECT COALESCE(SUM(EXTRACT(EPOCH FROM (a.submitted_at - a.started_at))), 0) FROM attempts a
+        WHERE a.quiz_version_id = qv.id AND a.submitted_at IS NOT NULL)
+  FROM quizzes q
+  JOIN quiz_versions qv ON qv.quiz_id = q.id AND qv.is_current = TRUE
+  WHERE q.id = p_quiz_id
+  ORDER BY qv.version DESC
+  LIMIT 1;
+END;
+$$ LANGUAGE plpgsql;
+
+
+----------------------------------------------------------------------
+-- Triggers
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION trg_quiz_durations_versions()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    PERFORM quiz_durations_refresh(OLD.quiz_id);
+    RETURN NULL;
+  END IF;
+
+  IF TG_OP = 'INSERT' AND NOT NEW.is_current THEN
+    RETURN NULL;
+  END IF;
+
+  PERFORM quiz_durations_refresh(NEW.quiz_id);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_quiz_durations_versions
+AFTER INSERT OR DELETE OR UPDATE OF is_current ON quiz_versions
+FOR EACH ROW
+EXECUTE FUNCTION trg_quiz_durations_versions();
+
+
+CREATE OR REPLACE FUNCTION trg_quiz_durations_questions()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    UPDATE quiz_durations
+    SET questions_total = questions_total - 1
+    WHERE quiz_version_id = OLD.quiz_version_id;
+  END IF;
+
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    UPDATE quiz_durations
+    SET questions_total = questions_total + 1
+    WHERE quiz_version_id = NEW.quiz_version_id;
+  END IF;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_quiz_durations_questions
+AFTER INSERT OR DELETE OR UPDATE OF quiz_version_id ON questions
+FOR EACH ROW
+EXECUTE FUNCTION trg_quiz_durations_questions();
+
+
+CREATE OR REPLACE FUNCTION trg_quiz_durations_quizzes()
+RETURNS trigger AS $$
+BEGIN
+  UPDATE quiz_durations
+  SET seconds_per_question = NEW.seconds_per_question_default
+  WHERE quiz_id = NEW.id;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_quiz_durations_quizzes
+AFTER UPDATE OF seconds_per_question_default ON quizzes
+FOR EACH ROW
+EXECUTE FUNCTION trg_quiz_durations_quizzes();
+
+
+-- Submitted attempts only; one row update per submit
+CREATE OR REPLACE FUNCTION trg_quiz_durations_attempts()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.submitted_at IS NOT NULL THEN
+    UPDATE quiz_durations
+    SET attempts_submitted   = attempts_submitted - 1,
+        duration_sum_seconds = duration_sum_seconds - EXTRACT(EPOCH FROM (OLD.submitted_at - OLD.started_at))
+    WHERE quiz_version_id = OLD.quiz_version_id;
+  END IF;
+
+  IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.submitted_at IS NOT NULL THEN
+    UPDATE quiz_durations
+    SET attempts_submitted   = attempts_submitted + 1,
+        duration_sum_seconds = duration_sum_seconds + EXTRACT(EPOCH FROM (NEW.submitted_at - NEW.started_at))
+    WHERE quiz_version_id = NEW.quiz_version_id;
+  END IF;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_quiz_durations_attempts
+AFTER INSERT OR DELETE OR UPDATE OF submitted_at, started_at, quiz_version_id ON attempts
+FOR EACH ROW
+EXECUTE FUNCTION trg_quiz_durations_attempts();
+
+
+----------------------------------------------------------------------
+-- Backfill
+----------------------------------------------------------------------
+
+SELECT quiz_durations_refresh(id) FROM quizzes;
@@ -0,0 +1,430 @@
+----------------------------------------------------------------------
+-- Analytics rollups
+-- Counters per quiz version, day, option and top profession, kept up to
+-- date by triggers on attempts / answers / attempt_recommendations.
+-- Dashboard reads cost O(rows shown) instead of re-aggregating every
+-- attempt ever made.
+----------------------------------------------------------------------
+
+CREATE TABLE quiz_version_funnel (
+    quiz_version_id      INT     PRIMARY KEY REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    quiz_id              INT     NOT NULL,
+    attempts_started     INT     NOT NULL DEFAULT 0,
+    attempts_completed   INT     NOT NULL DEFAULT 0,
+    duration_sum_seconds NUMERIC NOT NULL DEFAULT 0,
+    completion_rate      NUMERIC GENERATED ALWAYS AS (
+        CASE
+          WHEN attempts_started = 0 THEN 0
+          ELSE ROUND(attempts_completed::numeric / attempts_started::numeric, 6)
+        END
+    ) STORED,
+    avg_duration_seconds NUMERIC GENERATED ALWAYS AS (
+        CASE
+          WHEN attempts_completed = 0 THEN NULL
+          ELSE duration_sum_seconds / attempts_completed
+        END
+    ) STORED
+);
+
+CREATE INDEX idx_quiz_version_funnel_quiz
+    ON quiz_version_funnel (quiz_id, quiz_version_id);
+
+
+-- Attempts are bucketed by the day they were started (completions included)
+CREATE TABLE quiz_activity_daily (
+    quiz_version_id      INT     NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    day                  DATE    NOT NULL,
+    quiz_id              INT     NOT NULL,
+    attempts_started     INT     NOT NULL DEFAULT 0,
+    attempts_completed   INT     NOT NULL DEFAULT 0,
+    duration_sum_seconds NUMERIC NOT NULL DEFAULT 0,
+    avg_duration_seconds NUMERIC GENERATED ALWAYS AS (
+        CASE
+          WHEN attempts_completed = 0 THEN NULL
+          ELSE duration_sum_seconds / attempts_completed
+        END
+    ) STORED,
+    PRIMARY KEY (quiz_version_id, day)
+);
+
+CREATE INDEX idx_quiz_activity_daily_quiz
+    ON quiz_activity_daily (quiz_id, quiz_version_id, day);
+
+
+-- Answers of submitted attempts per chosen option
+CREATE TABLE quiz_option_answer_counts (
+    quiz_version_id INT NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    option_id       INT NOT NULL,
+    cnt             INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (quiz_version_id, option_id)
+);
+
+
+-- Current top-1 recommendation of each submitted attempt
+CREATE TABLE attempt_top_professions (
+    attempt_id      INT PRIMARY KEY REFERENCES attempts(id) ON DELETE CASCADE,
+    quiz_version_id INT NOT NULL,
+    profession_id   INT NOT NULL
+);
+
+CREATE TABLE quiz_top_profession_counts (
+    quiz_version_id INT NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    profession_id   INT NOT NULL REFERENCES professions(id) ON DELETE CASCADE,
+    top1_count      INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (quiz_version_id, profession_id)
+);
+
+
+----------------------------------------------------------------------
+-- Backfill (before the triggers exist)
+----------------------------------------------------------------------
+
+INSERT INTO quiz_version_funnel (quiz_version_id, quiz_id, attempts_started, attempts_completed, duration_sum_seconds)
+SELECT
+    qv.id,
+    qv.quiz_id,
+    COUNT(a.id),
+    COUNT(a.submitted_at),
+    COALESCE(SUM(EXTRACT(EPOCH FROM (a.submitted_at - a.started_at))), 0)
+FROM quiz_versions qv
+JOIN attempts a ON a.quiz_version_id = qv.id
+GROUP BY qv.id, qv.quiz_id;
+
+INSERT INTO quiz_activity_daily (quiz_version_id, day, quiz_id, attempts_started, attempts_completed, duration_sum_seconds)
+SELECT
+    qv.id,
+    date_trunc('day', a.started_at)::date,
+    qv.quiz_id,
+    COUNT(a.id),
+    COUNT(a.submitted_at),
+    COALESCE(SUM(EXTRACT(EPOCH FROM (a.submitted_at - a.started_at))), 0)
+FROM quiz_versions qv
+JOIN attempts a ON a.quiz_version_id = qv.id
+GROUP BY qv.id, qv.quiz_id, date_trunc('day', a.started_at)::date;
+
+INSERT INTO quiz_option_answer_counts (quiz_version_id, option_id, cnt)
+SELECT at.quiz_version_id, a.option_id, COUNT(*)
+FROM answers a
+JOIN attempts at ON at.id = a.attempt_id AND at.submitted_at IS NOT NULL
+GROUP BY at.quiz_version_id, a.option_id;
+
+INSERT INTO attempt_top_professions (attempt_id, quiz_version_id, profession_id)
+SELECT DISTINCT ON (ar.attempt_id) ar.attempt_id, a.quiz_version_id, ar.profession_id
+FROM attempt_recommendations ar
+JOIN attempts a ON a.id = ar.attempt_id AND a.submitted_at IS NOT NULL
+ORDER BY ar.attempt_id, ar.score DESC NULLS LAST, ar.profession_id;
+
+INSERT INTO quiz_top_profession_counts (quiz_version_id, profession_id, top1_count)
+SELECT quiz_version_id, profession_id, COUNT(*)
+FROM attempt_top_professions
+GROUP BY quiz_version_id, profession_id;
+
+
+----------------------------------------------------------------------
+-- Helpers. Upserts select from quiz_versions so nothing is written for
+-- a version that is being deleted (its rollups cascade away).
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION analytics_apply_attempt(
+    p_version   INT,
+    p_started   TIMESTAMPTZ,
+    p_submitted TIMESTAMPTZ,
+    p_sign      INT
+)
+RETURNS void AS $$
+DECLARE
+  v_completed INT     := CASE WHEN p_submitted IS NULL THEN 0 ELSE p_sign END;
+  v_duration  NUMERIC := COALESCE(EXTRACT(EPOCH FROM (p_submitted - p_started)), 0) * p_sign;
+BEGIN
+  INSERT INTO quiz_version_funnel AS f (quiz_version_id, quiz_id, attempts_started, attempts_completed, duration_sum_seconds)
+  SELECT qv.id, qv.quiz_id, p_sign, v_completed, v_duration
+  FROM quiz_versions qv
+  WHERE qv.id = p_version
+  ON CONFLICT (quiz_version_id) DO UPDATE
+  SET attempts_started     = f.attempts_started + EXCLUDED.attempts_started,
+      attempts_completed   = f.attempts_completed + EXCLUDED.attempts_completed,
+      duration_sum_seconds = f.duration_sum_seconds + EXCLUDED.duration_sum_seconds;
+
+  INSERT INTO quiz_activity_daily AS d (quiz_version_id, day, quiz_id, attempts_started, attempts_completed, duration_sum_seconds)
+  SELECT qv.id, date_trunc('day', p_started)::date, qv.quiz_id, p_sign, v_completed, v_duration
+  FROM quiz_versions qv
+  WHERE qv.id = p_version
+  ON CONFLICT (quiz_version_id, day) DO UPDATE
+  SET attempts_started     = d.attempts_started + EXCLUDED.attempts_started,
+      attempts_completed   = d.attempts_completed + EXCLUDED.attempts_completed,
+      duration_sum_seconds = d.duration_sum_seconds + EXCLUDED.duration_sum_seconds;
+END;
+$$ LANGUAGE plpgsql;
+
+
+CREATE OR REPLACE FUNCTION analytics_apply_answers(p_attempt INT, p_version INT, p_sign INT)
+RETURNS void AS $$
+BEGIN
+  INSERT INTO quiz_option_answer_counts AS c (quiz_version_id, option_id, cnt)
+  SELECT qv.id, a.option_id, p_sign * COUNT(*)
+  FROM answers a
+  JOIN quiz_versions qv ON qv.id = p_version
+  WHERE a.attempt_id = p_attempt
+  GROUP BY qv.id, a.option_id
+  ON CONFLICT (quiz_version_id, option_id) DO UPDATE
+  SET cnt = c.cnt + EXCLUDED.cnt;
+END;
+$$ LANGUAGE plpgsql;
+
+
+CREATE OR REPLACE FUNCTION analytics_bump_option(p_version INT, p_option INT, p_sign INT)
+RETURNS void AS $$
+BEGIN
+  INSERT INTO quiz_option_answer_counts AS c (quiz_version_id, option_id, cnt)
+  SELECT qv.id, p_option, p_sign
+  FROM quiz_versions qv
+  WHERE qv.id = p_version
+  ON CONFLICT (quiz_version_id, option_id) DO UPDATE
+  SET cnt = c.cnt + EXCLUDED.cnt;
+END;
+$$ LANGUAGE plpgsql;
+
+
+CREATE OR REPLACE FUNCTION analytics_refresh_attempt_top(p_attempt INT)
+RETURNS void AS $$
+DECLARE
+  v_version    INT;
+  v_profession INT;
+BEGIN
+  SELECT a.quiz_version_id INTO v_version
+  FROM attempts a
+  WHERE a.id = p_attempt
+    AND a.submitted_at IS NOT NULL;
+
+  IF v_version IS NOT NULL THEN
+    SELECT ar.profession_id INTO v_profession
+    FROM attempt_recommendations ar
+    WHERE ar.attempt_id = p_attempt
+    ORDER BY ar.score DESC NULLS LAST, ar.profession_id
+    LIMIT 1;
+  END IF;
+
+  IF v_profession IS NULL THEN
+    DELETE FROM attempt_top_professions WHERE attempt_id = p_attempt;
+    RETURN;
+  END IF;
+
+  INSERT INTO attempt_top_professions AS t (attempt_id, quiz_version_id, profession_id)
+  VALUES (p_attempt, v_version, v_profession)
+  ON CONFLICT (attempt_id) DO UPDATE
+  SET quiz_version_id = EXCLUDED.quiz_version_id,
+      profession_id   = EXCLUDED.profession_id
+  WHERE t.profession_id <> EXCLUDED.profession_id
+     OR t.quiz_version_id <> EXCLUDED.quiz_version_id;
+END;
+$$ LANGUAGE plpgsql;
+
+
+----------------------------------------------------------------------
+-- Triggers
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION trg_analytics_attempts()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'UPDATE'
+     AND NEW.quiz_version_id = OLD.quiz_version_id
+     AND NEW.started_at = OLD.started_at
+     AND NEW.submitted_at IS NOT DISTINCT FROM OLD.submitted_at
+  THEN
+    RETURN NULL;
+  END IF;
+
+  IF TG_OP = 'UPDATE' THEN
+    PERFORM analytics_apply_attempt(OLD.quiz_version_id, OLD.started_at, OLD.submitted_at, -1);
+  END IF;
+  PERFORM analytics_apply_attempt(NEW.quiz_version_id, NEW.started_at, NEW.submitted_at, 1);
+
+  -- answers and recommendations only count once the attempt is submitted
+  IF TG_OP = 'UPDATE' AND (OLD.submitted_at IS NULL) <> (NEW.submitted_at IS NULL) THEN
+    PERFORM analytics_apply_answers(
+        NEW.id, NEW.quiz_version_id, CASE WHEN NEW.submitted_at IS NULL THEN -1 ELSE 1 END);
+    PERFORM analytics_refresh_attempt_top(NEW.id);
+  END IF;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_analytics_attempts
+AFTER INSERT OR UPDATE OF quiz_version_id, started_at, submitted_at ON attempts
+FOR EACH ROW
+EXECUTE FUNCTION trg_analytics_attempts();
+
+
+-- BEFORE DELETE: answers are still there (they are removed by the cascade)
+CREATE OR REPLACE FUNCTION trg_analytics_attempts_delete()
+RETURNS trigger AS $$
+BEGIN
+  PERFORM analytics_apply_attempt(OLD.quiz_version_id, OLD.started_at, OLD.submitted_at, -1);
+  IF OLD.submitted_at IS NOT NULL THEN
+    PERFORM analytics_apply_answers(OLD.id, OLD.quiz_version_id, -1);
+  END IF;
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_analytics_attempts_delete
+BEFORE DELETE ON attempts
+FOR EACH ROW
+EXECUTE FUNCTION trg_analytics_attempts_delete();
+
+
+-- Answers changed on an already submitted attempt
+CREATE OR REPLACE FUNCTION trg_analytics_answers()
+RETURNS trigger AS $$
+DECLARE
+  v_version INT;
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    SELECT quiz_version_id INTO v_version
+    FROM attempts
+    WHERE id = OLD.attempt_id AND submitted_at IS NOT NULL;
+
+    IF FOUND THEN
+      PERFORM analytics_bump_option(v_version, OLD.option_id, -1);
+    END IF;
+  END IF;
+
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    SELECT quiz_version_id INTO v_version
+    FROM attempts
+    WHERE id = NEW.attempt_id AND submitted_at IS NOT NULL;
+
+    IF FOUND THEN
+      PERFORM analytics_bump_option(v_version, NEW.option_id, 1);
+    END IF;
+  END IF;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_analytics_answers
+AFTER INSERT OR DELETE OR UPDATE OF attempt_id, option_id ON answers
+FOR EACH ROW
+EXECUTE FUNCTION trg_analytics_answers();
+
+
+CREATE OR REPLACE FUNCTION trg_analytics_recommendations()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM analytics_refresh_attempt_top(OLD.attempt_id);
+  END IF;
+  IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.attempt_id <> OLD.attempt_id) THEN
+    PERFORM analytics_refresh_attempt_top(NEW.attempt_id);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_analytics_recommendations
+AFTER INSERT OR DELETE OR UPDATE OF attempt_id, profession_id, score ON attempt_recommendations
+FOR EACH ROW
+EXECUTE FUNCTION trg_analytics_recommendations();
+
+
+CREATE OR REPLACE FUNCTION trg_analytics_attempt_top()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    UPDATE quiz_top_profession_counts
+    SET top1_count = top1_count - 1
+    WHERE quiz_version_id = OLD.quiz_version_id
+      AND profession_id = OLD.profession_id;
+  END IF;
+
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    INSERT INTO quiz_top_profession_counts AS c (quiz_version_id, profession_id, top1_count)
+    VALUES (NEW.quiz_version_id, NEW.profession_id, 1)
+    ON CONFLICT (quiz_version_id, profession_id) DO UPDATE
+    SET top1_count = c.top1_count + 1;
+  END IF;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_analytics_attempt_top
+AFTER INSERT OR UPDATE OR DELETE ON attempt_top_professions
+FOR EACH ROW
+EXECUTE FUNCTION trg_analytics_attempt_top();
+
+
+----------------------------------------------------------------------
+-- Read side.
+-- Funnel and daily activity are read from the rollup tables directly.
+-- Views that add labels (ords, profession titles) become thin joins over
+-- the rollups, so renames and reorderings stay correct.
+----------------------------------------------------------------------
+
+DROP VIEW IF EXISTS v_quiz_funnel_overview;
+DROP VIEW IF EXISTS v_quiz_activity_daily;
+DROP VIEW IF EXISTS v_quiz_question_mode_choice;
+DROP VIEW IF EXISTS v_quiz_question_option_distribution;
+DROP VIEW IF EXISTS v_quiz_top_professions;
+
+CREATE VIEW v_quiz_question_option_distribution AS
+SELECT
+    qv.quiz_id,
+    c.quiz_version_id,
+    qu.id  AS question_id,
+    qu.ord AS question_ord,
+    qo.id  AS option_id,
+    qo.ord AS option_ord,
+    c.cnt
+FROM quiz_option_answer_counts c
+         JOIN quiz_versions qv
+              ON qv.id = c.quiz_version_id
+         JOIN question_options qo
+              ON qo.id = c.option_id
+         JOIN questions qu
+              ON qu.id = qo.question_id
+                  AND qu.quiz_version_id = c.quiz_version_id
+WHERE c.cnt > 0;
+
+
+CREATE VIEW v_quiz_question_mode_choice AS
+WITH ranked AS (
+    SELECT
+        d.*,
+        ROW_NUMBER() OVER (
+            PARTITION BY quiz_id, quiz_version_id, question_id
+            ORDER BY cnt DESC, option_ord ASC
+            ) AS rn,
+        SUM(cnt) OVER (
+            PARTITION BY quiz_id, quiz_version_id, question_id
+            )::int AS answers_count
+    FROM v_quiz_question_option_distribution d
+)
+SELECT
+    quiz_id,
+    quiz_version_id,
+    question_id,
+    question_ord,
+    option_ord AS mode_choice,
+    cnt AS mode_count,
+    answers_count
+FROM ranked
+WHERE rn = 1;
+
+
+CREATE VIEW v_quiz_top_professions AS
+SELECT
+    qv.quiz_id,
+    c.quiz_version_id,
+    c.profession_id,
+    p.title_default AS profession_title,
+    c.top1_count
+FROM quiz_top_profession_counts c
+         JOIN quiz_versions qv
+              ON qv.id = c.quiz_version_id
+         JOIN professions p
+              ON p.id = c.profession_id
+WHERE c.top1_count > 0;
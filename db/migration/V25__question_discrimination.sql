@@ -0,0 +1,60 @@
+----------------------------------------------------------------------
+-- Stored item discrimination
+-- Computed per quiz version by a background job in the backend
+-- (QuestionDiscriminationJob) instead of the v_quiz_question_discrimination_norm_all
+-- view, which ranked every submitted attempt of every version on each read.
+----------------------------------------------------------------------
+
+CREATE TABLE quiz_question_discrimination (
+    quiz_version_id    INT         NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    question_id        INT         NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    quiz_id            INT         NOT NULL,
+    min_ord            NUMERIC,
+    max_ord            NUMERIC,
+    attempts_submitted INT         NOT NULL,
+    answers_top        INT         NOT NULL DEFAULT 0,
+    answers_bottom     INT         NOT NULL DEFAULT 0,
+    top_avg_ord        NUMERIC,
+    bottom_avg_ord     NUMERIC,
+    disc_raw           NUMERIC,
+    disc_norm          NUMERIC,
+    disc_quality       VARCHAR(32) NOT NULL,
+    computed_at        TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (quiz_version_id, question_id)
+);
+
+CREATE INDEX idx_quiz_question_discrimination_quiz
+    ON quiz_question_discrimination (quiz_id, quiz_version_id);
+
+
+-- One row per computed version: the submitted-attempt count the stored
+-- values are based on. The job recomputes a version when quiz_version_funnel
+-- reports a different count or the values get older than the max age.
+CREATE TABLE quiz_discrimination_runs (
+    quiz_version_id    INT         PRIMARY KEY REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    attempts_submitted INT         NOT NULL,
+    computed_at        TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+
+----------------------------------------------------------------------
+-- Backfill from the view, then drop it
+----------------------------------------------------------------------
+
+INSERT INTO quiz_question_discrimination (
+    quiz_version_id, question_id, quiz_id,
+    min_ord, max_ord, attempts_submitted, answers_top, answers_bottom,
+    top_avg_ord, bottom_avg_ord, disc_raw, disc_norm, disc_quality
+)
+SELECT
+    quiz_version_id, question_id, quiz_id,
+    min_ord, max_ord, attempts_submitted, answers_top, answers_bottom,
+    top_avg_ord, bottom_avg_ord, disc_raw, disc_norm, disc_quality
+FROM v_quiz_question_discrimination_norm_all;
+
+INSERT INTO quiz_discrimination_runs (quiz_version_id, attempts_submitted)
+SELECT quiz_version_id, attempts_completed
+FROM quiz_version_funnel
+WHERE attempts_completed > 0;
+
+DROP VIEW v_quiz_question_discrimination_norm_all;
@@ -0,0 +1,55 @@
+----------------------------------------------------------------------
+-- Live activity counters
+-- Attempt starts and first submits made by the backend are counted in
+-- memory and flushed to quiz_version_funnel / quiz_activity_daily in
+-- periodic batches (LiveActivityCounters), so concurrent attempts of one
+-- quiz version no longer queue on the same rollup rows.
+--
+-- The backend marks such transactions with
+--   set_config('analytics.live_counters', 'on', true)
+-- and the attempts trigger then skips exactly those two transitions.
+-- Everything else (other writers, resubmits, moves, deletes) is still
+-- applied by the trigger.
+----------------------------------------------------------------------
+
+CREATE OR REPLACE FUNCTION trg_analytics_attempts()
+RETURNS trigger AS $$
+DECLARE
+  v_live BOOLEAN := COALESCE(current_setting('analytics.live_counters', true) = 'on', false);
+BEGIN
+  IF TG_OP = 'UPDATE'
+     AND NEW.quiz_version_id = OLD.quiz_version_id
+     AND NEW.started_at = OLD.started_at
+     AND NEW.submitted_at IS NOT DISTINCT FROM OLD.submitted_at
+  THEN
+    RETURN NULL;
+  END IF;
+
+  IF v_live
+     AND (
+       (TG_OP = 'INSERT' AND NEW.submitted_at IS NULL)
+       OR (TG_OP = 'UPDATE'
+           AND NEW.quiz_version_id = OLD.quiz_version_id
+           AND NEW.started_at = OLD.started_at
+           AND OLD.submitted_at IS NULL
+           AND NEW.submitted_at IS NOT NULL)
+     )
+  THEN
+    NULL; -- counted by the backend
+  ELSE
+    IF TG_OP = 'UPDATE' THEN
+      PERFORM analytics_apply_attempt(OLD.quiz_version_id, OLD.started_at, OLD.submitted_at, -1);
+    END IF;
+    PERFORM analytics_apply_attempt(NEW.quiz_version_id, NEW.started_at, NEW.submitted_at, 1);
+  END IF;
+
+  -- answers and recommendations only count once the attempt is submitted
+  IF TG_OP = 'UPDATE' AND (OLD.submitted_at IS NULL) <> (NEW.submitted_at IS NULL) THEN
+    PERFORM analytics_apply_answers(
+        NEW.id, NEW.quiz_version_id, CASE WHEN NEW.submitted_at IS NULL THEN -1 ELSE 1 END);
+    PERFORM analytics_refresh_attempt_top(NEW.id);
+  END IF;
+
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
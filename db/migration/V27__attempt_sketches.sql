@@ -0,0 +1,39 @@
+----------------------------------------------------------------------
+-- Attempt sketches
+-- Mergeable per-version, per-day summaries of submitted attempts kept by
+-- the backend (AttemptSketches):
+--   * duration_hist — HdrHistogram of attempt durations in milliseconds
+--                     (compressed encoding), for p50 / p90 / p99;
+--   * users_hll / guests_hll — HyperLogLog registers of distinct users and
+--                     guest tokens.
+-- Any set of rows (days, versions) merges into one sketch, so a read costs
+-- O(rows) regardless of how many attempts they summarize.
+----------------------------------------------------------------------
+
+CREATE TABLE quiz_version_sketches (
+    quiz_version_id INT         NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    day             DATE        NOT NULL,
+    quiz_id         INT         NOT NULL,
+    duration_hist   BYTEA,
+    users_hll       BYTEA,
+    guests_hll      BYTEA,
+    updated_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (quiz_version_id, day)
+);
+
+CREATE INDEX idx_quiz_version_sketches_quiz_day
+    ON quiz_version_sketches (quiz_id, day);
+
+
+-- Versions whose attempts submitted before this migration still have to be
+-- summarized. The backend builds their sketches once and deletes the row in
+-- the same transaction; attempts submitted later are recorded live.
+CREATE TABLE quiz_sketch_backfill (
+    quiz_version_id INT         PRIMARY KEY REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    cutoff          TIMESTAMPTZ NOT NULL
+);
+
+INSERT INTO quiz_sketch_backfill (quiz_version_id, cutoff)
+SELECT DISTINCT a.quiz_version_id, now()
+FROM attempts a
+WHERE a.submitted_at IS NOT NULL;
@@ -0,0 +1,97 @@
+----------------------------------------------------------------------
+-- Submit-time recommendation rank
+-- The backend stores each recommendation's position (1 = best score)
+-- when it saves an attempt's recommendations. The top-1 refresh reads the
+-- rank-1 row through a partial index instead of sorting the attempt's
+-- recommendations, and inserts of lower-ranked rows no longer touch
+-- attempt_top_professions at all.
+-- Rows without a rank (other writers) fall back to ordering by score.
+----------------------------------------------------------------------
+
+ALTER TABLE attempt_recommendations ADD COLUMN rank INT;
+
+UPDATE attempt_recommendations ar
+SET rank = r.rn
+FROM (
+    SELECT id,
+           ROW_NUMBER() OVER (
+               PARTITION BY attempt_id
+               ORDER BY score DESC NULLS LAST, profession_id
+               ) AS rn
+    FROM attempt_recommendations
+) r
+WHERE r.id = ar.id;
+
+CREATE INDEX idx_ar_attempt_top1
+    ON attempt_recommendations (attempt_id) INCLUDE (profession_id)
+    WHERE rank = 1;
+
+
+CREATE OR REPLACE FUNCTION analytics_refresh_attempt_top(p_attempt INT)
+RETURNS void AS $$
+DECLARE
+  v_version    INT;
+  v_profession INT;
+BEGIN
+  SELECT a.quiz_version_id INTO v_version
+  FROM attempts a
+  WHERE a.id = p_attempt
+    AND a.submitted_at IS NOT NULL;
+
+  IF v_version IS NOT NULL THEN
+    SELECT ar.profession_id INTO v_profession
+    FROM attempt_recommendations ar
+    WHERE ar.attempt_id = p_attempt
+      AND ar.rank = 1
+    LIMIT 1;
+
+    IF v_profession IS NULL THEN
+      SELECT ar.profession_id INTO v_profession
+      FROM attempt_recommendations ar
+      WHERE ar.attempt_id = p_attempt
+      ORDER BY ar.score DESC NULLS LAST, ar.profession_id
+      LIMIT 1;
+    END IF;
+  END IF;
+
+  IF v_profession IS NULL THEN
+    DELETE FROM attempt_top_professions WHERE attempt_id = p_attempt;
+    RETURN;
+  END IF;
+
+  INSERT INTO attempt_top_professions AS t (attempt_id, quiz_version_id, profession_id)
+  VALUES (p_attempt, v_version, v_profession)
+  ON CONFLICT (attempt_id) DO UPDATE
+  SET quiz_version_id = EXCLUDED.quiz_version_id,
+      profession_id   = EXCLUDED.profession_id
+  WHERE t.profession_id <> EXCLUDED.profession_id
+     OR t.quiz_version_id <> EXCLUDED.quiz_version_id;
+END;
+$$ LANGUAGE plpgsql;
+
+
+-- A ranked row below 1 cannot become the top while the rank-1 row of the
+-- same save exists, so its insert is skipped. Deletes and updates still
+-- refresh: the remaining rows decide the top.
+CREATE OR REPLACE FUNCTION trg_analytics_recommendations()
+RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM analytics_refresh_attempt_top(OLD.attempt_id);
+  END IF;
+  IF TG_OP = 'INSERT' AND NEW.rank > 1 THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.attempt_id <> OLD.attempt_id) THEN
+    PERFORM analytics_refresh_attempt_top(NEW.attempt_id);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_analytics_recommendations ON attempt_recommendations;
+
+CREATE TRIGGER trg_analytics_recommendations
+AFTER INSERT OR DELETE OR UPDATE OF attempt_id, profession_id, score, rank ON attempt_recommendations
+FOR EACH ROW
+EXECUTE FUNCTION trg_analytics_recommendations();
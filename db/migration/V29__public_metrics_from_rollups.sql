@@ -0,0 +1,41 @@
+----------------------------------------------------------------------
+-- Public quiz metrics from rollups
+-- v_quiz_public_metrics aggregated every attempt of every current version
+-- on each read. Attempt counts and the average duration are now taken
+-- from quiz_version_funnel (V24), so a full read costs O(quizzes). The
+-- backend serves the public endpoints from an in-memory snapshot of this
+-- view (PublicMetricsSnapshot).
+----------------------------------------------------------------------
+
+CREATE OR REPLACE VIEW v_quiz_public_metrics AS
+WITH current_version AS (
+  SELECT q.id AS quiz_id, q.code, q.status, q.category_id,
+         q.seconds_per_question_default,
+         qv.id AS quiz_version_id
+  FROM quizzes q
+  JOIN quiz_versions qv ON qv.quiz_id = q.id AND qv.is_current = TRUE
+),
+q_counts AS (
+  SELECT cv.quiz_id, COUNT(*)::int AS questions_total
+  FROM current_version cv
+  JOIN questions qu ON qu.quiz_version_id = cv.quiz_version_id
+  GROUP BY cv.quiz_id
+)
+SELECT
+  cv.quiz_id,
+  cv.code AS quiz_code,
+  cv.status AS quiz_status,
+  cv.category_id,
+  COALESCE(qc.questions_total, 0) AS questions_total,
+  COALESCE(f.attempts_started, 0) AS attempts_total,
+  COALESCE(f.attempts_completed, 0) AS attempts_submitted,
+  f.avg_duration_seconds,
+  CASE
+    WHEN COALESCE(f.attempts_completed, 0) >= 30
+         AND f.avg_duration_seconds IS NOT NULL
+      THEN ROUND(f.avg_duration_seconds)::int
+    ELSE (COALESCE(qc.questions_total, 0) * cv.seconds_per_question_default)::int
+  END AS estimated_duration_seconds
+FROM current_version cv
+LEFT JOIN q_counts qc ON qc.quiz_id = cv.quiz_id
+LEFT JOIN quiz_version_funnel f ON f.quiz_version_id = cv.quiz_version_id;
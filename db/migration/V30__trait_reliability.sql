@@ -0,0 +1,51 @@
+----------------------------------------------------------------------
+-- Trait reliability
+-- Cronbach's alpha per trait and item statistics per (trait, question),
+-- computed by the backend job TraitReliabilityJob in one streaming pass
+-- over the answers of a quiz version. Like quiz_question_discrimination
+-- (V25), a version is recomputed only when its submitted-attempt count
+-- in quiz_version_funnel changes or the values get older than the max age.
+----------------------------------------------------------------------
+
+CREATE TABLE quiz_trait_reliability (
+    quiz_version_id    INT         NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    trait_id           INT         NOT NULL REFERENCES trait_profiles(id) ON DELETE CASCADE,
+    quiz_id            INT         NOT NULL,
+    attempts_submitted INT         NOT NULL,
+    items              INT         NOT NULL,
+    total_mean         NUMERIC,
+    total_variance     NUMERIC,
+    alpha              NUMERIC,
+    alpha_quality      VARCHAR(32) NOT NULL,
+    computed_at        TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (quiz_version_id, trait_id)
+);
+
+CREATE INDEX idx_quiz_trait_reliability_quiz
+    ON quiz_trait_reliability (quiz_id, quiz_version_id);
+
+
+CREATE TABLE quiz_item_reliability (
+    quiz_version_id  INT         NOT NULL REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    trait_id         INT         NOT NULL REFERENCES trait_profiles(id) ON DELETE CASCADE,
+    question_id      INT         NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    quiz_id          INT         NOT NULL,
+    item_mean        NUMERIC,
+    item_variance    NUMERIC,
+    item_total_corr  NUMERIC,
+    alpha_if_deleted NUMERIC,
+    computed_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (quiz_version_id, trait_id, question_id)
+);
+
+CREATE INDEX idx_quiz_item_reliability_quiz
+    ON quiz_item_reliability (quiz_id, quiz_version_id);
+
+
+-- One row per computed version: the submitted-attempt count the stored
+-- values are based on.
+CREATE TABLE quiz_reliability_runs (
+    quiz_version_id    INT         PRIMARY KEY REFERENCES quiz_versions(id) ON DELETE CASCADE,
+    attempts_submitted INT         NOT NULL,
+    computed_at        TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,22 @@
+----------------------------------------------------------------------
+-- Delta exports
+-- GET /api/export/csv/{entity}?since=... reads only the rows changed
+-- after the cursor: quizzes by updated_at, attempts by started_at,
+-- submitted_at or deleted_at (soft-deleted attempts are exported as
+-- tombstones). Each condition gets its own index so the OR can be
+-- answered by a bitmap scan instead of reading the whole table.
+----------------------------------------------------------------------
+
+CREATE INDEX IF NOT EXISTS idx_quizzes_updated_at
+    ON quizzes (updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_attempts_started_at
+    ON attempts (started_at);
+
+CREATE INDEX IF NOT EXISTS idx_attempts_submitted_at
+    ON attempts (submitted_at)
+    WHERE submitted_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_attempts_deleted_at
+    ON attempts (deleted_at)
+    WHERE deleted_at IS NOT NULL;
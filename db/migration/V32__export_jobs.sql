@@ -0,0 +1,31 @@
+----------------------------------------------------------------------
+-- Export jobs
+-- Background exports (POST /api/export/jobs) shared by all replicas.
+-- request_key is the normalized request, so an equal request on any
+-- replica joins the job instead of starting another one; a failed or
+-- expired job is taken over by the next equal request.
+-- The file itself is spooled on the replica in node, which is the only
+-- one that can serve /api/export/jobs/{id}/file.
+----------------------------------------------------------------------
+
+CREATE TABLE export_jobs (
+    id            VARCHAR(36)  PRIMARY KEY,
+    request_key   TEXT         NOT NULL UNIQUE,
+    type          VARCHAR(32)  NOT NULL,
+    status        VARCHAR(16)  NOT NULL,
+    filename      VARCHAR(255) NOT NULL,
+    node          VARCHAR(255) NOT NULL,
+    file_path     TEXT,
+    bytes_written BIGINT       NOT NULL DEFAULT 0,
+    created_at    TIMESTAMPTZ  NOT NULL,
+    started_at    TIMESTAMPTZ,
+    finished_at   TIMESTAMPTZ,
+    error         VARCHAR(255)
+);
+
+CREATE INDEX idx_export_jobs_node
+    ON export_jobs (node);
+
+CREATE INDEX idx_export_jobs_finished_at
+    ON export_jobs (finished_at)
+    WHERE finished_at IS NOT NULL;
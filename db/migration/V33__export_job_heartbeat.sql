@@ -0,0 +1,14 @@
+----------------------------------------------------------------------
+-- Export job leases
+-- The replica that owns a job refreshes heartbeat_at (and bytes_written
+-- while it runs) every export.jobs.heartbeat-interval, for queued,
+-- running and finished jobs alike. A job whose heartbeat is older than
+-- export.jobs.lease belongs to a replica that is gone: an equal request
+-- takes its row over and the cleanup deletes it.
+----------------------------------------------------------------------
+
+ALTER TABLE export_jobs
+    ADD COLUMN heartbeat_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE INDEX idx_export_jobs_heartbeat_at
+    ON export_jobs (heartbeat_at);